@@ -0,0 +1,29 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import java.io.OutputStream;
+
+/**
+ * An output stream discarding its bytes while counting them, so writer
+ * benchmarks measure serialization rather than the disk.
+ * @author rherrera
+ */
+public class DiscardOutputStream extends OutputStream {
+    private long count;
+    /**
+     * Gets the number of bytes written so far.
+     * @return the number of bytes written.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void write(int b) {
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        count += len;
+    }
+}
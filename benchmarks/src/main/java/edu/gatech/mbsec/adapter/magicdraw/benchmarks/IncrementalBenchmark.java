@@ -0,0 +1,83 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ConversionContext;
+import edu.gatech.mbsec.adapter.magicdraw.builder.FingerprintStore;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.builder.OSLC4JMagicDrawApplication;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ProjectReader;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of full conversions against incremental ones reusing the
+ * fingerprints of a previous conversion of the same, unchanged, project. The
+ * project is read with the {@code xmi} reader, so MagicDraw is not needed.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IncrementalBenchmark {
+    /**
+     * The converted project.
+     */
+    @Param({"../src/test/resources/SUV_Example.mdzip"})
+    public String project;
+    /**
+     * Whether the conversion reuses the fingerprints.
+     */
+    @Param({"false", "true"})
+    public boolean incremental;
+
+    private File fingerprints;
+    private ModelDescriptor descriptor;
+
+    @Setup
+    public void setUp() throws Exception {
+        descriptor = new ModelDescriptor();
+        fingerprints = File.createTempFile("benchmark", ".fingerprints");
+        Files.delete(fingerprints.toPath());
+        if (incremental)
+            convert();
+    }
+    /**
+     * Converts the project.
+     * @return the number of statements of the conversion.
+     * @throws Exception if the project cannot be converted.
+     */
+    @Benchmark
+    public long convert() throws Exception {
+        Model model;
+        ConversionContext context = new ConversionContext(descriptor);
+        context.setReader(ProjectReader.xmi);
+        if (incremental)
+            context.setFingerprints(FingerprintStore.open(fingerprints,
+                    descriptor.getVocabBaseURI() + " " + descriptor.getVocabPrefix()));
+        model = OSLC4JMagicDrawApplication.run(project, context);
+        if (incremental)
+            context.getFingerprints().save();
+        return model.size();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(fingerprints.toPath());
+    }
+}
@@ -0,0 +1,54 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLBlock;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.lyo.oslc4j.provider.jena.JenaModelHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the RDF model building of {@link JenaModelHelper} over
+ * synthetic {@link SysMLBlock} resources.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JenaModelHelperBenchmark {
+    /**
+     * The number of blocks.
+     */
+    @Param({"1000", "10000", "100000"})
+    public int blocks;
+
+    private Object[] resources;
+
+    @Setup
+    public void setUp() {
+        resources = SyntheticModels.generateBlocks(new ModelDescriptor(), blocks);
+    }
+    /**
+     * Builds the RDF model of all the blocks at once.
+     * @return the number of statements of the model.
+     * @throws Exception if the model cannot be built.
+     */
+    @Benchmark
+    public long createJenaModel() throws Exception {
+        Model model = JenaModelHelper.createJenaModel(resources);
+        return model.size();
+    }
+}
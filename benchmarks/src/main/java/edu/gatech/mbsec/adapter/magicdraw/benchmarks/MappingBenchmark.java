@@ -0,0 +1,66 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ConversionContext;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.builder.OSLC4JMagicDrawApplication;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the conversion of a project with the {@code magicdraw} reader
+ * and several mapping threads. Unlike the other benchmarks, it loads a real
+ * project, so it needs a MagicDraw installation (and license) on the
+ * classpath; the per-stage times of every conversion, including the
+ * {@code map} stage, are logged by the conversion itself.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MappingBenchmark {
+    /**
+     * The converted project.
+     */
+    @Param({"../src/test/resources/SUV_Example.mdzip"})
+    public String project;
+    /**
+     * The number of mapping threads.
+     */
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+    /**
+     * Converts the project.
+     * @return the number of statements of the conversion.
+     * @throws Exception if the project cannot be converted.
+     */
+    @Benchmark
+    public long convert() throws Exception {
+        Model model = OSLC4JMagicDrawApplication.run(project, new ConversionContext(new ModelDescriptor(), threads));
+        return model.size();
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        OSLC4JMagicDrawApplication.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void finish() {
+        OSLC4JMagicDrawApplication.finish();
+    }
+}
@@ -0,0 +1,77 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+import edu.gatech.mbsec.adapter.magicdraw.builder.MetaInformation;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.builder.Vocabularies;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link MetaInformation#customize(Model, ModelDescriptor)}
+ * over synthetic models. The customized model is a view, so the benchmark
+ * also reads all its statements, as writing it does.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class MetaInformationBenchmark {
+    /**
+     * The number of statements of the synthetic model.
+     */
+    @Param({"10000", "100000", "1000000", "5000000"})
+    public int triples;
+
+    private Model model;
+    private MetaInformation meta;
+    private ModelDescriptor descriptor;
+
+    @Setup
+    public void setUp() {
+        descriptor = new ModelDescriptor();
+        model = SyntheticModels.generate(descriptor, triples);
+        meta = MetaInformation.getInstance(Vocabularies.asProperties(null),
+                "dcterms:title=SUV_Example", "graph=suv");
+    }
+    /**
+     * Customizes the model.
+     * @return the customized model.
+     */
+    @Benchmark
+    public Model customize() {
+        return meta.customize(model, descriptor);
+    }
+    /**
+     * Customizes the model and reads all its statements.
+     * @return the number of statements read.
+     */
+    @Benchmark
+    public long customizeAndRead() {
+        long statements = 0;
+        StmtIterator iterator = meta.customize(model, descriptor).listStatements();
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+                statements++;
+            }
+        } finally {
+            iterator.close();
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,57 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.builder.QualifiedNameEncoder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the resource URIs built by {@link ModelDescriptor#resource(String, String)}.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelDescriptorBenchmark {
+    /**
+     * The number of resource URIs.
+     */
+    @Param({"10000"})
+    public int resources;
+
+    private String[] types;
+    private String[] ids;
+    private ModelDescriptor descriptor;
+
+    @Setup
+    public void setUp() {
+        types = SyntheticModels.getTypes();
+        ids = new String[resources];
+        for (int i = 0; i < resources; i++)
+            ids[i] = "SUV_Example" + QualifiedNameEncoder.encode(SyntheticModels.getQualifiedName(i));
+        descriptor = new ModelDescriptor();
+    }
+    /**
+     * Builds the URIs of all the resources.
+     * @param hole the consumer of the URIs.
+     */
+    @Benchmark
+    public void resource(Blackhole hole) {
+        for (int i = 0; i < ids.length; i++)
+            hole.consume(descriptor.resource(types[i % types.length], ids[i]));
+    }
+}
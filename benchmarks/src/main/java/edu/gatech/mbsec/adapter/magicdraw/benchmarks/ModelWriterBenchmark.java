@@ -0,0 +1,83 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.writer.PartitionedTripleWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.ResourceStreamWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.StreamModelWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjena.riot.Lang;
+
+/**
+ * Benchmarks of the model writers over synthetic models: the
+ * {@link StreamModelWriter} in every output language, and the N-Triples
+ * writers streaming resources or encoding partitions in parallel. Outputs
+ * are discarded, so the benchmarks measure serialization only.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ModelWriterBenchmark {
+    /**
+     * The URI of the graph of N-Quads statements.
+     */
+    private static final String GRAPH = "http://localhost:8080/rest/container/suv";
+    /**
+     * The number of statements of the synthetic model.
+     */
+    @Param({"100000", "1000000"})
+    public int triples;
+    /**
+     * The writer: the {@link StreamModelWriter} in a language, or the
+     * {@link ResourceStreamWriter} ({@code N-Triples-Resources}) or the
+     * {@link PartitionedTripleWriter} ({@code N-Triples-Partitioned}).
+     */
+    @Param({"RDF/XML", "Turtle", "N-Triples", "N-Triples-Resources", "N-Triples-Partitioned"})
+    public String writer;
+
+    private Model model;
+
+    @Setup
+    public void setUp() {
+        model = SyntheticModels.generate(new ModelDescriptor(), triples);
+    }
+    /**
+     * Writes the model.
+     * @return the number of bytes written.
+     * @throws IOException if the model cannot be written.
+     */
+    @Benchmark
+    public long write() throws IOException {
+        DiscardOutputStream output = new DiscardOutputStream();
+        switch (writer) {
+            case "N-Triples-Resources":
+                try (ResourceStreamWriter resources = new ResourceStreamWriter(output, GRAPH)) {
+                    resources.write(model, Lang.NTRIPLES);
+                }
+                break;
+            case "N-Triples-Partitioned":
+                new PartitionedTripleWriter(output, GRAPH, Runtime.getRuntime().availableProcessors())
+                        .write(model, Lang.NTRIPLES);
+                break;
+            default:
+                new StreamModelWriter(output).write(model, Lang.get(writer));
+        }
+        return output.getCount();
+    }
+}
@@ -0,0 +1,103 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.writer.PartitionedTripleWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.ResourceStreamWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjena.riot.Lang;
+
+/**
+ * Benchmark of the {@link PartitionedTripleWriter} over synthetic models,
+ * scaling the number of partitions (and encoding threads) against the single
+ * threaded {@link ResourceStreamWriter}. The statements are written into a
+ * discarded output, or into files of a temporary directory: a single file,
+ * or a shard file per partition. Run it on a host with as many cores as the
+ * largest number of partitions.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PartitionedTripleWriterBenchmark {
+    /**
+     * The URI of the graph of N-Quads statements.
+     */
+    private static final String GRAPH = "http://localhost:8080/rest/container/suv";
+    /**
+     * The number of statements of the synthetic model.
+     */
+    @Param({"1000000"})
+    public int triples;
+    /**
+     * The number of partitions; {@code 0} for the single threaded
+     * {@link ResourceStreamWriter}.
+     */
+    @Param({"0", "1", "2", "4", "8", "16", "32"})
+    public int partitions;
+    /**
+     * The target: a discarded {@code output}, or a {@code directory}.
+     */
+    @Param({"output", "directory"})
+    public String target;
+    /**
+     * The output language.
+     */
+    @Param({"N-Triples"})
+    public String language;
+
+    private Model model;
+    private File directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        model = SyntheticModels.generate(new ModelDescriptor(), triples);
+        directory = Files.createTempDirectory("benchmark").toFile();
+    }
+    /**
+     * Writes the model.
+     * @throws IOException if the model cannot be written.
+     */
+    @Benchmark
+    public void write() throws IOException {
+        boolean discarded = "output".equals(target);
+        if (partitions == 0) {
+            try (ResourceStreamWriter resources = new ResourceStreamWriter(discarded ? new DiscardOutputStream()
+                    : new FileOutputStream(new File(directory, "model.nt")), GRAPH)) {
+                resources.write(model, Lang.get(language));
+            }
+        } else if (discarded) {
+            new PartitionedTripleWriter(new DiscardOutputStream(), GRAPH, partitions).write(model, Lang.get(language));
+        } else {
+            new PartitionedTripleWriter(directory, GRAPH, partitions).write(model, Lang.get(language));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        File[] files = directory.listFiles();
+        if (files != null)
+            for (File file : files)
+                Files.delete(file.toPath());
+        Files.delete(directory.toPath());
+    }
+}
@@ -0,0 +1,82 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generator of synthetic MagicDraw elements, replacing the proprietary
+ * MagicDraw runtime: an element is a proxy of the MagicDraw API interfaces
+ * answering a fixed set of properties by method name, so no project needs to
+ * be loaded. Elements are equal only to themselves, as MagicDraw ones.
+ * @author rherrera
+ */
+public final class SyntheticElements {
+    /**
+     * The answers of a synthetic element, by method name.
+     */
+    private static class Answers implements InvocationHandler {
+        private final Map<String, Object> answers;
+        /**
+         * Constructs an instance specifying the answers.
+         * @param answers the answers, by method name.
+         */
+        Answers(Map<String, Object> answers) {
+            this.answers = answers;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("equals") && args != null && args.length == 1)
+                return proxy == args[0];
+            if (name.equals("hashCode") && args == null)
+                return System.identityHashCode(proxy);
+            if (name.equals("toString") && args == null)
+                return "synthetic " + answers.get("getID");
+            if (answers.containsKey(name))
+                return answers.get(name);
+            if (method.getReturnType() == boolean.class)
+                return false;
+            if (method.getReturnType().isPrimitive() && method.getReturnType() != void.class)
+                return 0;
+            return null;
+        }
+    }
+
+    private SyntheticElements() {
+    }
+    /**
+     * Creates a synthetic element.
+     * @param <T> the element type.
+     * @param type the MagicDraw API interface of the element.
+     * @param answers the element properties, by getter method name (e.g.
+     * {@code getName}); other getters answer {@code null}, {@code false} or
+     * zero.
+     * @return the synthetic element.
+     */
+    public static <T> T create(Class<T> type, Map<String, Object> answers) {
+        return type.cast(Proxy.newProxyInstance(SyntheticElements.class.getClassLoader(),
+                new Class<?>[]{type}, new Answers(new HashMap<>(answers))));
+    }
+    /**
+     * Creates synthetic named elements with the qualified names of
+     * {@link SyntheticModels#getQualifiedName(int)}.
+     * @param count the number of elements.
+     * @return the synthetic named elements.
+     */
+    public static NamedElement[] createNamedElements(int count) {
+        Map<String, Object> answers = new HashMap<>();
+        NamedElement[] elements = new NamedElement[count];
+        for (int i = 0; i < count; i++) {
+            answers.put("getID", "_18_0_6_" + Integer.toHexString(i));
+            answers.put("getName", "Element\n" + i);
+            answers.put("getQualifiedName", SyntheticModels.getQualifiedName(i));
+            elements[i] = create(NamedElement.class, answers);
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,132 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.vocabulary.DCTerms;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.builder.QualifiedNameEncoder;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLBlock;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.eclipse.lyo.oslc4j.core.model.Link;
+
+/**
+ * Generator of synthetic RDF models shaped like the conversion outputs:
+ * typed resources under the descriptor resource paths, with a title, a
+ * qualified name, an owner and links to other resources. The generation is
+ * deterministic, so every benchmark run gets the same model.
+ * @author rherrera
+ */
+public final class SyntheticModels {
+    /**
+     * The resource types (URI path parts).
+     */
+    private static final String[] TYPES = {"blocks", "requirements", "packages",
+        "partproperties", "ports", "connectors", "valuetypes"};
+    /**
+     * The seed of the generation.
+     */
+    private static final long SEED = 20171018L;
+
+    private SyntheticModels() {
+    }
+    /**
+     * Gets the resource types of the synthetic models.
+     * @return the resource types (URI path parts).
+     */
+    public static String[] getTypes() {
+        return TYPES.clone();
+    }
+    /**
+     * Gets the qualified name of a synthetic element, with spaces and line
+     * breaks as MagicDraw names often have.
+     * @param index the element index.
+     * @return the qualified name of the element.
+     */
+    public static String getQualifiedName(int index) {
+        return "Model::Package " + (index / 100) + "::Element\n" + index;
+    }
+    /**
+     * Generates a synthetic model.
+     * @param descriptor the model building descriptor of the resource URIs.
+     * @param triples the (minimum) number of statements of the model.
+     * @return the synthetic model, having at least {@code triples}
+     * statements.
+     */
+    public static Model generate(ModelDescriptor descriptor, int triples) {
+        int index = 0;
+        Resource resource;
+        Random random = new Random(SEED);
+        Model model = ModelFactory.createDefaultModel();
+        List<Resource> resources = new ArrayList<>();
+        Property owner = descriptor.property("owner");
+        Property name = descriptor.property("qualifiedName");
+        Property[] links = {descriptor.property("partProperties"), descriptor.property("satisfies"),
+            descriptor.property("connectors")};
+        model.setNsPrefixes(descriptor.getVocabPrefixes());
+        while (model.size() < triples) {
+            resource = descriptor.resource(TYPES[index % TYPES.length],
+                    "SUV_Example" + QualifiedNameEncoder.encode(getQualifiedName(index)), model);
+            resource.addProperty(DCTerms.title, "Element " + index);
+            resource.addProperty(name, getQualifiedName(index));
+            if (!resources.isEmpty()) {
+                resource.addProperty(owner, resources.get(random.nextInt(resources.size())));
+                for (int i = 0; i < 4; i++)
+                    resource.addProperty(links[random.nextInt(links.length)],
+                            resources.get(random.nextInt(resources.size())));
+            }
+            resources.add(resource);
+            index++;
+        }
+        return model;
+    }
+    /**
+     * Generates synthetic SysML blocks, as mapped from a project: every
+     * block has a name, a URI and links to part properties, ports and
+     * satisfied requirements.
+     * @param descriptor the model building descriptor of the resource URIs.
+     * @param count the number of blocks.
+     * @return the synthetic blocks.
+     */
+    public static SysMLBlock[] generateBlocks(ModelDescriptor descriptor, int count) {
+        Random random = new Random(SEED);
+        SysMLBlock[] blocks = new SysMLBlock[count];
+        for (int i = 0; i < count; i++) {
+            blocks[i] = new SysMLBlock();
+            blocks[i].setName("Element " + i);
+            blocks[i].setAbout(getURI(descriptor, "blocks", i));
+            blocks[i].setPartProperties(getLinks(descriptor, "partproperties", random, 4));
+            blocks[i].setPorts(getLinks(descriptor, "ports", random, 2));
+            blocks[i].setSatisfies(getLinks(descriptor, "requirements", random, 2));
+        }
+        return blocks;
+    }
+    /**
+     * Gets the URI of a synthetic resource.
+     * @param descriptor the model building descriptor of the resource URIs.
+     * @param type the resource type (URI path part).
+     * @param index the element index.
+     * @return the resource URI.
+     */
+    private static URI getURI(ModelDescriptor descriptor, String type, int index) {
+        return URI.create(descriptor.resource(type, "SUV_Example" + QualifiedNameEncoder.encode(getQualifiedName(index))));
+    }
+    /**
+     * Gets links to random synthetic resources.
+     * @param descriptor the model building descriptor of the resource URIs.
+     * @param type the linked resources type (URI path part).
+     * @param random the source of the linked resources.
+     * @param count the number of links.
+     * @return the links.
+     */
+    private static Link[] getLinks(ModelDescriptor descriptor, String type, Random random, int count) {
+        Link[] links = new Link[count];
+        for (int i = 0; i < count; i++)
+            links[i] = new Link(getURI(descriptor, type, random.nextInt(100000)));
+        return links;
+    }
+}
@@ -0,0 +1,71 @@
+package edu.gatech.mbsec.adapter.magicdraw.benchmarks;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
+import edu.gatech.mbsec.adapter.magicdraw.writer.StreamModelWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.TurtleStreamWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjena.riot.Lang;
+
+/**
+ * Benchmark of the {@link TurtleStreamWriter} against the Jena Turtle writer
+ * over large synthetic models, both given to a {@link StreamModelWriter} as
+ * the {@code Turtle-Streaming} and {@code Turtle} targets are. Outputs are
+ * discarded, so the benchmark measures serialization only; run it with
+ * {@code -prof gc} to compare the allocations too.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TurtleStreamWriterBenchmark {
+    /**
+     * The number of statements of the synthetic model.
+     */
+    @Param({"1000000", "2000000"})
+    public int triples;
+    /**
+     * The format: {@code Turtle} for the Jena writer, or
+     * {@code Turtle-Streaming}.
+     */
+    @Param({"Turtle", TurtleStreamWriter.FORMAT})
+    public String format;
+
+    private Model model;
+    private ModelDescriptor descriptor;
+
+    @Setup
+    public void setUp() {
+        descriptor = new ModelDescriptor();
+        model = SyntheticModels.generate(descriptor, triples);
+    }
+    /**
+     * Writes the model.
+     * @return the number of bytes written.
+     * @throws IOException if the model cannot be written.
+     */
+    @Benchmark
+    public long write() throws IOException {
+        DiscardOutputStream output = new DiscardOutputStream();
+        StreamModelWriter writer = new StreamModelWriter(output);
+        if (TurtleStreamWriter.FORMAT.equals(format))
+            writer.setSerializer(new TurtleStreamWriter(descriptor.getVocabPrefixes()));
+        writer.write(model, Lang.TURTLE);
+        return output.getCount();
+    }
+}
@@ -0,0 +1,249 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Classifier;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DirectedRelationship;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.InstanceSpecification;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
+import edu.gatech.mbsec.adapter.magicdraw.benchmarks.SyntheticElements;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.lyo.oslc4j.core.model.Link;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the links building over a synthetic relationship-heavy model:
+ * every element owns stereotyped attributes and is the source and target of
+ * several satisfy, derive, refine and copy relationships. The links are built
+ * as the mapping methods did before {@link LinkBuffer} and
+ * {@link DirectedLinkIndex} (counting first, copying the matching
+ * relationships, and reading the stereotype name twice) and as they do now.
+ * Run it with {@code -prof gc} to compare the allocations per operation. It
+ * lives in the builder package to use both utilities as the mapping does.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBuildingBenchmark {
+    /**
+     * The stereotypes of the directed relationships.
+     */
+    private static final List<String> RELATIONSHIPS = Arrays.asList("Satisfy", "DeriveReqt", "Refine", "Copy");
+    /**
+     * The stereotypes of the owned attributes.
+     */
+    private static final String[] ATTRIBUTES = {"PartProperty", "ValueProperty", "FlowProperty", "Port"};
+    /**
+     * The number of elements.
+     */
+    @Param({"2000"})
+    public int elements;
+    /**
+     * The number of directed relationships per element.
+     */
+    @Param({"8"})
+    public int relationships;
+    /**
+     * The number of owned attributes per element.
+     */
+    @Param({"20"})
+    public int attributes;
+
+    private NamedElement[] named;
+    private Map<Element, List<NamedElement>> owned;
+    private Collection<DirectedRelationship> directed;
+    private QualifiedNameEncoder encoder;
+    private DirectedLinkIndex index;
+
+    /**
+     * Creates a synthetic stereotype application.
+     * @param stereotype the stereotype name.
+     * @return the stereotype instance.
+     */
+    private static InstanceSpecification stereotype(String stereotype) {
+        Map<String, Object> answers = new HashMap<>();
+        answers.put("getName", stereotype);
+        Classifier classifier = SyntheticElements.create(Classifier.class, answers);
+        answers.clear();
+        answers.put("getClassifier", Collections.singletonList(classifier));
+        return SyntheticElements.create(InstanceSpecification.class, answers);
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(20171018L);
+        Map<String, Object> answers = new HashMap<>();
+        Map<String, InstanceSpecification> stereotypes = new HashMap<>();
+        Map<Element, List<DirectedRelationship>> sources = new HashMap<>();
+        Map<Element, List<DirectedRelationship>> targets = new HashMap<>();
+        for (String name : RELATIONSHIPS)
+            stereotypes.put(name, stereotype(name));
+        for (String name : ATTRIBUTES)
+            stereotypes.put(name, stereotype(name));
+        named = new NamedElement[elements];
+        owned = new HashMap<>();
+        directed = new ArrayList<>();
+        for (int i = 0; i < elements; i++) {
+            List<DirectedRelationship> outgoing = new ArrayList<>();
+            List<DirectedRelationship> incoming = new ArrayList<>();
+            answers.clear();
+            answers.put("getID", "_element_" + i);
+            answers.put("getName", "Element\n" + i);
+            answers.put("getQualifiedName", "Model::Package " + (i / 100) + "::Element\n" + i);
+            answers.put("get_directedRelationshipOfSource", outgoing);
+            answers.put("get_directedRelationshipOfTarget", incoming);
+            named[i] = SyntheticElements.create(NamedElement.class, answers);
+            sources.put(named[i], outgoing);
+            targets.put(named[i], incoming);
+            List<NamedElement> attributes = new ArrayList<>();
+            for (int j = 0; j < this.attributes; j++) {
+                answers.clear();
+                answers.put("getID", "_attribute_" + i + "_" + j);
+                answers.put("getName", "attribute " + j);
+                answers.put("getQualifiedName", "Model::Package " + (i / 100) + "::Element\n" + i + "::attribute " + j);
+                answers.put("getAppliedStereotypeInstance", stereotypes.get(ATTRIBUTES[j % ATTRIBUTES.length]));
+                attributes.add(SyntheticElements.create(NamedElement.class, answers));
+            }
+            owned.put(named[i], attributes);
+        }
+        for (int i = 0; i < elements * relationships; i++) {
+            NamedElement source = named[random.nextInt(elements)];
+            NamedElement target = named[random.nextInt(elements)];
+            answers.clear();
+            answers.put("getAppliedStereotypeInstance", stereotypes.get(RELATIONSHIPS.get(i % RELATIONSHIPS.size())));
+            answers.put("getSource", Collections.<Element>singletonList(source));
+            answers.put("getTarget", Collections.<Element>singletonList(target));
+            DirectedRelationship relationship = SyntheticElements.create(DirectedRelationship.class, answers);
+            sources.get(source).add(relationship);
+            targets.get(target).add(relationship);
+            directed.add(relationship);
+        }
+        ConversionContext context = new ConversionContext(new ModelDescriptor());
+        context.projectId = "SUV_Example";
+        encoder = new QualifiedNameEncoder(context);
+        try {
+            index = DirectedLinkIndex.build(directed, RELATIONSHIPS, element -> encoder.getURI("blocks", element));
+        } catch(URISyntaxException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    /**
+     * Builds the attribute links by counting the matching attributes first,
+     * then populating an array of that size.
+     * @param hole the consumer of the links.
+     */
+    @Benchmark
+    public void attributesTwoPasses(Blackhole hole) {
+        for (NamedElement element : named)
+            for (String stereotype : ATTRIBUTES) {
+                int count = 0;
+                Collection<NamedElement> attributes = owned.get(element);
+                for (NamedElement attribute : attributes)
+                    if (attribute.getAppliedStereotypeInstance() != null
+                            && attribute.getAppliedStereotypeInstance().getClassifier().get(0).getName().equals(stereotype))
+                        count++;
+                Link[] links = count > 0 ? new Link[count] : null;
+                int index = 0;
+                for (NamedElement attribute : attributes)
+                    if (attribute.getAppliedStereotypeInstance() != null
+                            && attribute.getAppliedStereotypeInstance().getClassifier().get(0).getName().equals(stereotype))
+                        links[index++] = new Link(encoder.getURI("properties", attribute));
+                hole.consume(links);
+            }
+    }
+    /**
+     * Builds the attribute links in a single pass through the thread buffer.
+     * @param hole the consumer of the links.
+     */
+    @Benchmark
+    public void attributesBuffer(Blackhole hole) {
+        for (NamedElement element : named)
+            for (String stereotype : ATTRIBUTES) {
+                LinkBuffer links = LinkBuffer.get();
+                for (NamedElement attribute : owned.get(element)) {
+                    InstanceSpecification instance = attribute.getAppliedStereotypeInstance();
+                    if (instance != null && instance.getClassifier().get(0).getName().equals(stereotype))
+                        links.add(encoder.getURI("properties", attribute));
+                }
+                hole.consume(links.toArray());
+            }
+    }
+    /**
+     * Builds the directed links of every element by scanning its
+     * relationships per stereotype and direction, copying the matching ones
+     * into a list first.
+     * @param hole the consumer of the links.
+     */
+    @Benchmark
+    public void relationshipsScan(Blackhole hole) {
+        for (NamedElement element : named)
+            for (String stereotype : RELATIONSHIPS)
+                for (boolean isElementSource : new boolean[]{true, false}) {
+                    Collection<DirectedRelationship> all = isElementSource
+                            ? element.get_directedRelationshipOfSource() : element.get_directedRelationshipOfTarget();
+                    Collection<DirectedRelationship> ofType = new ArrayList<>();
+                    for (DirectedRelationship relationship : all)
+                        if (relationship.getAppliedStereotypeInstance().getClassifier().get(0).getName().equals(stereotype))
+                            ofType.add(relationship);
+                    Link[] links = ofType.isEmpty() ? null : new Link[ofType.size()];
+                    int index = 0;
+                    for (DirectedRelationship relationship : ofType)
+                        for (Element linked : isElementSource ? relationship.getTarget() : relationship.getSource())
+                            if (linked instanceof NamedElement)
+                                links[index++] = new Link(encoder.getURI("blocks", (NamedElement) linked));
+                    hole.consume(links);
+                }
+    }
+    /**
+     * Builds the index of the directed relationships, as a conversion does
+     * once, and then looks up the directed links of every element.
+     * @param hole the consumer of the links.
+     * @throws URISyntaxException if a linked URI is not valid.
+     */
+    @Benchmark
+    public void relationshipsIndex(Blackhole hole) throws URISyntaxException {
+        DirectedLinkIndex index = DirectedLinkIndex.build(directed, RELATIONSHIPS,
+                element -> encoder.getURI("blocks", element));
+        for (NamedElement element : named)
+            for (String stereotype : RELATIONSHIPS) {
+                hole.consume(index.getLinks(element, stereotype, true));
+                hole.consume(index.getLinks(element, stereotype, false));
+            }
+    }
+    /**
+     * Looks up the directed links of every element in an index built once
+     * beforehand, leaving out the cost of building it.
+     * @param hole the consumer of the links.
+     */
+    @Benchmark
+    public void relationshipsLookup(Blackhole hole) {
+        for (NamedElement element : named)
+            for (String stereotype : RELATIONSHIPS) {
+                hole.consume(index.getLinks(element, stereotype, true));
+                hole.consume(index.getLinks(element, stereotype, false));
+            }
+    }
+}
@@ -0,0 +1,88 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
+import edu.gatech.mbsec.adapter.magicdraw.benchmarks.SyntheticElements;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the resource URIs built by {@link QualifiedNameEncoder} over
+ * synthetic elements, against the regular expressions pipeline it replaced.
+ * It lives in the encoder package to build encoders as conversions do.
+ * @author rherrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QualifiedNameEncoderBenchmark {
+    /**
+     * The number of encoded elements.
+     */
+    @Param({"10000"})
+    public int elements;
+    /**
+     * The number of times every element URI is built, as a resource and
+     * then as the target of links.
+     */
+    @Param({"1", "4"})
+    public int uses;
+
+    private NamedElement[] named;
+    private ConversionContext context;
+
+    @Setup
+    public void setUp() {
+        named = SyntheticElements.createNamedElements(elements);
+        context = new ConversionContext(new ModelDescriptor());
+        context.projectId = "SUV_Example";
+    }
+    /**
+     * Builds the URIs of all the elements with a new encoder, as a conversion
+     * does.
+     * @param hole the consumer of the URIs.
+     */
+    @Benchmark
+    public void getURI(Blackhole hole) {
+        QualifiedNameEncoder encoder = new QualifiedNameEncoder(context);
+        for (int i = 0; i < uses; i++)
+            for (NamedElement element : named)
+                hole.consume(encoder.getURI("blocks", element));
+    }
+    /**
+     * Encodes the qualified names of all the elements without memoizing.
+     * @param hole the consumer of the encoded names.
+     */
+    @Benchmark
+    public void encode(Blackhole hole) {
+        for (int i = 0; i < uses; i++)
+            for (NamedElement element : named)
+                hole.consume(QualifiedNameEncoder.encode(element.getQualifiedName()));
+    }
+    /**
+     * Builds the URIs of all the elements as mapping methods did before the
+     * encoder: two regular expressions and a new URI on every use.
+     * @param hole the consumer of the URIs.
+     */
+    @Benchmark
+    public void stringPipeline(Blackhole hole) {
+        for (int i = 0; i < uses; i++)
+            for (NamedElement element : named)
+                hole.consume(URI.create(context.descriptor.resource("blocks", context.projectId
+                        + element.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+    }
+}
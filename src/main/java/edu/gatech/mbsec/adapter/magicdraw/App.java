@@ -34,7 +34,7 @@ public class App {
      * Gets the {@link Options} supported by this app.
      * @return options supported by this app.
      */
-    private static Options getOptions() {
+    static Options getOptions() {
         Option.Builder builder;
         Options options = new Options();
         for (Args arg : Args.values()) {
@@ -10,9 +10,13 @@ public enum Args {
      */
     help("prints this file", false),
     /**
-     * The mandatory input mdzip file.
+     * The input mdzip file.
      */
-    mdzip("mandatory mdzip input file", true, "file"),
+    mdzip("mdzip input file (mandatory unless -batch is used)", false, "file"),
+    /**
+     * The batch of input mdzip files.
+     */
+    batch("directory, glob pattern or manifest of mdzip input files", false, "dir|glob|file"),
     /**
      * The vocabulary path prefix.
      */
@@ -36,11 +40,71 @@ public enum Args {
     /**
      * The RDF format.
      */
-    format("output format (Turtle by default)", false, "format"),
+    format("output format (Turtle by default); repeat it to give each -target its own", false, "format"),
+    /**
+     * The streaming mode.
+     */
+    stream("writes each resource as soon as it is converted (N-Triples and N-Quads only)", false),
+    /**
+     * The HTTP upload compression.
+     */
+    compress("compresses the uploads to URL targets with gzip", false),
+    /**
+     * The size of the HTTP upload batches.
+     */
+    batchsize("uploads to URL targets in resumable batches of n statements", false, "n"),
+    /**
+     * The size of the HTTP upload batches in bytes.
+     */
+    batchbytes("uploads to URL targets in resumable batches of at most MB megabytes of N-Triples", false, "MB"),
+    /**
+     * The number of concurrent HTTP batch uploads.
+     */
+    uploads("number of concurrent batch uploads (4 by default)", false, "n"),
+    /**
+     * The diagram images directory.
+     */
+    images("exports the block and internal block diagram images into dir", false, "dir"),
+    /**
+     * The baseline of the patch mode.
+     */
+    patch("writes the changes since the previous output kept in file as a SPARQL Update", false, "file"),
+    /**
+     * The project reader.
+     */
+    reader("project reader: magicdraw (default) or xmi (reads the mdzip XMI without starting MagicDraw)", false, "name"),
+    /**
+     * The result cache directory.
+     */
+    cache("reuses the output and resource classes cached in dir while the input and options do not change", false, "dir"),
+    /**
+     * The result cache size.
+     */
+    cachesize("maximum size of the -cache directory in MB (1024 by default)", false, "MB"),
+    /**
+     * The number of mapping threads.
+     */
+    threads("number of threads mapping the model elements (1 by default; more is experimental)", false, "n"),
+    /**
+     * The incremental conversion mode.
+     */
+    incremental("reuses the resources unchanged since the previous conversion (file targets only)", false),
+    /**
+     * The conversion stages timing report.
+     */
+    timings("reports the time spent on each conversion stage", false),
+    /**
+     * The daemon mode.
+     */
+    serve("runs a conversion daemon on the loopback port, keeping MagicDraw started", false, "port"),
+    /**
+     * The daemon client mode.
+     */
+    daemon("sends the conversion to the daemon on the loopback port", false, "port"),
     /**
      * The output target.
      */
-    target("output target (console by default)", false, "file|url");
+    target("output target (console by default; a directory with -batch; tdb:dir for a TDB dataset); repeatable", false, "file|url|dir");
     /**
      * Argument's description.
      */
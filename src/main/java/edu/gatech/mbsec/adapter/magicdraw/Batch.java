@@ -0,0 +1,204 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjena.riot.Lang;
+
+/**
+ * A batch of mdzip files to convert within the same execution.
+ * @author rherrera
+ */
+public class Batch {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(Batch.class.getName());
+    /**
+     * The extension of the MagicDraw project files.
+     */
+    private static final String MDZIP_EXTENSION = ".mdzip";
+    /**
+     * Gets the mdzip files denoted by a batch specification.
+     * @param specification a directory (whose mdzip files are taken), a glob
+     * pattern (e.g. {@code models/**}{@code /*.mdzip}) or a manifest file
+     * listing one mdzip file per line.
+     * @return the mdzip files of the batch, sorted by path.
+     * @throws IOException if the files cannot be listed.
+     */
+    public static List<Path> getInputs(String specification) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        Path path = isGlob(specification) ? null : Paths.get(specification);
+        if (path == null) {
+            inputs.addAll(match(specification));
+        } else if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "*" + MDZIP_EXTENSION)) {
+                for (Path file : files)
+                    inputs.add(file);
+            }
+        } else if (Files.isRegularFile(path)) {
+            if (path.toString().endsWith(MDZIP_EXTENSION))
+                inputs.add(path);
+            else
+                inputs.addAll(read(path));
+        } else
+            throw new IllegalArgumentException("batch input not found: " + specification);
+        if (inputs.isEmpty())
+            throw new IllegalArgumentException("no mdzip files found for batch: " + specification);
+        Collections.sort(inputs);
+        return inputs;
+    }
+    /**
+     * Determines whether a batch specification is a glob pattern.
+     * @param specification the batch specification.
+     * @return {@code true} if the specification has glob special characters;
+     * {@code false} otherwise.
+     */
+    private static boolean isGlob(String specification) {
+        for (char c : "*?[{".toCharArray())
+            if (specification.indexOf(c) >= 0)
+                return true;
+        return false;
+    }
+    /**
+     * Gets the files matching a glob pattern. The pattern is evaluated from
+     * its longest directory prefix without special characters.
+     * @param glob the glob pattern.
+     * @return the files matching the pattern.
+     * @throws IOException if the files cannot be listed.
+     */
+    private static List<Path> match(String glob) throws IOException {
+        Path base;
+        PathMatcher matcher;
+        String normalized = glob.replace('\\', '/');
+        int special = normalized.length();
+        for (char c : "*?[{".toCharArray())
+            if (normalized.indexOf(c) >= 0)
+                special = Math.min(special, normalized.indexOf(c));
+        int index = normalized.lastIndexOf('/', special);
+        base = Paths.get(index < 0 ? "." : normalized.substring(0, index + 1));
+        matcher = FileSystems.getDefault().getPathMatcher("glob:" + normalized.substring(index + 1));
+        try (Stream<Path> files = Files.walk(base)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> matcher.matches(base.relativize(file)))
+                    .collect(Collectors.toList());
+        }
+    }
+    /**
+     * Reads the mdzip files listed on a manifest file. Blank lines and lines
+     * starting with {@code #} are ignored; relative paths are resolved
+     * against the manifest's directory.
+     * @param manifest the manifest file.
+     * @return the listed files.
+     * @throws IOException if the manifest cannot be read.
+     */
+    private static List<Path> read(Path manifest) throws IOException {
+        Path parent = manifest.toAbsolutePath().getParent();
+        List<Path> inputs = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#"))
+                inputs.add(parent.resolve(line));
+        }
+        return inputs;
+    }
+    /**
+     * Gets the usual file extension of an RDF language.
+     * @param language the RDF language.
+     * @return the file extension, including the leading dot.
+     */
+    public static String getExtension(Lang language) {
+        switch (language) {
+            case RDFXML: return ".rdf";
+            case NTRIPLES: return ".nt";
+            case N3: return ".n3";
+            case RDFJSON: return ".rj";
+            case NQUADS: return ".nq";
+            case TRIG: return ".trig";
+            default: return ".ttl";
+        }
+    }
+    /**
+     * Gets the output file of an input file.
+     * @param input the mdzip input file.
+     * @param directory the output directory; {@code null} for the input's one.
+     * @param language the output language.
+     * @return the output file.
+     */
+    public static File getOutput(Path input, File directory, Lang language) {
+        String name = input.getFileName().toString();
+        if (name.endsWith(MDZIP_EXTENSION))
+            name = name.substring(0, name.length() - MDZIP_EXTENSION.length());
+        if (directory == null)
+            directory = input.toAbsolutePath().getParent().toFile();
+        return new File(directory, name + getExtension(language));
+    }
+    /**
+     * The conversion report of a batch.
+     */
+    public static class Report {
+        /**
+         * The lines of this report, one per input file.
+         */
+        private final List<String> lines = new ArrayList<>();
+        /**
+         * The number of failed conversions.
+         */
+        private int failures;
+        /**
+         * The accumulated conversion time.
+         */
+        private long elapsed;
+        /**
+         * Records a successful conversion.
+         * @param input the converted file.
+         * @param output the output file.
+         * @param millis the conversion time in milliseconds.
+         */
+        public void success(Path input, File output, long millis) {
+            elapsed += millis;
+            lines.add(String.format("OK     %8d ms  %s -> %s", millis, input, output));
+        }
+        /**
+         * Records a failed conversion.
+         * @param input the file that failed.
+         * @param cause the cause of the failure.
+         * @param millis the time until the failure in milliseconds.
+         */
+        public void failure(Path input, Exception cause, long millis) {
+            failures++;
+            elapsed += millis;
+            lines.add(String.format("FAILED %8d ms  %s (%s)", millis, input, cause));
+        }
+        /**
+         * Gets the number of failed conversions.
+         * @return the number of failed conversions.
+         */
+        public int getFailures() {
+            return failures;
+        }
+        /**
+         * Logs this report.
+         */
+        public void log() {
+            StringBuilder report = new StringBuilder("Batch report:");
+            for (String line : lines)
+                report.append('\n').append(line);
+            LOG.log(Level.INFO, "{0}\n{1} converted, {2} failed in {3} ms",
+                    new Object[]{report, lines.size() - failures, failures, elapsed});
+        }
+    }
+}
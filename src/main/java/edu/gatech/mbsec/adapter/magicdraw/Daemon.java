@@ -0,0 +1,413 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import edu.gatech.mbsec.adapter.magicdraw.writer.TdbModelWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.ParseException;
+
+/**
+ * A conversion daemon listening on a loopback port, so MagicDraw is started
+ * once and kept running across conversions. Jobs are the console arguments
+ * of a conversion, one per line, posted to {@code /convert}; they are queued
+ * and run one at a time, as MagicDraw converts one project at a time. Jobs
+ * without target get their output streamed back as a chunked response body
+ * while it is written. The daemon also answers {@code GET /health} and {@code GET /queue}, and stops
+ * on {@code POST /shutdown}.
+ * @author rherrera
+ */
+public class Daemon {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(Daemon.class.getName());
+    /**
+     * The arguments not allowed within jobs.
+     */
+    private static final Set<String> DAEMON_ARGS = new HashSet<>(Arrays.asList(
+            Args.serve.name(), Args.daemon.name(), Args.help.name()));
+    /**
+     * The arguments whose values are local paths, resolved by the client.
+     */
+    private static final Set<String> PATH_ARGS = new HashSet<>(Arrays.asList(
+            Args.mdzip.name(), Args.batch.name(), Args.patch.name(),
+            Args.images.name(), Args.cache.name(), Args.target.name()));
+    /**
+     * Gets the loopback port given to an argument.
+     * @param command the execution command.
+     * @param arg the argument.
+     * @return the port.
+     */
+    static int getPort(CommandLine command, Args arg) {
+        int port;
+        String value = command.getOptionValue(arg.name());
+        try {
+            port = Integer.parseInt(value);
+        } catch(NumberFormatException ex) {
+            port = -1;
+        }
+        if (port < 1 || port > 65535)
+            throw new IllegalArgumentException("Invalid -" + arg.name() + " argument: " + value);
+        return port;
+    }
+    /**
+     * Runs a daemon until it is shut down.
+     * @param port the loopback port.
+     * @throws Exception if the daemon cannot be started.
+     */
+    public static void serve(int port) throws Exception {
+        Daemon daemon = new Daemon(port);
+        daemon.start();
+        daemon.awaitShutdown();
+    }
+    /**
+     * Sends a conversion to a daemon, writing any output streamed back into
+     * the console.
+     * @param port the loopback port of the daemon.
+     * @param command the conversion command.
+     * @throws Exception if the conversion cannot be sent or fails.
+     */
+    public static void submit(int port, CommandLine command) throws Exception {
+        int code;
+        byte[] body;
+        HttpURLConnection connection;
+        StringBuilder job = new StringBuilder();
+        for (Option option : command.getOptions()) {
+            if (DAEMON_ARGS.contains(option.getOpt()))
+                continue;
+            job.append('-').append(option.getOpt()).append('\n');
+            if (option.getValues() != null) {
+                for (String value : option.getValues()) {
+                    if (PATH_ARGS.contains(option.getOpt()) && TdbModelWriter.isTarget(value))
+                        value = TdbModelWriter.SCHEME + new File(value.substring(TdbModelWriter.SCHEME.length())).getAbsolutePath();
+                    else if (PATH_ARGS.contains(option.getOpt()) && !value.startsWith("http"))
+                        value = new File(value).getAbsolutePath();
+                    job.append(value).append('\n');
+                }
+            }
+        }
+        body = job.toString().getBytes(StandardCharsets.UTF_8);
+        connection = (HttpURLConnection) new URL("http", InetAddress.getLoopbackAddress().getHostAddress(),
+                port, "/convert").openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "text/plain; charset=UTF-8");
+        connection.setFixedLengthStreamingMode(body.length);
+        try {
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body);
+            }
+            code = connection.getResponseCode();
+            if (code != HttpURLConnection.HTTP_OK) {
+                String message = read(connection.getErrorStream());
+                if (code == HttpURLConnection.HTTP_BAD_REQUEST)
+                    throw new IllegalArgumentException(message);
+                throw new IOException("conversion failed on the daemon: " + message);
+            }
+            try (InputStream input = connection.getInputStream()) {
+                copy(input, System.out);
+            }
+            System.out.flush();
+        } finally {
+            connection.disconnect();
+        }
+    }
+    /**
+     * Reads a whole UTF-8 stream.
+     * @param input the stream; may be {@code null}.
+     * @return the stream content.
+     * @throws IOException if the stream cannot be read.
+     */
+    private static String read(InputStream input) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (input != null) {
+            try (InputStream stream = input) {
+                copy(stream, content);
+            }
+        }
+        return content.toString("UTF-8").trim();
+    }
+    /**
+     * Copies a stream into another.
+     * @param input the source stream.
+     * @param output the target stream.
+     * @throws IOException if the streams cannot be read or written.
+     */
+    private static void copy(InputStream input, OutputStream output) throws IOException {
+        int read;
+        byte[] buffer = new byte[8192];
+        while ((read = input.read(buffer)) != -1)
+            output.write(buffer, 0, read);
+    }
+    /**
+     * The output of a job without target: the chunked body of its response,
+     * started with the first byte written so a job failing before writing
+     * anything still gets an error status.
+     */
+    private static class JobOutput extends OutputStream {
+        /**
+         * The job request.
+         */
+        private final HttpExchange exchange;
+        /**
+         * The response body; {@code null} until the response is started.
+         */
+        private OutputStream body;
+        /**
+         * Constructs an instance specifying the job request.
+         * @param exchange the job request.
+         */
+        JobOutput(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+        /**
+         * Gets the response body, starting the response if needed.
+         * @return the response body.
+         * @throws IOException if the response cannot be started.
+         */
+        private OutputStream getBody() throws IOException {
+            if (body == null) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+                body = exchange.getResponseBody();
+            }
+            return body;
+        }
+        /**
+         * Determines whether the response is started.
+         * @return {@code true} if some output was written.
+         */
+        boolean isStarted() {
+            return body != null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            getBody().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            getBody().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (body != null)
+                body.flush();
+        }
+        /**
+         * Ends the response once the job is done.
+         */
+        @Override
+        public void close() throws IOException {
+            getBody().close();
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService worker;
+    private final AtomicInteger queued;
+    private final AtomicInteger completed;
+    private final AtomicInteger failed;
+    private final CountDownLatch shutdown;
+    private long started;
+    /**
+     * Constructs a daemon bound to a loopback port.
+     * @param port the loopback port.
+     * @throws IOException if the port cannot be bound.
+     */
+    Daemon(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.worker = Executors.newSingleThreadExecutor();
+        this.queued = new AtomicInteger();
+        this.completed = new AtomicInteger();
+        this.failed = new AtomicInteger();
+        this.shutdown = new CountDownLatch(1);
+        server.createContext("/convert", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                convert(exchange);
+            }
+        });
+        server.createContext("/health", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, HttpURLConnection.HTTP_OK, String.format(
+                        "status=up%nuptime=%d%nqueued=%d%ncompleted=%d%nfailed=%d%n",
+                        (System.currentTimeMillis() - started) / 1000, queued.get(),
+                        completed.get(), failed.get()));
+            }
+        });
+        server.createContext("/queue", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, HttpURLConnection.HTTP_OK, queued.get() + "\n");
+            }
+        });
+        server.createContext("/shutdown", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if (!"POST".equals(exchange.getRequestMethod())) {
+                    respond(exchange, HttpURLConnection.HTTP_BAD_METHOD, "POST required\n");
+                    return;
+                }
+                respond(exchange, HttpURLConnection.HTTP_OK, "shutting down\n");
+                shutdown.countDown();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+    }
+    /**
+     * Starts serving requests.
+     */
+    void start() {
+        started = System.currentTimeMillis();
+        server.start();
+        LOG.log(Level.INFO, "Conversion daemon listening on {0}", server.getAddress());
+    }
+    /**
+     * Gets the bound loopback port, e.g. when constructed with port 0.
+     * @return the bound port.
+     */
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+    /**
+     * Waits until a shutdown is requested, then stops serving requests once
+     * the queued jobs are done.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    void awaitShutdown() throws InterruptedException {
+        shutdown.await();
+        worker.shutdown();
+        while (!worker.awaitTermination(1, TimeUnit.MINUTES))
+            LOG.log(Level.INFO, "Waiting for {0} queued jobs", queued.get());
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+        LOG.log(Level.INFO, "Conversion daemon stopped: {0} jobs completed, {1} failed",
+                new Object[]{completed.get(), failed.get()});
+    }
+    /**
+     * Parses the arguments of a job.
+     * @param exchange the job request.
+     * @return the job command.
+     * @throws IOException if the request cannot be read.
+     * @throws ParseException if the arguments cannot be parsed.
+     */
+    private static CommandLine parse(HttpExchange exchange) throws IOException, ParseException {
+        List<String> args = new ArrayList<>();
+        for (String line : read(exchange.getRequestBody()).split("\r?\n"))
+            if (!line.isEmpty())
+                args.add(line);
+        CommandLine command = new DefaultParser().parse(App.getOptions(), args.toArray(new String[args.size()]));
+        for (Option option : command.getOptions())
+            if (DAEMON_ARGS.contains(option.getOpt()))
+                throw new ParseException("-" + option.getOpt() + " is not allowed within jobs");
+        return command;
+    }
+    /**
+     * Queues a job and responds once it is done, streaming its output back
+     * while it runs if it has no target. If such a job fails once its output
+     * is started, the connection is dropped, so the client gets a truncated
+     * response rather than a partial output taken as complete.
+     * @param exchange the job request.
+     * @throws IOException if the response cannot be written, or the job fails
+     * after its output is started.
+     */
+    private void convert(HttpExchange exchange) throws IOException {
+        final CommandLine command;
+        final JobOutput output;
+        Future<?> job;
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, HttpURLConnection.HTTP_BAD_METHOD, "POST required\n");
+            return;
+        }
+        try {
+            command = parse(exchange);
+        } catch(ParseException ex) {
+            respond(exchange, HttpURLConnection.HTTP_BAD_REQUEST, ex.getMessage() + "\n");
+            return;
+        }
+        if (!command.hasOption(Args.target.name()) && command.hasOption(Args.incremental.name())) {
+            respond(exchange, HttpURLConnection.HTTP_BAD_REQUEST, "incremental conversion requires a file target\n");
+            return;
+        }
+        output = command.hasOption(Args.target.name()) || command.hasOption(Args.batch.name())
+                ? null : new JobOutput(exchange);
+        queued.incrementAndGet();
+        try {
+            job = worker.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    if (output == null)
+                        Executor.execute(command);
+                    else
+                        Executor.execute(command, output);
+                    return null;
+                }
+            });
+            job.get();
+            completed.incrementAndGet();
+            if (output == null)
+                respond(exchange, HttpURLConnection.HTTP_OK, "");
+            else
+                output.close();
+        } catch(ExecutionException ex) {
+            failed.incrementAndGet();
+            LOG.log(Level.SEVERE, "Job failed: {0}", ex.getCause());
+            if (output != null && output.isStarted())
+                throw new IOException("job failed after its output was started", ex.getCause());
+            respond(exchange, ex.getCause() instanceof IllegalArgumentException
+                    ? HttpURLConnection.HTTP_BAD_REQUEST : HttpURLConnection.HTTP_INTERNAL_ERROR,
+                    ex.getCause() + "\n");
+        } catch(InterruptedException | RuntimeException ex) {
+            failed.incrementAndGet();
+            respond(exchange, HttpURLConnection.HTTP_UNAVAILABLE, ex + "\n");
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+    /**
+     * Writes a text response.
+     * @param exchange the request.
+     * @param code the status code.
+     * @param text the response body.
+     * @throws IOException if the response cannot be written.
+     */
+    private static void respond(HttpExchange exchange, int code, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(code, body.length == 0 ? -1 : body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
@@ -1,20 +1,46 @@
 package edu.gatech.mbsec.adapter.magicdraw;
 
+import edu.gatech.mbsec.adapter.magicdraw.builder.ConversionContext;
+import edu.gatech.mbsec.adapter.magicdraw.builder.FingerprintStore;
 import edu.gatech.mbsec.adapter.magicdraw.builder.MetaInformation;
+import edu.gatech.mbsec.adapter.magicdraw.builder.StageTimer;
 import edu.gatech.mbsec.adapter.magicdraw.builder.Vocabularies;
 import edu.gatech.mbsec.adapter.magicdraw.builder.ModelDescriptor;
 import com.hp.hpl.jena.rdf.model.Model;
 import edu.gatech.mbsec.adapter.magicdraw.builder.OSLC4JMagicDrawApplication;
+import edu.gatech.mbsec.adapter.magicdraw.builder.ProjectReader;
 import edu.gatech.mbsec.adapter.magicdraw.util.OSLCVocabularyCustomizer;
+import edu.gatech.mbsec.adapter.magicdraw.writer.ConsoleModelWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.FanOutModelWriter;
 import edu.gatech.mbsec.adapter.magicdraw.writer.FileModelWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.BatchedHttpModelWriter;
 import edu.gatech.mbsec.adapter.magicdraw.writer.HttpModelWriter;
 import edu.gatech.mbsec.adapter.magicdraw.writer.ModelWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.PartitionedTripleWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.PatchModelWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.ResourceStreamWriter;
 import edu.gatech.mbsec.adapter.magicdraw.writer.StreamModelWriter;
-import java.io.ByteArrayOutputStream;
+import edu.gatech.mbsec.adapter.magicdraw.writer.TdbModelWriter;
+import edu.gatech.mbsec.adapter.magicdraw.writer.TurtleStreamWriter;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.RDFWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.cli.CommandLine;
 import org.openjena.riot.Lang;
@@ -28,6 +54,19 @@ public class Executor {
      * Logger of this class.
      */
     private static final Logger LOG = Logger.getLogger(Executor.class.getName());
+    /**
+     * The package of the OSLC resource classes.
+     */
+    private static final String RESOURCES_PACKAGE = "edu.gatech.mbsec.adapter.magicdraw.resources";
+    /**
+     * The vocabulary the OSLC resource classes were customized with.
+     */
+    private static String customizedVocabulary;
+    /**
+     * The console of the conversions run by the current thread, when it is
+     * not the standard output (e.g. the response of a daemon job).
+     */
+    private static final ThreadLocal<OutputStream> CONSOLE = new ThreadLocal<>();
     /**
      * Determines whether MagicDraw libreries have been loaded.
      * @return {@code true} if MD libraries are available; {@code false}
@@ -55,95 +94,642 @@ public class Executor {
             else
                 availables.add(language.getName());
         }
+        availables.add(toLowerCase ? TurtleStreamWriter.FORMAT.toLowerCase() : TurtleStreamWriter.FORMAT);
         return availables;
     }
     /**
      * Parses the input file into an RDF model.
      * @param mdzip the input file path and name.
-     * @param descriptor the building model descriptor.
+     * @param context the conversion.
+     * @param meta the meta-information to add.
      * @return the corresponding RDF model.
      * @throws Exception if something goes wrong.
      */
-    private static Model getModel(String mdzip, ModelDescriptor descriptor,
+    private static Model getModel(String mdzip, ConversionContext context,
             MetaInformation meta) throws Exception {
-        Model model = OSLC4JMagicDrawApplication.run(mdzip, descriptor);
-        if (meta != null) meta.customize(model, descriptor);
+        Model model = OSLC4JMagicDrawApplication.run(mdzip, context);
+        if (meta != null) {
+            try (StageTimer.Stage stage = context.getTimer().start("meta")) {
+                model = meta.customize(model, context.getDescriptor());
+            }
+        }
         return model;
     }
+    /**
+     * Parses the input file and streams its RDF, one resource at a time, into
+     * a writer.
+     * @param mdzip the input file path and name.
+     * @param context the conversion.
+     * @param meta the meta-information to add.
+     * @param writer the incremental writer.
+     * @param language the target language.
+     * @throws Exception if something goes wrong.
+     */
+    private static void stream(String mdzip, ConversionContext context,
+            MetaInformation meta, ResourceStreamWriter writer, Lang language)
+            throws Exception {
+        Model resource;
+        long resources = 0;
+        StageTimer timer = context.getTimer();
+        ModelDescriptor descriptor = context.getDescriptor();
+        Iterator<Model> iterator = OSLC4JMagicDrawApplication.stream(mdzip, context);
+        try {
+            while (iterator.hasNext()) {
+                resource = iterator.next();
+                try (StageTimer.Stage stage = timer.start("meta")) {
+                    meta.addMembers(resource, descriptor);
+                }
+                try (StageTimer.Stage stage = timer.start("write")) {
+                    writer.write(resource, language);
+                }
+                resources++;
+            }
+            resource = ModelFactory.createDefaultModel();
+            meta.describe(resource, descriptor);
+            writer.write(resource, language);
+        } finally {
+            context.release();
+            writer.close();
+        }
+        LOG.log(Level.INFO, "{0} resources streamed with {1} statements",
+                new Object[]{resources, writer.getStatements()});
+    }
     /**
      * Determines the target language from the command line.
      * @param command the execution command.
      * @return the chosen/target language.
      */
     private static Lang getLanguage(CommandLine command) {
-        Lang language = Lang.TURTLE;
-        String format = command.getOptionValue(Args.format.name());
-        if (format != null)
-            language = Lang.get(format);
-        return language;
+        return getLanguage(command.getOptionValue(Args.format.name()));
+    }
+    /**
+     * Determines the language of a format.
+     * @param format the format name; {@code null} for the default one.
+     * @return the language of the {@code format}.
+     */
+    private static Lang getLanguage(String format) {
+        if (format == null || TurtleStreamWriter.FORMAT.equalsIgnoreCase(format))
+            return Lang.TURTLE;
+        return Lang.get(format);
+    }
+    /**
+     * Determines the format of every target from the command line: a single
+     * format applies to all the targets; otherwise there must be one format
+     * per target, in the same order.
+     * @param command the execution command.
+     * @param targets the number of targets.
+     * @return the format of every target; {@code null} for the default one.
+     */
+    private static String[] getFormats(CommandLine command, int targets) {
+        String[] formats = command.getOptionValues(Args.format.name());
+        if (formats != null && formats.length > 1 && formats.length != targets)
+            throw new IllegalArgumentException("expected one format, or one per target, but got "
+                    + formats.length + " formats for " + targets + " targets");
+        String[] targetFormats = new String[targets];
+        for (int i = 0; i < targets; i++)
+            targetFormats[i] = formats == null ? null : formats[formats.length > 1 ? i : 0];
+        return targetFormats;
+    }
+    /**
+     * Determines the language of every target from the command line.
+     * @param command the execution command.
+     * @param targets the number of targets.
+     * @return the language of every target.
+     * @see #getFormats(CommandLine, int)
+     */
+    private static Lang[] getLanguages(CommandLine command, int targets) {
+        String[] formats = getFormats(command, targets);
+        Lang[] languages = new Lang[targets];
+        for (int i = 0; i < targets; i++)
+            languages[i] = getLanguage(formats[i]);
+        return languages;
+    }
+    /**
+     * Gets the writer serializing the models of a format: the streaming
+     * Turtle writer declaring the conversion vocabularies, or none for the
+     * Jena writer of the format language.
+     * @param format the format name; {@code null} for the default one.
+     * @param descriptor the building descriptor.
+     * @param meta the meta-information.
+     * @return the model serializer; {@code null} for the Jena writer.
+     */
+    private static RDFWriter getSerializer(String format, ModelDescriptor descriptor, MetaInformation meta) {
+        if (!TurtleStreamWriter.FORMAT.equalsIgnoreCase(format))
+            return null;
+        Map<String, String> prefixes = new HashMap<>(descriptor.getVocabPrefixes());
+        prefixes.putAll(meta.getVocabularies());
+        return new TurtleStreamWriter(prefixes);
+    }
+    /**
+     * Determines a positive count from the command line.
+     * @param command the execution command.
+     * @param argument the count argument.
+     * @param count the count if the argument is missing.
+     * @return the count.
+     */
+    private static int getCount(CommandLine command, Args argument, int count) {
+        String value = command.getOptionValue(argument.name());
+        if (value != null) {
+            try {
+                count = Integer.parseInt(value);
+            } catch(NumberFormatException ex) {
+                count = 0;
+            }
+            if (count < 1)
+                throw new IllegalArgumentException("Invalid -" + argument.name() + " argument: " + value);
+        }
+        return count;
+    }
+    /**
+     * Determines the number of mapping threads from the command line.
+     * @param command the execution command.
+     * @return the number of mapping threads.
+     */
+    private static int getThreads(CommandLine command) {
+        return getCount(command, Args.threads, 1);
+    }
+    /**
+     * Determines the project reader from the command line.
+     * @param command the execution command.
+     * @return the project reader.
+     */
+    private static ProjectReader getReader(CommandLine command) {
+        String value = command.getOptionValue(Args.reader.name());
+        if (value == null)
+            return ProjectReader.magicdraw;
+        try {
+            return ProjectReader.valueOf(value.toLowerCase());
+        } catch(IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid -reader argument: " + value);
+        }
+    }
+    /**
+     * Opens the result cache given in the command line.
+     * @param command the execution command.
+     * @return the result cache; {@code null} if none was given.
+     * @throws Exception if the cache directory cannot be created.
+     */
+    private static ResultCache getCache(CommandLine command) throws Exception {
+        long size = getCacheSize(command);
+        String directory = command.getOptionValue(Args.cache.name());
+        return directory == null ? null : new ResultCache(new File(directory), size * 1024 * 1024);
+    }
+    /**
+     * Determines the size of the result cache from the command line.
+     * @param command the execution command.
+     * @return the cache size, in MB.
+     */
+    private static long getCacheSize(CommandLine command) {
+        long size = 1024;
+        String value = command.getOptionValue(Args.cachesize.name());
+        if (value != null) {
+            if (!command.hasOption(Args.cache.name()))
+                throw new IllegalArgumentException("cachesize requires a cache directory");
+            try {
+                size = Long.parseLong(value);
+            } catch(NumberFormatException ex) {
+                size = 0;
+            }
+            if (size < 1)
+                throw new IllegalArgumentException("Invalid -cachesize argument: " + value);
+        }
+        return size;
+    }
+    /**
+     * Gets the options of a conversion affecting its output, which key its
+     * cached result along with its input.
+     * @param command the execution command.
+     * @param target the output target; URL targets define the base URL.
+     * @param language the target language.
+     * @return the options affecting the output.
+     */
+    private static String[] getCacheOptions(CommandLine command, String target, Lang language) {
+        String[] meta = command.getOptionValues(Args.meta.name());
+        String[] prefixes = command.getOptionValues(Args.nsprefix.name());
+        return new String[]{
+            command.getOptionValue(Args.base.name()),
+            command.getOptionValue(Args.rest.name()),
+            command.getOptionValue(Args.vocab.name()),
+            command.getOptionValue(Args.format.name(), language.getName()),
+            meta == null ? null : String.join(" ", meta),
+            prefixes == null ? null : String.join(" ", prefixes),
+            getReader(command).name(),
+            target != null && target.startsWith("http") ? target : null
+        };
+    }
+    /**
+     * Opens the fingerprint store of a target, kept next to it.
+     * @param target the output target file.
+     * @param descriptor the building descriptor.
+     * @return the fingerprint store of the {@code target}.
+     * @throws Exception if the store cannot be read.
+     */
+    private static FingerprintStore getFingerprints(String target,
+            ModelDescriptor descriptor) throws Exception {
+        File file = new File(target + ".fingerprints");
+        String settings = descriptor.getVocabBaseURI() + " " + descriptor.getVocabPrefix();
+        return FingerprintStore.open(file, settings);
     }
     /**
      * Gets the {@link MetaInformation} for this execution.
      * @param command the execution command line.
      * @param descriptor the building descriptor.
+     * @param mdzipFile the input file, digested for the ID if no meta
+     * information is given.
      * @return the version control instance.
      */
     private static MetaInformation getMetaInformation(CommandLine command,
-            ModelDescriptor descriptor) {
+            ModelDescriptor descriptor, String mdzipFile) {
         String[] prefixes = command.getOptionValues(Args.nsprefix.name());
         Properties vocabularies = Vocabularies.asProperties(prefixes);
         String[] meta = command.getOptionValues(Args.meta.name());
         vocabularies.setProperty(descriptor.getVocabPrefix(), descriptor.getVocabBaseURI());
-        return MetaInformation.getInstance(vocabularies, meta);
+        return MetaInformation.getInstance(new File(mdzipFile), vocabularies, meta);
     }
     /**
-     * Executes the command given from console.
-     * @param command the command to execute.
+     * Customizes the OSLC resource classes with a vocabulary. Classes can be
+     * customized only once per execution, so later calls must use the same
+     * vocabulary.
+     * @param vocabulary the vocabulary base URI.
+     * @param cache the directory caching the customized classes; {@code null}
+     * for none.
+     * @throws Exception if the classes cannot be customized.
+     */
+    private static void customize(String vocabulary, File cache) throws Exception {
+        OSLCVocabularyCustomizer customizer;
+        if (customizedVocabulary == null) {
+            customizer = new OSLCVocabularyCustomizer(vocabulary, "getRdfTypes");
+            if (cache == null)
+                customizer.customize(RESOURCES_PACKAGE);
+            else
+                customizer.customize(RESOURCES_PACKAGE, cache);
+            customizedVocabulary = vocabulary;
+        } else if (!customizedVocabulary.equals(vocabulary))
+            throw new IllegalStateException("resources already customized for vocabulary " + customizedVocabulary);
+    }
+    /**
+     * Determines the target defining the descriptor of a conversion: the
+     * only URL target, if any, or the first target otherwise.
+     * @param targets the output targets.
+     * @return the index of the primary target.
+     */
+    private static int getPrimaryTarget(String... targets) {
+        int primary = -1;
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i] != null && targets[i].startsWith("http")) {
+                if (primary != -1)
+                    throw new IllegalArgumentException("at most one URL target is supported: "
+                            + targets[primary] + ", " + targets[i]);
+                primary = i;
+            }
+        }
+        return primary == -1 ? 0 : primary;
+    }
+    /**
+     * Creates the writer of a target.
+     * @param command the execution command.
+     * @param target the output target; {@code null} for the console.
+     * @param format the target format; {@code null} for the default one.
+     * @param descriptor the building descriptor.
+     * @param meta the meta-information.
+     * @param threads the number of threads.
+     * @return the writer of the {@code target}.
+     * @throws IOException if the target cannot be opened.
+     */
+    private static ModelWriter getWriter(CommandLine command, String target, String format,
+            ModelDescriptor descriptor, MetaInformation meta, int threads) throws IOException {
+        URL url;
+        HttpModelWriter upload;
+        StreamModelWriter output;
+        Lang language = getLanguage(format);
+        if (target == null) {
+            if (threads > 1 && ResourceStreamWriter.isSupported(language))
+                return new PartitionedTripleWriter(openConsole(), meta.getURI(descriptor), threads);
+            output = new ConsoleModelWriter(openConsole());
+            output.setSerializer(getSerializer(format, descriptor, meta));
+            return output;
+        } else if (target.startsWith("http")) {
+            url = new URL(target);
+            if (command.hasOption(Args.batchsize.name()) || command.hasOption(Args.batchbytes.name()))
+                return new BatchedHttpModelWriter(url, meta.getID(),
+                        getCount(command, Args.batchsize, Integer.MAX_VALUE),
+                        command.hasOption(Args.batchbytes.name())
+                                ? getCount(command, Args.batchbytes, 1) * 1024L * 1024 : Long.MAX_VALUE,
+                        getCount(command, Args.uploads, 4),
+                        BatchedHttpModelWriter.getDefaultJournal(url, meta.getID()));
+            upload = new HttpModelWriter(url, meta.getID());
+            upload.setCompressed(command.hasOption(Args.compress.name()));
+            upload.setSerializer(getSerializer(format, descriptor, meta));
+            return upload;
+        } else if (TdbModelWriter.isTarget(target)) {
+            return new TdbModelWriter(target, meta.getURI(descriptor));
+        } else if (ResourceStreamWriter.isSupported(language) && new File(target).isDirectory()) {
+            return new PartitionedTripleWriter(new File(target), meta.getURI(descriptor), threads);
+        } else if (threads > 1 && ResourceStreamWriter.isSupported(language)) {
+            return new PartitionedTripleWriter(new FileOutputStream(target), meta.getURI(descriptor), threads);
+        }
+        output = new FileModelWriter(target);
+        output.setSerializer(getSerializer(format, descriptor, meta));
+        return output;
+    }
+    /**
+     * Opens a buffered output into the console of the current conversion.
+     * @return the buffered console.
+     */
+    private static OutputStream openConsole() {
+        OutputStream console = CONSOLE.get();
+        return console == null ? ConsoleModelWriter.openOutput() : ConsoleModelWriter.openOutput(console);
+    }
+    /**
+     * Closes the writer or output of a failed conversion, logging rather than
+     * throwing any failure so the original one is kept.
+     * @param closeable the writer or output; {@code null} if not opened.
+     */
+    private static void close(Closeable closeable) {
+        if (closeable != null)
+            try {
+                closeable.close();
+            } catch(IOException ex) {
+                LOG.log(Level.WARNING, "Cannot close {0}: {1}", new Object[]{closeable, ex});
+            }
+    }
+    /**
+     * Validates the arguments of a conversion, so invalid arguments fail
+     * before any input is converted.
+     * @param command the execution command.
+     * @param targets the output targets; {@code null} elements for the
+     * console.
+     * @throws IllegalArgumentException if some argument is not valid.
+     */
+    private static void validate(CommandLine command, String... targets) {
+        int primary = getPrimaryTarget(targets);
+        String target = targets[primary];
+        Lang language = getLanguages(command, targets.length)[primary];
+        ProjectReader reader = getReader(command);
+        boolean cached = command.hasOption(Args.cache.name());
+        boolean streaming = command.hasOption(Args.stream.name());
+        boolean incremental = command.hasOption(Args.incremental.name());
+        String patch = command.getOptionValue(Args.patch.name());
+        getThreads(command);
+        getCacheSize(command);
+        if (targets.length > 1 && (cached || streaming || patch != null || incremental))
+            throw new IllegalArgumentException("cache, stream, patch and incremental arguments require a single target");
+        if (cached && streaming)
+            throw new IllegalArgumentException("cache and stream arguments are mutually exclusive");
+        if (cached && command.hasOption(Args.images.name()))
+            throw new IllegalArgumentException("cache and images arguments are mutually exclusive");
+        if (patch != null && streaming)
+            throw new IllegalArgumentException("patch and stream arguments are mutually exclusive");
+        if (patch != null && command.getOptionValues(Args.meta.name()) == null)
+            throw new IllegalArgumentException("patch requires meta information (e.g. -meta graph=<id>) naming the graph");
+        if (streaming && !ResourceStreamWriter.isSupported(language))
+            throw new IllegalArgumentException("streaming supports N-Triples and N-Quads only");
+        if (reader == ProjectReader.xmi && command.hasOption(Args.images.name()))
+            throw new IllegalArgumentException("diagram images require the magicdraw reader");
+        if (incremental && (target == null || target.startsWith("http") || TdbModelWriter.isTarget(target)))
+            throw new IllegalArgumentException("incremental conversion requires a file target");
+        if (streaming && target != null && target.startsWith("http"))
+            throw new IllegalArgumentException("streaming is not supported for URL targets");
+        if ((streaming || patch != null) && TdbModelWriter.isTarget(target))
+            throw new IllegalArgumentException("streaming and patch are not supported for TDB targets");
+        getCount(command, Args.batchsize, 1);
+        getCount(command, Args.batchbytes, 1);
+        getCount(command, Args.uploads, 4);
+    }
+    /**
+     * Converts an input file into one or more targets. The model is built
+     * once, with the descriptor of the first URL target if any (or of the
+     * first target otherwise), and written into all the targets concurrently.
+     * File targets are written into temporary files moved into place once
+     * the conversion succeeds, so a failed conversion leaves them untouched.
+     * @param command the execution command.
+     * @param mdzipFile the input file path and name.
+     * @param targets the output targets; none or {@code null} for the
+     * console.
      * @throws Exception if something goes wrong.
      */
-    public static void execute(CommandLine command) throws Exception {
+    private static void convert(CommandLine command, String mdzipFile,
+            String... targets) throws Exception {
         Model model;
         URL remoteTost;
-        ModelWriter writer;
         MetaInformation meta;
         ModelDescriptor descriptor;
-        OSLCVocabularyCustomizer customizer;
-        ByteArrayOutputStream buffer = null;
-        Lang language = getLanguage(command);
-        String mdzipFile = command.getOptionValue(Args.mdzip.name());
-        String target = command.getOptionValue(Args.target.name());
+        ConversionContext context;
+        ModelWriter writer = null;
+        OutputStream output = null;
+        FanOutModelWriter fanOut;
+        RDFWriter serializer;
+        if (targets == null || targets.length == 0)
+            targets = new String[]{null};
+        validate(command, targets);
+        int primary = getPrimaryTarget(targets);
+        String target = targets[primary];
+        String[] formats = getFormats(command, targets.length);
+        Lang[] languages = getLanguages(command, targets.length);
+        Lang language = languages[primary];
+        int threads = getThreads(command);
+        ProjectReader reader = getReader(command);
+        boolean streaming = command.hasOption(Args.stream.name());
+        boolean incremental = command.hasOption(Args.incremental.name());
         String baseURI = command.getOptionValue(Args.base.name());
         String restPath = command.getOptionValue(Args.rest.name());
         String vocabPath = command.getOptionValue(Args.vocab.name());
-        if (target == null) {
-            buffer = new ByteArrayOutputStream();
-            descriptor = new ModelDescriptor(baseURI, restPath, vocabPath);
-            meta = getMetaInformation(command, descriptor);
-            writer = new StreamModelWriter(buffer);
-        } else {
-            if (target.startsWith("http")) {
-                remoteTost = new URL(target);
-                descriptor = new ModelDescriptor(remoteTost, restPath, vocabPath);
-                meta = getMetaInformation(command, descriptor);
-                writer = new HttpModelWriter(remoteTost, meta.getID());
-            } else {
+        String patch = command.getOptionValue(Args.patch.name());
+        ResultCache cache = getCache(command);
+        String key = null;
+        File entry;
+        boolean converted = false;
+        StagedTargets staged = new StagedTargets();
+        try {
+            if (target == null) {
                 descriptor = new ModelDescriptor(baseURI, restPath, vocabPath);
-                meta = getMetaInformation(command, descriptor);
-                writer = new FileModelWriter(target);
+                meta = getMetaInformation(command, descriptor, mdzipFile);
+                if (streaming)
+                    output = openConsole();
+                else if (patch != null)
+                    writer = new PatchModelWriter(new File(patch), meta.getURI(descriptor), openConsole());
+                else
+                    writer = getWriter(command, target, formats[primary], descriptor, meta, threads);
+            } else {
+                if (target.startsWith("http")) {
+                    remoteTost = new URL(target);
+                    descriptor = new ModelDescriptor(remoteTost, restPath, vocabPath);
+                    meta = getMetaInformation(command, descriptor, mdzipFile);
+                    if (patch == null)
+                        writer = getWriter(command, target, formats[primary], descriptor, meta, threads);
+                    else
+                        writer = new PatchModelWriter(new File(patch), meta.getURI(descriptor), remoteTost);
+                } else if (TdbModelWriter.isTarget(target)) {
+                    descriptor = new ModelDescriptor(baseURI, restPath, vocabPath);
+                    meta = getMetaInformation(command, descriptor, mdzipFile);
+                    writer = getWriter(command, target, formats[primary], descriptor, meta, threads);
+                } else {
+                    descriptor = new ModelDescriptor(baseURI, restPath, vocabPath);
+                    meta = getMetaInformation(command, descriptor, mdzipFile);
+                    if (streaming)
+                        output = new FileOutputStream(staged.stage(target));
+                    else if (patch != null)
+                        writer = new PatchModelWriter(new File(patch), meta.getURI(descriptor), new File(target));
+                    else
+                        writer = getWriter(command, staged.stage(target), formats[primary], descriptor, meta, threads);
+                }
+            }
+            if (targets.length > 1) {
+                fanOut = new FanOutModelWriter();
+                fanOut.add(target, writer, language);
+                writer = fanOut;
+                for (int i = 0; i < targets.length; i++)
+                    if (i != primary)
+                        fanOut.add(targets[i], getWriter(command, staged.stage(targets[i]), formats[i],
+                                descriptor, meta, threads), languages[i]);
+            }
+            if (cache != null) {
+                key = ResultCache.key(new File(mdzipFile), getCacheOptions(command, target, language));
+                entry = cache.get(key);
+                if (entry != null) {
+                    try (InputStream input = new FileInputStream(entry)) {
+                        writer.write(input, language);
+                    }
+                    staged.commit();
+                    converted = true;
+                    LOG.log(Level.INFO, "Result cache hit for {0}: {1}", new Object[]{mdzipFile, cache});
+                    return;
+                }
+            }
+            customize(descriptor.getVocabBaseURI(), command.hasOption(Args.cache.name())
+                    ? new File(command.getOptionValue(Args.cache.name()), "classes") : null);
+            context = new ConversionContext(descriptor, threads);
+            context.setReader(reader);
+            if (incremental)
+                context.setFingerprints(getFingerprints(target, descriptor));
+            if (command.hasOption(Args.images.name()))
+                context.setImageDirectory(new File(command.getOptionValue(Args.images.name())));
+            if (streaming) {
+                stream(mdzipFile, context, meta,
+                        new ResourceStreamWriter(output, meta.getURI(descriptor)), language);
+            } else {
+                model = getModel(mdzipFile, context, meta);
+                try (StageTimer.Stage stage = context.getTimer().start("write")) {
+                    if (cache == null) {
+                        writer.write(model, language);
+                    } else {
+                        serializer = getSerializer(formats[primary], descriptor, meta);
+                        try (InputStream input = new FileInputStream(serializer == null
+                                ? cache.put(key, model, language) : cache.put(key, model, serializer))) {
+                            writer.write(input, language);
+                        }
+                        LOG.log(Level.INFO, "Result cache miss for {0}: {1}", new Object[]{mdzipFile, cache});
+                    }
+                }
+            }
+            staged.commit();
+            converted = true;
+            if (incremental) {
+                context.getFingerprints().save();
+                LOG.log(Level.INFO, "Incremental conversion: {0}", context.getFingerprints());
+            }
+            LOG.log(command.hasOption(Args.timings.name()) ? Level.INFO : Level.FINE,
+                    "{0}", context.getTimer());
+        } finally {
+            if (!converted) {
+                close(writer);
+                close(output);
+            }
+            staged.discard();
+        }
+    }
+    /**
+     * Converts a batch of input files within this execution. MagicDraw is
+     * started only once; each project is closed once converted.
+     * @param command the execution command.
+     * @param batch the batch specification.
+     * @throws Exception if the batch cannot be processed.
+     */
+    private static void convert(CommandLine command, String batch) throws Exception {
+        long start;
+        File output;
+        Batch.Report report = new Batch.Report();
+        Lang language = getLanguage(command);
+        String target = command.getOptionValue(Args.target.name());
+        File directory = target == null ? null : new File(target);
+        if (target != null && (target.startsWith("http") || TdbModelWriter.isTarget(target)))
+            throw new IllegalArgumentException("batch mode requires a directory target");
+        if (command.getOptionValues(Args.target.name()) != null && command.getOptionValues(Args.target.name()).length > 1
+                || command.getOptionValues(Args.format.name()) != null && command.getOptionValues(Args.format.name()).length > 1)
+            throw new IllegalArgumentException("batch mode requires a single target and format");
+        if (command.hasOption(Args.patch.name()))
+            throw new IllegalArgumentException("patch is not supported in batch mode");
+        List<Path> inputs = Batch.getInputs(batch);
+        validate(command, Batch.getOutput(inputs.get(0), directory, language).getPath());
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+            throw new IllegalArgumentException("cannot create target directory: " + target);
+        for (Path input : inputs) {
+            start = System.currentTimeMillis();
+            output = Batch.getOutput(input, directory, language);
+            try {
+                convert(command, input.toString(), output.getPath());
+                report.success(input, output, System.currentTimeMillis() - start);
+            } catch(Exception ex) {
+                LOG.log(Level.SEVERE, "Could not convert {0}: {1}", new Object[]{input, ex});
+                report.failure(input, ex, System.currentTimeMillis() - start);
+            } finally {
+                OSLC4JMagicDrawApplication.close();
             }
         }
-        customizer = new OSLCVocabularyCustomizer(descriptor.getVocabBaseURI(), "getRdfTypes");
-        customizer.customize("edu.gatech.mbsec.adapter.magicdraw.resources");
-        model = getModel(mdzipFile, descriptor, meta);
-        writer.write(model, language);
-        if (buffer != null) {
-            LOG.info(buffer.toString("UTF-8"));
+        report.log();
+    }
+    /**
+     * Executes the command given from console.
+     * @param command the command to execute.
+     * @throws Exception if something goes wrong.
+     */
+    public static void execute(CommandLine command) throws Exception {
+        if (command.hasOption(Args.serve.name()))
+            Daemon.serve(Daemon.getPort(command, Args.serve));
+        else if (command.hasOption(Args.daemon.name()))
+            Daemon.submit(Daemon.getPort(command, Args.daemon), command);
+        else
+            execute(command, command.getOptionValues(Args.target.name()));
+    }
+    /**
+     * Executes a conversion command into given targets.
+     * @param command the command to execute.
+     * @param targets the output targets of a single input file; none or
+     * {@code null} for the console.
+     * @throws Exception if something goes wrong.
+     */
+    static void execute(CommandLine command, String... targets) throws Exception {
+        String batch = command.getOptionValue(Args.batch.name());
+        String mdzipFile = command.getOptionValue(Args.mdzip.name());
+        if (batch != null) {
+            if (mdzipFile != null)
+                throw new IllegalArgumentException("mdzip and batch arguments are mutually exclusive");
+            convert(command, batch);
+        } else if (mdzipFile != null) {
+            convert(command, mdzipFile, targets);
+        } else
+            throw new IllegalArgumentException("missing mdzip input file or batch");
+    }
+    /**
+     * Executes a conversion command without target, writing its output into
+     * a given console instead of the standard output.
+     * @param command the command to execute.
+     * @param console the console; it is not closed.
+     * @throws Exception if something goes wrong.
+     */
+    static void execute(CommandLine command, OutputStream console) throws Exception {
+        CONSOLE.set(console);
+        try {
+            execute(command, (String[]) null);
+        } finally {
+            CONSOLE.remove();
         }
     }
     /**
      * Finishes the execution of this application.
      */
     public static void finish() {
+        HttpModelWriter.release();
         if (isMDLoaded()) {
             OSLC4JMagicDrawApplication.finish();
         }
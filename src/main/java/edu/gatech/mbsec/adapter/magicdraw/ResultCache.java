@@ -0,0 +1,230 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.RDFWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openjena.riot.Lang;
+
+/**
+ * An on-disk cache of conversion outputs, keyed by the digest of the input
+ * file and of every option affecting the output. Entries are written to a
+ * temporary file and atomically moved into place, so concurrent conversions
+ * never read partial entries. Entries are evicted in least recently used
+ * order once the cache exceeds its size, and the hits, misses and evictions
+ * are kept along with the entries.
+ * @author rherrera
+ */
+public class ResultCache {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(ResultCache.class.getName());
+    /**
+     * The version of the cached outputs; entries of other versions are never
+     * hit.
+     */
+    private static final String VERSION = "1";
+    /**
+     * The suffix of the entry files.
+     */
+    private static final String SUFFIX = ".rdf";
+    /**
+     * The statistics file name.
+     */
+    private static final String STATISTICS = "cache.properties";
+    /**
+     * The lock file name.
+     */
+    private static final String LOCK = "cache.lock";
+    /**
+     * Gets the cache key of a conversion.
+     * @param input the input file.
+     * @param options the conversion options affecting the output.
+     * @return the cache key.
+     * @throws IOException if the input file cannot be read.
+     */
+    public static String key(File input, String... options) throws IOException {
+        int read;
+        MessageDigest md;
+        byte[] buffer = new byte[65536];
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        md.update((VERSION + '\n' + input.getName() + '\n').getBytes(StandardCharsets.UTF_8));
+        for (String option : options)
+            md.update((String.valueOf(option) + '\n').getBytes(StandardCharsets.UTF_8));
+        try (InputStream stream = new FileInputStream(input)) {
+            while ((read = stream.read(buffer)) != -1)
+                md.update(buffer, 0, read);
+        }
+        return String.format("%064x", new BigInteger(1, md.digest()));
+    }
+
+    private final File directory;
+    private final long capacity;
+    /**
+     * Constructs an instance specifying the cache directory and size.
+     * @param directory the cache directory; created if missing.
+     * @param capacity the maximum size of the cached entries, in bytes.
+     * @throws IOException if the directory cannot be created.
+     */
+    public ResultCache(File directory, long capacity) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("cannot create cache directory " + directory);
+        this.directory = directory;
+        this.capacity = capacity;
+    }
+    /**
+     * Gets the entry file of a key.
+     * @param key the cache key.
+     * @return the entry file.
+     */
+    private File getEntry(String key) {
+        return new File(directory, key + SUFFIX);
+    }
+    /**
+     * Gets a cached output, recording the hit or miss.
+     * @param key the cache key.
+     * @return the entry file holding the output; {@code null} if missing.
+     * @throws IOException if the statistics cannot be updated.
+     */
+    public File get(String key) throws IOException {
+        File entry = getEntry(key);
+        boolean hit = entry.isFile() && entry.setLastModified(System.currentTimeMillis());
+        update(hit ? "hits" : "misses", 1);
+        return hit ? entry : null;
+    }
+    /**
+     * Caches the output of a conversion, evicting the least recently used
+     * entries if the cache exceeds its size.
+     * @param key the cache key.
+     * @param model the converted model.
+     * @param language the output language.
+     * @return the entry file holding the output.
+     * @throws IOException if the entry cannot be written.
+     */
+    public File put(String key, Model model, Lang language) throws IOException {
+        return put(key, model, model.getWriter(language.getName()));
+    }
+    /**
+     * Caches the output of a conversion serialized by a writer, evicting the
+     * least recently used entries if the cache exceeds its size.
+     * @param key the cache key.
+     * @param model the converted model.
+     * @param writer the output serializer.
+     * @return the entry file holding the output.
+     * @throws IOException if the entry cannot be written.
+     */
+    public File put(String key, Model model, RDFWriter writer) throws IOException {
+        File entry = getEntry(key);
+        File temporal = File.createTempFile(key, ".tmp", directory);
+        try {
+            try (OutputStream output = new FileOutputStream(temporal)) {
+                writer.write(model, output, (String)null);
+            }
+            Files.move(temporal.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal.toPath());
+        }
+        int evicted = evict(entry);
+        if (evicted > 0)
+            update("evictions", evicted);
+        return entry;
+    }
+    /**
+     * Evicts the least recently used entries until the cache fits its size.
+     * @param keep the entry never evicted.
+     * @return the number of evicted entries.
+     */
+    private int evict(File keep) {
+        long size = 0;
+        int evicted = 0;
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (entries == null)
+            return 0;
+        for (File entry : entries)
+            size += entry.length();
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+        for (File entry : entries) {
+            if (size <= capacity)
+                break;
+            long length = entry.length();
+            if (!entry.equals(keep) && entry.delete()) {
+                size -= length;
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+    /**
+     * Adds to a statistic, under the cache lock.
+     * @param statistic the statistic name.
+     * @param count the number to add.
+     * @throws IOException if the statistics cannot be read or written.
+     */
+    private void update(String statistic, int count) throws IOException {
+        Properties statistics = new Properties();
+        File file = new File(directory, STATISTICS);
+        File temporal = new File(directory, STATISTICS + ".tmp");
+        try (RandomAccessFile lock = new RandomAccessFile(new File(directory, LOCK), "rw");
+                FileLock locked = lock.getChannel().lock()) {
+            if (file.isFile()) {
+                try (InputStream input = new FileInputStream(file)) {
+                    statistics.load(input);
+                }
+            }
+            long value = Long.parseLong(statistics.getProperty(statistic, "0"));
+            statistics.setProperty(statistic, String.valueOf(value + count));
+            try (OutputStream output = new FileOutputStream(temporal)) {
+                statistics.store(output, "magicdrawsysml2rdf result cache");
+            }
+            Files.move(temporal.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch(NumberFormatException ex) {
+            LOG.log(Level.WARNING, "Invalid cache statistics reset: {0}", ex.getMessage());
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+    /**
+     * Gets the string representation of this cache.
+     * @return the statistics of this cache.
+     */
+    @Override
+    public String toString() {
+        long size = 0;
+        Properties statistics = new Properties();
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        try (InputStream input = new FileInputStream(new File(directory, STATISTICS))) {
+            statistics.load(input);
+        } catch(IOException ex) {
+            LOG.log(Level.FINE, "No cache statistics: {0}", ex.getMessage());
+        }
+        if (entries != null)
+            for (File entry : entries)
+                size += entry.length();
+        return String.format("%s hits, %s misses, %s evictions, %d entries, %d KB",
+                statistics.getProperty("hits", "0"), statistics.getProperty("misses", "0"),
+                statistics.getProperty("evictions", "0"), entries == null ? 0 : entries.length,
+                size / 1024);
+    }
+}
@@ -0,0 +1,70 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import edu.gatech.mbsec.adapter.magicdraw.writer.TdbModelWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The file targets of a conversion, written into temporary files next to
+ * them and moved into place only once the conversion succeeds, so a failed
+ * conversion leaves no empty or partial outputs, nor truncates the previous
+ * ones. Console, URL, TDB and directory targets are not staged.
+ * @author rherrera
+ */
+class StagedTargets {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(StagedTargets.class.getName());
+    /**
+     * The temporary files, by target file.
+     */
+    private final Map<File, File> temporals = new LinkedHashMap<>();
+    /**
+     * Stages a target.
+     * @param target the output target; {@code null} for the console.
+     * @return the path of the temporary file to write instead of the
+     * {@code target}, or the {@code target} itself if it is not a file.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    String stage(String target) throws IOException {
+        File file, temporal;
+        if (target == null || target.startsWith("http") || TdbModelWriter.isTarget(target)
+                || new File(target).isDirectory())
+            return target;
+        file = new File(target).getAbsoluteFile();
+        temporal = File.createTempFile("." + file.getName() + "-", ".tmp", file.getParentFile());
+        temporals.put(file, temporal);
+        return temporal.getPath();
+    }
+    /**
+     * Moves every temporary file into its target, replacing the previous
+     * output.
+     * @throws IOException if some temporary file cannot be moved.
+     */
+    void commit() throws IOException {
+        for (Map.Entry<File, File> staged : temporals.entrySet())
+            Files.move(staged.getValue().toPath(), staged.getKey().toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        temporals.clear();
+    }
+    /**
+     * Deletes every temporary file, leaving the targets untouched.
+     */
+    void discard() {
+        for (File temporal : temporals.values())
+            try {
+                Files.deleteIfExists(temporal.toPath());
+            } catch(IOException ex) {
+                LOG.log(Level.WARNING, "Cannot delete {0}: {1}", new Object[]{temporal, ex});
+            }
+        temporals.clear();
+    }
+
+}
@@ -0,0 +1,264 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.nomagic.magicdraw.core.Project;
+import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
+import com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow;
+import com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdmodels.Model;
+import com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DataType;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdinternalstructures.Connector;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdports.Port;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLAssociationBlock;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLBlock;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLBlockDiagram;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLConnector;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLConnectorEnd;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLFlowProperty;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLFullPort;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLInterfaceBlock;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLInternalBlockDiagram;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLItemFlow;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLModel;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLPackage;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLPartProperty;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLPort;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLProxyPort;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLReferenceProperty;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLRequirement;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLValueProperty;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLValueType;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The state of a single conversion: the loaded project, the collected
+ * MagicDraw SysML elements and the mapped OSLC resources. Each conversion
+ * owns its context, so nothing is shared nor kept between conversions once
+ * the context is {@link #release() released}. Collections and maps written
+ * while mapping are thread-safe, so the independent mapping phases can run
+ * concurrently on the context's {@link MappingScheduler scheduler}.
+ * @author rherrera
+ */
+public class ConversionContext {
+    /**
+     * Names of the MagicDraw predefined packages, never converted.
+     */
+    static final Collection<String> PREDEFINED_PACKAGE_NAMES = Arrays.asList("SysML",
+            "Matrix Templates Profile", "UML Standard Profile", "QUDV Library",
+            "PrimitiveValueTypes", "MD Customization for SysML");
+    /**
+     * The model building descriptor.
+     */
+    final ModelDescriptor descriptor;
+    /**
+     * The scheduler of the mapping phases.
+     */
+    final MappingScheduler scheduler;
+    /**
+     * The encoder of the element qualified names and resource URIs.
+     */
+    final QualifiedNameEncoder names;
+    /**
+     * The timer of the conversion stages.
+     */
+    final StageTimer timer;
+    /**
+     * The fingerprints of the previous conversion; {@code null} to convert
+     * every resource.
+     */
+    FingerprintStore fingerprints;
+    /**
+     * The index of the directed relationships links; {@code null} until the
+     * project is indexed.
+     */
+    DirectedLinkIndex links;
+    /**
+     * The reader loading the project into this context.
+     */
+    ProjectReader reader = ProjectReader.magicdraw;
+    /**
+     * Names of the packages not to convert.
+     */
+    final Collection<String> predefinedMagicDrawSysMLPackageNames = new HashSet<String>();
+    /**
+     * The id (file name) of the converted project.
+     */
+    String projectId;
+    /**
+     * The name of the converted MagicDraw file.
+     */
+    String magicDrawFileName;
+    /**
+     * The file of the converted project.
+     */
+    File projectFile;
+    /**
+     * The directory the diagram images are exported into; {@code null} not
+     * to export them.
+     */
+    File images;
+    /**
+     * The converted project.
+     */
+    Project project;
+    /**
+     * The model of the converted project.
+     */
+    Model model;
+    /**
+     * The loaded projects by id.
+     */
+    final Map<String, Project> loadedProjects = new HashMap<String, Project>();
+
+    // collected MagicDraw SysML elements
+    Collection<Class> mdSysmlRequirements = new ArrayList<Class>();
+    Collection<Class> mdSysmlBlocks = new ArrayList<Class>();
+    Collection<Class> mdSysmlInterfaceBlocks = new ArrayList<Class>();
+    Collection<InformationFlow> mdSysmlItemFlows = new ArrayList<InformationFlow>();
+    Collection<DataType> mdSysmlValueTypes = new ArrayList<DataType>();
+    final Collection<Property> mdSysmlPartProperties = new ConcurrentLinkedQueue<Property>();
+    final Collection<Connector> mdSysmlConnectors = new ConcurrentLinkedQueue<Connector>();
+    final Collection<Port> mdSysmlPorts = new ConcurrentLinkedQueue<Port>();
+    final Collection<Property> mdSysmlValueProperties = new ConcurrentLinkedQueue<Property>();
+    final Collection<Property> mdSysmlFlowProperties = new ConcurrentLinkedQueue<Property>();
+    Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package> mdSysmlPackages = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>();
+    Collection<DiagramPresentationElement> mdSysmlBlockDiagrams = new ArrayList<DiagramPresentationElement>();
+    Collection<DiagramPresentationElement> mdSysmlInternalBlockDiagrams = new ArrayList<DiagramPresentationElement>();
+    Collection<AssociationClass> mdSysmlAssociationBlocks = new ArrayList<AssociationClass>();
+
+    // collected MagicDraw SysML elements by project id
+    final Map<String, Collection<Class>> projectIdMDSysmlRequirementsMap = new HashMap<String, Collection<Class>>();
+    final Map<String, Collection<Class>> projectIdMDSysmlBlocksMap = new HashMap<String, Collection<Class>>();
+    final Map<String, Collection<Class>> projectIdMDSysmlInterfaceBlocksMap = new HashMap<String, Collection<Class>>();
+    final Map<String, Collection<InformationFlow>> projectIdMDSysmlItemFlowsMap = new HashMap<String, Collection<InformationFlow>>();
+    final Map<String, Collection<DataType>> projectIdMDSysmlValueTypesMap = new HashMap<String, Collection<DataType>>();
+    final Map<String, Collection<Property>> projectIdMDSysmlPartPropertiesMap = new HashMap<String, Collection<Property>>();
+    final Map<String, Collection<Connector>> projectIdMDSysmlConnectorsMap = new HashMap<String, Collection<Connector>>();
+    final Map<String, Collection<Port>> projectIdMDSysmlPortsMap = new HashMap<String, Collection<Port>>();
+    final Map<String, Collection<Property>> projectIdMDSysmlValuePropertiesMap = new HashMap<String, Collection<Property>>();
+    final Map<String, Collection<Property>> projectIdMDSysmlFlowPropertiesMap = new HashMap<String, Collection<Property>>();
+    final Map<String, Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>> projectIdMDSysmlPackagesMap = new HashMap<String, Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>>();
+
+    // mapped OSLC resources
+    final Collection<SysMLRequirement> oslcSysmlRequirements = new ConcurrentLinkedQueue<SysMLRequirement>();
+    final Collection<SysMLBlock> oslcSysmlBlocks = new ConcurrentLinkedQueue<SysMLBlock>();
+    final Map<String, Class> idMdSysmlRequirementMap = new ConcurrentHashMap<String, Class>();
+    final Map<String, SysMLRequirement> idOslcSysmlRequirementMap = new ConcurrentHashMap<String, SysMLRequirement>();
+    final Map<String, SysMLBlock> qNameOslcSysmlBlockMap = new ConcurrentHashMap<String, SysMLBlock>();
+    final Map<String, SysMLPartProperty> qNameOslcSysmlPartPropertyMap = new ConcurrentHashMap<String, SysMLPartProperty>();
+    final Map<String, SysMLReferenceProperty> qNameOslcSysmlReferencePropertyMap = new ConcurrentHashMap<String, SysMLReferenceProperty>();
+    final Map<String, SysMLModel> oslcSysmlModelMap = new ConcurrentHashMap<String, SysMLModel>();
+    final Map<String, SysMLPackage> qNameOslcSysmlPackageMap = new ConcurrentHashMap<String, SysMLPackage>();
+    final Map<String, SysMLAssociationBlock> qNameOslcSysmlAssociationBlockMap = new ConcurrentHashMap<String, SysMLAssociationBlock>();
+    final Map<String, SysMLConnector> qNameOslcSysmlConnectorMap = new ConcurrentHashMap<String, SysMLConnector>();
+    final Map<String, SysMLConnectorEnd> qNameOslcSysmlConnectorEndMap = new ConcurrentHashMap<String, SysMLConnectorEnd>();
+    final Map<String, SysMLPort> qNameOslcSysmlPortMap = new ConcurrentHashMap<String, SysMLPort>();
+    final Map<String, SysMLProxyPort> qNameOslcSysmlProxyPortMap = new ConcurrentHashMap<String, SysMLProxyPort>();
+    final Map<String, SysMLFullPort> qNameOslcSysmlFullPortMap = new ConcurrentHashMap<String, SysMLFullPort>();
+    final Map<String, SysMLInterfaceBlock> qNameOslcSysmlInterfaceBlockMap = new ConcurrentHashMap<String, SysMLInterfaceBlock>();
+    final Map<String, SysMLFlowProperty> qNameOslcSysmlFlowPropertyMap = new ConcurrentHashMap<String, SysMLFlowProperty>();
+    final Map<String, SysMLItemFlow> qNameOslcSysmlItemFlowMap = new ConcurrentHashMap<String, SysMLItemFlow>();
+    final Map<String, SysMLValueProperty> qNameOslcSysmlValuePropertyMap = new ConcurrentHashMap<String, SysMLValueProperty>();
+    final Map<String, SysMLValueType> qNameOslcSysmlValueTypeMap = new ConcurrentHashMap<String, SysMLValueType>();
+    final Map<String, SysMLBlockDiagram> qNameOslcSysmlBlockDiagramMap = new ConcurrentHashMap<String, SysMLBlockDiagram>();
+    final Map<String, SysMLInternalBlockDiagram> qNameOslcSysmlInternalBlockDiagramMap = new ConcurrentHashMap<String, SysMLInternalBlockDiagram>();
+    /**
+     * Constructs an empty context mapping on the calling thread.
+     * @param descriptor the model building descriptor.
+     */
+    public ConversionContext(ModelDescriptor descriptor) {
+        this(descriptor, 1);
+    }
+    /**
+     * Constructs an empty context specifying the number of mapping threads.
+     * @param descriptor the model building descriptor.
+     * @param threads the number of threads mapping the elements.
+     */
+    public ConversionContext(ModelDescriptor descriptor, int threads) {
+        this.descriptor = descriptor;
+        this.timer = new StageTimer();
+        this.scheduler = new MappingScheduler(threads, timer);
+        this.names = new QualifiedNameEncoder(this);
+    }
+    /**
+     * Gets the model building descriptor.
+     * @return the model building descriptor.
+     */
+    public ModelDescriptor getDescriptor() {
+        return descriptor;
+    }
+    /**
+     * Gets the timer of the conversion stages.
+     * @return the timer of the conversion stages.
+     */
+    public StageTimer getTimer() {
+        return timer;
+    }
+    /**
+     * Gets the fingerprints of the previous conversion.
+     * @return the fingerprints of the previous conversion; {@code null} if
+     * every resource is converted.
+     */
+    public FingerprintStore getFingerprints() {
+        return fingerprints;
+    }
+    /**
+     * Sets the fingerprints of the previous conversion, so the resources
+     * that did not change since then are not converted again.
+     * @param fingerprints the fingerprints of the previous conversion;
+     * {@code null} to convert every resource.
+     */
+    public void setFingerprints(FingerprintStore fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+    /**
+     * Gets the reader loading the project into this context.
+     * @return the project reader.
+     */
+    public ProjectReader getReader() {
+        return reader;
+    }
+    /**
+     * Sets the reader loading the project into this context.
+     * @param reader the project reader.
+     */
+    public void setReader(ProjectReader reader) {
+        this.reader = Objects.requireNonNull(reader, "reader cannot be null");
+    }
+    /**
+     * Sets the directory the block and internal block diagram images are
+     * exported into.
+     * @param images the image directory; {@code null} not to export images.
+     */
+    public void setImageDirectory(File images) {
+        this.images = images;
+    }
+    /**
+     * Gets the id of the converted project.
+     * @return the id of the converted project; {@code null} if none has been
+     * loaded.
+     */
+    public String getProjectId() {
+        return projectId;
+    }
+    /**
+     * Releases all the elements and resources held by this context.
+     */
+    public void release() {
+        project = null;
+        model = null;
+        loadedProjects.clear();
+        MagicDrawManager.initializeCollections(this);
+        MagicDrawManager.initializeMapsAcrossAllProjects(this);
+    }
+}
@@ -0,0 +1,124 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.nomagic.magicdraw.export.image.ImageExporter;
+import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exports the images of the block and internal block diagrams of a conversion
+ * into a directory, as {@code <project>/<type>/<diagram id>.png}. Diagrams are
+ * only loaded when their image is exported, images newer than the project file
+ * are left as they are, and images are exported on as many threads as
+ * available processors, regardless of the threads the conversion maps
+ * elements with.
+ * @author rherrera
+ */
+public class DiagramImageExporter {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(DiagramImageExporter.class.getName());
+    /**
+     * The outcome of a diagram export.
+     */
+    private enum Outcome {
+        exported, skipped, failed
+    }
+
+    private final ConversionContext context;
+    private final File directory;
+    /**
+     * Constructs an instance specifying the conversion and the target
+     * directory.
+     * @param context the conversion whose diagrams are exported.
+     * @param directory the target directory.
+     */
+    public DiagramImageExporter(ConversionContext context, File directory) {
+        this.context = context;
+        this.directory = directory;
+    }
+    /**
+     * Gets the image file of a diagram.
+     * @param type the diagram type (directory name).
+     * @param diagram the diagram.
+     * @return the image file of the {@code diagram}.
+     */
+    File getImage(String type, DiagramPresentationElement diagram) {
+        File parent = new File(new File(directory, context.projectId), type);
+        return new File(parent, diagram.getDiagram().getID().replaceAll("[^A-Za-z0-9._-]", "_") + ".png");
+    }
+    /**
+     * Exports the image of a diagram, unless it is up to date.
+     * @param diagram the diagram.
+     * @param image the image file.
+     * @param modified the last modification time of the project file.
+     * @return the outcome of the export.
+     */
+    private static Outcome export(DiagramPresentationElement diagram, File image, long modified) {
+        if (image.isFile() && image.lastModified() >= modified)
+            return Outcome.skipped;
+        try {
+            if (!image.getParentFile().isDirectory() && !image.getParentFile().mkdirs())
+                throw new IOException("cannot create directory " + image.getParent());
+            if (!diagram.isLoaded())
+                diagram.ensureLoaded();
+            ImageExporter.export(diagram, ImageExporter.PNG, image);
+            return Outcome.exported;
+        } catch(IOException | RuntimeException ex) {
+            LOG.log(Level.WARNING, "Could not export diagram {0}: {1}",
+                    new Object[]{diagram.getDiagram().getName(), ex});
+            return Outcome.failed;
+        }
+    }
+    /**
+     * Adds the export of a collection of diagrams to a task list.
+     * @param tasks the task list.
+     * @param type the diagram type (directory name).
+     * @param diagrams the diagrams.
+     * @param modified the last modification time of the project file.
+     */
+    private void addTasks(List<Callable<Outcome>> tasks, String type,
+            Collection<DiagramPresentationElement> diagrams, final long modified) {
+        for (final DiagramPresentationElement diagram : diagrams) {
+            final File image = getImage(type, diagram);
+            tasks.add(() -> export(diagram, image, modified));
+        }
+    }
+    /**
+     * Exports the images of all the block and internal block diagrams.
+     * @throws InterruptedException if interrupted while exporting.
+     */
+    public void export() throws InterruptedException {
+        ExecutorService pool;
+        int[] outcomes = new int[Outcome.values().length];
+        List<Callable<Outcome>> tasks = new ArrayList<>();
+        long modified = context.projectFile == null ? Long.MAX_VALUE : context.projectFile.lastModified();
+        addTasks(tasks, "blockdiagrams", context.mdSysmlBlockDiagrams, modified);
+        addTasks(tasks, "internalblockdiagrams", context.mdSysmlInternalBlockDiagrams, modified);
+        if (tasks.isEmpty())
+            return;
+        pool = Executors.newFixedThreadPool(Math.min(Runtime.getRuntime().availableProcessors(), tasks.size()));
+        try {
+            for (Future<Outcome> outcome : pool.invokeAll(tasks))
+                outcomes[outcome.get().ordinal()]++;
+        } catch(ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        LOG.log(Level.INFO, "Diagram images: {0} exported, {1} up to date, {2} failed",
+                new Object[]{outcomes[Outcome.exported.ordinal()],
+                    outcomes[Outcome.skipped.ordinal()], outcomes[Outcome.failed.ordinal()]});
+    }
+}
@@ -0,0 +1,161 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DirectedRelationship;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.InstanceSpecification;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.eclipse.lyo.oslc4j.core.model.Link;
+
+/**
+ * Inverted index of the stereotyped directed relationships of a model (e.g.
+ * satisfy, derive, refine or copy). Every relationship is read once, and the
+ * URIs of the linked elements are resolved once per element, so the links of
+ * an element, by relationship stereotype and direction, are looked up instead
+ * of scanning its relationships. Once built, the index is read-only and can be
+ * shared by the mapping threads.
+ * @author rherrera
+ */
+final class DirectedLinkIndex {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(DirectedLinkIndex.class.getName());
+    /**
+     * Resolves the URI of a linked element.
+     */
+    interface Resolver {
+        /**
+         * Resolves the URI of a linked element.
+         * @param element the linked element.
+         * @return the URI of the element resource.
+         * @throws URISyntaxException if the URI is not valid.
+         */
+        URI resolve(NamedElement element) throws URISyntaxException;
+    }
+    /**
+     * Builds the index of some directed relationships.
+     * @param relationships the directed relationships.
+     * @param stereotypes the stereotypes of the indexed relationships.
+     * @param resolver the resolver of the linked elements URIs.
+     * @return the index of the {@code relationships}.
+     * @throws URISyntaxException if a linked element URI is not valid.
+     */
+    static DirectedLinkIndex build(Collection<DirectedRelationship> relationships,
+            Collection<String> stereotypes, Resolver resolver) throws URISyntaxException {
+        String stereotype;
+        InstanceSpecification instance;
+        DirectedLinkIndex index = new DirectedLinkIndex();
+        Map<Element, URI> uris = new IdentityHashMap<>();
+        for (DirectedRelationship relationship : relationships) {
+            instance = relationship.getAppliedStereotypeInstance();
+            if (instance == null || instance.getClassifier().isEmpty())
+                continue;
+            stereotype = instance.getClassifier().get(0).getName();
+            if (!stereotypes.contains(stereotype))
+                continue;
+            for (Element source : relationship.getSource())
+                for (Element target : relationship.getTarget()) {
+                    if (target instanceof NamedElement)
+                        index.add(index.outgoing, source, stereotype, resolve(uris, (NamedElement) target, resolver));
+                    if (source instanceof NamedElement)
+                        index.add(index.incoming, target, stereotype, resolve(uris, (NamedElement) source, resolver));
+                }
+            index.relationships++;
+        }
+        LOG.log(Level.INFO, "{0} directed relationships indexed, {1} linked elements resolved",
+                new Object[]{index.relationships, uris.size()});
+        return index;
+    }
+    /**
+     * Resolves the URI of a linked element once.
+     * @param uris the URIs resolved so far.
+     * @param element the linked element.
+     * @param resolver the resolver of the linked elements URIs.
+     * @return the URI of the element resource.
+     * @throws URISyntaxException if the URI is not valid.
+     */
+    private static URI resolve(Map<Element, URI> uris, NamedElement element, Resolver resolver)
+            throws URISyntaxException {
+        URI uri = uris.get(element);
+        if (uri == null) {
+            uri = resolver.resolve(element);
+            uris.put(element, uri);
+        }
+        return uri;
+    }
+
+    private final Map<Element, Map<String, List<URI>>> outgoing = new IdentityHashMap<>();
+    private final Map<Element, Map<String, List<URI>>> incoming = new IdentityHashMap<>();
+    private int relationships;
+    /**
+     * Adds a link of an element.
+     * @param links the links of the direction.
+     * @param element the linking element.
+     * @param stereotype the relationship stereotype.
+     * @param uri the URI of the linked element.
+     */
+    private void add(Map<Element, Map<String, List<URI>>> links, Element element,
+            String stereotype, URI uri) {
+        Map<String, List<URI>> byStereotype = links.get(element);
+        if (byStereotype == null) {
+            byStereotype = new HashMap<>(4);
+            links.put(element, byStereotype);
+        }
+        List<URI> uris = byStereotype.get(stereotype);
+        if (uris == null) {
+            uris = new ArrayList<>(2);
+            byStereotype.put(stereotype, uris);
+        }
+        uris.add(uri);
+    }
+    /**
+     * Gets the URIs linked by an element.
+     * @param element the element.
+     * @param stereotype the relationship stereotype.
+     * @param isElementSource whether the element is the source (or the target)
+     * of the relationships.
+     * @return the linked URIs; {@code null} if there are none.
+     */
+    private List<URI> get(Element element, String stereotype, boolean isElementSource) {
+        Map<String, List<URI>> byStereotype = (isElementSource ? outgoing : incoming).get(element);
+        return byStereotype == null ? null : byStereotype.get(stereotype);
+    }
+    /**
+     * Gets the links of an element.
+     * @param element the element.
+     * @param stereotype the relationship stereotype.
+     * @param isElementSource whether the element is the source (or the target)
+     * of the relationships.
+     * @return the links; {@code null} if there are none.
+     */
+    Link[] getLinks(Element element, String stereotype, boolean isElementSource) {
+        LinkBuffer links = LinkBuffer.get();
+        List<URI> uris = get(element, stereotype, isElementSource);
+        if (uris != null)
+            for (URI uri : uris)
+                links.add(uri);
+        return links.toArray();
+    }
+    /**
+     * Gets the single link of an element.
+     * @param element the element.
+     * @param stereotype the relationship stereotype.
+     * @param isElementSource whether the element is the source (or the target)
+     * of the relationships.
+     * @return the last linked URI; {@code null} if there is none.
+     */
+    URI getLink(Element element, String stereotype, boolean isElementSource) {
+        List<URI> uris = get(element, stereotype, isElementSource);
+        return uris == null ? null : uris.get(uris.size() - 1);
+    }
+}
@@ -0,0 +1,340 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.provider.jena.JenaModelHelper;
+
+/**
+ * Persisted fingerprints of the resources of a previous conversion. Every
+ * mapped resource is fingerprinted from its whole state (attributes and
+ * links); resources whose fingerprint did not change since the previous
+ * conversion get their previous RDF statements back instead of being
+ * converted again, so the output is the same one of a full conversion.
+ * Resources are keyed by their URI; those without URI are always converted.
+ * @author rherrera
+ */
+public class FingerprintStore {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(FingerprintStore.class.getName());
+    /**
+     * The header of the store files.
+     */
+    private static final String MAGIC = "magicdrawsysml2rdf-fingerprints";
+    /**
+     * The version of the store format; stores with other versions are
+     * ignored.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The language of the stored statements.
+     */
+    private static final String LANGUAGE = "TURTLE";
+    /**
+     * The fingerprinted fields by class.
+     */
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+    /**
+     * Opens a store. The statements of a previous conversion are only reused
+     * if it was performed with the same settings.
+     * @param file the store file; it does not need to exist.
+     * @param settings the conversion settings affecting the statements of the
+     * resources (e.g. the vocabulary URI).
+     * @return the store.
+     * @throws IOException if an existing store cannot be read.
+     */
+    public static FingerprintStore open(File file, String settings) throws IOException {
+        String magic;
+        byte[] bytes;
+        int version, count;
+        Map<String, Entry> entries = new HashMap<>();
+        if (file.isFile()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(new FileInputStream(file))))) {
+                magic = input.readUTF();
+                version = input.readInt();
+                if (MAGIC.equals(magic) && version == VERSION && settings.equals(input.readUTF())) {
+                    count = input.readInt();
+                    for (int i = 0; i < count; i++) {
+                        String uri = input.readUTF();
+                        String fingerprint = input.readUTF();
+                        bytes = new byte[input.readInt()];
+                        input.readFully(bytes);
+                        entries.put(uri, new Entry(fingerprint, new String(bytes, StandardCharsets.UTF_8)));
+                    }
+                } else
+                    LOG.log(Level.INFO, "Fingerprints of {0} ignored: different settings", file);
+            }
+        }
+        return new FingerprintStore(file, settings, entries);
+    }
+    /**
+     * The stored state of a resource.
+     */
+    private static class Entry {
+        /**
+         * The fingerprint of the resource.
+         */
+        private final String fingerprint;
+        /**
+         * The statements of the resource.
+         */
+        private final String statements;
+        /**
+         * Constructs an instance specifying its properties.
+         * @param fingerprint the fingerprint of the resource.
+         * @param statements the statements of the resource.
+         */
+        Entry(String fingerprint, String statements) {
+            this.fingerprint = fingerprint;
+            this.statements = statements;
+        }
+    }
+
+    private final File file;
+    private final String settings;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current;
+    private long reused;
+    private long converted;
+    /**
+     * Constructs an instance specifying its properties.
+     * @param file the store file.
+     * @param settings the conversion settings.
+     * @param previous the entries of the previous conversion.
+     */
+    private FingerprintStore(File file, String settings, Map<String, Entry> previous) {
+        this.file = file;
+        this.settings = settings;
+        this.previous = previous;
+        this.current = new LinkedHashMap<>();
+    }
+    /**
+     * Gets the RDF model of a resource, reusing the statements of the
+     * previous conversion if the resource did not change.
+     * @param resource the resource.
+     * @return the RDF model of the {@code resource}.
+     * @throws Exception if the resource cannot be converted.
+     */
+    public Model getModel(Object resource) throws Exception {
+        Model model;
+        StringWriter statements;
+        String key = getKey(resource);
+        String fingerprint = key == null ? null : fingerprint(resource);
+        Entry entry = key == null ? null : previous.get(key);
+        if (entry != null && entry.fingerprint.equals(fingerprint)) {
+            model = ModelFactory.createDefaultModel();
+            model.read(new StringReader(entry.statements), null, LANGUAGE);
+            reused++;
+        } else {
+            model = JenaModelHelper.createJenaModel(new Object[]{resource});
+            converted++;
+            if (key != null) {
+                statements = new StringWriter();
+                model.write(statements, LANGUAGE);
+                entry = new Entry(fingerprint, statements.toString());
+            }
+        }
+        if (key != null)
+            current.put(key, entry);
+        return model;
+    }
+    /**
+     * Gets the number of resources whose statements were reused.
+     * @return the number of reused resources.
+     */
+    public long getReused() {
+        return reused;
+    }
+    /**
+     * Gets the number of resources converted.
+     * @return the number of converted resources.
+     */
+    public long getConverted() {
+        return converted;
+    }
+    /**
+     * Saves the fingerprints and statements of the resources got since this
+     * store was opened, replacing the previous ones.
+     * @throws IOException if the store cannot be written.
+     */
+    public void save() throws IOException {
+        byte[] bytes;
+        File temporal = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(temporal))))) {
+            output.writeUTF(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(settings);
+            output.writeInt(current.size());
+            for (Map.Entry<String, Entry> entry : current.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeUTF(entry.getValue().fingerprint);
+                bytes = entry.getValue().statements.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+        }
+        Files.move(temporal.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    /**
+     * Gets the string representation of this store.
+     * @return the statistics of this store.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d resources reused, %d re-mapped", reused, converted);
+    }
+    /**
+     * Gets the key of a resource.
+     * @param resource the resource.
+     * @return the URI of the {@code resource}; {@code null} if it has none.
+     */
+    private static String getKey(Object resource) {
+        URI about = null;
+        if (resource instanceof AbstractResource)
+            about = ((AbstractResource) resource).getAbout();
+        return about == null ? null : about.toString();
+    }
+    /**
+     * Gets the fingerprint of a resource.
+     * @param resource the resource.
+     * @return the MD5 digest of the resource state.
+     * @throws IllegalAccessException if a field cannot be read.
+     */
+    static String fingerprint(Object resource) throws IllegalAccessException {
+        StringBuilder state = new StringBuilder();
+        append(state, resource, Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            byte[] digest = md.digest(state.toString().getBytes(StandardCharsets.UTF_8));
+            return new BigInteger(1, digest).toString(16);
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    /**
+     * Appends the canonical state of a value.
+     * @param state the state so far.
+     * @param value the value.
+     * @param visiting the objects being appended, to skip cycles.
+     * @throws IllegalAccessException if a field cannot be read.
+     */
+    private static void append(StringBuilder state, Object value, Set<Object> visiting)
+            throws IllegalAccessException {
+        Class<?> type;
+        if (value == null) {
+            state.append("null");
+            return;
+        }
+        type = value.getClass();
+        if (type.isArray()) {
+            state.append('[');
+            if (value instanceof Object[]) {
+                for (Object item : (Object[]) value) {
+                    append(state, item, visiting);
+                    state.append(',');
+                }
+            } else
+                state.append(Arrays.deepToString(new Object[]{value}));
+            state.append(']');
+        } else if (value instanceof Collection) {
+            state.append('[');
+            for (Object item : (Collection<?>) value) {
+                append(state, item, visiting);
+                state.append(',');
+            }
+            state.append(']');
+        } else if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            state.append('{');
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                state.append(entry.getKey()).append('=');
+                append(state, entry.getValue(), visiting);
+                state.append(',');
+            }
+            state.append('}');
+        } else if (type.isPrimitive() || type.isEnum() || type.getName().startsWith("java")) {
+            state.append(type.getSimpleName()).append(':').append(value);
+        } else if (visiting.add(value)) {
+            state.append(type.getName()).append('{');
+            for (Field field : getFields(type)) {
+                state.append(field.getName()).append('=');
+                append(state, field.get(value), visiting);
+                state.append(',');
+            }
+            state.append('}');
+            visiting.remove(value);
+        } else
+            state.append("cycle");
+    }
+    /**
+     * Gets the fingerprinted fields of a class: all the instance fields of
+     * the class and its superclasses, in a stable order.
+     * @param type the class.
+     * @return the fingerprinted fields of the {@code type}.
+     */
+    private static List<Field> getFields(Class<?> type) {
+        List<Field> fields = FIELDS.get(type);
+        if (fields == null) {
+            fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            Collections.sort(fields, new Comparator<Field>() {
+                @Override
+                public int compare(Field f1, Field f2) {
+                    int compare = f1.getDeclaringClass().getName().compareTo(f2.getDeclaringClass().getName());
+                    return compare == 0 ? f1.getName().compareTo(f2.getName()) : compare;
+                }
+            });
+            FIELDS.put(type, fields);
+        }
+        return fields;
+    }
+}
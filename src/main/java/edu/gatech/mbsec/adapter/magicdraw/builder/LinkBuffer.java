@@ -0,0 +1,73 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import java.net.URI;
+import java.util.Arrays;
+import org.eclipse.lyo.oslc4j.core.model.Link;
+
+/**
+ * A growable buffer of the links of a resource property. Links are appended in
+ * a single pass over the linked elements and copied once into an array of the
+ * exact size, so neither the elements are counted beforehand nor intermediate
+ * collections are built. Every thread reuses its own buffer, which must be
+ * taken by {@link #get()} and emptied by {@link #toArray()} before being taken
+ * again.
+ * @author rherrera
+ */
+final class LinkBuffer {
+    /**
+     * The buffer of every thread.
+     */
+    private static final ThreadLocal<LinkBuffer> BUFFERS = new ThreadLocal<LinkBuffer>() {
+        @Override
+        protected LinkBuffer initialValue() {
+            return new LinkBuffer();
+        }
+    };
+    /**
+     * Gets the empty buffer of the calling thread.
+     * @return the empty buffer of the calling thread.
+     */
+    static LinkBuffer get() {
+        LinkBuffer buffer = BUFFERS.get();
+        buffer.clear();
+        return buffer;
+    }
+
+    private Link[] links = new Link[16];
+    private int size;
+    /**
+     * Appends a link.
+     * @param uri the URI of the linked resource.
+     * @return this buffer.
+     */
+    LinkBuffer add(URI uri) {
+        if (size == links.length)
+            links = Arrays.copyOf(links, size * 2);
+        links[size++] = new Link(uri);
+        return this;
+    }
+    /**
+     * Gets the number of appended links.
+     * @return the number of appended links.
+     */
+    int size() {
+        return size;
+    }
+    /**
+     * Gets the appended links and empties this buffer.
+     * @return the appended links; {@code null} if there are none, as the
+     * resource properties are left unset when empty.
+     */
+    Link[] toArray() {
+        Link[] array = size == 0 ? null : Arrays.copyOf(links, size);
+        clear();
+        return array;
+    }
+    /**
+     * Empties this buffer.
+     */
+    private void clear() {
+        Arrays.fill(links, 0, size, null);
+        size = 0;
+    }
+}
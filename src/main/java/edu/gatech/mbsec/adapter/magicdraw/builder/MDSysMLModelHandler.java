@@ -65,7 +65,7 @@ public class MDSysMLModelHandler {
 	 */
 	protected static void isSysMLProfileLoadedPreCheck()
 			throws MDModelLibException {
-		if (!isSysMLProfileLoaded())
+		if (!getStereotypeCache().isProfileLoaded())
 			throw new MDModelLibException(
 					"SysML profile not loaded or unable to detect SysML profile");
 	}
@@ -109,13 +109,41 @@ public class MDSysMLModelHandler {
 		return false;
 	}
 
+	/**
+	 * Function that checks whether or not a given element has a SysML
+	 * stereotype applied. Stereotypes are resolved once per project through
+	 * the {@link StereotypeCache} of the active project.
+	 * 
+	 * @param element
+	 *            An object of type Element (defined in the MD UML meta-model)
+	 * @param sysMLStereotypeName
+	 *            the name of the SysML stereotype
+	 * @return true if the stereotype is applied to the element, false
+	 *         otherwise
+	 * @throws MDModelLibException
+	 */
 	public static boolean isSysMLElement(Element element,
 			String sysMLStereotypeName) throws MDModelLibException {
 
 		// check regular SysML stereotype
-		isSysMLProfileLoadedPreCheck();
-		return StereotypesHelper.hasStereotype(element,
-				sysMLStereotypeName);
+		StereotypeCache cache = getStereotypeCache();
+		if (!cache.isProfileLoaded())
+			throw new MDModelLibException(
+					"SysML profile not loaded or unable to detect SysML profile");
+		return cache.hasStereotype(element, sysMLStereotypeName);
+	}
+
+	/**
+	 * Returns the stereotype cache of the currently active project, which
+	 * also memoizes whether or not the SysML profile is loaded.
+	 * 
+	 * @return the stereotype cache of the active project
+	 * @throws MDModelLibException
+	 */
+	public static StereotypeCache getStereotypeCache()
+			throws MDModelLibException {
+		return StereotypeCache.getInstance(getActiveProject(),
+				sysMLProfileName_);
 	}
 
 	/**
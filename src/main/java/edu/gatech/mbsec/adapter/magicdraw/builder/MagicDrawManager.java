@@ -22,12 +22,14 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 
 import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLAssociationBlock;
@@ -58,7 +60,6 @@ import com.nomagic.magicdraw.core.Project;
 import com.nomagic.magicdraw.core.project.ProjectDescriptor;
 import com.nomagic.magicdraw.core.project.ProjectDescriptorsFactory;
 import com.nomagic.magicdraw.core.project.ProjectsManager;
-import com.nomagic.magicdraw.export.image.ImageExporter;
 import com.nomagic.magicdraw.openapi.uml.SessionManager;
 import com.nomagic.magicdraw.sysml.util.SysMLConstants;
 import com.nomagic.magicdraw.uml.symbols.DiagramPresentationElement;
@@ -71,13 +72,11 @@ import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Association;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Classifier;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DataType;
-import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DirectedRelationship;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.EnumerationLiteral;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.InstanceSpecification;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.LiteralString;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
-import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Namespace;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.PackageableElement;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.ValueSpecification;
@@ -100,110 +99,16 @@ public class MagicDrawManager {
      * Logger of this class.
      */
     private static final Logger LOG = Logger.getLogger(MagicDrawManager.class.getName());
-
-    public static ModelDescriptor descriptor;
-
-	static Collection<String> predefinedMagicDrawSysMLPackageNames = new HashSet<String>();
-
-	public static Collection<Class> mdSysmlRequirements = new ArrayList<Class>();
-	public static Map<String, Collection<Class>> projectIdMDSysmlRequirementsMap = new HashMap<String, Collection<Class>>();
-
-	public static Collection<Class> mdSysmlBlocks = new ArrayList<Class>(); // list
-																			// of
-																			// MagicDraw
-																			// SysML
-																			// blocks
-																			// for
-																			// a
-																			// specific
-																			// project
-	// list gets overwritten for each new project - this is ok when loading each
-	// individual model separately - each creation web service in the past would
-	// first reload the model and the list would be ok
-	// now, models are loaded at launch of adapter, and at refresh times. each
-	// creation web service no longer reload the model
-	// when trying to retrieve MagicDraw SysML blocks of a specific project,
-	// this list only provides the blocks of the last loaded model
-	// what is needed is a list of mdSysmlBlocks for each MagicDraw model,
-	// populated when loading a specific model, and used in the creation web
-	// services
-	public static Map<String, Collection<Class>> projectIdMDSysmlBlocksMap = new HashMap<String, Collection<Class>>();
-
-	static Collection<Class> mdSysmlInterfaceBlocks = new ArrayList<Class>();
-	public static Map<String, Collection<Class>> projectIdMDSysmlInterfaceBlocksMap = new HashMap<String, Collection<Class>>();
-
-	static Collection<InformationFlow> mdSysmlItemFlows = new ArrayList<InformationFlow>();
-	public static Map<String, Collection<InformationFlow>> projectIdMDSysmlItemFlowsMap = new HashMap<String, Collection<InformationFlow>>();
-
-	public static Collection<DataType> mdSysmlValueTypes = new ArrayList<DataType>();
-	public static Map<String, Collection<DataType>> projectIdMDSysmlValueTypesMap = new HashMap<String, Collection<DataType>>();
-
-	public static Collection<Property> mdSysmlPartProperties = new ArrayList<Property>();
-	public static Map<String, Collection<Property>> projectIdMDSysmlPartPropertiesMap = new HashMap<String, Collection<Property>>();
-
-	public static Collection<Connector> mdSysmlConnectors = new ArrayList<Connector>();
-	public static Map<String, Collection<Connector>> projectIdMDSysmlConnectorsMap = new HashMap<String, Collection<Connector>>();
-
-	public static Collection<Port> mdSysmlPorts = new ArrayList<Port>();
-	public static Map<String, Collection<Port>> projectIdMDSysmlPortsMap = new HashMap<String, Collection<Port>>();
-
-	public static Collection<Property> mdSysmlValueProperties = new ArrayList<Property>();
-	public static Map<String, Collection<Property>> projectIdMDSysmlValuePropertiesMap = new HashMap<String, Collection<Property>>();
-
-	public static Collection<Property> mdSysmlFlowProperties = new ArrayList<Property>();
-	public static Map<String, Collection<Property>> projectIdMDSysmlFlowPropertiesMap = new HashMap<String, Collection<Property>>();
-
-	public static Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package> mdSysmlPackages = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>();
-	public static Map<String, Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>> projectIdMDSysmlPackagesMap = new HashMap<String, Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>>();
-
-	static Collection<DiagramPresentationElement> mdSysmlBlockDiagrams = new ArrayList<DiagramPresentationElement>();
-	static Collection<DiagramPresentationElement> mdSysmlInternalBlockDiagrams = new ArrayList<DiagramPresentationElement>();
-	static Collection<com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass> mdSysmlAssociationBlocks = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass>();
-
-	static Collection<SysMLRequirement> oslcSysmlRequirements = new ArrayList<SysMLRequirement>();
-	static Collection<SysMLBlock> oslcSysmlBlocks = new ArrayList<SysMLBlock>();
-
-	static Map<String, Class> idMdSysmlRequirementMap = new HashMap<String, Class>();
-	static Map<String, SysMLRequirement> idOslcSysmlRequirementMap = new HashMap<String, SysMLRequirement>();
-
-	// static Map<String, Class> qNameMdSysmlBlockMap = new HashMap<String,
-	// Class>();
-	static Map<String, SysMLBlock> qNameOslcSysmlBlockMap = new HashMap<String, SysMLBlock>();
-
-	static Map<String, SysMLPartProperty> qNameOslcSysmlPartPropertyMap = new HashMap<String, SysMLPartProperty>();
-	static Map<String, SysMLReferenceProperty> qNameOslcSysmlReferencePropertyMap = new HashMap<String, SysMLReferenceProperty>();
-
-	static Map<String, SysMLModel> oslcSysmlModelMap = new HashMap<String, SysMLModel>();
-	static Map<String, SysMLPackage> qNameOslcSysmlPackageMap = new HashMap<String, SysMLPackage>();
-
-	static Map<String, SysMLAssociationBlock> qNameOslcSysmlAssociationBlockMap = new HashMap<String, SysMLAssociationBlock>();
-	static Map<String, SysMLConnector> qNameOslcSysmlConnectorMap = new HashMap<String, SysMLConnector>();
-	static Map<String, SysMLConnectorEnd> qNameOslcSysmlConnectorEndMap = new HashMap<String, SysMLConnectorEnd>();
-	static Map<String, SysMLPort> qNameOslcSysmlPortMap = new HashMap<String, SysMLPort>();
-	static Map<String, SysMLProxyPort> qNameOslcSysmlProxyPortMap = new HashMap<String, SysMLProxyPort>();
-	static Map<String, SysMLFullPort> qNameOslcSysmlFullPortMap = new HashMap<String, SysMLFullPort>();
-
-	static Map<String, SysMLInterfaceBlock> qNameOslcSysmlInterfaceBlockMap = new HashMap<String, SysMLInterfaceBlock>();
-	static Map<String, SysMLFlowProperty> qNameOslcSysmlFlowPropertyMap = new HashMap<String, SysMLFlowProperty>();
-
-	static Map<String, SysMLItemFlow> qNameOslcSysmlItemFlowMap = new HashMap<String, SysMLItemFlow>();
-	static Map<String, SysMLValueProperty> qNameOslcSysmlValuePropertyMap = new HashMap<String, SysMLValueProperty>();
-	static Map<String, SysMLValueType> qNameOslcSysmlValueTypeMap = new HashMap<String, SysMLValueType>();
-
-	static Map<String, SysMLBlockDiagram> qNameOslcSysmlBlockDiagramMap = new HashMap<String, SysMLBlockDiagram>();
-	static Map<String, SysMLInternalBlockDiagram> qNameOslcSysmlInternalBlockDiagramMap = new HashMap<String, SysMLInternalBlockDiagram>();
-
-	static String projectId;
+    /**
+     * Stereotypes of the directed relationships mapped as links.
+     */
+    private static final Collection<String> DIRECTED_LINK_STEREOTYPES = Arrays.asList("Satisfy", "DeriveReqt", "Refine", "Copy");
 
 	public static Application magicdrawApplication;
 	public static Object applicationClassInstance;
 	public static java.lang.Class<?> applicationClass;
-	static Model model;
-	public static Project project;
 	public static ProjectsManager projectsManager;
-	public static Map<String, Project> loadedProjects = new HashMap<String, Project>();
 
-	static String magicDrawFileName;
 
 	
 
@@ -214,16 +119,18 @@ public class MagicDrawManager {
 	 * This method is invoked by most or all web services of the OSLC MagicDraw
 	 * adapter.
 	 * 
+	 * @param context
+	 *            the conversion to load the project into
 	 * @param projectId
 	 *            the name of the MagicDraw mdzip file (not the name of the
 	 *            SysML model contained in the mdzip file!)
 	 * 
 	 */
-	public static void loadSysMLProject(String projectId, String magicDrawModelPath) throws ApplicationExitedException, MDModelLibException, URISyntaxException, IOException {
-		initializeCollections();
-		MagicDrawManager.projectId = projectId;
-		magicDrawFileName = projectId;
-		if (project == null) {
+	public static void loadSysMLProject(ConversionContext context, String projectId, String magicDrawModelPath) throws ApplicationExitedException, MDModelLibException, URISyntaxException, IOException {
+		initializeCollections(context);
+		context.projectId = projectId;
+		context.magicDrawFileName = projectId;
+		if (magicdrawApplication == null) {
             magicdrawApplication = Application.getInstance();
             magicdrawApplication.start(false, true, false, new String[0], null);
 		}
@@ -233,233 +140,239 @@ public class MagicDrawManager {
         // final File sysmlfile = new File(magicdrawModelsDirectory +
         // projectId + ".mdzip");
         ProjectDescriptor projectDescriptor = ProjectDescriptorsFactory.createProjectDescriptor(sysmlfile.toURI());
-        projectsManager.loadProject(projectDescriptor, true);
+        try (StageTimer.Stage stage = context.timer.start("load")) {
+            projectsManager.loadProject(projectDescriptor, true);
+        }
         if (!SessionManager.getInstance().isSessionCreated()) {
             SessionManager.getInstance().createSession("MagicDraw OSLC Session for projectId" + projectId);
         }
-        project = projectsManager.getActiveProject();
-        loadedProjects.put(projectId, project);
+        context.project = projectsManager.getActiveProject();
+        context.projectFile = sysmlfile;
+        context.loadedProjects.put(projectId, context.project);
         
 		// List of packages not to load
-		predefinedMagicDrawSysMLPackageNames.add("SysML");
-		predefinedMagicDrawSysMLPackageNames.add("Matrix Templates Profile");
-		predefinedMagicDrawSysMLPackageNames.add("UML Standard Profile");
-		predefinedMagicDrawSysMLPackageNames.add("QUDV Library");
-		predefinedMagicDrawSysMLPackageNames.add("PrimitiveValueTypes");
-		predefinedMagicDrawSysMLPackageNames.add("MD Customization for SysML");
+		context.predefinedMagicDrawSysMLPackageNames.addAll(ConversionContext.PREDEFINED_PACKAGE_NAMES);
         
         // mapping MagicDraw SysML model
-        model = mapSysMLModel(project);
+        context.model = mapSysMLModel(context, context.project);
+
+        // indexing all MagicDraw SysML elements in a single model traversal
+        SysMLModelIndex index;
+        try (StageTimer.Stage stage = context.timer.start("index")) {
+            index = SysMLModelIndex.build(context.model, context.predefinedMagicDrawSysMLPackageNames, "QUDV Library");
+        }
 
         // collecting all MagicDraw SysML blocks and requirements
-        mdSysmlBlocks = getAllSysMLBlocks(model);
+        context.mdSysmlBlocks = index.getBlocks();
         Collection<Class> blocks = new ArrayList<Class>();
-        blocks.addAll(mdSysmlBlocks);
-        projectIdMDSysmlBlocksMap.put(projectId, blocks);
+        blocks.addAll(context.mdSysmlBlocks);
+        context.projectIdMDSysmlBlocksMap.put(projectId, blocks);
 
-        mdSysmlRequirements = getAllSysMLRequirements(model);
+        context.mdSysmlRequirements = index.getRequirements();
         Collection<Class> reqs = new ArrayList<Class>();
-        reqs.addAll(mdSysmlRequirements);
-        projectIdMDSysmlRequirementsMap.put(projectId, reqs);
+        reqs.addAll(context.mdSysmlRequirements);
+        context.projectIdMDSysmlRequirementsMap.put(projectId, reqs);
 
-        mdSysmlPackages = getAllSysMLPackages(model);
+        context.mdSysmlPackages = index.getPackages();
         Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package> packages = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>();
-        packages.addAll(mdSysmlPackages);
-        projectIdMDSysmlPackagesMap.put(projectId, packages);
+        packages.addAll(context.mdSysmlPackages);
+        context.projectIdMDSysmlPackagesMap.put(projectId, packages);
 
-        mdSysmlAssociationBlocks = getAllSysMLAssociationBlocks(model);
+        context.mdSysmlAssociationBlocks = index.getAssociationBlocks();
 
-        mdSysmlInterfaceBlocks = getAllSysMLInterfaceBlocks(model);
+        context.mdSysmlInterfaceBlocks = index.getInterfaceBlocks();
         Collection<Class> infblocks = new ArrayList<Class>();
-        infblocks.addAll(mdSysmlInterfaceBlocks);
-        projectIdMDSysmlInterfaceBlocksMap.put(projectId, infblocks);
+        infblocks.addAll(context.mdSysmlInterfaceBlocks);
+        context.projectIdMDSysmlInterfaceBlocksMap.put(projectId, infblocks);
 
-        mdSysmlItemFlows = getAllSysMLItemFlows(model);
+        context.mdSysmlItemFlows = index.getItemFlows();
         Collection<InformationFlow> itemFlows = new ArrayList<InformationFlow>();
-        itemFlows.addAll(mdSysmlItemFlows);
-        projectIdMDSysmlItemFlowsMap.put(projectId, itemFlows);
+        itemFlows.addAll(context.mdSysmlItemFlows);
+        context.projectIdMDSysmlItemFlowsMap.put(projectId, itemFlows);
 
-        predefinedMagicDrawSysMLPackageNames.remove("QUDV Library");
-
-        mdSysmlValueTypes = getAllSysMLValueTypes(model);
+        context.mdSysmlValueTypes = index.getValueTypes();
         Collection<DataType> valuetypes = new ArrayList<DataType>();
-        valuetypes.addAll(mdSysmlValueTypes);
-        projectIdMDSysmlValueTypesMap.put(projectId, valuetypes);
+        valuetypes.addAll(context.mdSysmlValueTypes);
+        context.projectIdMDSysmlValueTypesMap.put(projectId, valuetypes);
 
-        predefinedMagicDrawSysMLPackageNames.add("QUDV Library");
+        try (StageTimer.Stage stage = context.timer.start("diagrams")) {
+            getAllSysMLDiagrams(context);
+        }
 
-        getAllSysMLDiagrams();
+        // indexing the satisfy/derive/refine/copy links once for all elements
+        try (StageTimer.Stage stage = context.timer.start("links")) {
+            context.links = DirectedLinkIndex.build(index.getDirectedRelationships(), DIRECTED_LINK_STEREOTYPES,
+                    element -> getDirectedLinkedElementURI(context, element));
+        }
 
         // closing MagicDraw
         // magicdrawApplication.exit();
         //
 
-        // mapping MagicDraw SysML packages into OSLC packages
-        mapSysMLPackages();
+        // mapping MagicDraw SysML elements into OSLC resources
+        mapSysMLElements(context);
 
-        // mapping MagicDraw SysML requirements into OSLC requirements
-        mapSysMLRequirements();
+        // export SysML block and internal block diagram images
+        if (context.images != null) {
+            try (StageTimer.Stage stage = context.timer.start("images")) {
+                new DiagramImageExporter(context, context.images).export();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("diagram image export interrupted", ex);
+            }
+        }
 
-        // mapping MagicDraw SysML blocks into OSLC blocks
-        mapSysMLBlocks();
-        initializeMap();
+        // map SysML internal block diagrams
+        LOG.log(Level.INFO, "Stereotype cache: {0}", MDSysMLModelHandler.getStereotypeCache());
+        LOG.log(Level.INFO, "Qualified name encoder: {0}", context.names);
 
-        // mapping MagicDraw SysML interface blocks into OSLC interface
-        // blocks
-        mapSysMLInterfaceBlocks();
+	}
 
-        // mapping MagicDraw SysML association blocks into OSLC association
-        // blocks
-        mapSysMLAssociationBlocks();
+	/**
+	 * Maps the collected MagicDraw SysML elements into OSLC resources. Each
+	 * phase writes its own resources, so phases not depending on each other
+	 * run concurrently when the context has more than one mapping thread,
+	 * which is experimental since MagicDraw model reads are not documented as
+	 * thread-safe. Relationship phases run once the resources they link are
+	 * mapped.
+	 * 
+	 * @param context
+	 *            the conversion holding the collected elements
+	 */
+	private static void mapSysMLElements(final ConversionContext context) throws MDModelLibException, URISyntaxException, IOException {
+		MappingScheduler scheduler = context.scheduler;
 
-        // mapping MagicDraw SysML value types into OSLC value types
-        mapSysMLValueTypes();
+		// mapping MagicDraw SysML packages into OSLC packages
+		scheduler.phase("packages", () -> mapSysMLPackages(context));
 
-        // mapping MagicDraw SysML item flows into OSLC item flows
-        mapSysMLItemFlows();
+		// mapping MagicDraw SysML requirements into OSLC requirements
+		scheduler.phase("requirements", () -> mapSysMLRequirements(context));
 
-        // mapping MagicDraw SysML package relationships
-        mapSysMLPackageRelationships();
+		// mapping MagicDraw SysML blocks into OSLC blocks
+		scheduler.phase("blocks", () -> mapSysMLBlocks(context));
+		scheduler.phase("blockElements", () -> initializeMap(context), "blocks");
 
-        // mapping MagicDraw SysML requirements relationships
-        mapSysMLRequirementRelationships();
+		// mapping MagicDraw SysML interface blocks into OSLC interface
+		// blocks
+		scheduler.phase("interfaceBlocks", () -> mapSysMLInterfaceBlocks(context));
 
-        // mapping MagicDraw SysML block relationships
-        mapSysMLBlockRelationships();
+		// mapping MagicDraw SysML association blocks into OSLC association
+		// blocks
+		scheduler.phase("associationBlocks", () -> mapSysMLAssociationBlocks(context));
 
-        // map SysML block diagrams
-        //mapSysMLBlockDiagrams();
+		// mapping MagicDraw SysML value types into OSLC value types
+		scheduler.phase("valueTypes", () -> mapSysMLValueTypes(context));
 
-        // map SysML internal block diagrams
+		// mapping MagicDraw SysML item flows into OSLC item flows
+		scheduler.phase("itemFlows", () -> mapSysMLItemFlows(context));
 
+		// mapping MagicDraw SysML package relationships
+		scheduler.phase("packageRelationships", () -> mapSysMLPackageRelationships(context), "packages");
+
+		// mapping MagicDraw SysML requirements relationships
+		scheduler.phase("requirementRelationships", () -> mapSysMLRequirementRelationships(context), "requirements");
+
+		// mapping MagicDraw SysML block relationships
+		scheduler.phase("blockRelationships", () -> mapSysMLBlockRelationships(context), "blocks");
+
+		try (StageTimer.Stage stage = context.timer.start("map")) {
+			scheduler.run();
+		} catch (MDModelLibException | URISyntaxException | IOException | RuntimeException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IllegalStateException("Could not map SysML elements", ex);
+		}
+		LOG.log(Level.INFO, "SysML elements mapped with {0} thread(s)", scheduler.getThreads());
 	}
 
-	private static void initializeMap() {
+	private static void initializeMap(ConversionContext context) {
 		Collection<Property> parts = new ArrayList<Property>();
-		parts.addAll(mdSysmlPartProperties);
-		projectIdMDSysmlPartPropertiesMap.put(projectId, parts);
+		parts.addAll(context.mdSysmlPartProperties);
+		context.projectIdMDSysmlPartPropertiesMap.put(context.projectId, parts);
 
 		Collection<Property> values = new ArrayList<Property>();
-		values.addAll(mdSysmlValueProperties);
-		projectIdMDSysmlValuePropertiesMap.put(projectId, values);
+		values.addAll(context.mdSysmlValueProperties);
+		context.projectIdMDSysmlValuePropertiesMap.put(context.projectId, values);
 
 		Collection<Property> flows = new ArrayList<Property>();
-		flows.addAll(mdSysmlFlowProperties);
-		projectIdMDSysmlFlowPropertiesMap.put(projectId, flows);
+		flows.addAll(context.mdSysmlFlowProperties);
+		context.projectIdMDSysmlFlowPropertiesMap.put(context.projectId, flows);
 
 		Collection<Connector> connectors = new ArrayList<Connector>();
-		connectors.addAll(mdSysmlConnectors);
-		projectIdMDSysmlConnectorsMap.put(projectId, connectors);
+		connectors.addAll(context.mdSysmlConnectors);
+		context.projectIdMDSysmlConnectorsMap.put(context.projectId, connectors);
 
 		Collection<Port> ports = new ArrayList<Port>();
-		ports.addAll(mdSysmlPorts);
-		projectIdMDSysmlPortsMap.put(projectId, ports);
+		ports.addAll(context.mdSysmlPorts);
+		context.projectIdMDSysmlPortsMap.put(context.projectId, ports);
 
 	}
 
-	private static void initializeCollections() {
+	static void initializeCollections(ConversionContext context) {
 
-		magicDrawFileName = null;
+		context.magicDrawFileName = null;
+		context.names.clear();
 		// model = null;
 
-		mdSysmlBlocks.clear();
-		mdSysmlRequirements.clear();
-		mdSysmlPackages.clear();
-		mdSysmlAssociationBlocks.clear();
-		mdSysmlInterfaceBlocks.clear();
-		mdSysmlItemFlows.clear();
-		mdSysmlValueTypes.clear();
-		mdSysmlBlockDiagrams.clear();
-		mdSysmlInternalBlockDiagrams.clear();
-		mdSysmlPartProperties.clear();
-		mdSysmlConnectors.clear();
-		mdSysmlPorts.clear();
-		mdSysmlValueProperties.clear();
-		mdSysmlFlowProperties.clear();
-
-		oslcSysmlRequirements.clear();
-		oslcSysmlBlocks.clear();
-
-		idMdSysmlRequirementMap.clear();
+		context.mdSysmlBlocks.clear();
+		context.mdSysmlRequirements.clear();
+		context.mdSysmlPackages.clear();
+		context.mdSysmlAssociationBlocks.clear();
+		context.mdSysmlInterfaceBlocks.clear();
+		context.mdSysmlItemFlows.clear();
+		context.mdSysmlValueTypes.clear();
+		context.mdSysmlBlockDiagrams.clear();
+		context.mdSysmlInternalBlockDiagrams.clear();
+		context.mdSysmlPartProperties.clear();
+		context.mdSysmlConnectors.clear();
+		context.mdSysmlPorts.clear();
+		context.mdSysmlValueProperties.clear();
+		context.mdSysmlFlowProperties.clear();
+
+		context.oslcSysmlRequirements.clear();
+		context.oslcSysmlBlocks.clear();
+
+		context.idMdSysmlRequirementMap.clear();
 //		idOslcSysmlRequirementMap.clear();
 
-		oslcSysmlModelMap.clear();
+		context.oslcSysmlModelMap.clear();
 	}
 
-	private static void mapSysMLBlockDiagrams() throws IOException {
-		for (DiagramPresentationElement diagramPresentationElement : mdSysmlBlockDiagrams) {
-			String diagramName = diagramPresentationElement.getDiagram().getName();
-			// BaseElement baseElement =
-			// diagramPresentationElement.getObjectParent();
-			// Element owner =
-			// diagramPresentationElement.getDiagram().getOwner();
-
-			if (!diagramPresentationElement.isLoaded()) {
-				diagramPresentationElement.ensureLoaded();
-				System.out.println("diagram not loaded");
-			}
-			if (!diagramPresentationElement.isLoaded()) {
-				System.out.println("diagram still not loaded");
-				diagramPresentationElement.open();
-			}
-			Namespace namespace = diagramPresentationElement.getDiagram().getOwnerOfDiagram();
-			String filePathName = "src/main/webapp/images/sysml block diagrams/" + diagramName + ".png";
-			// String filePathName =
-			// "C:/Users/Axel/git/oslc4jmagicdraw/oslc4jmagicdraw/src/main/webapp/images/sysml
-			// block diagrams/"
-			// + diagramName + ".png";
-			File diagramFile = new File(filePathName);
-			// File diagramFile = new File(mDestinationDir,
-			// diagram.getHumanName() + diagram.getID() + ".png");
-            ImageExporter.export(diagramPresentationElement, ImageExporter.PNG, diagramFile);
-		}
-
-	}
-
-	private static void getAllSysMLDiagrams() throws URISyntaxException, IOException {
+	private static void getAllSysMLDiagrams(ConversionContext context) throws URISyntaxException, IOException {
 		for (DiagramPresentationElement diagramPresentationElement : magicdrawApplication.getProject().getDiagrams()) {
 			String diagramType = diagramPresentationElement.getDiagramType().getType();
 			String diagramName = diagramPresentationElement.getDiagram().getName();
-			String qfOwner = getQualifiedNameOrID(diagramPresentationElement.getDiagram().getOwner());
-			String diagramID = qfOwner + "::" + diagramName.replaceAll("\\n", "-").replaceAll(" ", "_");
-			if (diagramPresentationElement.isLoaded()) {
-				System.out.println("test");
-			}
+			String qfOwner = context.names.getQualifiedNameOrID(diagramPresentationElement.getDiagram().getOwner());
+			String diagramID = qfOwner + "::" + QualifiedNameEncoder.encode(diagramName);
 			if (diagramType.equals("SysML Block Definition Diagram")) {
-				mdSysmlBlockDiagrams.add(diagramPresentationElement);
+				context.mdSysmlBlockDiagrams.add(diagramPresentationElement);
 
 				SysMLBlockDiagram sysMLBlockDiagram;
                 sysMLBlockDiagram = new SysMLBlockDiagram();
-                qNameOslcSysmlBlockDiagramMap.put(magicDrawFileName + "/blockdiagrams/" + diagramID,
+                context.qNameOslcSysmlBlockDiagramMap.put(context.magicDrawFileName + "/blockdiagrams/" + diagramID,
                         sysMLBlockDiagram);
-                sysMLBlockDiagram.setAbout(URI.create(descriptor.resource("blockdiagrams", projectId + diagramID)));
+                sysMLBlockDiagram.setAbout(URI.create(context.descriptor.resource("blockdiagrams", context.projectId + diagramID)));
                 sysMLBlockDiagram.setName(diagramName.replaceAll(" ", "_"));
 
 			} else if (diagramType.equals("SysML Internal Block Diagram")) {
-				mdSysmlInternalBlockDiagrams.add(diagramPresentationElement);
+				context.mdSysmlInternalBlockDiagrams.add(diagramPresentationElement);
 
 				SysMLInternalBlockDiagram sysMLInternalBlockDiagram;
                 sysMLInternalBlockDiagram = new SysMLInternalBlockDiagram();
-                qNameOslcSysmlInternalBlockDiagramMap.put(magicDrawFileName + "/internalblockdiagrams/" + diagramID,
+                context.qNameOslcSysmlInternalBlockDiagramMap.put(context.magicDrawFileName + "/internalblockdiagrams/" + diagramID,
                         sysMLInternalBlockDiagram);
-                sysMLInternalBlockDiagram.setAbout(URI.create(descriptor.resource("internalblockdiagrams", projectId + diagramID)));
+                sysMLInternalBlockDiagram.setAbout(URI.create(context.descriptor.resource("internalblockdiagrams", context.projectId + diagramID)));
                 sysMLInternalBlockDiagram.setName(diagramName.replaceAll(" ", "_"));
 			}
-
-			String filePathName = "src/main/webapp/images/sysml diagrams/" + diagramName + ".png";
-			File diagramFile = new File(filePathName);
-            //TODO ask axel what is this meant to
-    		//ImageExporter.export(diagramPresentationElement, ImageExporter.PNG, diagramFile);
 		}
 
 	}
 
-	private static void mapSysMLValueTypes() throws URISyntaxException {
-		for (DataType mdSysMLValueType : mdSysmlValueTypes) {
-			String qName = mdSysMLValueType.getQualifiedName();
+	private static void mapSysMLValueTypes(ConversionContext context) throws URISyntaxException {
+		for (DataType mdSysMLValueType : context.mdSysmlValueTypes) {
 			SysMLValueType sysMLValueType = new SysMLValueType();
-            qNameOslcSysmlValueTypeMap.put(
-                    magicDrawFileName + "/valuetypes/" + qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
+            context.qNameOslcSysmlValueTypeMap.put(
+                    context.magicDrawFileName + "/valuetypes/" + context.names.getQualifiedName(mdSysMLValueType),
                     sysMLValueType);
 
             // name attribute
@@ -469,7 +382,7 @@ public class MagicDrawManager {
             if (name != null) {
                 sysMLValueType.setName(name);
                 LOG.info("SysML Block with Name: " + sysMLValueType.getName());
-                sysMLValueType.setAbout(URI.create(descriptor.resource("valuetypes", projectId + getQualifiedNameOrID(mdSysMLValueType))));
+                sysMLValueType.setAbout(URI.create(context.descriptor.resource("valuetypes", context.projectId + context.names.getQualifiedNameOrID(mdSysMLValueType))));
             }
 
             // unit attribute
@@ -485,63 +398,41 @@ public class MagicDrawManager {
             }
 
             if (unit != null) {
-                sysMLValueType.setUnit(URI.create(descriptor.resource("units", projectId + getQualifiedNameOrID(unit))));
+                sysMLValueType.setUnit(URI.create(context.descriptor.resource("units", context.projectId + context.names.getQualifiedNameOrID(unit))));
             }
 
             // quantity kind attribute
             Element quantityKind = (Element) StereotypesHelper.getStereotypePropertyFirst(mdSysMLValueType,
                     StereotypesHelper.getFirstVisibleStereotype(mdSysMLValueType), "quantityKind");
             if (quantityKind != null) {
-                sysMLValueType.setUnit(URI.create(descriptor.resource("quantitykinds",projectId	+ getQualifiedNameOrID(quantityKind))));
+                sysMLValueType.setUnit(URI.create(context.descriptor.resource("quantitykinds",context.projectId	+ context.names.getQualifiedNameOrID(quantityKind))));
             }
 		}
 
 	}
 
-	private static Collection<DataType> getAllSysMLValueTypes(
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package packageableElement) throws MDModelLibException {
-		Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DataType> sysmlValueTypes = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DataType>();
-		if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package package_ = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) packageableElement;
-			for (PackageableElement nestedPackageableElement : package_.getPackagedElement()) {
-				if (MDSysMLModelHandler.isSysMLElement(nestedPackageableElement, "ValueType")) {
-					DataType magicDrawSysMLValueType = (DataType) nestedPackageableElement;
-					sysmlValueTypes.add(magicDrawSysMLValueType);
-				} else
-					if (nestedPackageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-					com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package nestedPackage = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) nestedPackageableElement;
-					if (!predefinedMagicDrawSysMLPackageNames.contains(nestedPackage.getName())) {
-						sysmlValueTypes.addAll(getAllSysMLValueTypes(nestedPackage));
-					}
-				}
-			}
-		}
-
-		return sysmlValueTypes;
-	}
-
-	private static void mapSysMLItemFlows() throws MDModelLibException, URISyntaxException {
-		for (com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow mdSysMLItemFlow : mdSysmlItemFlows) {
+	private static void mapSysMLItemFlows(ConversionContext context) throws MDModelLibException, URISyntaxException {
+		for (com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow mdSysMLItemFlow : context.mdSysmlItemFlows) {
 			String itemFlowID = mdSysMLItemFlow.getID();
 			// qNameMdSysmlAssociationBlockMap.put(
 			// qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
 			// mdSysMLAssociationBlock);
 			SysMLItemFlow sysMLItemFlow = new SysMLItemFlow();
-            qNameOslcSysmlItemFlowMap.put(getQualifiedNameOrID(mdSysMLItemFlow), sysMLItemFlow);
-            sysMLItemFlow.setAbout(URI.create(descriptor.resource("itemflows", projectId + getQualifiedNameOrID(mdSysMLItemFlow))));
+            context.qNameOslcSysmlItemFlowMap.put(context.names.getQualifiedNameOrID(mdSysMLItemFlow), sysMLItemFlow);
+            sysMLItemFlow.setAbout(URI.create(context.descriptor.resource("itemflows", context.projectId + context.names.getQualifiedNameOrID(mdSysMLItemFlow))));
 
             // information source
             NamedElement informationSource = (NamedElement) mdSysMLItemFlow.getInformationSource().toArray()[0];
             URI linkedInformationSourceURI = null;
             if (MDSysMLModelHandler.isSysMLElement(informationSource, "PartProperty")) {
-                linkedInformationSourceURI = new URI(descriptor.resource("partproperties", projectId + getQualifiedNameOrID(informationSource)));
+                linkedInformationSourceURI = new URI(context.descriptor.resource("partproperties", context.projectId + context.names.getQualifiedNameOrID(informationSource)));
             } else if (MDSysMLModelHandler.isSysMLElement(informationSource, "ProxyPort")) {
-                linkedInformationSourceURI = new URI(descriptor.resource("proxyports", projectId + getQualifiedNameOrID(informationSource)));
+                linkedInformationSourceURI = new URI(context.descriptor.resource("proxyports", context.projectId + context.names.getQualifiedNameOrID(informationSource)));
             } else if (MDSysMLModelHandler.isSysMLElement(informationSource, "FullPort")) {
-                linkedInformationSourceURI = new URI(descriptor.resource("fullports", projectId	+ getQualifiedNameOrID(informationSource)));
+                linkedInformationSourceURI = new URI(context.descriptor.resource("fullports", context.projectId	+ context.names.getQualifiedNameOrID(informationSource)));
             } else
                 if (informationSource instanceof com.nomagic.uml2.ext.magicdraw.compositestructures.mdports.Port) {
-                linkedInformationSourceURI = new URI(descriptor.resource("ports", projectId+ getQualifiedNameOrID(informationSource)));
+                linkedInformationSourceURI = new URI(context.descriptor.resource("ports", context.projectId+ context.names.getQualifiedNameOrID(informationSource)));
             }
             sysMLItemFlow.setInformationSource(linkedInformationSourceURI);
 
@@ -549,22 +440,22 @@ public class MagicDrawManager {
             NamedElement informationTarget = (NamedElement) mdSysMLItemFlow.getInformationTarget().toArray()[0];
             URI linkedInformationTargetURI = null;
             if (MDSysMLModelHandler.isSysMLElement(informationTarget, "PartProperty")) {
-                linkedInformationTargetURI = new URI(descriptor.resource("partproperties", projectId + getQualifiedNameOrID(informationTarget)));
+                linkedInformationTargetURI = new URI(context.descriptor.resource("partproperties", context.projectId + context.names.getQualifiedNameOrID(informationTarget)));
 
             } else if (MDSysMLModelHandler.isSysMLElement(informationTarget, "ProxyPort")) {
-                linkedInformationTargetURI = new URI(descriptor.resource("proxyports", projectId + getQualifiedNameOrID(informationTarget)));
+                linkedInformationTargetURI = new URI(context.descriptor.resource("proxyports", context.projectId + context.names.getQualifiedNameOrID(informationTarget)));
             } else if (MDSysMLModelHandler.isSysMLElement(informationTarget, "FullPort")) {
-                linkedInformationTargetURI = new URI(descriptor.resource("fullports", projectId + getQualifiedNameOrID(informationTarget)));
+                linkedInformationTargetURI = new URI(context.descriptor.resource("fullports", context.projectId + context.names.getQualifiedNameOrID(informationTarget)));
             } else
                 if (informationTarget instanceof com.nomagic.uml2.ext.magicdraw.compositestructures.mdports.Port) {
-                linkedInformationTargetURI = new URI(descriptor.resource("ports", projectId	+ getQualifiedNameOrID(informationTarget)));
+                linkedInformationTargetURI = new URI(context.descriptor.resource("ports", context.projectId	+ context.names.getQualifiedNameOrID(informationTarget)));
             }
             sysMLItemFlow.setInformationTarget(linkedInformationTargetURI);
 
             // realizingConnector
             if (mdSysMLItemFlow.getRealizingConnector().size() > 0) {
                 Connector connector = (Connector) mdSysMLItemFlow.getRealizingConnector().toArray()[0];
-                URI realizingConnectorURI = new URI(descriptor.resource("connectors", projectId + getQualifiedNameOrID(connector)));
+                URI realizingConnectorURI = new URI(context.descriptor.resource("connectors", context.projectId + context.names.getQualifiedNameOrID(connector)));
                 sysMLItemFlow.setRealizingConnector(realizingConnectorURI);
             }
 
@@ -574,7 +465,7 @@ public class MagicDrawManager {
             URI itemPropertyURI = null;
             if (itemProperty != null) {
                 if (MDSysMLModelHandler.isSysMLElement(itemProperty, "FlowProperty")) {
-                    itemPropertyURI = new URI(descriptor.resource("flowproperties", projectId + getQualifiedNameOrID(itemProperty)));
+                    itemPropertyURI = new URI(context.descriptor.resource("flowproperties", context.projectId + context.names.getQualifiedNameOrID(itemProperty)));
                 }
                 sysMLItemFlow.setItemProperty(itemPropertyURI);
             }
@@ -583,15 +474,14 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLAssociationBlocks() throws URISyntaxException {
-		for (com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass mdSysMLAssociationBlock : mdSysmlAssociationBlocks) {
-			String qName = mdSysMLAssociationBlock.getQualifiedName();
+	private static void mapSysMLAssociationBlocks(ConversionContext context) throws URISyntaxException {
+		for (com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass mdSysMLAssociationBlock : context.mdSysmlAssociationBlocks) {
 			// qNameMdSysmlAssociationBlockMap.put(
 			// qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
 			// mdSysMLAssociationBlock);
 			SysMLAssociationBlock sysMLAssociationBlock = new SysMLAssociationBlock();
-            qNameOslcSysmlAssociationBlockMap.put(
-                    magicDrawFileName + "/associationblocks/" + qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
+            context.qNameOslcSysmlAssociationBlockMap.put(
+                    context.magicDrawFileName + "/associationblocks/" + context.names.getQualifiedName(mdSysMLAssociationBlock),
                     sysMLAssociationBlock);
 
             // SysML association block Name attribute
@@ -599,7 +489,7 @@ public class MagicDrawManager {
             if (name != null) {
                 sysMLAssociationBlock.setName(name);
                 LOG.info("SysML Block with Name: " + sysMLAssociationBlock.getName());
-                sysMLAssociationBlock.setAbout(URI.create(descriptor.resource("associationblocks", projectId + qName.replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                sysMLAssociationBlock.setAbout(context.names.getURI("associationblocks", mdSysMLAssociationBlock));
             }
 
             // SysML association block memberEnd attribute
@@ -609,7 +499,7 @@ public class MagicDrawManager {
             int linksArrayIndex = 0;
             for (Property memberEnd : mdSysMAssociation.getMemberEnd()) {
                 URI linkedElementURI = null;
-                linkedElementURI = new URI(descriptor.resource("referenceproperties", projectId	+ memberEnd.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_")));
+                linkedElementURI = context.names.getURI("referenceproperties", memberEnd);
                 Link link = new Link(linkedElementURI);
                 linksArray[linksArrayIndex] = link;
                 linksArrayIndex++;
@@ -621,15 +511,14 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLInterfaceBlocks() throws MDModelLibException, URISyntaxException {
-		for (Class mdSysMLBlock : mdSysmlInterfaceBlocks) {
-			String qName = mdSysMLBlock.getQualifiedName();
+	private static void mapSysMLInterfaceBlocks(ConversionContext context) throws MDModelLibException, URISyntaxException {
+		for (Class mdSysMLBlock : context.mdSysmlInterfaceBlocks) {
 			// qNameMdSysmlInterfaceBlockMap.put(
 			// qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
 			// mdSysMLBlock);
 			SysMLInterfaceBlock sysMLInterfaceBlock = new SysMLInterfaceBlock();
-            qNameOslcSysmlInterfaceBlockMap.put(
-                    magicDrawFileName + "/interfaceblocks/" + qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
+            context.qNameOslcSysmlInterfaceBlockMap.put(
+                    context.magicDrawFileName + "/interfaceblocks/" + context.names.getQualifiedName(mdSysMLBlock),
                     sysMLInterfaceBlock);
 
             // SysML Block Name attribute
@@ -637,21 +526,21 @@ public class MagicDrawManager {
             if (name != null) {
                 sysMLInterfaceBlock.setName(name);
                 LOG.info("SysML Interface Block with Name: " + sysMLInterfaceBlock.getName());
-                sysMLInterfaceBlock.setAbout(URI.create(descriptor.resource("interfaceblocks", projectId + qName.replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                sysMLInterfaceBlock.setAbout(context.names.getURI("interfaceblocks", mdSysMLBlock));
             }
 
             // SysML Block Flow Properties
-            mapSysMLFlowProperties(mdSysMLBlock, sysMLInterfaceBlock);
+            mapSysMLFlowProperties(context, mdSysMLBlock, sysMLInterfaceBlock);
 
             // SysML Proxy Ports
-            mapSysMLProxyPorts(mdSysMLBlock, sysMLInterfaceBlock);
+            mapSysMLProxyPorts(context, mdSysMLBlock, sysMLInterfaceBlock);
 		}
 
 	}
 
-	private static void mapSysMLFlowProperties(Class mdSysMLBlock, SysMLInterfaceBlock sysMLInterfaceBlock) throws URISyntaxException {
-		Link[] flowPropertiesLinksArray = getLinkedStereotypedSysMLElements(mdSysMLBlock.getOwnedAttribute(),
-				"FlowProperty", descriptor.resource("flowproperties", projectId));
+	private static void mapSysMLFlowProperties(ConversionContext context, Class mdSysMLBlock, SysMLInterfaceBlock sysMLInterfaceBlock) throws URISyntaxException {
+		Link[] flowPropertiesLinksArray = getLinkedStereotypedSysMLElements(context, mdSysMLBlock.getOwnedAttribute(),
+				"FlowProperty", context.descriptor.resource("flowproperties", context.projectId));
 
 		if (flowPropertiesLinksArray != null) {
 			sysMLInterfaceBlock.setFlowProperties(flowPropertiesLinksArray);
@@ -671,22 +560,20 @@ public class MagicDrawManager {
 				InstanceSpecification stereotypeInstance = property.getAppliedStereotypeInstance();
 				if (stereotypeInstance.getClassifier().get(0).getName().contains("FlowProperty")) {
 					SysMLFlowProperty sysmlFlowProperty = new SysMLFlowProperty();
-                    qNameOslcSysmlFlowPropertyMap.put(
-                            magicDrawFileName + "/flowproperties/"
-                                    + property.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"),
+                    context.qNameOslcSysmlFlowPropertyMap.put(
+                            context.magicDrawFileName + "/flowproperties/"
+                                    + context.names.getQualifiedName(property),
                             sysmlFlowProperty);
 
                     // referenceProperty name
                     sysmlFlowProperty.setName(property.getName());
 
-                    String qName = property.getQualifiedName();
-                    sysmlFlowProperty.setAbout(URI.create(descriptor.resource("flowproperties", projectId + qName.replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysmlFlowProperty.setAbout(context.names.getURI("flowproperties", property));
 
                     // referenceProperty type
                     if (property.getType() != null) {
                         sysmlFlowProperty
-                                .setType(new URI(descriptor.resource("blocks", projectId + property
-                                        .getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                                .setType(context.names.getURI("blocks", property.getType()));
                     }
 
                     // referenceProperty multiplicity
@@ -722,20 +609,6 @@ public class MagicDrawManager {
 
 	}
 
-	private static Collection<com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass> getAllSysMLAssociationBlocks(
-			Model model) {
-		Collection<com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass> sysmlAssociationBlocks = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass>();
-		java.lang.Class[] classArray = new java.lang.Class[1];
-		classArray[0] = com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass.class;
-		Collection<? extends Element> elementsOfType = ModelHelper.getElementsOfType(model, classArray, true, true);
-		sysmlAssociationBlocks = (Collection<AssociationClass>) elementsOfType;
-		LOG.info("**** Elements of type AssociationClass ****");
-		for (Element element : elementsOfType) {
-			LOG.info("" + element.getHumanName());
-		}
-		return sysmlAssociationBlocks;
-	}
-
 	// static Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class>
 	// getAllSysMLAssociationBlocks(
 	// com.nomagic.uml2.ext.magicdraw.classes.mdkernel.PackageableElement
@@ -786,36 +659,15 @@ public class MagicDrawManager {
 	// return sysmlBlocks;
 	// }
 
-	private static Collection<com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow> getAllSysMLItemFlows(
-			Model model) throws MDModelLibException {
-		Collection<com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow> sysmlInformationFlows = new ArrayList<com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow>();
-		java.lang.Class[] classArray = new java.lang.Class[1];
-		classArray[0] = com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow.class;
-		Collection<? extends Element> elementsOfType = ModelHelper.getElementsOfType(model, classArray, true, true);
-		sysmlInformationFlows = (Collection<com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow>) elementsOfType;
-		Collection<com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow> itemFlows = new ArrayList<com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow>();
-		for (InformationFlow sysmlInformationFlow : sysmlInformationFlows) {
-			if (MDSysMLModelHandler.isSysMLElement(sysmlInformationFlow, "ItemFlow")) {
-				itemFlows.add(sysmlInformationFlow);
-			}
-		}
+	private static void mapSysMLPackageRelationships(ConversionContext context) throws URISyntaxException {
+		for (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package mdSysMLPackage : context.mdSysmlPackages) {
 
-		// LOG.info("**** Elements of type InformationFlow ****");
-		// for (Element element : elementsOfType) {
-		// LOG.info("" + element.getHumanName());
-		// }
-		return itemFlows;
-	}
-
-	private static void mapSysMLPackageRelationships() throws URISyntaxException {
-		for (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package mdSysMLPackage : mdSysmlPackages) {
-
-			SysMLPackage sysMLPackage = qNameOslcSysmlPackageMap.get(magicDrawFileName + "/packages/"
-					+ mdSysMLPackage.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"));
+			SysMLPackage sysMLPackage = context.qNameOslcSysmlPackageMap.get(context.magicDrawFileName + "/packages/"
+					+ context.names.getQualifiedName(mdSysMLPackage));
 
 			// get nested blocks
-			Link[] packageBlocksLinksArray = getLinkedStereotypedSysMLElements(mdSysMLPackage.getOwnedType(), "Block",
-					descriptor.resource("blocks", projectId));
+			Link[] packageBlocksLinksArray = getLinkedStereotypedSysMLElements(context, mdSysMLPackage.getOwnedType(), "Block",
+					context.descriptor.resource("blocks", context.projectId));
 			if (packageBlocksLinksArray != null) {
 				sysMLPackage.setBlocks(packageBlocksLinksArray);
 				LOG.info(" " + sysMLPackage.getName());
@@ -828,8 +680,8 @@ public class MagicDrawManager {
 			}
 
 			// get nested requirements
-			Link[] packageRequirementsLinksArray = getLinkedStereotypedSysMLElements(mdSysMLPackage.getOwnedType(),
-					"Requirement", descriptor.resource("requirements", projectId));
+			Link[] packageRequirementsLinksArray = getLinkedStereotypedSysMLElements(context, mdSysMLPackage.getOwnedType(),
+					"Requirement", context.descriptor.resource("requirements", context.projectId));
 			if (packageRequirementsLinksArray != null) {
 				sysMLPackage.setRequirements(packageRequirementsLinksArray);
 				LOG.info(" " + sysMLPackage.getName());
@@ -844,14 +696,13 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLPackages() throws URISyntaxException {
-		for (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package mdSysMLPackage : mdSysmlPackages) {
-			String qName = mdSysMLPackage.getQualifiedName();
+	private static void mapSysMLPackages(ConversionContext context) throws URISyntaxException {
+		for (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package mdSysMLPackage : context.mdSysmlPackages) {
 			// qNameMdSysmlPackageMap
 			// .put(qName.replaceAll("\\n", "-"), mdSysMLPackage);
 			SysMLPackage sysMLPackage = new SysMLPackage();
-            qNameOslcSysmlPackageMap.put(
-                    magicDrawFileName + "/packages/" + qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
+            context.qNameOslcSysmlPackageMap.put(
+                    context.magicDrawFileName + "/packages/" + context.names.getQualifiedName(mdSysMLPackage),
                     sysMLPackage);
 
             // SysML Package Name attribute
@@ -859,14 +710,13 @@ public class MagicDrawManager {
             if (name != null) {
                 sysMLPackage.setName(name);
                 LOG.info("SysML Package with Name: " + sysMLPackage.getName());
-                sysMLPackage.setAbout(URI.create(descriptor.resource("packages", projectId
-                        + qName.replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                sysMLPackage.setAbout(context.names.getURI("packages", mdSysMLPackage));
             }
 		}
 
 	}
 
-	private static Model mapSysMLModel(Project project) throws URISyntaxException {
+	private static Model mapSysMLModel(ConversionContext context, Project project) throws URISyntaxException {
 		Model model = project.getModel();
 		SysMLModel sysMLModel = new SysMLModel();
         if (model.getName() == null) {
@@ -875,35 +725,23 @@ public class MagicDrawManager {
             sysMLModel.setName(model.getName());
         }
 
-        sysMLModel.setAbout(URI.create(descriptor.resource("model", projectId + model.getName())));
+        sysMLModel.setAbout(URI.create(context.descriptor.resource("model", context.projectId + model.getName())));
 
-        oslcSysmlModelMap.put(model.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"), sysMLModel);
+        context.oslcSysmlModelMap.put(context.names.getQualifiedName(model), sysMLModel);
 
-        Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package> modelPackages = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>();
+        LinkBuffer packageLinks = LinkBuffer.get();
         for (PackageableElement packageableElement : model.getPackagedElement()) {
             if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-                if (!predefinedMagicDrawSysMLPackageNames.contains(packageableElement.getName())) {
-                    modelPackages.add((com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) packageableElement);
+                if (!context.predefinedMagicDrawSysMLPackageNames.contains(packageableElement.getName())) {
+                    packageLinks.add(context.names.getURI("packages",
+                            (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) packageableElement));
                 }
 
             }
         }
 
-        if (modelPackages.size() > 0) {
-            Link[] linksArray = new Link[modelPackages.size()];
-
-            int linksArrayIndex = 0;
-            for (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package package1 : modelPackages) {
-                if (!predefinedMagicDrawSysMLPackageNames.contains(package1.getName())) {
-                    URI linkedElementURI = null;
-                    linkedElementURI = new URI(descriptor.resource("packages", projectId
-                            + package1.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_")));
-                    Link link = new Link(linkedElementURI);
-                    linksArray[linksArrayIndex] = link;
-                    linksArrayIndex++;
-                }
-            }
-
+        Link[] linksArray = packageLinks.toArray();
+        if (linksArray != null) {
             sysMLModel.setPackages(linksArray);
             LOG.info(" " + sysMLModel.getName());
             LOG.info("\tmodel packages: " + linksArray.length);
@@ -921,10 +759,10 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLBlockRelationships() throws MDModelLibException, URISyntaxException {
-		for (Class mdSysmlBlock : mdSysmlBlocks) {
-			SysMLBlock sysmlBlock = qNameOslcSysmlBlockMap.get(magicDrawFileName + "/blocks/"
-					+ mdSysmlBlock.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"));
+	private static void mapSysMLBlockRelationships(ConversionContext context) throws MDModelLibException, URISyntaxException {
+		for (Class mdSysmlBlock : context.mdSysmlBlocks) {
+			SysMLBlock sysmlBlock = context.qNameOslcSysmlBlockMap.get(context.magicDrawFileName + "/blocks/"
+					+ context.names.getQualifiedName(mdSysmlBlock));
 
 			// SysML Block generalization
 			Collection<Classifier> inheritedClassifiers = mdSysmlBlock.getGeneral();
@@ -934,12 +772,10 @@ public class MagicDrawManager {
 			LOG.info(" " + sysmlBlock.getName());
 			LOG.info("\tinheritedBlocks: " + inheritedBlocksLinkArray.length);
 			for (Classifier inheritedclassifier : inheritedClassifiers) {
-				String qNameInheritedclassifier = inheritedclassifier.getQualifiedName();
-				SysMLBlock inheritedBlock = qNameOslcSysmlBlockMap.get(magicDrawFileName + "/blocks/"
-						+ qNameInheritedclassifier.replaceAll("\\n", "-").replaceAll(" ", "_"));
+				SysMLBlock inheritedBlock = context.qNameOslcSysmlBlockMap.get(context.magicDrawFileName + "/blocks/"
+						+ context.names.getQualifiedName(inheritedclassifier));
 
-				URI inheritedBlockURI = new URI(descriptor.resource("blocks", projectId
-                        + qNameInheritedclassifier.replaceAll("\\n", "-").replaceAll(" ", "_")));
+				URI inheritedBlockURI = context.names.getURI("blocks", inheritedclassifier);
                 Link inheritedBlockLink = new Link(inheritedBlockURI);
                 inheritedBlocksLinkArray[inheritedBlocksLinkArrayIndex] = inheritedBlockLink;
                 inheritedBlocksLinkArrayIndex++;
@@ -961,11 +797,10 @@ public class MagicDrawManager {
 			LOG.info(" " + sysmlBlock.getName());
 			LOG.info("\tnestedBlocks: " + nestedBlocksLinkArray.length);
 			for (Classifier nestedClassifier : nestedClassifiers) {
-				String qNameNestedclassifier = nestedClassifier.getQualifiedName();
-				SysMLBlock nestedBlock = qNameOslcSysmlBlockMap.get(magicDrawFileName + "/blocks/"
-						+ qNameNestedclassifier.replaceAll("\\n", "-").replaceAll(" ", "_"));
+				SysMLBlock nestedBlock = context.qNameOslcSysmlBlockMap.get(context.magicDrawFileName + "/blocks/"
+						+ context.names.getQualifiedName(nestedClassifier));
 				URI nestedBlockURI = new URI(
-                        descriptor.resource("blocks", projectId + nestedBlock.getName()));
+                        context.descriptor.resource("blocks", context.projectId + nestedBlock.getName()));
                 Link nestedBlockLink = new Link(nestedBlockURI);
                 nestedBlocksLinkArray[nestedBlocksLinkArrayIndex] = nestedBlockLink;
                 nestedBlocksLinkArrayIndex++;
@@ -980,7 +815,7 @@ public class MagicDrawManager {
 			}
 
 			// satisfies relationships (Block satisfies Requirement)
-			Link[] satisfiesLinks = getDirectedLinksOfSysMLElement(true, mdSysmlBlock, "Satisfy");
+			Link[] satisfiesLinks = getDirectedLinksOfSysMLElement(context, true, mdSysmlBlock, "Satisfy");
 			if (satisfiesLinks != null) {
 				sysmlBlock.setSatisfies(satisfiesLinks);
 				LOG.info(" " + sysmlBlock.getName());
@@ -994,8 +829,8 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLRequirementRelationships() throws MDModelLibException, URISyntaxException {
-		for (Class mdSysMLRequirement : mdSysmlRequirements) {
+	private static void mapSysMLRequirementRelationships(ConversionContext context) throws MDModelLibException, URISyntaxException {
+		for (Class mdSysMLRequirement : context.mdSysmlRequirements) {
 
 			// String sourceReqQualifiedName = mdSysMLRequirement
 			// .getQualifiedName().replaceAll("\\n", "-")
@@ -1005,47 +840,34 @@ public class MagicDrawManager {
 
 			String id = (String) StereotypesHelper.getStereotypePropertyFirst(mdSysMLRequirement,
 					StereotypesHelper.getFirstVisibleStereotype(mdSysMLRequirement), "Id");
-			SysMLRequirement sysMLRequirement = idOslcSysmlRequirementMap.get(projectId + "/requirements/" + id);
+			SysMLRequirement sysMLRequirement = context.idOslcSysmlRequirementMap.get(context.projectId + "/requirements/" + id);
 
 			// subRequirements
-			Collection<Class> subRequirements = new ArrayList<Class>();
+			LinkBuffer subRequirementsLinks = LinkBuffer.get();
 			for (Classifier nestedClassifier : mdSysMLRequirement.getNestedClassifier()) {
-				if (MDSysMLModelHandler.isSysMLElement(nestedClassifier, "Requirement")) {
-					subRequirements.add((Class) nestedClassifier);
-				}
-			}
-			if (subRequirements.size() > 0) {
-				Link[] subRequirementsLinksArray = new Link[subRequirements.size()];
-				int linksArrayIndex = 0;
-				for (NamedElement namedElement : subRequirements) {
-                    URI linkedElementURI = null;
-
-                    if (namedElement instanceof Class) {
-                        Class mdSysMLClass = (Class) namedElement;
-                        String linkedRequirementID = (String) StereotypesHelper.getStereotypePropertyFirst(
-                                mdSysMLClass, StereotypesHelper.getFirstVisibleStereotype(mdSysMLRequirement),
-                                "Id");
-                        if (linkedRequirementID != null) {
-                            linkedElementURI = new URI(descriptor.resource("requirements", projectId
-                                    + linkedRequirementID));
-                            Link link = new Link(linkedElementURI);
-                            subRequirementsLinksArray[linksArrayIndex] = link;
-                            linksArrayIndex++;
-                        }
+				if (nestedClassifier instanceof Class && MDSysMLModelHandler.isSysMLElement(nestedClassifier, "Requirement")) {
+                    String linkedRequirementID = (String) StereotypesHelper.getStereotypePropertyFirst(
+                            nestedClassifier, StereotypesHelper.getFirstVisibleStereotype(mdSysMLRequirement),
+                            "Id");
+                    if (linkedRequirementID != null) {
+                        subRequirementsLinks.add(new URI(context.descriptor.resource("requirements", context.projectId
+                                + linkedRequirementID)));
                     }
-
 				}
+			}
+			Link[] subRequirementsLinksArray = subRequirementsLinks.toArray();
+			if (subRequirementsLinksArray != null) {
 				sysMLRequirement.setSubRequirements(subRequirementsLinksArray);
 			}
 
 			// master relationship
-			URI masterURI = getDirectedLinkSysMLElement(true, mdSysMLRequirement, "Copy");
+			URI masterURI = getDirectedLinkSysMLElement(context, true, mdSysMLRequirement, "Copy");
 			if (masterURI != null) {
 				sysMLRequirement.setMaster(masterURI);
 			}
 
 			// derivedFrom relationships (Requirement derivedFrom Requirements)
-			Link[] derivedFromLinks = getDirectedLinksOfSysMLElement(true, mdSysMLRequirement, "DeriveReqt");
+			Link[] derivedFromLinks = getDirectedLinksOfSysMLElement(context, true, mdSysMLRequirement, "DeriveReqt");
 			if (derivedFromLinks != null) {
 				sysMLRequirement.setDerivedFromElements(derivedFromLinks);
 				LOG.info(" " + sysMLRequirement.getIdentifier());
@@ -1056,7 +878,7 @@ public class MagicDrawManager {
 			}
 
 			// derived relationships (Requirement has derived Requirements)
-			Link[] derivedLinks = getDirectedLinksOfSysMLElement(false, mdSysMLRequirement, "DeriveReqt");
+			Link[] derivedLinks = getDirectedLinksOfSysMLElement(context, false, mdSysMLRequirement, "DeriveReqt");
 			if (derivedLinks != null) {
 				sysMLRequirement.setDerivedElements(derivedLinks);
 				LOG.info(" " + sysMLRequirement.getIdentifier());
@@ -1067,7 +889,7 @@ public class MagicDrawManager {
 			}
 
 			// satisfiedBy relationships (Requirement satisfied By X)
-			Link[] satisfiedByLinks = getDirectedLinksOfSysMLElement(false, mdSysMLRequirement, "Satisfy");
+			Link[] satisfiedByLinks = getDirectedLinksOfSysMLElement(context, false, mdSysMLRequirement, "Satisfy");
 			if (satisfiedByLinks != null) {
 				sysMLRequirement.setSatisfiedBy(satisfiedByLinks);
 				LOG.info(" " + sysMLRequirement.getIdentifier());
@@ -1078,7 +900,7 @@ public class MagicDrawManager {
 			}
 
 			// refinedBy relationships (Requirement refined By X)
-			Link[] refinedByLinks = getDirectedLinksOfSysMLElement(false, mdSysMLRequirement, "Refine");
+			Link[] refinedByLinks = getDirectedLinksOfSysMLElement(context, false, mdSysMLRequirement, "Refine");
 			if (refinedByLinks != null) {
 				sysMLRequirement.setElaboratedBy(refinedByLinks);
 				LOG.info(" " + sysMLRequirement.getIdentifier());
@@ -1091,50 +913,48 @@ public class MagicDrawManager {
 		}
 	}
 
-	private static void mapSysMLBlocks() throws MDModelLibException, URISyntaxException {
-
-		for (Class mdSysMLBlock : mdSysmlBlocks) {
-			String qName = mdSysMLBlock.getQualifiedName();
-			// qNameMdSysmlBlockMap.put(
-			// qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
-			// mdSysMLBlock);
-			SysMLBlock sysMLBlock = new SysMLBlock();
-            qNameOslcSysmlBlockMap.put(
-                    magicDrawFileName + "/blocks/" + qName.replaceAll("\\n", "-").replaceAll(" ", "_"), sysMLBlock);
+	private static void mapSysMLBlocks(final ConversionContext context) throws Exception {
+		context.scheduler.forEach(context.mdSysmlBlocks, mdSysMLBlock -> mapSysMLBlock(context, mdSysMLBlock));
+	}
 
-            // SysML Block Name attribute
-            String name = mdSysMLBlock.getName();
-            if (name != null) {
-                sysMLBlock.setName(name);
-                LOG.info("SysML Block with Name: " + sysMLBlock.getName());
-                sysMLBlock.setAbout(URI.create(descriptor.resource("blocks", projectId
-                        + qName.replaceAll("\\n", "-").replaceAll(" ", "_"))));
-            }
+	private static void mapSysMLBlock(ConversionContext context, Class mdSysMLBlock) throws MDModelLibException, URISyntaxException {
+		// qNameMdSysmlBlockMap.put(
+		// qName.replaceAll("\\n", "-").replaceAll(" ", "_"),
+		// mdSysMLBlock);
+		SysMLBlock sysMLBlock = new SysMLBlock();
+        context.qNameOslcSysmlBlockMap.put(
+                context.magicDrawFileName + "/blocks/" + context.names.getQualifiedName(mdSysMLBlock), sysMLBlock);
 
-            // SysML Block Parts
-            mapSysMLPartProperties(mdSysMLBlock, sysMLBlock);
+        // SysML Block Name attribute
+        String name = mdSysMLBlock.getName();
+        if (name != null) {
+            sysMLBlock.setName(name);
+            LOG.info("SysML Block with Name: " + sysMLBlock.getName());
+            sysMLBlock.setAbout(context.names.getURI("blocks", mdSysMLBlock));
+        }
 
-            // SysML Block References
-            mapSysMLReferenceProperties(mdSysMLBlock, sysMLBlock);
+        // SysML Block Parts
+        mapSysMLPartProperties(context, mdSysMLBlock, sysMLBlock);
 
-            // SysML Block Value Properties
-            mapSysMLValueProperties(mdSysMLBlock, sysMLBlock);
+        // SysML Block References
+        mapSysMLReferenceProperties(context, mdSysMLBlock, sysMLBlock);
 
-            // SysML Block Flow Properties
-            mapSysMLFlowProperties(mdSysMLBlock, sysMLBlock);
+        // SysML Block Value Properties
+        mapSysMLValueProperties(context, mdSysMLBlock, sysMLBlock);
 
-            // SysML Block Connectors
-            mapSysMLConnectors(mdSysMLBlock, sysMLBlock);
+        // SysML Block Flow Properties
+        mapSysMLFlowProperties(context, mdSysMLBlock, sysMLBlock);
 
-            // SysML Block Ports
-            mapSysMLPorts(mdSysMLBlock, sysMLBlock);
+        // SysML Block Connectors
+        mapSysMLConnectors(context, mdSysMLBlock, sysMLBlock);
 
-		}
+        // SysML Block Ports
+        mapSysMLPorts(context, mdSysMLBlock, sysMLBlock);
 	}
 
-	private static void mapSysMLValueProperties(Class mdSysMLBlock, SysMLBlock sysMLBlock) throws MDModelLibException, URISyntaxException {
-		Link[] valuePropertiesLinksArray = getLinkedStereotypedSysMLElements(mdSysMLBlock.getOwnedAttribute(),
-				"ValueProperty", descriptor.resource("valueproperties", projectId));
+	private static void mapSysMLValueProperties(ConversionContext context, Class mdSysMLBlock, SysMLBlock sysMLBlock) throws MDModelLibException, URISyntaxException {
+		Link[] valuePropertiesLinksArray = getLinkedStereotypedSysMLElements(context, mdSysMLBlock.getOwnedAttribute(),
+				"ValueProperty", context.descriptor.resource("valueproperties", context.projectId));
 
 		if (valuePropertiesLinksArray != null) {
 			sysMLBlock.setValueProperties(valuePropertiesLinksArray);
@@ -1154,22 +974,22 @@ public class MagicDrawManager {
 				InstanceSpecification stereotypeInstance = property.getAppliedStereotypeInstance();
 				if (stereotypeInstance.getClassifier().get(0).getName().contains("ValueProperty")) {
 					SysMLValueProperty sysmlValueProperty = new SysMLValueProperty();
-                    qNameOslcSysmlValuePropertyMap.put(
-                            magicDrawFileName + "/valueproperties/" + getQualifiedNameOrID(property),
+                    context.qNameOslcSysmlValuePropertyMap.put(
+                            context.magicDrawFileName + "/valueproperties/" + context.names.getQualifiedNameOrID(property),
                             sysmlValueProperty);
-                    mdSysmlValueProperties.add(property);
+                    context.mdSysmlValueProperties.add(property);
 
                     // valueProperty name
                     sysmlValueProperty.setName(property.getName());
-                    sysmlValueProperty.setAbout(URI.create(descriptor.resource("valueproperties", projectId + getQualifiedNameOrID(property))));
+                    sysmlValueProperty.setAbout(URI.create(context.descriptor.resource("valueproperties", context.projectId + context.names.getQualifiedNameOrID(property))));
 
                     // valueProperty type
                     if (property.getType() != null) {
                         if (MDSysMLModelHandler.isSysMLElement(property.getType(), "Block")) {
-                            sysmlValueProperty.setType(new URI(descriptor.resource("blocks", projectId
-                                    + getQualifiedNameOrID(property.getType()))));
+                            sysmlValueProperty.setType(new URI(context.descriptor.resource("blocks", context.projectId
+                                    + context.names.getQualifiedNameOrID(property.getType()))));
                         } else if (MDSysMLModelHandler.isSysMLElement(property.getType(), "ValueType")) {
-                            sysmlValueProperty.setType(new URI(descriptor.resource("valuetypes", projectId + getQualifiedNameOrID(property.getType()))));
+                            sysmlValueProperty.setType(new URI(context.descriptor.resource("valuetypes", context.projectId + context.names.getQualifiedNameOrID(property.getType()))));
                         }
                     }
 
@@ -1192,7 +1012,7 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLPorts(Class mdSysMLBlock, SysMLBlock sysMLBlock) throws MDModelLibException, URISyntaxException {
+	private static void mapSysMLPorts(ConversionContext context, Class mdSysMLBlock, SysMLBlock sysMLBlock) throws MDModelLibException, URISyntaxException {
 		ArrayList<Port> proxyPortsList = new ArrayList<Port>();
 		ArrayList<Port> fullPortsList = new ArrayList<Port>();
 		ArrayList<Port> portsList = new ArrayList<Port>();
@@ -1218,16 +1038,16 @@ public class MagicDrawManager {
 
 		if (proxyPortsList.size() > 0) {
 			proxyPortsLinksArray = new Link[proxyPortsList.size()];
-			String proxyPortBaseURI = descriptor.resource("proxyports", projectId);
+			String proxyPortBaseURI = context.descriptor.resource("proxyports", context.projectId);
 			int proxyPortsLinksArrayIndex = 0;
 			for (Port port : proxyPortsList) {
-				URI linkedElementURI = new URI(proxyPortBaseURI + getQualifiedNameOrID(port));
+				URI linkedElementURI = new URI(proxyPortBaseURI + context.names.getQualifiedNameOrID(port));
                 Link link = new Link(linkedElementURI);
                 proxyPortsLinksArray[proxyPortsLinksArrayIndex] = link;
                 proxyPortsLinksArrayIndex++;
 
                 SysMLProxyPort sysMLProxyPort = new SysMLProxyPort();
-                qNameOslcSysmlProxyPortMap.put(magicDrawFileName + "/proxyports/" + getQualifiedNameOrID(port),
+                context.qNameOslcSysmlProxyPortMap.put(context.magicDrawFileName + "/proxyports/" + context.names.getQualifiedNameOrID(port),
                         sysMLProxyPort);
 
                 // port name
@@ -1236,16 +1056,14 @@ public class MagicDrawManager {
                 // port URI
                 String qName = port.getQualifiedName();
                 sysMLProxyPort.setAbout(URI.create(
-                        descriptor.resource("proxyports", projectId + getQualifiedNameOrID(port))));
+                        context.descriptor.resource("proxyports", context.projectId + context.names.getQualifiedNameOrID(port))));
 
                 // port type
                 if (port.getType() != null) {
                     if (MDSysMLModelHandler.isSysMLElement(port.getType(), "Block")) {
-                        sysMLProxyPort.setType(new URI(descriptor.resource("blocks", projectId
-                                + port.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        sysMLProxyPort.setType(context.names.getURI("blocks", port.getType()));
                     } else if (MDSysMLModelHandler.isSysMLElement(port.getType(), "InterfaceBlock")) {
-                        sysMLProxyPort.setType(new URI(descriptor.resource("interfaceblocks", projectId
-                                + port.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        sysMLProxyPort.setType(context.names.getURI("interfaceblocks", port.getType()));
                     }
                 }
 
@@ -1270,16 +1088,16 @@ public class MagicDrawManager {
 
 		if (fullPortsList.size() > 0) {
 			fullPortsLinksArray = new Link[fullPortsList.size()];
-			String fullPortBaseURI = descriptor.resource("fullports", projectId);
+			String fullPortBaseURI = context.descriptor.resource("fullports", context.projectId);
 			int fullPortsLinksArrayIndex = 0;
 			for (Port port : fullPortsList) {
-				URI linkedElementURI = new URI(fullPortBaseURI + getQualifiedNameOrID(port));
+				URI linkedElementURI = new URI(fullPortBaseURI + context.names.getQualifiedNameOrID(port));
                 Link link = new Link(linkedElementURI);
                 fullPortsLinksArray[fullPortsLinksArrayIndex] = link;
                 fullPortsLinksArrayIndex++;
 
                 SysMLFullPort sysMLFullPort = new SysMLFullPort();
-                qNameOslcSysmlFullPortMap.put(magicDrawFileName + "/fullports/" + getQualifiedNameOrID(port),
+                context.qNameOslcSysmlFullPortMap.put(context.magicDrawFileName + "/fullports/" + context.names.getQualifiedNameOrID(port),
                         sysMLFullPort);
 
                 // port name
@@ -1287,16 +1105,14 @@ public class MagicDrawManager {
 
                 // port URI
                 sysMLFullPort.setAbout(URI.create(
-                        descriptor.resource("fullports", projectId + getQualifiedNameOrID(port))));
+                        context.descriptor.resource("fullports", context.projectId + context.names.getQualifiedNameOrID(port))));
 
                 // port type
                 if (port.getType() != null) {
                     if (MDSysMLModelHandler.isSysMLElement(port.getType(), "Block")) {
-                        sysMLFullPort.setType(new URI(descriptor.resource("blocks", projectId
-                                + port.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        sysMLFullPort.setType(context.names.getURI("blocks", port.getType()));
                     } else if (MDSysMLModelHandler.isSysMLElement(port.getType(), "InterfaceBlock")) {
-                        sysMLFullPort.setType(new URI(descriptor.resource("interfaceblocks", projectId
-                                + port.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        sysMLFullPort.setType(context.names.getURI("interfaceblocks", port.getType()));
                     }
                 }
 
@@ -1321,17 +1137,17 @@ public class MagicDrawManager {
 
 		if (portsList.size() > 0) {
 			portsLinksArray = new Link[portsList.size()];
-			String fullPortBaseURI = descriptor.resource("ports", projectId);
+			String fullPortBaseURI = context.descriptor.resource("ports", context.projectId);
 			int portsLinksArrayIndex = 0;
 			for (Port port : portsList) {
-				URI linkedElementURI = new URI(fullPortBaseURI + getQualifiedNameOrID(port));
+				URI linkedElementURI = new URI(fullPortBaseURI + context.names.getQualifiedNameOrID(port));
                 Link link = new Link(linkedElementURI);
                 portsLinksArray[portsLinksArrayIndex] = link;
                 portsLinksArrayIndex++;
 
                 SysMLPort sysMLPort = new SysMLPort();
-                qNameOslcSysmlPortMap.put(magicDrawFileName + "/ports/" + getQualifiedNameOrID(port), sysMLPort);
-                mdSysmlPorts.add(port);
+                context.qNameOslcSysmlPortMap.put(context.magicDrawFileName + "/ports/" + context.names.getQualifiedNameOrID(port), sysMLPort);
+                context.mdSysmlPorts.add(port);
 
                 // port name
                 sysMLPort.setName(port.getName());
@@ -1339,25 +1155,21 @@ public class MagicDrawManager {
                 // port URI
                 String qName = port.getQualifiedName();
                 sysMLPort.setAbout(URI
-                        .create(descriptor.resource("ports", projectId + getQualifiedNameOrID(port))));
+                        .create(context.descriptor.resource("ports", context.projectId + context.names.getQualifiedNameOrID(port))));
 
                 // port type
                 if (port.getType() != null) {
                     if (MDSysMLModelHandler.isSysMLElement(port.getType(), "Block")) {
-                        sysMLPort.setType(new URI(descriptor.resource("blocks", projectId
-                                + port.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        sysMLPort.setType(context.names.getURI("blocks", port.getType()));
                     } else if (MDSysMLModelHandler.isSysMLElement(port.getType(), "InterfaceBlock")) {
-                        sysMLPort.setType(new URI(descriptor.resource("interfaceblocks", projectId
-                                + port.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        sysMLPort.setType(context.names.getURI("interfaceblocks", port.getType()));
                     }
                 }
 
                 // port owner
                 if (port.getOwner() != null) {
                     NamedElement portOwnerNamedElement = (NamedElement) port.getOwner();
-                    sysMLPort.setOwner(
-                            new URI(descriptor.resource("blocks", projectId + portOwnerNamedElement
-                                    .getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysMLPort.setOwner(context.names.getURI("blocks", portOwnerNamedElement));
                 }
 
                 // isService
@@ -1382,7 +1194,7 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLProxyPorts(Class mdSysMLBlock, SysMLInterfaceBlock sysMLInterfaceBlock)
+	private static void mapSysMLProxyPorts(ConversionContext context, Class mdSysMLBlock, SysMLInterfaceBlock sysMLInterfaceBlock)
 			throws MDModelLibException, URISyntaxException {
 		ArrayList<Port> proxyPortsList = new ArrayList<Port>();
 
@@ -1398,16 +1210,16 @@ public class MagicDrawManager {
 
 		if (proxyPortsList.size() > 0) {
 			proxyPortsLinksArray = new Link[proxyPortsList.size()];
-			String proxyPortBaseURI = descriptor.resource("proxyports", projectId);
+			String proxyPortBaseURI = context.descriptor.resource("proxyports", context.projectId);
 			int proxyPortsLinksArrayIndex = 0;
 			for (Port port : proxyPortsList) {
-				URI linkedElementURI = new URI(proxyPortBaseURI + getQualifiedNameOrID(port));
+				URI linkedElementURI = new URI(proxyPortBaseURI + context.names.getQualifiedNameOrID(port));
                 Link link = new Link(linkedElementURI);
                 proxyPortsLinksArray[proxyPortsLinksArrayIndex] = link;
                 proxyPortsLinksArrayIndex++;
 
                 SysMLProxyPort sysMLProxyPort = new SysMLProxyPort();
-                qNameOslcSysmlProxyPortMap.put(magicDrawFileName + "/proxyports/" + getQualifiedNameOrID(port),
+                context.qNameOslcSysmlProxyPortMap.put(context.magicDrawFileName + "/proxyports/" + context.names.getQualifiedNameOrID(port),
                         sysMLProxyPort);
 
                 // port name
@@ -1415,16 +1227,14 @@ public class MagicDrawManager {
 
                 // port URI
                 sysMLProxyPort.setAbout(URI.create(
-                        descriptor.resource("proxyports", projectId + getQualifiedNameOrID(port))));
+                        context.descriptor.resource("proxyports", context.projectId + context.names.getQualifiedNameOrID(port))));
 
                 // port type
                 if (port.getType() != null) {
                     if (MDSysMLModelHandler.isSysMLElement(port.getType(), "Block")) {
-                        sysMLProxyPort.setType(new URI(descriptor.resource("blocks", projectId
-                                + port.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        sysMLProxyPort.setType(context.names.getURI("blocks", port.getType()));
                     } else if (MDSysMLModelHandler.isSysMLElement(port.getType(), "InterfaceBlock")) {
-                        sysMLProxyPort.setType(new URI(descriptor.resource("interfaceblocks", projectId
-                                + port.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        sysMLProxyPort.setType(context.names.getURI("interfaceblocks", port.getType()));
                     }
                 }
 
@@ -1442,9 +1252,9 @@ public class MagicDrawManager {
 		}
 	}
 
-	private static void mapSysMLConnectors(Class mdSysMLBlock, SysMLBlock sysMLBlock) throws MDModelLibException, URISyntaxException {
-		Link[] connectorsLinksArray = getLinkedSysMLElements(mdSysMLBlock.getOwnedConnector(),
-				descriptor.resource("connectors", projectId));
+	private static void mapSysMLConnectors(ConversionContext context, Class mdSysMLBlock, SysMLBlock sysMLBlock) throws MDModelLibException, URISyntaxException {
+		Link[] connectorsLinksArray = getLinkedSysMLElements(context, mdSysMLBlock.getOwnedConnector(),
+				context.descriptor.resource("connectors", context.projectId));
 
 		if (connectorsLinksArray != null) {
 			sysMLBlock.setConnectors(connectorsLinksArray);
@@ -1460,19 +1270,19 @@ public class MagicDrawManager {
 		for (Connector connector : mdSysMLBlock.getOwnedConnector()) {
 			SysMLConnector sysMLConnector = new SysMLConnector();
 
-            qNameOslcSysmlConnectorMap.put(magicDrawFileName + "/connectors/" + getQualifiedNameOrID(connector),
+            context.qNameOslcSysmlConnectorMap.put(context.magicDrawFileName + "/connectors/" + context.names.getQualifiedNameOrID(connector),
                     sysMLConnector);
-            mdSysmlConnectors.add(connector);
+            context.mdSysmlConnectors.add(connector);
             if (!connector.getName().equals("")) {
                 // connector name
                 sysMLConnector.setName(connector.getName());
             }
             sysMLConnector.setAbout(URI.create(
-                    descriptor.resource("connectors", projectId + getQualifiedNameOrID(connector))));
+                    context.descriptor.resource("connectors", context.projectId + context.names.getQualifiedNameOrID(connector))));
 
             // connector ends
-            Link[] connectorsEndsLinksArray = getLinkedSysMLElements(connector.getEnd(),
-                    descriptor.resource("connectorends", projectId));
+            Link[] connectorsEndsLinksArray = getLinkedSysMLElements(context, connector.getEnd(),
+                    context.descriptor.resource("connectorends", context.projectId));
             sysMLConnector.setEnds(connectorsEndsLinksArray);
 
             // connector type
@@ -1480,12 +1290,10 @@ public class MagicDrawManager {
 
                 // connector type is an association block
                 if (MDSysMLModelHandler.isSysMLElement(connector.getType(), "Block")) {
-                    sysMLConnector.setType(new URI(descriptor.resource("associationblocks", projectId
-                            + connector.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysMLConnector.setType(context.names.getURI("associationblocks", connector.getType()));
                 } else if (connector
                         .getType() instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Association) {
-                    sysMLConnector.setType(new URI(descriptor.resource("associations", projectId
-                            + connector.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysMLConnector.setType(context.names.getURI("associations", connector.getType()));
                 }
             }
 
@@ -1493,26 +1301,25 @@ public class MagicDrawManager {
             if (connector.getOwner() != null) {
                 if (connector.getOwner() instanceof NamedElement) {
                     NamedElement namedElement = (NamedElement) connector.getOwner();
-                    sysMLConnector.setOwner(new URI(descriptor.resource("blocks", projectId
-                            + namedElement.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysMLConnector.setOwner(context.names.getURI("blocks", namedElement));
                 }
             }
 
             // map connector ends
-            mapSysMLConnectorEnds(connector, sysMLConnector);
+            mapSysMLConnectorEnds(context, connector, sysMLConnector);
 
 		}
 	}
 
-	private static void mapSysMLConnectorEnds(Connector connector, SysMLConnector sysMLConnector)
+	private static void mapSysMLConnectorEnds(ConversionContext context, Connector connector, SysMLConnector sysMLConnector)
 			throws MDModelLibException, URISyntaxException {
 
 		for (ConnectorEnd connectorEnd : connector.getEnd()) {
 
             SysMLConnectorEnd sysMLConnectorEnd = new SysMLConnectorEnd();
             sysMLConnectorEnd.setAbout(
-                    URI.create(descriptor.resource("connectorends", projectId + connectorEnd.getID())));
-            qNameOslcSysmlConnectorEndMap.put(magicDrawFileName + "/connectorends/" + connectorEnd.getID(),
+                    URI.create(context.descriptor.resource("connectorends", context.projectId + connectorEnd.getID())));
+            context.qNameOslcSysmlConnectorEndMap.put(context.magicDrawFileName + "/connectorends/" + connectorEnd.getID(),
                     sysMLConnectorEnd);
 
             ConnectableElement role = connectorEnd.getRole();
@@ -1522,42 +1329,35 @@ public class MagicDrawManager {
 
             // role
             if (MDSysMLModelHandler.isSysMLElement(role, "PartProperty")) {
-                sysMLConnectorEnd.setRole(new URI(descriptor.resource("partproperties", projectId
-                        + connectorEnd.getRole().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                sysMLConnectorEnd.setRole(context.names.getURI("partproperties", connectorEnd.getRole()));
             } else if (MDSysMLModelHandler.isSysMLElement(role, "ProxyPort")) {
-                sysMLConnectorEnd.setRole(new URI(descriptor.resource("proxyports", projectId
-                        + connectorEnd.getRole().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                sysMLConnectorEnd.setRole(context.names.getURI("proxyports", connectorEnd.getRole()));
             } else if (MDSysMLModelHandler.isSysMLElement(role, "FullPort")) {
-                sysMLConnectorEnd.setRole(new URI(descriptor.resource("fullports", projectId
-                        + connectorEnd.getRole().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                sysMLConnectorEnd.setRole(context.names.getURI("fullports", connectorEnd.getRole()));
             } else if (role instanceof com.nomagic.uml2.ext.magicdraw.compositestructures.mdports.Port) {
-                sysMLConnectorEnd.setRole(new URI(descriptor.resource("ports", projectId
-                        + connectorEnd.getRole().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                sysMLConnectorEnd.setRole(context.names.getURI("ports", connectorEnd.getRole()));
             }
 
             // definingEnd
             if (definingEnd != null) {
-                sysMLConnectorEnd.setDefiningEnd(
-                        new URI(descriptor.resource("partproperties", projectId + connectorEnd
-                                .getDefiningEnd().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                sysMLConnectorEnd.setDefiningEnd(context.names.getURI("partproperties", connectorEnd.getDefiningEnd()));
             }
 
             // partWithPort
             if (partWithPort != null) {
                 sysMLConnectorEnd.setPartWithPort(
-                        new URI(descriptor.resource("partproperties", projectId + connectorEnd
-                                .getPartWithPort().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                        context.names.getURI("partproperties", connectorEnd.getPartWithPort()));
             }
 
 		}
 
 	}
 
-	private static void mapSysMLReferenceProperties(Class mdSysmlBlock, SysMLBlock sysMLBlock)
+	private static void mapSysMLReferenceProperties(ConversionContext context, Class mdSysmlBlock, SysMLBlock sysMLBlock)
 			throws MDModelLibException, URISyntaxException {
 
-		Link[] blockReferencesLinksArray = getLinkedStereotypedSysMLElements(mdSysmlBlock.getOwnedAttribute(),
-				"ReferenceProperty", descriptor.resource("referenceproperties", projectId));
+		Link[] blockReferencesLinksArray = getLinkedStereotypedSysMLElements(context, mdSysmlBlock.getOwnedAttribute(),
+				"ReferenceProperty", context.descriptor.resource("referenceproperties", context.projectId));
 
 		if (blockReferencesLinksArray != null) {
 			sysMLBlock.setReferenceProperties(blockReferencesLinksArray);
@@ -1577,20 +1377,18 @@ public class MagicDrawManager {
 				InstanceSpecification stereotypeInstance = property.getAppliedStereotypeInstance();
 				if (stereotypeInstance.getClassifier().get(0).getName().contains("ReferenceProperty")) {
 					SysMLReferenceProperty sysmlReferenceProperty = new SysMLReferenceProperty();
-                    qNameOslcSysmlReferencePropertyMap.put(
-                            magicDrawFileName + "/referenceproperties/"
-                                    + property.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"),
+                    context.qNameOslcSysmlReferencePropertyMap.put(
+                            context.magicDrawFileName + "/referenceproperties/"
+                                    + context.names.getQualifiedName(property),
                             sysmlReferenceProperty);
 
                     // referenceProperty name
                     sysmlReferenceProperty.setName(property.getName());
 
-                    String qName = property.getQualifiedName();
-                    sysmlReferenceProperty.setAbout(URI.create(descriptor.resource("referenceproperties", projectId + qName.replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysmlReferenceProperty.setAbout(context.names.getURI("referenceproperties", property));
 
                     // referenceProperty type
-                    sysmlReferenceProperty.setType(new URI(descriptor.resource("blocks", projectId
-                            + property.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysmlReferenceProperty.setType(context.names.getURI("blocks", property.getType()));
 
                     // referenceProperty multiplicity
                     String lowerMultiplicity = Integer.toString(property.getLower());
@@ -1602,7 +1400,7 @@ public class MagicDrawManager {
                     if (property.getAssociation() != null) {
                         Association mdSysMAssociation = property.getAssociation();
                         URI linkedElementURI = null;
-                        String baseURI = descriptor.resource("unknown", projectId);
+                        String baseURI = context.descriptor.resource("unknown", context.projectId);
                         // check if property has an associationBlock as
                         // association
 
@@ -1614,13 +1412,13 @@ public class MagicDrawManager {
                             // property
                             // .getAssociation());
                             // }
-                            baseURI = descriptor.resource("associationblocks", projectId);
+                            baseURI = context.descriptor.resource("associationblocks", context.projectId);
                         } else if (property
                                 .getAssociation() instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Association) {
-                            baseURI = descriptor.resource("associations", projectId);
+                            baseURI = context.descriptor.resource("associations", context.projectId);
                         }
                         linkedElementURI = new URI(baseURI
-                                + mdSysMAssociation.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"));
+                                + context.names.getQualifiedName(mdSysMAssociation));
                         sysmlReferenceProperty.setAssociation(linkedElementURI);
                     }
 
@@ -1630,10 +1428,10 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLFlowProperties(Class mdSysmlBlock, SysMLBlock sysMLBlock) throws URISyntaxException {
+	private static void mapSysMLFlowProperties(ConversionContext context, Class mdSysmlBlock, SysMLBlock sysMLBlock) throws URISyntaxException {
 
-		Link[] flowPropertiesLinksArray = getLinkedStereotypedSysMLElements(mdSysmlBlock.getOwnedAttribute(),
-				"FlowProperty", descriptor.resource("flowproperties", projectId));
+		Link[] flowPropertiesLinksArray = getLinkedStereotypedSysMLElements(context, mdSysmlBlock.getOwnedAttribute(),
+				"FlowProperty", context.descriptor.resource("flowproperties", context.projectId));
 
 		if (flowPropertiesLinksArray != null) {
 			sysMLBlock.setFlowProperties(flowPropertiesLinksArray);
@@ -1653,20 +1451,18 @@ public class MagicDrawManager {
 				InstanceSpecification stereotypeInstance = property.getAppliedStereotypeInstance();
 				if (stereotypeInstance.getClassifier().get(0).getName().contains("FlowProperty")) {
 					SysMLFlowProperty sysmlFlowProperty = new SysMLFlowProperty();
-                    qNameOslcSysmlFlowPropertyMap.put(
-                            magicDrawFileName + "/flowproperties/"
-                                    + property.getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"),
+                    context.qNameOslcSysmlFlowPropertyMap.put(
+                            context.magicDrawFileName + "/flowproperties/"
+                                    + context.names.getQualifiedName(property),
                             sysmlFlowProperty);
 
                     // referenceProperty name
                     sysmlFlowProperty.setName(property.getName());
 
-                    String qName = property.getQualifiedName();
-                    sysmlFlowProperty.setAbout(URI.create(descriptor.resource("flowproperties", projectId + qName.replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysmlFlowProperty.setAbout(context.names.getURI("flowproperties", property));
 
                     // referenceProperty type
-                    sysmlFlowProperty.setType(new URI(descriptor.resource("blocks", projectId
-                            + property.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysmlFlowProperty.setType(context.names.getURI("blocks", property.getType()));
 
                     // referenceProperty multiplicity
                     String lowerMultiplicity = Integer.toString(property.getLower());
@@ -1699,210 +1495,90 @@ public class MagicDrawManager {
 
 	}
 
-	private static Link[] getLinkedSysMLElements(Collection<? extends Element> elementCollection,
+	private static Link[] getLinkedSysMLElements(ConversionContext context, Collection<? extends Element> elementCollection,
 			String linkedElementBaseURI) throws URISyntaxException {
-
-		// counting the number of links
-		int linksCount = elementCollection.size();
-
-		// creating linksArray
-		Link[] linksArray = null;
-		if (linksCount > 0) {
-			linksArray = new Link[linksCount];
-		}
-
-		// populating linksArray
-		int linksArrayIndex = 0;
+		LinkBuffer links = LinkBuffer.get();
 		for (Element element : elementCollection) {
-            URI linkedElementURI = null;
-            linkedElementURI = new URI(linkedElementBaseURI + getQualifiedNameOrID(element));
-            Link link = new Link(linkedElementURI);
-            linksArray[linksArrayIndex] = link;
-            linksArrayIndex++;
+			links.add(new URI(linkedElementBaseURI + context.names.getQualifiedNameOrID(element)));
 		}
-		return linksArray;
+		return links.toArray();
 	}
 
-	private static Link[] getLinkedStereotypedSysMLElements(Collection<? extends NamedElement> namedElementCollection,
-			String stereotypeName, String linkedElementBaseURI) throws URISyntaxException {
-
-		// counting the number of links
-		int linksCount = 0;
-		for (NamedElement namedElement : namedElementCollection) {
-			if (namedElement.getAppliedStereotypeInstance() != null) {
-				InstanceSpecification stereotypeInstance = namedElement.getAppliedStereotypeInstance();
-				if (stereotypeInstance.getClassifier().get(0).getName().equals(stereotypeName)) {
-					linksCount++;
-				}
-			}
-		}
-
-		// creating linksArray
-		Link[] linksArray = null;
-		if (linksCount > 0) {
-			linksArray = new Link[linksCount];
+	/**
+	 * Gets the name of the first stereotype applied to an element.
+	 * 
+	 * @param element
+	 *            the element
+	 * @return the name of the stereotype; {@code null} if no stereotype is
+	 *         applied
+	 */
+	private static String getStereotypeName(Element element) {
+		InstanceSpecification stereotypeInstance = element.getAppliedStereotypeInstance();
+		if (stereotypeInstance == null || stereotypeInstance.getClassifier().isEmpty()) {
+			return null;
 		}
+		return stereotypeInstance.getClassifier().get(0).getName();
+	}
 
-		// populating linksArray
-		int linksArrayIndex = 0;
+	private static Link[] getLinkedStereotypedSysMLElements(ConversionContext context, Collection<? extends NamedElement> namedElementCollection,
+			String stereotypeName, String linkedElementBaseURI) throws URISyntaxException {
+		LinkBuffer links = LinkBuffer.get();
+		boolean isRequirement = stereotypeName.equals("Requirement");
 		for (NamedElement namedElement : namedElementCollection) {
-			if (namedElement.getAppliedStereotypeInstance() != null) {
-				InstanceSpecification stereotypeInstance = namedElement.getAppliedStereotypeInstance();
-				if (stereotypeInstance.getClassifier().get(0).getName().equals(stereotypeName)) {
-                    URI linkedElementURI = null;
-                    if (stereotypeName.equals("Requirement") & namedElement instanceof Class) {
-                        String linkedElementID = (String) StereotypesHelper.getStereotypePropertyFirst(namedElement,
-                                StereotypesHelper.getFirstVisibleStereotype(namedElement), "Id");
-                        linkedElementURI = new URI(linkedElementBaseURI + linkedElementID);
-                    } else {
-                        linkedElementURI = new URI(linkedElementBaseURI + getQualifiedNameOrID(namedElement));
-                    }
-
-                    Link link = new Link(linkedElementURI);
-                    linksArray[linksArrayIndex] = link;
-                    linksArrayIndex++;
+			if (stereotypeName.equals(getStereotypeName(namedElement))) {
+				if (isRequirement && namedElement instanceof Class) {
+					String linkedElementID = (String) StereotypesHelper.getStereotypePropertyFirst(namedElement,
+							StereotypesHelper.getFirstVisibleStereotype(namedElement), "Id");
+					links.add(new URI(linkedElementBaseURI + linkedElementID));
+				} else {
+					links.add(new URI(linkedElementBaseURI + context.names.getQualifiedNameOrID(namedElement)));
 				}
 			}
 		}
-		return linksArray;
-
+		return links.toArray();
 	}
 
-	private static URI getDirectedLinkSysMLElement(boolean isElementSource, Element element, String relationshipType)
+	/**
+	 * Gets the URI of the element at the other end of a directed relationship:
+	 * a block, a requirement (by its id), a use case or an unknown element.
+	 * 
+	 * @param context
+	 *            the conversion
+	 * @param linkedNamedElement
+	 *            the linked element
+	 * @return the URI of the linked element
+	 */
+	private static URI getDirectedLinkedElementURI(ConversionContext context, NamedElement linkedNamedElement)
+			throws URISyntaxException {
+		if (MDSysMLModelHandler.isSysMLElement(linkedNamedElement, "Block")) {
+			return new URI(context.descriptor.resource("blocks", context.projectId)
+					+ context.names.getQualifiedName(linkedNamedElement));
+		} else if (MDSysMLModelHandler.isSysMLElement(linkedNamedElement, "Requirement")) {
+			String linkedElementID = (String) StereotypesHelper.getStereotypePropertyFirst(linkedNamedElement,
+					StereotypesHelper.getFirstVisibleStereotype(linkedNamedElement), "Id");
+			return new URI(context.descriptor.resource("requirements", context.projectId) + linkedElementID);
+		} else if (linkedNamedElement instanceof com.nomagic.uml2.ext.magicdraw.mdusecases.UseCase) {
+			return new URI(context.descriptor.resource("usecases", context.projectId)
+					+ context.names.getQualifiedName(linkedNamedElement));
+		}
+		return new URI(context.descriptor.resource("unknown", context.projectId)
+				+ context.names.getQualifiedName(linkedNamedElement));
+	}
+
+	private static URI getDirectedLinkSysMLElement(ConversionContext context, boolean isElementSource, Element element, String relationshipType)
 			throws MDModelLibException, URISyntaxException {
-
-		Collection<DirectedRelationship> directedRelationships;
-		if (isElementSource) {
-			directedRelationships = element.get_directedRelationshipOfSource();
-		} else {
-			directedRelationships = element.get_directedRelationshipOfTarget();
-		}
-
-		// getting relationships of that specific type
-		Collection<DirectedRelationship> relationshipsOfType = new ArrayList<DirectedRelationship>();
-		for (DirectedRelationship directedRelationship : directedRelationships) {
-            String directedRelationshipType = directedRelationship.getAppliedStereotypeInstance().getClassifier()
-                    .get(0).getName();
-            if (directedRelationshipType.equals(relationshipType)) {
-                relationshipsOfType.add(directedRelationship);
-            }
-		}
-
-		URI linkedElementURI = null;
-		for (DirectedRelationship directedRelationship : relationshipsOfType) {
-			Collection<Element> linkedElements;
-			if (isElementSource) {
-				linkedElements = directedRelationship.getTarget();
-			} else {
-				linkedElements = directedRelationship.getSource();
-			}
-			for (Element linkedElement : linkedElements) {
-				if (linkedElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement) {
-					NamedElement linkedNamedElement = (NamedElement) linkedElement;
-					String linkedElementBaseURI = descriptor.resource("unknown", projectId);
-					String linkedElementID = null;
-					boolean isLinkedElementRequirement = false;
-					if (MDSysMLModelHandler.isSysMLElement(linkedNamedElement, "Block")) {
-						linkedElementBaseURI = descriptor.resource("blocks", projectId);
-					} else if (MDSysMLModelHandler.isSysMLElement(linkedNamedElement, "Requirement")) {
-						linkedElementID = (String) StereotypesHelper.getStereotypePropertyFirst(linkedNamedElement,
-								StereotypesHelper.getFirstVisibleStereotype(linkedNamedElement), "Id");
-						isLinkedElementRequirement = true;
-						linkedElementBaseURI = descriptor.resource("requirements", projectId);
-					} else if (linkedNamedElement instanceof com.nomagic.uml2.ext.magicdraw.mdusecases.UseCase) {
-						linkedElementBaseURI = descriptor.resource("usecases", projectId);
-					}
-					String linkedElementQName = null;
-					if (!isLinkedElementRequirement) {
-						linkedElementQName = linkedNamedElement.getQualifiedName().replaceAll("\\n", "-")
-								.replaceAll(" ", "_");
-					} else {
-						linkedElementQName = linkedElementID;
-					}
-
-                    linkedElementURI = new URI(linkedElementBaseURI + linkedElementQName);
-				}
-			}
-		}
-		return linkedElementURI;
+		return context.links.getLink(element, relationshipType, isElementSource);
 	}
 
-	private static Link[] getDirectedLinksOfSysMLElement(boolean isElementSource, Element element,
+	private static Link[] getDirectedLinksOfSysMLElement(ConversionContext context, boolean isElementSource, Element element,
 			String relationshipType) throws MDModelLibException, URISyntaxException {
-
-		Collection<DirectedRelationship> directedRelationships;
-		if (isElementSource) {
-			directedRelationships = element.get_directedRelationshipOfSource();
-		} else {
-			directedRelationships = element.get_directedRelationshipOfTarget();
-		}
-
-		// counting the number of relationships of that specific type
-		Collection<DirectedRelationship> relationshipsOfType = new ArrayList<DirectedRelationship>();
-		for (DirectedRelationship directedRelationship : directedRelationships) {
-                try {
-                    String directedRelationshipType = directedRelationship.getAppliedStereotypeInstance().getClassifier()
-                            .get(0).getName();
-                    if (directedRelationshipType.equals(relationshipType)) {
-                        relationshipsOfType.add(directedRelationship);
-                    }
-                } catch(Exception ex) {
-                
-                }
-            }
-
-		// creating the links array
-		Link[] linksArray = null;
-		if (relationshipsOfType.size() > 0) {
-			linksArray = new Link[relationshipsOfType.size()];
-		}
-
-		// populating the links array
-		int linksArrayIndex = 0;
-		for (DirectedRelationship directedRelationship : relationshipsOfType) {
-			Collection<Element> linkedElements;
-			if (isElementSource) {
-				linkedElements = directedRelationship.getTarget();
-			} else {
-				linkedElements = directedRelationship.getSource();
-			}
-			for (Element linkedElement : linkedElements) {
-				if (linkedElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement) {
-					NamedElement linkedNamedElement = (NamedElement) linkedElement;
-					String linkedElementBaseURI = descriptor.resource("unknown", projectId);
-					String linkedElementID = null;
-					boolean isLinkedElementRequirement = false;
-					if (MDSysMLModelHandler.isSysMLElement(linkedNamedElement, "Block")) {
-						linkedElementBaseURI = descriptor.resource("blocks", projectId);
-					} else if (MDSysMLModelHandler.isSysMLElement(linkedNamedElement, "Requirement")) {
-						linkedElementID = (String) StereotypesHelper.getStereotypePropertyFirst(linkedNamedElement,
-								StereotypesHelper.getFirstVisibleStereotype(linkedNamedElement), "Id");
-						isLinkedElementRequirement = true;
-						linkedElementBaseURI = descriptor.resource("requirements", projectId);
-					} else if (linkedNamedElement instanceof com.nomagic.uml2.ext.magicdraw.mdusecases.UseCase) {
-						linkedElementBaseURI = descriptor.resource("usecases", projectId);
-					}
-					String linkedElementQName = null;
-					if (!isLinkedElementRequirement) {
-						linkedElementQName = linkedNamedElement.getQualifiedName().replaceAll("\\n", "-")
-								.replaceAll(" ", "_");
-					} else {
-						linkedElementQName = linkedElementID;
-					}
-					URI linkedElementURI = new URI(linkedElementBaseURI + linkedElementQName);
-                    Link link = new Link(linkedElementURI);
-                    linksArray[linksArrayIndex] = link;
-                    linksArrayIndex++;
-				}
-			}
-		}
-		return linksArray;
+		return context.links.getLinks(element, relationshipType, isElementSource);
 	}
 
-	private static void mapSysMLPartProperties(Class mdSysmlBlock, SysMLBlock sysMLBlock) throws URISyntaxException {
+	private static void mapSysMLPartProperties(ConversionContext context, Class mdSysmlBlock, SysMLBlock sysMLBlock) throws URISyntaxException {
 
-		Link[] blockPartsLinksArray = getLinkedStereotypedSysMLElements(mdSysmlBlock.getOwnedAttribute(),
-				"PartProperty", descriptor.resource("partproperties", projectId));
+		Link[] blockPartsLinksArray = getLinkedStereotypedSysMLElements(context, mdSysmlBlock.getOwnedAttribute(),
+				"PartProperty", context.descriptor.resource("partproperties", context.projectId));
 
 		if (blockPartsLinksArray != null) {
 			sysMLBlock.setPartProperties(blockPartsLinksArray);
@@ -1922,26 +1598,22 @@ public class MagicDrawManager {
 				InstanceSpecification stereotypeInstance = property.getAppliedStereotypeInstance();
 				if (stereotypeInstance.getClassifier().get(0).getName().contains("PartProperty")) {
 					SysMLPartProperty sysmlPartProperty = new SysMLPartProperty();
-                    qNameOslcSysmlPartPropertyMap.put(
-                            magicDrawFileName + "/partproperties/" + getQualifiedNameOrID(property),
+                    context.qNameOslcSysmlPartPropertyMap.put(
+                            context.magicDrawFileName + "/partproperties/" + context.names.getQualifiedNameOrID(property),
                             sysmlPartProperty);
-                    mdSysmlPartProperties.add(property);
+                    context.mdSysmlPartProperties.add(property);
 
                     // partProperty name
                     sysmlPartProperty.setName(property.getName());
 
-                    String qName = property.getQualifiedName();
-                    sysmlPartProperty.setAbout(URI.create(descriptor.resource("partproperties", projectId + getQualifiedNameOrID(property))));
+                    sysmlPartProperty.setAbout(URI.create(context.descriptor.resource("partproperties", context.projectId + context.names.getQualifiedNameOrID(property))));
 
                     // partProperty type
-                    sysmlPartProperty.setType(new URI(descriptor.resource("blocks", projectId
-                            + property.getType().getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysmlPartProperty.setType(context.names.getURI("blocks", property.getType()));
 
                     // partProperty owner
                     NamedElement partPropertyOwnerNamedElement = (NamedElement) property.getOwner();
-                    sysmlPartProperty.setOwner(new URI(
-                            descriptor.resource("blocks", projectId + partPropertyOwnerNamedElement
-                                    .getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_"))));
+                    sysmlPartProperty.setOwner(context.names.getURI("blocks", partPropertyOwnerNamedElement));
 
                     // partProperty multiplicity
                     String lowerMultiplicity = Integer.toString(property.getLower());
@@ -1955,12 +1627,12 @@ public class MagicDrawManager {
 
 	}
 
-	private static void mapSysMLRequirements() throws URISyntaxException {
-		for (Class mdSysMLRequirement : mdSysmlRequirements) {
+	private static void mapSysMLRequirements(ConversionContext context) throws URISyntaxException {
+		for (Class mdSysMLRequirement : context.mdSysmlRequirements) {
 			String id = (String) StereotypesHelper.getStereotypePropertyFirst(mdSysMLRequirement,
 					StereotypesHelper.getFirstVisibleStereotype(mdSysMLRequirement), "Id");
 			if (id != null) {
-				idMdSysmlRequirementMap.put(id, mdSysMLRequirement);
+				context.idMdSysmlRequirementMap.put(id, mdSysMLRequirement);
 				// qNameMdSysmlRequirementMap.put(
 				// mdSysMLRequirement.getQualifiedName()
 				// .replaceAll("\\n", "-").replaceAll(" ", "_"),
@@ -1970,10 +1642,10 @@ public class MagicDrawManager {
 
                 // SysML Requirement id attribute
                 sysMLRequirement.setIdentifier(id);
-                idOslcSysmlRequirementMap.put(magicDrawFileName + "/requirements/" + id, sysMLRequirement);
+                context.idOslcSysmlRequirementMap.put(context.magicDrawFileName + "/requirements/" + id, sysMLRequirement);
 
                 sysMLRequirement
-                        .setAbout(URI.create(descriptor.resource("requirements", projectId + id)));
+                        .setAbout(URI.create(context.descriptor.resource("requirements", context.projectId + id)));
 
                 // qNameOslcSysmlRequirementMap.put(mdSysMLRequirement
                 // .getQualifiedName().replaceAll("\\n", "-")
@@ -2013,350 +1685,230 @@ public class MagicDrawManager {
 
 	}
 
-	public static SysMLBlockDiagram getBlockDiagramByQualifiedName(String qualifiedName) throws URISyntaxException {
-		SysMLBlockDiagram sysMLBlockDiagram = qNameOslcSysmlBlockDiagramMap.get(qualifiedName);
+	public static SysMLBlockDiagram getBlockDiagramByQualifiedName(ConversionContext context, String qualifiedName) throws URISyntaxException {
+		SysMLBlockDiagram sysMLBlockDiagram = context.qNameOslcSysmlBlockDiagramMap.get(qualifiedName);
 		return sysMLBlockDiagram;
 	}
 
-	public static List<SysMLBlockDiagram> getBlockDiagrams(String projectName) {
+	public static List<SysMLBlockDiagram> getBlockDiagrams(ConversionContext context, String projectName) {
 		List<SysMLBlockDiagram> sysMLBlocks = new ArrayList<SysMLBlockDiagram>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlBlockDiagramMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlBlockDiagramMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/blockdiagrams/")) {
-				sysMLBlocks.add(qNameOslcSysmlBlockDiagramMap.get(qNameOslcSysmlElement));
+				sysMLBlocks.add(context.qNameOslcSysmlBlockDiagramMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return sysMLBlocks;
 	}
 
-	public static SysMLInternalBlockDiagram getInternalBlockDiagramByQualifiedName(String qualifiedName)
+	public static SysMLInternalBlockDiagram getInternalBlockDiagramByQualifiedName(ConversionContext context, String qualifiedName)
 			throws URISyntaxException {
-		SysMLInternalBlockDiagram sysMLInternalBlockDiagram = qNameOslcSysmlInternalBlockDiagramMap.get(qualifiedName);
+		SysMLInternalBlockDiagram sysMLInternalBlockDiagram = context.qNameOslcSysmlInternalBlockDiagramMap.get(qualifiedName);
 		return sysMLInternalBlockDiagram;
 	}
 
-	public static List<SysMLInternalBlockDiagram> getInternalBlockDiagrams(String projectName) {
+	public static List<SysMLInternalBlockDiagram> getInternalBlockDiagrams(ConversionContext context, String projectName) {
 		List<SysMLInternalBlockDiagram> sysMLBlocks = new ArrayList<SysMLInternalBlockDiagram>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlInternalBlockDiagramMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlInternalBlockDiagramMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/internalblockdiagrams/")) {
-				sysMLBlocks.add(qNameOslcSysmlInternalBlockDiagramMap.get(qNameOslcSysmlElement));
+				sysMLBlocks.add(context.qNameOslcSysmlInternalBlockDiagramMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return sysMLBlocks;
 	}
 
-	public static SysMLRequirement getRequirementByID(String qualifiedName) throws URISyntaxException {
-		SysMLRequirement sysMLRequirement = idOslcSysmlRequirementMap.get(qualifiedName);
+	public static SysMLRequirement getRequirementByID(ConversionContext context, String qualifiedName) throws URISyntaxException {
+		SysMLRequirement sysMLRequirement = context.idOslcSysmlRequirementMap.get(qualifiedName);
 
 		return sysMLRequirement;
 	}
 
-	public static List<SysMLRequirement> getRequirements() {
+	public static List<SysMLRequirement> getRequirements(ConversionContext context) {
 		List<SysMLRequirement> sysMLRequirements = new ArrayList<SysMLRequirement>();
-		for (String id : idOslcSysmlRequirementMap.keySet()) {
-			sysMLRequirements.add(idOslcSysmlRequirementMap.get(id));
+		for (String id : context.idOslcSysmlRequirementMap.keySet()) {
+			sysMLRequirements.add(context.idOslcSysmlRequirementMap.get(id));
 		}
 		return sysMLRequirements;
 	}
 
-	public static edu.gatech.mbsec.adapter.magicdraw.resources.SysMLBlock getBlockByQualifiedName(String qualifiedName) {
-		SysMLBlock sysMLBlock = qNameOslcSysmlBlockMap.get(qualifiedName);
+	public static edu.gatech.mbsec.adapter.magicdraw.resources.SysMLBlock getBlockByQualifiedName(ConversionContext context, String qualifiedName) {
+		SysMLBlock sysMLBlock = context.qNameOslcSysmlBlockMap.get(qualifiedName);
 		return sysMLBlock;
 	}
 
-	public static List<SysMLBlock> getBlocks(String projectName) {
+	public static List<SysMLBlock> getBlocks(ConversionContext context, String projectName) {
 		List<SysMLBlock> sysMLBlocks = new ArrayList<SysMLBlock>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlBlockMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlBlockMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/blocks/")) {
-				sysMLBlocks.add(qNameOslcSysmlBlockMap.get(qNameOslcSysmlElement));
+				sysMLBlocks.add(context.qNameOslcSysmlBlockMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return sysMLBlocks;
 	}
 
-	static Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package> getAllSysMLPackages(
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.PackageableElement packageableElement) {
-		Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package> sysmlPackages = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package>();
-
-		if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package package_ = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) packageableElement;
-			if (!predefinedMagicDrawSysMLPackageNames.contains(package_.getName())) {
-				if (!(packageableElement instanceof Model)) {
-					sysmlPackages.add(package_);
-				}
-				// add nested packages
-				for (PackageableElement nestedPackageableElement : package_.getPackagedElement()) {
-					if (nestedPackageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-						com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package nestedPackage = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) nestedPackageableElement;
-						if (!predefinedMagicDrawSysMLPackageNames.contains(nestedPackage.getName())) {
-							sysmlPackages.addAll(getAllSysMLPackages(nestedPackage));
-						}
-					}
-				}
-			}
-		}
-
-		return sysmlPackages;
-	}
-
-	static Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class> getAllSysMLBlocks(
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.PackageableElement packageableElement)
-					throws MDModelLibException {
-		Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class> sysmlBlocks = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class>();
-		if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package package_ = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) packageableElement;
-			for (PackageableElement nestedPackageableElement : package_.getPackagedElement()) {
-				if (MDSysMLModelHandler.isSysMLElement(nestedPackageableElement, "Block")
-						| MDSysMLModelHandler.isSysMLElement(nestedPackageableElement, "System")) {
-					Class magicDrawSysMLBlock = (Class) nestedPackageableElement;
-					sysmlBlocks.add(magicDrawSysMLBlock);
-					sysmlBlocks.addAll(getAllSysMLBlocks(magicDrawSysMLBlock));
-				} else
-					if (nestedPackageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-					com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package nestedPackage = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) nestedPackageableElement;
-					if (!predefinedMagicDrawSysMLPackageNames.contains(nestedPackage.getName())) {
-						sysmlBlocks.addAll(getAllSysMLBlocks(nestedPackage));
-					}
-				}
-			}
-		} else if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) {
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class class_ = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) packageableElement;
-			for (Classifier nestedClassifier : class_.getNestedClassifier()) {
-				if (MDSysMLModelHandler.isSysMLElement(nestedClassifier, "Block")
-						| MDSysMLModelHandler.isSysMLElement(nestedClassifier, "System")) {
-					sysmlBlocks.add((com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) nestedClassifier);
-				}
-				sysmlBlocks.addAll(getAllSysMLBlocks(nestedClassifier));
-			}
-		}
-		return sysmlBlocks;
-	}
-
-	static Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class> getAllSysMLInterfaceBlocks(
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.PackageableElement packageableElement)
-					throws MDModelLibException {
-		Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class> sysmlBlocks = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class>();
-		if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package package_ = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) packageableElement;
-			for (PackageableElement nestedPackageableElement : package_.getPackagedElement()) {
-				if (MDSysMLModelHandler.isSysMLElement(nestedPackageableElement, "InterfaceBlock")) {
-					Class magicDrawSysMLBlock = (Class) nestedPackageableElement;
-					sysmlBlocks.add(magicDrawSysMLBlock);
-					sysmlBlocks.addAll(getAllSysMLInterfaceBlocks(magicDrawSysMLBlock));
-				} else
-					if (nestedPackageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-					com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package nestedPackage = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) nestedPackageableElement;
-					if (!predefinedMagicDrawSysMLPackageNames.contains(nestedPackage.getName())) {
-						sysmlBlocks.addAll(getAllSysMLInterfaceBlocks(nestedPackage));
-					}
-				}
-			}
-		} else if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) {
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class class_ = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) packageableElement;
-			for (Classifier nestedClassifier : class_.getNestedClassifier()) {
-				if (MDSysMLModelHandler.isSysMLElement(nestedClassifier, "InterfaceBlock")) {
-					sysmlBlocks.add((com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) nestedClassifier);
-				}
-				sysmlBlocks.addAll(getAllSysMLInterfaceBlocks(nestedClassifier));
-			}
-		}
-		return sysmlBlocks;
-	}
-
-	static Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class> getAllSysMLRequirements(
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.PackageableElement packageableElement)
-					throws MDModelLibException {
-		Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class> sysmlRequirements = new ArrayList<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class>();
-		if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package package_ = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) packageableElement;
-			for (PackageableElement nestedPackageableElement : package_.getPackagedElement()) {
-				if (MDSysMLModelHandler.isSysMLElement(nestedPackageableElement, "Requirement")) {
-					com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class sysMLRequirement = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) nestedPackageableElement;
-					sysmlRequirements.add(sysMLRequirement);
-					sysmlRequirements.addAll(getAllSysMLRequirements(sysMLRequirement));
-				} else
-					if (nestedPackageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
-					com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package nestedPackage = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) nestedPackageableElement;
-					if (!predefinedMagicDrawSysMLPackageNames.contains(nestedPackage.getName())) {
-						sysmlRequirements.addAll(getAllSysMLRequirements(nestedPackage));
-					}
-				}
-			}
-		} else if (packageableElement instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) {
-			com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class class_ = (com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) packageableElement;
-			for (Classifier nestedClassifier : class_.getNestedClassifier()) {
-				if (MDSysMLModelHandler.isSysMLElement(nestedClassifier, "Requirement")) {
-					sysmlRequirements.add((com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class) nestedClassifier);
-				}
-				sysmlRequirements.addAll(getAllSysMLRequirements(nestedClassifier));
-			}
-		}
-		return sysmlRequirements;
-	}
-
-	public static SysMLPartProperty getPartPropertyByQualifiedName(String propertyQualifiedName) {
-		SysMLPartProperty sysMLPartProperty = qNameOslcSysmlPartPropertyMap.get(propertyQualifiedName);
+	public static SysMLPartProperty getPartPropertyByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLPartProperty sysMLPartProperty = context.qNameOslcSysmlPartPropertyMap.get(propertyQualifiedName);
 		return sysMLPartProperty;
 	}
 
-	public static List<SysMLPartProperty> getPartProperties(String projectName) {
+	public static List<SysMLPartProperty> getPartProperties(ConversionContext context, String projectName) {
 		List<SysMLPartProperty> elements = new ArrayList<SysMLPartProperty>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlPartPropertyMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlPartPropertyMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/partproperties/")) {
-				elements.add(qNameOslcSysmlPartPropertyMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlPartPropertyMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLReferenceProperty getReferencePropertyByQualifiedName(String propertyQualifiedName) {
-		SysMLReferenceProperty sysMLReferenceProperty = qNameOslcSysmlReferencePropertyMap.get(propertyQualifiedName);
+	public static SysMLReferenceProperty getReferencePropertyByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLReferenceProperty sysMLReferenceProperty = context.qNameOslcSysmlReferencePropertyMap.get(propertyQualifiedName);
 		return sysMLReferenceProperty;
 	}
 
-	public static List<SysMLReferenceProperty> getReferenceProperties(String projectName) {
+	public static List<SysMLReferenceProperty> getReferenceProperties(ConversionContext context, String projectName) {
 		List<SysMLReferenceProperty> elements = new ArrayList<SysMLReferenceProperty>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlReferencePropertyMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlReferencePropertyMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/referenceproperties/")) {
-				elements.add(qNameOslcSysmlReferencePropertyMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlReferencePropertyMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLValueProperty getValuePropertyByQualifiedName(String propertyQualifiedName) {
-		SysMLValueProperty sysMLValueProperty = qNameOslcSysmlValuePropertyMap.get(propertyQualifiedName);
+	public static SysMLValueProperty getValuePropertyByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLValueProperty sysMLValueProperty = context.qNameOslcSysmlValuePropertyMap.get(propertyQualifiedName);
 		return sysMLValueProperty;
 	}
 
-	public static List<SysMLValueProperty> getValueProperties(String projectName) {
+	public static List<SysMLValueProperty> getValueProperties(ConversionContext context, String projectName) {
 		List<SysMLValueProperty> elements = new ArrayList<SysMLValueProperty>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlValuePropertyMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlValuePropertyMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/valueproperties/")) {
-				elements.add(qNameOslcSysmlValuePropertyMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlValuePropertyMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLValueType getValueTypeByQualifiedName(String propertyQualifiedName) {
-		SysMLValueType sysMLValueType = qNameOslcSysmlValueTypeMap.get(propertyQualifiedName);
+	public static SysMLValueType getValueTypeByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLValueType sysMLValueType = context.qNameOslcSysmlValueTypeMap.get(propertyQualifiedName);
 		return sysMLValueType;
 	}
 
-	public static List<SysMLValueType> getValueTypes(String projectName) {
+	public static List<SysMLValueType> getValueTypes(ConversionContext context, String projectName) {
 		List<SysMLValueType> elements = new ArrayList<SysMLValueType>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlValueTypeMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlValueTypeMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/valuetypes/")) {
-				elements.add(qNameOslcSysmlValueTypeMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlValueTypeMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLFlowProperty getFlowPropertyByQualifiedName(String propertyQualifiedName) {
-		SysMLFlowProperty sysMLFlowProperty = qNameOslcSysmlFlowPropertyMap.get(propertyQualifiedName);
+	public static SysMLFlowProperty getFlowPropertyByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLFlowProperty sysMLFlowProperty = context.qNameOslcSysmlFlowPropertyMap.get(propertyQualifiedName);
 		return sysMLFlowProperty;
 	}
 
-	public static List<SysMLFlowProperty> getFlowProperties(String projectName) {
+	public static List<SysMLFlowProperty> getFlowProperties(ConversionContext context, String projectName) {
 		List<SysMLFlowProperty> elements = new ArrayList<SysMLFlowProperty>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlFlowPropertyMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlFlowPropertyMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/flowproperties/")) {
-				elements.add(qNameOslcSysmlFlowPropertyMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlFlowPropertyMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLInterfaceBlock getInterfaceBlockByQualifiedName(String propertyQualifiedName) {
-		SysMLInterfaceBlock sysMLInterfaceBlock = qNameOslcSysmlInterfaceBlockMap.get(propertyQualifiedName);
+	public static SysMLInterfaceBlock getInterfaceBlockByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLInterfaceBlock sysMLInterfaceBlock = context.qNameOslcSysmlInterfaceBlockMap.get(propertyQualifiedName);
 		return sysMLInterfaceBlock;
 	}
 
-	public static List<SysMLInterfaceBlock> getInterfaceBlocks(String projectName) {
+	public static List<SysMLInterfaceBlock> getInterfaceBlocks(ConversionContext context, String projectName) {
 		List<SysMLInterfaceBlock> elements = new ArrayList<SysMLInterfaceBlock>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlInterfaceBlockMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlInterfaceBlockMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/interfaceblocks/")) {
-				elements.add(qNameOslcSysmlInterfaceBlockMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlInterfaceBlockMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLItemFlow getItemFlowByQualifiedName(String propertyQualifiedName) {
-		SysMLItemFlow sysMLItemFlow = qNameOslcSysmlItemFlowMap.get(propertyQualifiedName);
+	public static SysMLItemFlow getItemFlowByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLItemFlow sysMLItemFlow = context.qNameOslcSysmlItemFlowMap.get(propertyQualifiedName);
 		return sysMLItemFlow;
 	}
 
-	public static List<SysMLItemFlow> getItemFlows() {
+	public static List<SysMLItemFlow> getItemFlows(ConversionContext context) {
 		List<SysMLItemFlow> sysMLItemFlows = new ArrayList<SysMLItemFlow>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlItemFlowMap.keySet()) {
-			sysMLItemFlows.add(qNameOslcSysmlItemFlowMap.get(qNameOslcSysmlElement));
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlItemFlowMap.keySet()) {
+			sysMLItemFlows.add(context.qNameOslcSysmlItemFlowMap.get(qNameOslcSysmlElement));
 		}
 		return sysMLItemFlows;
 	}
 
-	public static SysMLPort getPortByQualifiedName(String propertyQualifiedName) {
-		SysMLPort sysMLPort = qNameOslcSysmlPortMap.get(propertyQualifiedName);
+	public static SysMLPort getPortByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLPort sysMLPort = context.qNameOslcSysmlPortMap.get(propertyQualifiedName);
 		return sysMLPort;
 	}
 
-	public static List<SysMLPort> getPorts(String projectName) {
+	public static List<SysMLPort> getPorts(ConversionContext context, String projectName) {
 		List<SysMLPort> elements = new ArrayList<SysMLPort>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlPortMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlPortMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/ports/")) {
-				elements.add(qNameOslcSysmlPortMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlPortMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLProxyPort getProxyPortByQualifiedName(String propertyQualifiedName) {
-		SysMLProxyPort sysMLProxyPort = qNameOslcSysmlProxyPortMap.get(propertyQualifiedName);
+	public static SysMLProxyPort getProxyPortByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLProxyPort sysMLProxyPort = context.qNameOslcSysmlProxyPortMap.get(propertyQualifiedName);
 		return sysMLProxyPort;
 	}
 
-	public static List<SysMLProxyPort> getProxyPorts(String projectName) {
+	public static List<SysMLProxyPort> getProxyPorts(ConversionContext context, String projectName) {
 		List<SysMLProxyPort> elements = new ArrayList<SysMLProxyPort>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlProxyPortMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlProxyPortMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/proxyports/")) {
-				elements.add(qNameOslcSysmlProxyPortMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlProxyPortMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLFullPort getFullPortByQualifiedName(String propertyQualifiedName) {
-		SysMLFullPort sysMLFullPort = qNameOslcSysmlFullPortMap.get(propertyQualifiedName);
+	public static SysMLFullPort getFullPortByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLFullPort sysMLFullPort = context.qNameOslcSysmlFullPortMap.get(propertyQualifiedName);
 		return sysMLFullPort;
 	}
 
-	public static List<SysMLFullPort> getFullPorts(String projectName) {
+	public static List<SysMLFullPort> getFullPorts(ConversionContext context, String projectName) {
 		List<SysMLFullPort> elements = new ArrayList<SysMLFullPort>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlFullPortMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlFullPortMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/fullports/")) {
-				elements.add(qNameOslcSysmlFullPortMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlFullPortMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLConnector getConnectorByQualifiedName(String propertyQualifiedName) {
-		SysMLConnector sysMLConnector = qNameOslcSysmlConnectorMap.get(propertyQualifiedName);
+	public static SysMLConnector getConnectorByQualifiedName(ConversionContext context, String propertyQualifiedName) {
+		SysMLConnector sysMLConnector = context.qNameOslcSysmlConnectorMap.get(propertyQualifiedName);
 		return sysMLConnector;
 	}
 
-	public static List<SysMLConnector> getConnectors(String projectName) {
+	public static List<SysMLConnector> getConnectors(ConversionContext context, String projectName) {
 		List<SysMLConnector> elements = new ArrayList<SysMLConnector>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlConnectorMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlConnectorMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/connectors/")) {
-				elements.add(qNameOslcSysmlConnectorMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlConnectorMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLConnectorEnd getConnectorEndByQualifiedName(String propertyQualifiedName) {
+	public static SysMLConnectorEnd getConnectorEndByQualifiedName(ConversionContext context, String propertyQualifiedName) {
 		// if(qNameOslcSysmlConnectorEndMap.keySet().size() > 0){
 		// String key = (String)
 		// qNameOslcSysmlConnectorEndMap.keySet().toArray()[0];
@@ -2365,58 +1917,58 @@ public class MagicDrawManager {
 		// "/connectorends/" + propertyQualifiedName;
 		// }
 		// }
-		SysMLConnectorEnd sysMLConnectorEnd = qNameOslcSysmlConnectorEndMap.get(propertyQualifiedName);
+		SysMLConnectorEnd sysMLConnectorEnd = context.qNameOslcSysmlConnectorEndMap.get(propertyQualifiedName);
 		return sysMLConnectorEnd;
 	}
 
-	public static List<SysMLConnectorEnd> getConnectorEnds(String projectName) {
+	public static List<SysMLConnectorEnd> getConnectorEnds(ConversionContext context, String projectName) {
 		List<SysMLConnectorEnd> elements = new ArrayList<SysMLConnectorEnd>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlConnectorEndMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlConnectorEndMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/connectorends/")) {
-				elements.add(qNameOslcSysmlConnectorEndMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlConnectorEndMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLModel getModelByName(String modelName) {
-		SysMLModel sysMLModel = oslcSysmlModelMap.get(modelName);
+	public static SysMLModel getModelByName(ConversionContext context, String modelName) {
+		SysMLModel sysMLModel = context.oslcSysmlModelMap.get(modelName);
 		return sysMLModel;
 	}
 
-	public static List<SysMLModel> getModels() {
+	public static List<SysMLModel> getModels(ConversionContext context) {
 		List<SysMLModel> sysMLModels = new ArrayList<SysMLModel>();
-		for (String id : oslcSysmlModelMap.keySet()) {
-			sysMLModels.add(oslcSysmlModelMap.get(id));
+		for (String id : context.oslcSysmlModelMap.keySet()) {
+			sysMLModels.add(context.oslcSysmlModelMap.get(id));
 		}
 		return sysMLModels;
 	}
 
-	public static SysMLPackage getPackageByQualifiedName(String qualifiedName) {
-		SysMLPackage sysMLPackage = qNameOslcSysmlPackageMap.get(qualifiedName);
+	public static SysMLPackage getPackageByQualifiedName(ConversionContext context, String qualifiedName) {
+		SysMLPackage sysMLPackage = context.qNameOslcSysmlPackageMap.get(qualifiedName);
 		return sysMLPackage;
 	}
 
-	public static List<SysMLPackage> getPackages(String projectName) {
+	public static List<SysMLPackage> getPackages(ConversionContext context, String projectName) {
 		List<SysMLPackage> elements = new ArrayList<SysMLPackage>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlPackageMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlPackageMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/packages/")) {
-				elements.add(qNameOslcSysmlPackageMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlPackageMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
 	}
 
-	public static SysMLAssociationBlock getAssociationBlockByQualifiedName(String blockQualifiedName) {
-		SysMLAssociationBlock sysMLAssociationBlock = qNameOslcSysmlAssociationBlockMap.get(blockQualifiedName);
+	public static SysMLAssociationBlock getAssociationBlockByQualifiedName(ConversionContext context, String blockQualifiedName) {
+		SysMLAssociationBlock sysMLAssociationBlock = context.qNameOslcSysmlAssociationBlockMap.get(blockQualifiedName);
 		return sysMLAssociationBlock;
 	}
 
-	public static List<SysMLAssociationBlock> getAssociationBlocks(String projectName) {
+	public static List<SysMLAssociationBlock> getAssociationBlocks(ConversionContext context, String projectName) {
 		List<SysMLAssociationBlock> elements = new ArrayList<SysMLAssociationBlock>();
-		for (String qNameOslcSysmlElement : qNameOslcSysmlAssociationBlockMap.keySet()) {
+		for (String qNameOslcSysmlElement : context.qNameOslcSysmlAssociationBlockMap.keySet()) {
 			if (qNameOslcSysmlElement.startsWith(projectName + "/associationblocks/")) {
-				elements.add(qNameOslcSysmlAssociationBlockMap.get(qNameOslcSysmlElement));
+				elements.add(context.qNameOslcSysmlAssociationBlockMap.get(qNameOslcSysmlElement));
 			}
 		}
 		return elements;
@@ -2429,7 +1981,7 @@ public class MagicDrawManager {
 			if (namedElement.getName().equals("")) {
 				qfOrID = element.getID();
 			} else {
-				qfOrID = ((NamedElement) element).getQualifiedName().replaceAll("\\n", "-").replaceAll(" ", "_");
+				qfOrID = QualifiedNameEncoder.encode(((NamedElement) element).getQualifiedName());
 			}
 		} else {
 			qfOrID = element.getID();
@@ -2454,13 +2006,13 @@ public class MagicDrawManager {
 		return elementName;
 	}
 
-	public static URI getURIFromQualifiedName(String typeAndQualifiedName) {
+	public static URI getURIFromQualifiedName(ConversionContext context, String typeAndQualifiedName) {
 		String[] typeAndQualifiedNameStrings = typeAndQualifiedName.split("_");
 		String type = typeAndQualifiedNameStrings[0];
 		String qualifiedName = typeAndQualifiedNameStrings[typeAndQualifiedNameStrings.length - 1];
 
 		// URI cannot contain empty characters
-		qualifiedName = qualifiedName.replaceAll("\\n", "-").replaceAll(" ", "_");
+		qualifiedName = QualifiedNameEncoder.encode(qualifiedName);
 
 		String elementType = null;
 		if (type.equals("MODEL")) {
@@ -2477,19 +2029,13 @@ public class MagicDrawManager {
 			elementType = "ports";
 		}
 
-		URI elementURI = URI.create(descriptor.resource(elementType, projectId + qualifiedName));
+		URI elementURI = URI.create(context.descriptor.resource(elementType, context.projectId + qualifiedName));
 
 		return elementURI;
 	}
 
-	public static void loadSysMLProjects(String filePath) throws ApplicationExitedException, MDModelLibException, URISyntaxException, IOException {
-		if (projectsManager != null) {
-			while (!projectsManager.getProjects().isEmpty()) {
-				projectsManager.closeProject();
-			}
-		}
-		loadedProjects.clear();
-        initializeMapsAcrossAllProjects();
+	public static void loadSysMLProjects(ConversionContext context, String filePath) throws ApplicationExitedException, MDModelLibException, URISyntaxException, IOException {
+		closeSysMLProjects();
         File file = new File(filePath);
         if (file.getPath().endsWith("mdzip")) {
             String fileName = file.getPath();
@@ -2497,75 +2043,162 @@ public class MagicDrawManager {
                 fileName = fileName.substring(fileName.lastIndexOf(File.separator) + 1);
             }
             fileName = fileName.replaceAll(".mdzip", "");
-            loadSysMLProject(fileName, file.getPath());
+            loadSysMLProject(context, fileName, file.getPath());
         }
         LOG.log(Level.INFO, "Data read from {0} and converted into RDF resources at {1}", new Object[]{file, new Date().toString()});
 	}
 
-	protected static void initializeMapsAcrossAllProjects() {
-		predefinedMagicDrawSysMLPackageNames.clear();
-
-		qNameOslcSysmlBlockMap.clear();
-		qNameOslcSysmlPartPropertyMap.clear();
-		qNameOslcSysmlReferencePropertyMap.clear();
-		qNameOslcSysmlPackageMap.clear();
-		qNameOslcSysmlAssociationBlockMap.clear();
-		qNameOslcSysmlConnectorMap.clear();
-		qNameOslcSysmlConnectorEndMap.clear();
-		qNameOslcSysmlPortMap.clear();
-		qNameOslcSysmlProxyPortMap.clear();
-		qNameOslcSysmlFullPortMap.clear();
-		qNameOslcSysmlInterfaceBlockMap.clear();
-		qNameOslcSysmlFlowPropertyMap.clear();
-		qNameOslcSysmlItemFlowMap.clear();
-		qNameOslcSysmlValuePropertyMap.clear();
-		qNameOslcSysmlValueTypeMap.clear();
-		qNameOslcSysmlBlockDiagramMap.clear();
-		qNameOslcSysmlInternalBlockDiagramMap.clear();
-
-		projectIdMDSysmlRequirementsMap.clear();
-		projectIdMDSysmlBlocksMap.clear();
-		projectIdMDSysmlInterfaceBlocksMap.clear();
-		projectIdMDSysmlItemFlowsMap.clear();
-		projectIdMDSysmlPackagesMap.clear();
-		projectIdMDSysmlValueTypesMap.clear();
-		projectIdMDSysmlPartPropertiesMap.clear();
-		projectIdMDSysmlValuePropertiesMap.clear();
-		projectIdMDSysmlFlowPropertiesMap.clear();
-		projectIdMDSysmlPortsMap.clear();
-		projectIdMDSysmlConnectorsMap.clear();
-
-	}
-
-	public static void makeSysMLProjectActive(String projectId2) {
-		projectsManager.setActiveProject(loadedProjects.get(projectId2));
-		project = projectsManager.getActiveProject();
-
-	}
-
-	public static com.hp.hpl.jena.rdf.model.Model getModel() throws Exception {
+	/**
+	 * Closes all the loaded MagicDraw projects. The MagicDraw application
+	 * keeps running so further projects can be loaded without starting it
+	 * again; the elements of a conversion are released along with its
+	 * {@link ConversionContext#release() context}.
+	 */
+	public static void closeSysMLProjects() {
+		if (projectsManager != null) {
+			while (!projectsManager.getProjects().isEmpty()) {
+				projectsManager.closeProject();
+			}
+		}
+		StereotypeCache.release();
+	}
+
+	static void initializeMapsAcrossAllProjects(ConversionContext context) {
+		context.predefinedMagicDrawSysMLPackageNames.clear();
+
+		context.qNameOslcSysmlBlockMap.clear();
+		context.qNameOslcSysmlPartPropertyMap.clear();
+		context.qNameOslcSysmlReferencePropertyMap.clear();
+		context.qNameOslcSysmlPackageMap.clear();
+		context.qNameOslcSysmlAssociationBlockMap.clear();
+		context.qNameOslcSysmlConnectorMap.clear();
+		context.qNameOslcSysmlConnectorEndMap.clear();
+		context.qNameOslcSysmlPortMap.clear();
+		context.qNameOslcSysmlProxyPortMap.clear();
+		context.qNameOslcSysmlFullPortMap.clear();
+		context.qNameOslcSysmlInterfaceBlockMap.clear();
+		context.qNameOslcSysmlFlowPropertyMap.clear();
+		context.qNameOslcSysmlItemFlowMap.clear();
+		context.qNameOslcSysmlValuePropertyMap.clear();
+		context.qNameOslcSysmlValueTypeMap.clear();
+		context.qNameOslcSysmlBlockDiagramMap.clear();
+		context.qNameOslcSysmlInternalBlockDiagramMap.clear();
+		context.idOslcSysmlRequirementMap.clear();
+
+		context.projectIdMDSysmlRequirementsMap.clear();
+		context.projectIdMDSysmlBlocksMap.clear();
+		context.projectIdMDSysmlInterfaceBlocksMap.clear();
+		context.projectIdMDSysmlItemFlowsMap.clear();
+		context.projectIdMDSysmlPackagesMap.clear();
+		context.projectIdMDSysmlValueTypesMap.clear();
+		context.projectIdMDSysmlPartPropertiesMap.clear();
+		context.projectIdMDSysmlValuePropertiesMap.clear();
+		context.projectIdMDSysmlFlowPropertiesMap.clear();
+		context.projectIdMDSysmlPortsMap.clear();
+		context.projectIdMDSysmlConnectorsMap.clear();
+
+	}
+
+	public static void makeSysMLProjectActive(ConversionContext context, String projectId2) {
+		projectsManager.setActiveProject(context.loadedProjects.get(projectId2));
+		context.project = projectsManager.getActiveProject();
+
+	}
+
+	/**
+	 * Gets the maps holding the mapped OSLC resources, in conversion order.
+	 * 
+	 * @param context
+	 *            the conversion holding the resources
+	 * @return the maps of OSLC resources
+	 */
+	private static List<Map<String, ?>> getResourceMaps(ConversionContext context) {
+		List<Map<String, ?>> maps = new ArrayList<>();
+		maps.add(context.qNameOslcSysmlBlockMap);
+		maps.add(context.qNameOslcSysmlPartPropertyMap);
+		maps.add(context.qNameOslcSysmlReferencePropertyMap);
+		maps.add(context.oslcSysmlModelMap);
+		maps.add(context.qNameOslcSysmlPackageMap);
+		maps.add(context.qNameOslcSysmlAssociationBlockMap);
+		maps.add(context.qNameOslcSysmlConnectorMap);
+		maps.add(context.qNameOslcSysmlConnectorEndMap);
+		maps.add(context.qNameOslcSysmlPortMap);
+		maps.add(context.qNameOslcSysmlProxyPortMap);
+		maps.add(context.qNameOslcSysmlFullPortMap);
+		maps.add(context.qNameOslcSysmlInterfaceBlockMap);
+		maps.add(context.qNameOslcSysmlFlowPropertyMap);
+		maps.add(context.qNameOslcSysmlItemFlowMap);
+		maps.add(context.qNameOslcSysmlValuePropertyMap);
+		maps.add(context.qNameOslcSysmlValueTypeMap);
+		maps.add(context.qNameOslcSysmlBlockDiagramMap);
+		maps.add(context.qNameOslcSysmlInternalBlockDiagramMap);
+		return maps;
+	}
+
+	public static com.hp.hpl.jena.rdf.model.Model getModel(ConversionContext context) throws Exception {
         com.hp.hpl.jena.rdf.model.Model jenaModel;
 		ArrayList<Object> objectList = new ArrayList<>();
-		objectList.addAll(qNameOslcSysmlBlockMap.values());
-		objectList.addAll(qNameOslcSysmlPartPropertyMap.values());
-		objectList.addAll(qNameOslcSysmlReferencePropertyMap.values());
-		objectList.addAll(oslcSysmlModelMap.values());
-		objectList.addAll(qNameOslcSysmlPackageMap.values());
-		objectList.addAll(qNameOslcSysmlAssociationBlockMap.values());
-		objectList.addAll(qNameOslcSysmlConnectorMap.values());
-		objectList.addAll(qNameOslcSysmlConnectorEndMap.values());
-		objectList.addAll(qNameOslcSysmlPortMap.values());
-		objectList.addAll(qNameOslcSysmlProxyPortMap.values());
-		objectList.addAll(qNameOslcSysmlFullPortMap.values());
-		objectList.addAll(qNameOslcSysmlInterfaceBlockMap.values());
-		objectList.addAll(qNameOslcSysmlFlowPropertyMap.values());
-		objectList.addAll(qNameOslcSysmlItemFlowMap.values());
-		objectList.addAll(qNameOslcSysmlValuePropertyMap.values());
-		objectList.addAll(qNameOslcSysmlValueTypeMap.values());
-		objectList.addAll(qNameOslcSysmlBlockDiagramMap.values());
-		objectList.addAll(qNameOslcSysmlInternalBlockDiagramMap.values());
-        jenaModel = JenaModelHelper.createJenaModel(objectList.toArray());
+		for (Map<String, ?> resources : getResourceMaps(context)) {
+			objectList.addAll(resources.values());
+		}
+        try (StageTimer.Stage stage = context.timer.start("model")) {
+            if (context.fingerprints == null) {
+                jenaModel = JenaModelHelper.createJenaModel(objectList.toArray());
+            } else {
+                jenaModel = com.hp.hpl.jena.rdf.model.ModelFactory.createDefaultModel();
+                for (Object resource : objectList) {
+                    com.hp.hpl.jena.rdf.model.Model resourceModel = context.fingerprints.getModel(resource);
+                    jenaModel.setNsPrefixes(resourceModel);
+                    jenaModel.add(resourceModel);
+                }
+            }
+        }
         LOG.log(Level.INFO, "RDF model gotten with {0} statements", jenaModel.size());
         return jenaModel;
 	}
+
+	/**
+	 * Gets the RDF models of the mapped OSLC resources one resource at a
+	 * time. Resources are only converted when requested and are removed from
+	 * their maps once converted, so neither the whole RDF model nor the
+	 * already streamed resources are kept in memory. Resources unchanged since
+	 * the previous conversion get their previous statements from the context's
+	 * fingerprint store, if any.
+	 * 
+	 * @param context
+	 *            the conversion holding the resources
+	 * @return an iterator over the RDF model of every mapped resource
+	 */
+	public static Iterator<com.hp.hpl.jena.rdf.model.Model> getResourceModels(final ConversionContext context) {
+		final Iterator<Map<String, ?>> maps = getResourceMaps(context).iterator();
+		return new Iterator<com.hp.hpl.jena.rdf.model.Model>() {
+			private Iterator<?> resources = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!resources.hasNext() && maps.hasNext()) {
+					resources = maps.next().values().iterator();
+				}
+				return resources.hasNext();
+			}
+
+			@Override
+			public com.hp.hpl.jena.rdf.model.Model next() {
+				Object resource;
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				resource = resources.next();
+				resources.remove();
+				try (StageTimer.Stage stage = context.timer.start("model")) {
+					if (context.fingerprints != null) {
+						return context.fingerprints.getModel(resource);
+					}
+					return JenaModelHelper.createJenaModel(new Object[] { resource });
+				} catch (Exception ex) {
+					throw new IllegalStateException("cannot convert resource into RDF: " + resource, ex);
+				}
+			}
+		};
+	}
 }
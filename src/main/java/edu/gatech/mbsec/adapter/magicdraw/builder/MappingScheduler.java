@@ -0,0 +1,261 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the mapping phases of a conversion according to their declared
+ * dependencies. With a single thread the phases run on the calling thread, in
+ * declaration order; otherwise every phase starts on a fork-join pool as soon
+ * as the phases it depends on are done, and phases may also split their own
+ * work on the same pool by means of {@link #forEach(Collection, Task)}.
+ * Running phases concurrently is experimental: the phases read the MagicDraw
+ * model from several threads, and MagicDraw does not document those reads as
+ * thread-safe.
+ * @author rherrera
+ */
+public class MappingScheduler {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(MappingScheduler.class.getName());
+    /**
+     * The work of a phase.
+     */
+    public interface Step {
+        /**
+         * Runs this step.
+         * @throws Exception if the step fails.
+         */
+        void run() throws Exception;
+    }
+    /**
+     * The mapping of a single element.
+     * @param <T> the type of the mapped element.
+     */
+    public interface Task<T> {
+        /**
+         * Maps an element.
+         * @param element the element to map.
+         * @throws Exception if the element cannot be mapped.
+         */
+        void run(T element) throws Exception;
+    }
+    /**
+     * A declared phase.
+     */
+    private static class Phase {
+        /**
+         * The name of this phase.
+         */
+        private final String name;
+        /**
+         * The work of this phase.
+         */
+        private final Step step;
+        /**
+         * The names of the phases this phase depends on.
+         */
+        private final String[] dependencies;
+        /**
+         * Constructs an instance specifying its properties.
+         * @param name the name of the phase.
+         * @param step the work of the phase.
+         * @param dependencies the names of the phases it depends on.
+         */
+        Phase(String name, Step step, String[] dependencies) {
+            this.name = name;
+            this.step = step;
+            this.dependencies = dependencies;
+        }
+        /**
+         * Runs this phase.
+         * @param timer the timer recording the phase; {@code null} for none.
+         * @throws Exception if the phase fails.
+         */
+        void run(StageTimer timer) throws Exception {
+            long start = System.nanoTime();
+            step.run();
+            start = System.nanoTime() - start;
+            if (timer != null)
+                timer.record("map." + name, start);
+            LOG.log(Level.FINE, "Mapping phase {0} done in {1} ms",
+                    new Object[]{name, start / 1000000});
+        }
+    }
+    /**
+     * The number of threads.
+     */
+    private final int threads;
+    /**
+     * The timer recording the phases; {@code null} for none.
+     */
+    private final StageTimer timer;
+    /**
+     * The declared phases by name, in declaration order.
+     */
+    private final Map<String, Phase> phases;
+    /**
+     * The pool running the phases; only set while running in parallel.
+     */
+    private volatile ForkJoinPool pool;
+    /**
+     * Constructs an instance specifying the number of threads.
+     * @param threads the number of threads; {@code 1} runs everything on the
+     * calling thread.
+     */
+    public MappingScheduler(int threads) {
+        this(threads, null);
+    }
+    /**
+     * Constructs an instance specifying the number of threads and the timer
+     * recording the phases.
+     * @param threads the number of threads; {@code 1} runs everything on the
+     * calling thread.
+     * @param timer the timer recording the phases; {@code null} for none.
+     */
+    public MappingScheduler(int threads, StageTimer timer) {
+        if (threads < 1)
+            throw new IllegalArgumentException("invalid number of threads: " + threads);
+        this.threads = threads;
+        this.timer = timer;
+        this.phases = new LinkedHashMap<>();
+    }
+    /**
+     * Gets the number of threads.
+     * @return the number of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+    /**
+     * Declares a phase. Dependencies must be declared beforehand, so the
+     * declared phases are always free of cycles.
+     * @param name the name of the phase.
+     * @param step the work of the phase.
+     * @param dependencies the names of the phases that must be done before
+     * this one starts.
+     * @return this scheduler.
+     */
+    public MappingScheduler phase(String name, Step step, String... dependencies) {
+        if (phases.containsKey(name))
+            throw new IllegalArgumentException("phase already declared: " + name);
+        for (String dependency : dependencies)
+            if (!phases.containsKey(dependency))
+                throw new IllegalArgumentException("undeclared dependency of " + name + ": " + dependency);
+        phases.put(name, new Phase(name, step, dependencies));
+        return this;
+    }
+    /**
+     * Runs all the declared phases and forgets them, so this scheduler can be
+     * used again.
+     * @throws Exception the failure of the first failed phase.
+     */
+    public void run() throws Exception {
+        try {
+            if (threads == 1) {
+                for (Phase phase : phases.values())
+                    phase.run(timer);
+            } else {
+                LOG.log(Level.WARNING, "Mapping with {0} threads is experimental; compare the output with a single thread conversion",
+                        threads);
+                runInParallel();
+            }
+        } finally {
+            phases.clear();
+        }
+    }
+    /**
+     * Runs the declared phases on a fork-join pool.
+     * @throws Exception the failure of the first failed phase.
+     */
+    private void runInParallel() throws Exception {
+        CompletableFuture<?>[] dependencies;
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        pool = new ForkJoinPool(threads);
+        try {
+            for (Phase phase : phases.values()) {
+                dependencies = new CompletableFuture<?>[phase.dependencies.length];
+                for (int i = 0; i < dependencies.length; i++)
+                    dependencies[i] = futures.get(phase.dependencies[i]);
+                futures.put(phase.name, CompletableFuture.allOf(dependencies)
+                        .thenRunAsync(() -> execute(phase, timer), pool));
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch(CompletionException ex) {
+            throw unwrap(ex);
+        } finally {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+    /**
+     * Runs a phase within a future.
+     * @param phase the phase to run.
+     * @param timer the timer recording the phase; {@code null} for none.
+     */
+    private static void execute(Phase phase, StageTimer timer) {
+        try {
+            phase.run(timer);
+        } catch(Exception ex) {
+            throw new CompletionException(ex);
+        }
+    }
+    /**
+     * Gets the original failure of a phase.
+     * @param ex the exception thrown when joining the phases.
+     * @return the original failure.
+     */
+    private static Exception unwrap(CompletionException ex) {
+        Throwable cause = ex;
+        while (cause instanceof CompletionException && cause.getCause() != null)
+            cause = cause.getCause();
+        if (cause instanceof Error)
+            throw (Error) cause;
+        return (Exception) cause;
+    }
+    /**
+     * Maps a collection of elements. Elements are mapped in parallel when
+     * called from a phase running on this scheduler's pool; otherwise they
+     * are mapped in order on the calling thread.
+     * @param <T> the type of the elements.
+     * @param elements the elements to map.
+     * @param task the mapping of a single element.
+     * @throws Exception the failure of the first failed element.
+     */
+    public <T> void forEach(Collection<? extends T> elements, Task<T> task) throws Exception {
+        List<ForkJoinTask<?>> tasks;
+        AtomicReference<Exception> failure;
+        if (pool == null || ForkJoinTask.getPool() != pool) {
+            for (T element : elements)
+                task.run(element);
+            return;
+        }
+        tasks = new ArrayList<>(elements.size());
+        failure = new AtomicReference<>();
+        for (T element : elements) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                try {
+                    if (failure.get() == null)
+                        task.run(element);
+                } catch(Exception ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        if (failure.get() != null)
+            throw failure.get();
+    }
+}
@@ -0,0 +1,96 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.hp.hpl.jena.graph.Graph;
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.graph.TripleMatch;
+import com.hp.hpl.jena.graph.impl.GraphBase;
+import com.hp.hpl.jena.shared.PrefixMapping;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import com.hp.hpl.jena.util.iterator.Filter;
+import com.hp.hpl.jena.util.iterator.NullIterator;
+import com.hp.hpl.jena.util.iterator.SingletonIterator;
+import com.hp.hpl.jena.vocabulary.RDFS;
+
+/**
+ * A graph adding to a base graph the membership of its subjects into a
+ * container, i.e. a {@code <container> rdfs:member <subject>} triple per
+ * subject. Membership triples are computed while found, from the subject
+ * index of the base graph, instead of being stored. Additions and deletions
+ * go to the base graph.
+ * @author rherrera
+ */
+class MembershipGraph extends GraphBase {
+    /**
+     * The membership predicate.
+     */
+    private static final Node MEMBER = RDFS.member.asNode();
+
+    private final Graph base;
+    private final Node container;
+    /**
+     * Constructs an instance specifying the base graph and the container.
+     * @param base the base graph.
+     * @param container the container node.
+     */
+    MembershipGraph(Graph base, Node container) {
+        this.base = base;
+        this.container = container;
+    }
+    /**
+     * Finds the membership triples matching a pattern.
+     * @param subject the subject pattern; {@code null} for any.
+     * @param predicate the predicate pattern; {@code null} for any.
+     * @param object the object pattern; {@code null} for any.
+     * @return the matching membership triples.
+     */
+    private ExtendedIterator<Triple> findMembers(Node subject, Node predicate, Node object) {
+        if (subject != null && !subject.equals(container) || predicate != null && !predicate.equals(MEMBER))
+            return NullIterator.instance();
+        if (object != null) {
+            if (object.equals(container) || !base.contains(object, Node.ANY, Node.ANY)
+                    || base.contains(container, MEMBER, object))
+                return NullIterator.instance();
+            return new SingletonIterator<>(Triple.create(container, MEMBER, object));
+        }
+        return base.queryHandler().subjectsFor(Node.ANY, Node.ANY).filterDrop(new Filter<Node>() {
+            @Override
+            public boolean accept(Node member) {
+                return member.equals(container) || base.contains(container, MEMBER, member);
+            }
+        }).mapWith(member -> Triple.create(container, MEMBER, member));
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(TripleMatch match) {
+        return base.find(match).andThen(findMembers(match.getMatchSubject(),
+                match.getMatchPredicate(), match.getMatchObject()));
+    }
+
+    @Override
+    protected boolean graphBaseContains(Triple triple) {
+        return base.contains(triple) || findMembers(triple.getSubject(),
+                triple.getPredicate(), triple.getObject()).hasNext();
+    }
+
+    @Override
+    public void performAdd(Triple triple) {
+        base.add(triple);
+    }
+
+    @Override
+    public void performDelete(Triple triple) {
+        base.delete(triple);
+    }
+
+    @Override
+    public PrefixMapping getPrefixMapping() {
+        return base.getPrefixMapping();
+    }
+
+    @Override
+    public void close() {
+        base.close();
+        super.close();
+    }
+}
@@ -1,10 +1,15 @@
 package edu.gatech.mbsec.adapter.magicdraw.builder;
 
+import com.hp.hpl.jena.graph.Node;
 import com.hp.hpl.jena.rdf.model.Model;
-import com.hp.hpl.jena.rdf.model.ResIterator;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
 import com.hp.hpl.jena.rdf.model.Resource;
 import com.hp.hpl.jena.vocabulary.RDFS;
 import edu.gatech.mbsec.adapter.magicdraw.util.Cypher;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
@@ -29,6 +34,19 @@ public class MetaInformation {
      * @return a corresponding instance to the given metaproperties.
      */
     public static MetaInformation getInstance(Properties vocabs, String... metas) {
+        return getInstance(null, vocabs, metas);
+    }
+    /**
+     * Gets an instance given a collection of meta-properties and the input
+     * file. Without meta-properties nor ID, the ID is the digest of the input
+     * file, so converting the same input again gives the same ID.
+     * @param input the input file; {@code null} for a time-based ID instead.
+     * @param vocabs the related vocabulary namespaces and prefixes.
+     * @param metas the meta-properties collection to be defined.
+     * @return a corresponding instance to the given metaproperties.
+     * @throws IllegalStateException if the input file cannot be read.
+     */
+    public static MetaInformation getInstance(File input, Properties vocabs, String... metas) {
         String tokens[], value, ns, id = null;
         Map<String, String> properties = new HashMap<>();
         Map<String, String> vocabularies = new HashMap<>();
@@ -49,6 +67,13 @@ public class MetaInformation {
                     throw new IllegalArgumentException("prefix-namespace bad formed: " + meta);
             }
         }
+        if (id == null && properties.isEmpty() && input != null) {
+            try (InputStream content = new FileInputStream(input)) {
+                id = Cypher.md5(content);
+            } catch(NoSuchAlgorithmException | IOException e) {
+                throw new IllegalStateException("cannot digest the input file to get an id for the model", e);
+            }
+        }
         return new MetaInformation(properties, vocabularies, id);
     }
     /**
@@ -108,24 +133,39 @@ public class MetaInformation {
         return id;
     }
     /**
-     * Customizes a model with this meta information.
-     * @param model the model to sign.
+     * Gets the URI of the container resource denoting this meta-information.
+     * @param descriptor the model building descriptor.
+     * @return the URI of the container resource.
+     */
+    public String getURI(ModelDescriptor descriptor) {
+        return descriptor.resource(RDFS.Container.getLocalName().toLowerCase(), id);
+    }
+    /**
+     * Adds the subjects of a model as members of the container resource.
+     * @param model the model whose subjects will become members.
      * @param descriptor the model building descriptor.
      */
-    public void customize(Model model, ModelDescriptor descriptor) {
-        ResIterator members;
-        Resource container, member;
-        String type = RDFS.Container.getLocalName().toLowerCase();
-        String uri = descriptor.resource(type, id);
+    public void addMembers(Model model, ModelDescriptor descriptor) {
+        Resource container;
         if (!properties.isEmpty()) {
-            container = model.createResource(uri, RDFS.Container);
-            members = model.listSubjects();
-            while(members.hasNext()) {
-                member = members.next();
+            container = model.createResource(getURI(descriptor));
+            for (Resource member : model.listSubjects().toList()) {
                 if (!member.equals(container)) {
                     container.addProperty(RDFS.member, member);
                 }
             }
+        }
+    }
+    /**
+     * Describes the container resource, i.e. its type and meta-properties,
+     * into a model.
+     * @param model the model to describe the container into.
+     * @param descriptor the model building descriptor.
+     */
+    public void describe(Model model, ModelDescriptor descriptor) {
+        Resource container;
+        if (!properties.isEmpty()) {
+            container = model.createResource(getURI(descriptor), RDFS.Container);
             for(Map.Entry<String, String> property : properties.entrySet()) {
                 container.addLiteral(model.createProperty(property.getKey()), property.getValue());
             }
@@ -134,4 +174,19 @@ public class MetaInformation {
             }
         }
     }
-}
\ No newline at end of file
+    /**
+     * Customizes a model with this meta information. Rather than adding the
+     * membership of every subject into the model, the container membership
+     * is a view computed while the customized model is read.
+     * @param model the model to sign.
+     * @param descriptor the model building descriptor.
+     * @return the customized model, backed by {@code model}.
+     */
+    public Model customize(Model model, ModelDescriptor descriptor) {
+        describe(model, descriptor);
+        if (properties.isEmpty())
+            return model;
+        return ModelFactory.createModelForGraph(new MembershipGraph(model.getGraph(),
+                Node.createURI(getURI(descriptor))));
+    }
+}
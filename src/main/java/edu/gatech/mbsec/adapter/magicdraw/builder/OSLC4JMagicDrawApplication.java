@@ -25,6 +25,7 @@ import com.hp.hpl.jena.rdf.model.Model;
 import com.nomagic.runtime.ApplicationExitedException;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.Iterator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -52,11 +53,106 @@ public class OSLC4JMagicDrawApplication {
     private static final Logger LOG = Logger.getLogger(OSLC4JMagicDrawApplication.class.getName());
 
 	public static Model run(String file, ModelDescriptor descriptor) throws Exception {
+        return run(file, descriptor, 1);
+	}
+
+	/**
+	 * Loads a project and gets the RDF model of all its resources.
+	 * 
+	 * @param file the MagicDraw project file.
+	 * @param descriptor the model building descriptor.
+	 * @param threads the number of threads mapping the project elements.
+	 * @return the RDF model of the project.
+	 * @throws Exception if the project cannot be loaded or mapped.
+	 */
+	public static Model run(String file, ModelDescriptor descriptor, int threads) throws Exception {
+        return run(file, new ConversionContext(descriptor, threads));
+	}
+
+	/**
+	 * Loads a project into a conversion and gets the RDF model of all its
+	 * resources. The conversion is released once the model is built.
+	 * 
+	 * @param file the MagicDraw project file.
+	 * @param context the conversion.
+	 * @return the RDF model of the project.
+	 * @throws Exception if the project cannot be loaded or mapped.
+	 */
+	public static Model run(String file, ConversionContext context) throws Exception {
+        try {
+            context.reader.read(context, file);
+            return MagicDrawManager.getModel(context);
+        } catch(Exception ex) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            PrintStream printer = new PrintStream(bos);
+            ex.printStackTrace(printer);
+            printer.flush();
+            LOG.log(Level.SEVERE, "Could not build model.\n{0}", bos.toString());
+            throw ex;
+        } finally {
+            context.release();
+        }
+	}
+
+	/**
+	 * Loads a project and gets the RDF model of each of its resources, one
+	 * resource at a time, instead of a single model holding all of them. The
+	 * conversion is released once the iterator is exhausted.
+	 * 
+	 * @param file the MagicDraw project file.
+	 * @param descriptor the model building descriptor.
+	 * @return an iterator over the RDF model of every resource.
+	 * @throws Exception if the project cannot be loaded or mapped.
+	 */
+	public static Iterator<Model> stream(String file, ModelDescriptor descriptor) throws Exception {
+        return stream(file, descriptor, 1);
+	}
+
+	/**
+	 * Same as {@link #stream(String, ModelDescriptor)} specifying the number
+	 * of threads mapping the project elements.
+	 * 
+	 * @param file the MagicDraw project file.
+	 * @param descriptor the model building descriptor.
+	 * @param threads the number of threads mapping the project elements.
+	 * @return an iterator over the RDF model of every resource.
+	 * @throws Exception if the project cannot be loaded or mapped.
+	 */
+	public static Iterator<Model> stream(String file, ModelDescriptor descriptor, int threads) throws Exception {
+        return stream(file, new ConversionContext(descriptor, threads));
+	}
+
+	/**
+	 * Same as {@link #stream(String, ModelDescriptor)} loading the project
+	 * into a given conversion. The conversion is owned by the caller, which
+	 * must release it even if the iteration stops early or fails; exhausting
+	 * the iterator releases it as well.
+	 * 
+	 * @param file the MagicDraw project file.
+	 * @param context the conversion.
+	 * @return an iterator over the RDF model of every resource.
+	 * @throws Exception if the project cannot be loaded or mapped.
+	 */
+	public static Iterator<Model> stream(String file, final ConversionContext context) throws Exception {
         try {
-            MagicDrawManager.descriptor = descriptor;
-            MagicDrawManager.loadSysMLProjects(file);
-            return MagicDrawManager.getModel();
+            context.reader.read(context, file);
+            final Iterator<Model> models = MagicDrawManager.getResourceModels(context);
+            return new Iterator<Model>() {
+                @Override
+                public boolean hasNext() {
+                    if (models.hasNext())
+                        return true;
+                    context.release();
+                    return false;
+                }
+
+                @Override
+                public Model next() {
+                    return models.next();
+                }
+            };
         } catch(Exception ex) {
+            context.release();
             ByteArrayOutputStream bos = new ByteArrayOutputStream();
             PrintStream printer = new PrintStream(bos);
             ex.printStackTrace(printer);
@@ -66,6 +162,14 @@ public class OSLC4JMagicDrawApplication {
         }
 	}
 
+	/**
+	 * Closes the loaded projects and releases the converted resources, while
+	 * keeping MagicDraw running for the next conversion.
+	 */
+    public static void close() {
+        MagicDrawManager.closeSysMLProjects();
+    }
+
     public static void finish() {
         try {
             if (MagicDrawManager.magicdrawApplication != null) {
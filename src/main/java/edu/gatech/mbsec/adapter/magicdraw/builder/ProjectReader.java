@@ -0,0 +1,36 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+/**
+ * The readers loading a project file into a {@link ConversionContext
+ * conversion}.
+ * @author rherrera
+ */
+public enum ProjectReader {
+    /**
+     * Loads the project with MagicDraw, mapping every supported element.
+     */
+    magicdraw {
+        @Override
+        public void read(ConversionContext context, String file) throws Exception {
+            MagicDrawManager.loadSysMLProjects(context, file);
+        }
+    },
+    /**
+     * Reads the XMI within the mdzip file without starting MagicDraw, mapping
+     * the subset of elements supported by {@link XmiProjectReader}.
+     */
+    xmi {
+        @Override
+        public void read(ConversionContext context, String file) throws Exception {
+            new XmiProjectReader(context).read(file);
+        }
+    };
+    /**
+     * Loads a project file into a conversion, mapping its elements into OSLC
+     * resources.
+     * @param context the conversion.
+     * @param file the project file.
+     * @throws Exception if the project cannot be read or mapped.
+     */
+    public abstract void read(ConversionContext context, String file) throws Exception;
+}
@@ -0,0 +1,173 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
+import java.net.URI;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encodes the qualified names of the elements of a conversion into resource
+ * identifiers, replacing line breaks by {@code -} and blanks by {@code _}.
+ * Elements are usually encoded several times (as map keys, as their resource
+ * URIs and as link targets), so the encoded name and the last resource URI of
+ * every element are kept, by element identity, until the conversion loads
+ * another project or is released.
+ * @author rherrera
+ */
+public class QualifiedNameEncoder {
+    /**
+     * Encodes a qualified name. Same as
+     * {@code name.replaceAll("\\n", "-").replaceAll(" ", "_")} but without
+     * regular expressions nor copies of names needing no changes.
+     * @param name the qualified name.
+     * @return the encoded qualified name; {@code null} if {@code name} is
+     * {@code null}.
+     */
+    public static String encode(String name) {
+        int i = 0;
+        char[] chars;
+        if (name == null)
+            return null;
+        while (i < name.length() && name.charAt(i) != '\n' && name.charAt(i) != ' ')
+            i++;
+        if (i == name.length())
+            return name;
+        chars = name.toCharArray();
+        for (; i < chars.length; i++) {
+            if (chars[i] == '\n')
+                chars[i] = '-';
+            else if (chars[i] == ' ')
+                chars[i] = '_';
+        }
+        return new String(chars);
+    }
+    /**
+     * The resource URI of an element for a resource type.
+     */
+    private static class Resource {
+        /**
+         * The resource type (URI path part).
+         */
+        private final String type;
+        /**
+         * The resource URI.
+         */
+        private final URI uri;
+        /**
+         * Constructs an instance specifying its properties.
+         * @param type the resource type.
+         * @param uri the resource URI.
+         */
+        Resource(String type, URI uri) {
+            this.type = type;
+            this.uri = uri;
+        }
+    }
+    /**
+     * The encodings of an element.
+     */
+    private static class Entry {
+        /**
+         * The encoded qualified name.
+         */
+        private final String qualifiedName;
+        /**
+         * The last resource URI built for the element.
+         */
+        private volatile Resource resource;
+        /**
+         * Constructs an instance specifying the encoded qualified name.
+         * @param qualifiedName the encoded qualified name.
+         */
+        Entry(String qualifiedName) {
+            this.qualifiedName = qualifiedName;
+        }
+    }
+
+    private final ConversionContext context;
+    private final Map<Element, Entry> entries;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    /**
+     * Constructs an empty encoder for a conversion.
+     * @param context the conversion whose descriptor and project id build
+     * the resource URIs.
+     */
+    QualifiedNameEncoder(ConversionContext context) {
+        this.context = context;
+        this.entries = Collections.synchronizedMap(new IdentityHashMap<Element, Entry>());
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+    /**
+     * Gets the encodings of an element, encoding it if needed.
+     * @param element the element.
+     * @return the encodings of the {@code element}.
+     */
+    private Entry getEntry(NamedElement element) {
+        Entry entry = entries.get(element);
+        if (entry == null) {
+            misses.incrementAndGet();
+            entry = new Entry(encode(element.getQualifiedName()));
+            entries.put(element, entry);
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+    /**
+     * Gets the encoded qualified name of an element.
+     * @param element the element.
+     * @return the encoded qualified name of the {@code element}.
+     */
+    public String getQualifiedName(NamedElement element) {
+        return getEntry(element).qualifiedName;
+    }
+    /**
+     * Gets the encoded qualified name of an element or, if it has no name,
+     * its id.
+     * @param element the element.
+     * @return the encoded qualified name or id of the {@code element}.
+     * @see MagicDrawManager#getQualifiedNameOrID(Element)
+     */
+    public String getQualifiedNameOrID(Element element) {
+        if (element instanceof NamedElement && !((NamedElement) element).getName().equals(""))
+            return getQualifiedName((NamedElement) element);
+        return element.getID();
+    }
+    /**
+     * Gets the resource URI of an element, built from its encoded qualified
+     * name.
+     * @param type the resource type (URI path part, e.g. {@code blocks}).
+     * @param element the element.
+     * @return the resource URI of the {@code element}.
+     */
+    public URI getURI(String type, NamedElement element) {
+        Entry entry = getEntry(element);
+        Resource resource = entry.resource;
+        if (resource == null || !resource.type.equals(type)) {
+            resource = new Resource(type, URI.create(context.descriptor.resource(type,
+                    context.projectId + entry.qualifiedName)));
+            entry.resource = resource;
+        }
+        return resource.uri;
+    }
+    /**
+     * Forgets all the encoded elements.
+     */
+    void clear() {
+        entries.clear();
+    }
+    /**
+     * Gets the string representation of this encoder.
+     * @return the statistics of this encoder.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d elements encoded, %d hits, %d misses",
+                entries.size(), hits.get(), misses.get());
+    }
+}
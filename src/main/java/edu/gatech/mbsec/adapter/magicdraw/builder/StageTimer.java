@@ -0,0 +1,103 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Accumulates the elapsed time of the stages of a conversion (loading,
+ * traversal, mapping, RDF model building, serialization...), so regressions
+ * on any of them can be spotted from the conversion logs. Stages may be timed
+ * from several threads at once; a stage timed several times accumulates its
+ * times.
+ * @author rherrera
+ */
+public class StageTimer {
+    /**
+     * A running stage, recorded once closed.
+     */
+    public class Stage implements AutoCloseable {
+        /**
+         * The name of this stage.
+         */
+        private final String name;
+        /**
+         * The start of this stage in nanoseconds.
+         */
+        private final long start;
+        /**
+         * Constructs a running stage.
+         * @param name the name of the stage.
+         */
+        private Stage(String name) {
+            this.name = name;
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            record(name, System.nanoTime() - start);
+        }
+    }
+    /**
+     * The accumulated times of a stage.
+     */
+    private static class Times {
+        /**
+         * The number of times the stage was timed.
+         */
+        private int count;
+        /**
+         * The accumulated time in nanoseconds.
+         */
+        private long nanos;
+    }
+    /**
+     * The accumulated times by stage, in first-timed order.
+     */
+    private final Map<String, Times> stages = new LinkedHashMap<>();
+    /**
+     * Starts timing a stage.
+     * @param name the name of the stage.
+     * @return the running stage, to be closed when the stage ends.
+     */
+    public Stage start(String name) {
+        return new Stage(name);
+    }
+    /**
+     * Records an elapsed time of a stage.
+     * @param name the name of the stage.
+     * @param nanos the elapsed time in nanoseconds.
+     */
+    public synchronized void record(String name, long nanos) {
+        Times times = stages.get(name);
+        if (times == null) {
+            times = new Times();
+            stages.put(name, times);
+        }
+        times.count++;
+        times.nanos += nanos;
+    }
+    /**
+     * Gets the accumulated time of a stage.
+     * @param name the name of the stage.
+     * @return the accumulated time in milliseconds; {@code 0} if the stage
+     * was never timed.
+     */
+    public synchronized long getMillis(String name) {
+        Times times = stages.get(name);
+        return times == null ? 0 : times.nanos / 1000000;
+    }
+    /**
+     * Gets the report of all the timed stages.
+     * @return a line per stage with its count and accumulated time.
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder report = new StringBuilder("Conversion stages:");
+        for (Map.Entry<String, Times> stage : stages.entrySet()) {
+            report.append(String.format("%n  %-32s %6d x %10.1f ms", stage.getKey(),
+                    stage.getValue().count, stage.getValue().nanos / 1e6));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.nomagic.magicdraw.core.Project;
+import com.nomagic.uml2.ext.jmi.helpers.StereotypesHelper;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.mdprofiles.Profile;
+import com.nomagic.uml2.ext.magicdraw.mdprofiles.Stereotype;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per project cache of the stereotypes of a profile looked up by name. Each
+ * stereotype is resolved in the profile only once per project; membership
+ * tests compare, by reference, the resolved stereotype against the ones
+ * applied to an element. Only when the profile has no stereotype with the
+ * given name, the applied stereotypes are compared by name. The counters
+ * report the stereotype lookups answered by the cache (hits) and resolved in
+ * the project (misses).
+ * @author rherrera
+ */
+public class StereotypeCache {
+    /**
+     * The cache of the project currently in use.
+     */
+    private static volatile StereotypeCache current;
+    /**
+     * Gets the cache of a project, replacing the current one if it belongs to
+     * a different project.
+     * @param project the project.
+     * @param profileName the name of the profile that must be loaded.
+     * @return the cache of the {@code project}.
+     */
+    public static StereotypeCache getInstance(Project project, String profileName) {
+        StereotypeCache cache = current;
+        if (cache == null || cache.project != project) {
+            synchronized (StereotypeCache.class) {
+                cache = current;
+                if (cache == null || cache.project != project) {
+                    cache = new StereotypeCache(project, profileName);
+                    current = cache;
+                }
+            }
+        }
+        return cache;
+    }
+    /**
+     * Releases the cache of the project currently in use.
+     */
+    public static synchronized void release() {
+        current = null;
+    }
+
+    private final Project project;
+    private final Profile profile;
+    private final Map<String, Optional<Stereotype>> stereotypes;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    /**
+     * Constructs an empty cache for a project.
+     * @param project the project.
+     * @param profileName the name of the profile that must be loaded.
+     */
+    private StereotypeCache(Project project, String profileName) {
+        this.project = project;
+        this.profile = StereotypesHelper.getProfile(project, profileName);
+        this.stereotypes = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+    /**
+     * Indicates whether the profile was loaded in the project when this cache
+     * was created.
+     * @return {@code true} if the profile is loaded; {@code false} otherwise.
+     */
+    public boolean isProfileLoaded() {
+        return profile != null;
+    }
+    /**
+     * Gets a stereotype of the profile by its name.
+     * @param name the name of the stereotype.
+     * @return the stereotype or {@code null} if the profile is not loaded or
+     * has none with the given name.
+     */
+    public Stereotype getStereotype(String name) {
+        Optional<Stereotype> stereotype = stereotypes.get(name);
+        if (stereotype != null) {
+            hits.incrementAndGet();
+            return stereotype.orElse(null);
+        }
+        misses.incrementAndGet();
+        return stereotypes.computeIfAbsent(name, n -> Optional.ofNullable(profile == null
+                ? null : StereotypesHelper.getStereotype(project, n, profile))).orElse(null);
+    }
+    /**
+     * Indicates whether an element has a stereotype applied.
+     * @param element the element.
+     * @param name the name of the stereotype.
+     * @return {@code true} if the {@code element} has the stereotype applied;
+     * {@code false} otherwise.
+     */
+    public boolean hasStereotype(Element element, String name) {
+        Stereotype stereotype;
+        List<Stereotype> applied;
+        if (element == null || element.getAppliedStereotypeInstance() == null)
+            return false;
+        stereotype = getStereotype(name);
+        applied = StereotypesHelper.getStereotypes(element);
+        if (stereotype != null) {
+            for (Stereotype candidate : applied)
+                if (candidate == stereotype)
+                    return true;
+            return false;
+        }
+        for (Stereotype candidate : applied)
+            if (name.equals(candidate.getName()))
+                return true;
+        return false;
+    }
+    /**
+     * Gets the number of stereotype lookups answered by the cache.
+     * @return the number of cache hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+    /**
+     * Gets the number of stereotype lookups resolved in the project, as the
+     * cache did not hold them yet.
+     * @return the number of cache misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+    /**
+     * Gets the string representation of this cache.
+     * @return the statistics of this cache.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d stereotypes cached, %d hits, %d misses",
+                stereotypes.size(), hits.get(), misses.get());
+    }
+}
@@ -0,0 +1,338 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import com.nomagic.uml2.ext.jmi.helpers.StereotypesHelper;
+import com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdinformationflows.InformationFlow;
+import com.nomagic.uml2.ext.magicdraw.auxiliaryconstructs.mdmodels.Model;
+import com.nomagic.uml2.ext.magicdraw.classes.mdassociationclasses.AssociationClass;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DataType;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DirectedRelationship;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.mdprofiles.Stereotype;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Index of all the SysML elements of a MagicDraw model. The containment tree
+ * is visited only once; every element is classified by its applied
+ * stereotypes and all the per-kind collections are filled at the same time.
+ * The collection rules are the ones of the former recursive traversals:
+ * <ul>
+ * <li>blocks, requirements and interface blocks are looked up through
+ * packages and, once found, through their nested classifiers;</li>
+ * <li>packages and value types are looked up through packages only;</li>
+ * <li>association blocks, item flows and stereotyped directed relationships
+ * are looked up everywhere.</li>
+ * </ul>
+ * @author rherrera
+ */
+public class SysMLModelIndex {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(SysMLModelIndex.class.getName());
+    /**
+     * Kind flag for blocks.
+     */
+    private static final int BLOCKS = 1;
+    /**
+     * Kind flag for requirements.
+     */
+    private static final int REQUIREMENTS = 1 << 1;
+    /**
+     * Kind flag for interface blocks.
+     */
+    private static final int INTERFACE_BLOCKS = 1 << 2;
+    /**
+     * Kind flag for packages.
+     */
+    private static final int PACKAGES = 1 << 3;
+    /**
+     * Kind flag for value types.
+     */
+    private static final int VALUE_TYPES = 1 << 4;
+    /**
+     * Kinds that are also looked up through nested classifiers.
+     */
+    private static final int CLASS_KINDS = BLOCKS | REQUIREMENTS | INTERFACE_BLOCKS;
+    /**
+     * A pending element to visit along with the kinds it may contain.
+     */
+    private static class Frame {
+        private final Element element;
+        private final int packageKinds;
+        private final int classKinds;
+        private final int kinds;
+        /**
+         * Constructs an instance specifying all its properties.
+         * @param element the element to visit.
+         * @param packageKinds kinds looked up through this element if it is a
+         * package.
+         * @param classKinds kinds looked up through this element's nested
+         * classifiers if it is a class.
+         * @param kinds kinds the element itself is collected as.
+         */
+        Frame(Element element, int packageKinds, int classKinds, int kinds) {
+            this.element = element;
+            this.packageKinds = packageKinds;
+            this.classKinds = classKinds;
+            this.kinds = kinds;
+        }
+    }
+    /**
+     * Builds the index of a model.
+     * @param model the model to index.
+     * @param excludedPackages names of the packages not to look into.
+     * @param valueTypesLibrary name of an excluded package that must still be
+     * looked into for value types.
+     * @return the index of the model.
+     * @throws MDModelLibException if the SysML profile is not loaded.
+     */
+    public static SysMLModelIndex build(Model model,
+            Collection<String> excludedPackages, String valueTypesLibrary)
+            throws MDModelLibException {
+        int kinds = CLASS_KINDS | VALUE_TYPES;
+        SysMLModelIndex index = new SysMLModelIndex(excludedPackages, valueTypesLibrary);
+        MDSysMLModelHandler.isSysMLProfileLoadedPreCheck();
+        if (!excludedPackages.contains(model.getName()))
+            kinds |= PACKAGES;
+        index.visit(model, kinds);
+        LOG.log(Level.INFO, "Model indexed in one pass: {0} elements visited, "
+                + "{1} blocks, {2} requirements, {3} packages, {4} interface blocks, "
+                + "{5} value types, {6} item flows, {7} association blocks, "
+                + "{8} directed relationships",
+                new Object[]{index.visited, index.blocks.size(),
+                    index.requirements.size(), index.packages.size(),
+                    index.interfaceBlocks.size(), index.valueTypes.size(),
+                    index.itemFlows.size(), index.associationBlocks.size(),
+                    index.directedRelationships.size()});
+        return index;
+    }
+
+    private final Collection<String> excludedPackages;
+    private final String valueTypesLibrary;
+    private final Collection<Class> blocks;
+    private final Collection<Class> requirements;
+    private final Collection<Class> interfaceBlocks;
+    private final Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package> packages;
+    private final Collection<DataType> valueTypes;
+    private final Collection<InformationFlow> itemFlows;
+    private final Collection<AssociationClass> associationBlocks;
+    private final Collection<DirectedRelationship> directedRelationships;
+    private int visited;
+    /**
+     * Constructs an empty index.
+     * @param excludedPackages names of the packages not to look into.
+     * @param valueTypesLibrary name of an excluded package that must still be
+     * looked into for value types.
+     */
+    private SysMLModelIndex(Collection<String> excludedPackages, String valueTypesLibrary) {
+        this.excludedPackages = excludedPackages;
+        this.valueTypesLibrary = valueTypesLibrary;
+        this.blocks = new ArrayList<>();
+        this.requirements = new ArrayList<>();
+        this.interfaceBlocks = new ArrayList<>();
+        this.packages = new ArrayList<>();
+        this.valueTypes = new ArrayList<>();
+        this.itemFlows = new ArrayList<>();
+        this.associationBlocks = new ArrayList<>();
+        this.directedRelationships = new ArrayList<>();
+    }
+    /**
+     * Classifies an element by its applied stereotypes.
+     * @param element the element to classify.
+     * @param candidates the kinds the element is allowed to be of.
+     * @return the kinds, among the {@code candidates}, the element is of.
+     */
+    private int classify(Element element, int candidates) {
+        int kinds = 0;
+        if (candidates == 0 || element.getAppliedStereotypeInstance() == null)
+            return kinds;
+        for (Stereotype stereotype : StereotypesHelper.getStereotypes(element)) {
+            switch (String.valueOf(stereotype.getName())) {
+                case "Block":
+                case "System":
+                    kinds |= BLOCKS;
+                    break;
+                case "Requirement":
+                    kinds |= REQUIREMENTS;
+                    break;
+                case "InterfaceBlock":
+                    kinds |= INTERFACE_BLOCKS;
+                    break;
+                case "ValueType":
+                    kinds |= VALUE_TYPES;
+                    break;
+                default:
+            }
+        }
+        if (!(element instanceof Class))
+            kinds &= ~CLASS_KINDS;
+        if (!(element instanceof DataType))
+            kinds &= ~VALUE_TYPES;
+        return kinds & candidates;
+    }
+    /**
+     * Adds an element to the collections of the given kinds.
+     * @param element the element to add.
+     * @param kinds the kinds of the element.
+     */
+    private void add(Element element, int kinds) {
+        if ((kinds & BLOCKS) != 0) blocks.add((Class)element);
+        if ((kinds & REQUIREMENTS) != 0) requirements.add((Class)element);
+        if ((kinds & INTERFACE_BLOCKS) != 0) interfaceBlocks.add((Class)element);
+        if ((kinds & VALUE_TYPES) != 0) valueTypes.add((DataType)element);
+        if ((kinds & PACKAGES) != 0)
+            packages.add((com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package)element);
+    }
+    /**
+     * Adds an element to the collections of the kinds looked up everywhere.
+     * @param element the element to add.
+     * @throws MDModelLibException if the SysML profile is not loaded.
+     */
+    private void addAnywhere(Element element) throws MDModelLibException {
+        if (element instanceof AssociationClass) {
+            associationBlocks.add((AssociationClass)element);
+        } else if (element instanceof InformationFlow) {
+            if (MDSysMLModelHandler.isSysMLElement(element, "ItemFlow"))
+                itemFlows.add((InformationFlow)element);
+        } else if (element instanceof DirectedRelationship) {
+            if (element.getAppliedStereotypeInstance() != null)
+                directedRelationships.add((DirectedRelationship)element);
+        }
+    }
+    /**
+     * Gets the kinds to look up through a nested package.
+     * @param nested the nested package.
+     * @param kinds the kinds looked up through the owning package.
+     * @return the kinds to look up through the nested package.
+     */
+    private int getPackageKinds(com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package nested, int kinds) {
+        int nestedKinds = 0;
+        String name = nested.getName();
+        boolean excluded = excludedPackages.contains(name);
+        if (!excluded)
+            nestedKinds |= kinds & (CLASS_KINDS | PACKAGES);
+        if ((kinds & VALUE_TYPES) != 0 && (!excluded || valueTypesLibrary.equals(name)))
+            nestedKinds |= VALUE_TYPES;
+        return nestedKinds;
+    }
+    /**
+     * Visits the whole containment tree of a root package.
+     * @param root the root package.
+     * @param rootKinds the kinds to look up through the root package.
+     * @throws MDModelLibException if the SysML profile is not loaded.
+     */
+    private void visit(com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package root, int rootKinds)
+            throws MDModelLibException {
+        Frame frame;
+        Element element, children[];
+        int kinds, nestedKinds;
+        Set<Element> structural;
+        Deque<Frame> pending = new ArrayDeque<>();
+        pending.push(new Frame(root, rootKinds, 0, 0));
+        while (!pending.isEmpty()) {
+            frame = pending.pop();
+            element = frame.element;
+            visited++;
+            add(element, frame.kinds);
+            addAnywhere(element);
+            children = element.getOwnedElement().toArray(new Element[0]);
+            structural = null;
+            if (frame.packageKinds != 0 && element instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
+                structural = Collections.newSetFromMap(new IdentityHashMap<Element, Boolean>());
+                structural.addAll(((com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package)element).getPackagedElement());
+            } else if (frame.classKinds != 0 && element instanceof Class) {
+                structural = Collections.newSetFromMap(new IdentityHashMap<Element, Boolean>());
+                structural.addAll(((Class)element).getNestedClassifier());
+            }
+            // children are pushed backwards to be visited in containment order
+            for (int i = children.length - 1; i >= 0; i--) {
+                Element child = children[i];
+                if (structural == null || !structural.contains(child)) {
+                    pending.push(new Frame(child, 0, 0, 0));
+                } else if (frame.classKinds != 0) {
+                    kinds = classify(child, frame.classKinds);
+                    pending.push(new Frame(child, 0, frame.classKinds, kinds));
+                } else if (child instanceof com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package) {
+                    nestedKinds = getPackageKinds((com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package)child, frame.packageKinds);
+                    kinds = child instanceof Model ? 0 : nestedKinds & PACKAGES;
+                    pending.push(new Frame(child, nestedKinds, 0, kinds));
+                } else {
+                    kinds = classify(child, frame.packageKinds & (CLASS_KINDS | VALUE_TYPES));
+                    pending.push(new Frame(child, 0, kinds & CLASS_KINDS, kinds));
+                }
+            }
+        }
+    }
+    /**
+     * Gets the number of elements visited while indexing.
+     * @return the number of elements visited.
+     */
+    public int getVisitedElements() {
+        return visited;
+    }
+    /**
+     * Gets the indexed SysML blocks.
+     * @return the SysML blocks.
+     */
+    public Collection<Class> getBlocks() {
+        return blocks;
+    }
+    /**
+     * Gets the indexed SysML requirements.
+     * @return the SysML requirements.
+     */
+    public Collection<Class> getRequirements() {
+        return requirements;
+    }
+    /**
+     * Gets the indexed SysML interface blocks.
+     * @return the SysML interface blocks.
+     */
+    public Collection<Class> getInterfaceBlocks() {
+        return interfaceBlocks;
+    }
+    /**
+     * Gets the indexed packages.
+     * @return the packages.
+     */
+    public Collection<com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package> getPackages() {
+        return packages;
+    }
+    /**
+     * Gets the indexed SysML value types.
+     * @return the SysML value types.
+     */
+    public Collection<DataType> getValueTypes() {
+        return valueTypes;
+    }
+    /**
+     * Gets the indexed SysML item flows.
+     * @return the SysML item flows.
+     */
+    public Collection<InformationFlow> getItemFlows() {
+        return itemFlows;
+    }
+    /**
+     * Gets the indexed SysML association blocks.
+     * @return the SysML association blocks.
+     */
+    public Collection<AssociationClass> getAssociationBlocks() {
+        return associationBlocks;
+    }
+    /**
+     * Gets the indexed stereotyped directed relationships.
+     * @return the stereotyped directed relationships.
+     */
+    public Collection<DirectedRelationship> getDirectedRelationships() {
+        return directedRelationships;
+    }
+}
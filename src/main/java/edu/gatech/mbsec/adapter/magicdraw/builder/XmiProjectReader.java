@@ -0,0 +1,685 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLBlock;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLModel;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLPackage;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLPartProperty;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLReferenceProperty;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLRequirement;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLValueProperty;
+import edu.gatech.mbsec.adapter.magicdraw.resources.SysMLValueType;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.eclipse.lyo.oslc4j.core.model.Link;
+
+/**
+ * Reads a MagicDraw project straight from the UML/SysML XMI within its mdzip
+ * file, without starting MagicDraw. The XMI is parsed with StAX into light
+ * element records, elements are classified by their SysML stereotype
+ * applications and mapped into the same OSLC resources, URIs and context maps
+ * as the MagicDraw reader, so the RDF building and writing stages are shared.
+ * Only the model, packages, blocks (with their part, reference and value
+ * properties, generalizations, nested blocks and satisfactions), requirements
+ * (with their hierarchy, copies, derivations, satisfactions and refinements)
+ * and value types are mapped; connectors, ports, flows, interface and
+ * association blocks and diagrams need the MagicDraw reader.
+ * @author rherrera
+ */
+public class XmiProjectReader {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(XmiProjectReader.class.getName());
+    /**
+     * The suffix of the mdzip entry holding the project model.
+     */
+    static final String MODEL_ENTRY = "uml_model.model";
+    /**
+     * A stereotype application.
+     */
+    private static class Application {
+        /**
+         * The stereotype name.
+         */
+        private final String name;
+        /**
+         * The tag values by tag name (first value only).
+         */
+        private final Map<String, String> tags = new HashMap<>();
+        /**
+         * Constructs an instance specifying the stereotype name.
+         * @param name the stereotype name.
+         */
+        Application(String name) {
+            this.name = name;
+        }
+    }
+    /**
+     * An XMI model element.
+     */
+    private static class Node {
+        /**
+         * The XMI id.
+         */
+        private final String id;
+        /**
+         * The UML metaclass (e.g. {@code Class}).
+         */
+        private final String type;
+        /**
+         * The feature owning this element (e.g. {@code packagedElement}).
+         */
+        private final String role;
+        /**
+         * The name; {@code null} if unnamed.
+         */
+        private final String name;
+        /**
+         * The owner; {@code null} for the model.
+         */
+        private final Node owner;
+        /**
+         * The owned elements.
+         */
+        private final List<Node> children = new ArrayList<>();
+        /**
+         * The applied stereotypes, in application order.
+         */
+        private final List<Application> stereotypes = new ArrayList<>(1);
+        /**
+         * The single references by feature (e.g. {@code type}).
+         */
+        private final Map<String, String> references = new HashMap<>(2);
+        /**
+         * The clients (sources) of a dependency.
+         */
+        private final List<String> clients = new ArrayList<>(1);
+        /**
+         * The suppliers (targets) of a dependency.
+         */
+        private final List<String> suppliers = new ArrayList<>(1);
+        private String lower = "1";
+        private String upper = "1";
+        private String defaultValue;
+        /**
+         * Constructs an instance specifying its properties.
+         * @param id the XMI id.
+         * @param type the UML metaclass.
+         * @param role the owning feature.
+         * @param name the name.
+         * @param owner the owner.
+         */
+        Node(String id, String type, String role, String name, Node owner) {
+            this.id = id;
+            this.type = type;
+            this.role = role;
+            this.name = name;
+            this.owner = owner;
+            if (owner != null)
+                owner.children.add(this);
+        }
+        /**
+         * Gets the name of the first applied stereotype.
+         * @return the name of the first applied stereotype; {@code null} if
+         * none is applied.
+         */
+        String getStereotypeName() {
+            return stereotypes.isEmpty() ? null : stereotypes.get(0).name;
+        }
+        /**
+         * Determines whether a stereotype is applied.
+         * @param name the stereotype name.
+         * @return {@code true} if the stereotype is applied.
+         */
+        boolean is(String name) {
+            for (Application stereotype : stereotypes)
+                if (stereotype.name.equals(name))
+                    return true;
+            return false;
+        }
+        /**
+         * Gets a tag value of the applied stereotypes.
+         * @param tag the tag name.
+         * @return the first value of the {@code tag}; {@code null} if none.
+         */
+        String getTag(String tag) {
+            String value;
+            for (Application stereotype : stereotypes) {
+                value = stereotype.tags.get(tag);
+                if (value != null)
+                    return value;
+            }
+            return null;
+        }
+    }
+
+    private final ConversionContext context;
+    private final Map<String, Node> nodes;
+    private final Map<String, List<Node>> sourceOf;
+    private final Map<String, List<Node>> targetOf;
+    private final List<Node> packages;
+    private final List<Node> blocks;
+    private final List<Node> requirements;
+    private final List<Node> valueTypes;
+    private Node model;
+    /**
+     * Constructs a reader filling a conversion.
+     * @param context the conversion to fill.
+     */
+    public XmiProjectReader(ConversionContext context) {
+        this.context = context;
+        this.nodes = new HashMap<>();
+        this.sourceOf = new HashMap<>();
+        this.targetOf = new HashMap<>();
+        this.packages = new ArrayList<>();
+        this.blocks = new ArrayList<>();
+        this.requirements = new ArrayList<>();
+        this.valueTypes = new ArrayList<>();
+    }
+    /**
+     * Reads a project file and maps its elements into the conversion.
+     * @param path the mdzip file path.
+     * @throws IOException if the file cannot be read.
+     * @throws XMLStreamException if the XMI is not well formed.
+     * @throws java.net.URISyntaxException if some resource URI is invalid.
+     */
+    public void read(String path) throws IOException, XMLStreamException, java.net.URISyntaxException {
+        File file = new File(path);
+        String projectId = file.getName().replaceAll(".mdzip", "");
+        context.release();
+        context.projectId = projectId;
+        context.magicDrawFileName = projectId;
+        context.projectFile = file;
+        context.predefinedMagicDrawSysMLPackageNames.addAll(ConversionContext.PREDEFINED_PACKAGE_NAMES);
+        try (StageTimer.Stage stage = context.timer.start("load");
+                ZipFile zip = new ZipFile(file)) {
+            try (InputStream input = zip.getInputStream(getModelEntry(zip))) {
+                parse(input);
+            }
+        }
+        if (model == null)
+            throw new IOException("no UML model found in " + path);
+        try (StageTimer.Stage stage = context.timer.start("index")) {
+            index(model, false);
+        }
+        try (StageTimer.Stage stage = context.timer.start("map")) {
+            map();
+        }
+        LOG.log(Level.INFO, "XMI of {0} read: {1} elements, {2} packages, {3} blocks, "
+                + "{4} requirements, {5} value types", new Object[]{file, nodes.size(),
+                    packages.size(), blocks.size(), requirements.size(), valueTypes.size()});
+    }
+    /**
+     * Gets the mdzip entry holding the project model.
+     * @param zip the mdzip file.
+     * @return the model entry.
+     * @throws IOException if there is no model entry.
+     */
+    private static ZipEntry getModelEntry(ZipFile zip) throws IOException {
+        ZipEntry entry;
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            entry = entries.nextElement();
+            if (entry.getName().endsWith(MODEL_ENTRY))
+                return entry;
+        }
+        throw new IOException("no " + MODEL_ENTRY + " entry in " + zip.getName());
+    }
+    /**
+     * Gets an XMI attribute (e.g. {@code xmi:id}) of the current element.
+     * @param reader the XMI reader.
+     * @param name the attribute local name.
+     * @return the attribute value; {@code null} if missing.
+     */
+    private static String getXmiAttribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++)
+            if (name.equals(reader.getAttributeLocalName(i)) && "xmi".equals(reader.getAttributePrefix(i)))
+                return reader.getAttributeValue(i);
+        return null;
+    }
+    /**
+     * Parses the project XMI, recording the model elements and the stereotype
+     * applications.
+     * @param input the XMI input.
+     * @throws XMLStreamException if the XMI is not well formed.
+     */
+    private void parse(InputStream input) throws XMLStreamException {
+        Node node;
+        String local, value, type;
+        Application application = null;
+        StringBuilder text = null;
+        Deque<Node> owners = new ArrayDeque<>();
+        List<Application> applications = new ArrayList<>();
+        Map<Application, List<String>> bases = new HashMap<>();
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(input);
+        int depth = 0, skip = 0;
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        local = reader.getLocalName();
+                        if (skip > 0 || depth == 1) {
+                            if (skip > 0)
+                                skip++;
+                        } else if (depth == 2 && "xmi".equals(reader.getPrefix())) {
+                            skip = 1;
+                        } else if (depth == 2 && "uml".equals(reader.getPrefix())) {
+                            model = new Node(getXmiAttribute(reader, "id"), local, local,
+                                    reader.getAttributeValue(null, "name"), null);
+                            nodes.put(model.id, model);
+                            owners.push(model);
+                        } else if (depth == 2) {
+                            application = new Application(local);
+                            applications.add(application);
+                            bases.put(application, new ArrayList<String>(1));
+                            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                                if (reader.getAttributePrefix(i) != null && !reader.getAttributePrefix(i).isEmpty())
+                                    continue;
+                                if (reader.getAttributeLocalName(i).startsWith("base_"))
+                                    bases.get(application).add(reader.getAttributeValue(i));
+                                else
+                                    application.tags.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                            }
+                        } else if (application != null) {
+                            text = depth == 3 ? new StringBuilder() : null;
+                        } else if (!owners.isEmpty()) {
+                            node = owners.peek();
+                            value = reader.getAttributeValue(null, "value");
+                            type = getXmiAttribute(reader, "type");
+                            if ("lowerValue".equals(local)) {
+                                node.lower = value == null ? "0" : value;
+                            } else if ("upperValue".equals(local)) {
+                                node.upper = value == null ? "0" : "*".equals(value) ? "-1" : value;
+                            } else if ("defaultValue".equals(local)) {
+                                if ("uml:LiteralString".equals(type))
+                                    node.defaultValue = value;
+                            } else if (getXmiAttribute(reader, "idref") != null) {
+                                value = getXmiAttribute(reader, "idref");
+                                if ("client".equals(local))
+                                    node.clients.add(value);
+                                else if ("supplier".equals(local))
+                                    node.suppliers.add(value);
+                                else
+                                    node.references.put(local, value);
+                            } else if (type != null && getXmiAttribute(reader, "id") != null) {
+                                node = new Node(getXmiAttribute(reader, "id"),
+                                        type.substring(type.indexOf(':') + 1), local,
+                                        reader.getAttributeValue(null, "name"), node);
+                                nodes.put(node.id, node);
+                                for (String feature : new String[]{"type", "general", "association", "client", "supplier"}) {
+                                    value = reader.getAttributeValue(null, feature);
+                                    if (value == null)
+                                        continue;
+                                    if ("client".equals(feature))
+                                        Collections.addAll(node.clients, value.split(" "));
+                                    else if ("supplier".equals(feature))
+                                        Collections.addAll(node.suppliers, value.split(" "));
+                                    else
+                                        node.references.put(feature, value);
+                                }
+                                owners.push(node);
+                                break;
+                            }
+                            owners.push(owners.peek());
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                        if (text != null)
+                            text.append(reader.getText());
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (skip > 0) {
+                            skip--;
+                        } else if (application != null) {
+                            if (depth == 2) {
+                                application = null;
+                            } else if (depth == 3 && text != null) {
+                                if (!application.tags.containsKey(reader.getLocalName()))
+                                    application.tags.put(reader.getLocalName(), text.toString().trim());
+                                text = null;
+                            }
+                        } else if (depth > 1 && !owners.isEmpty()) {
+                            owners.pop();
+                        }
+                        depth--;
+                        break;
+                    default:
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        for (Application stereotype : applications) {
+            for (String base : bases.get(stereotype)) {
+                node = nodes.get(base);
+                if (node != null)
+                    node.stereotypes.add(stereotype);
+            }
+        }
+    }
+    /**
+     * Indexes the elements of a package: its SysML elements and the
+     * dependencies between any elements.
+     * @param root the package.
+     * @param excluded whether the package is excluded from the conversion.
+     */
+    private void index(Node root, boolean excluded) {
+        Deque<Node> pending = new ArrayDeque<>();
+        Deque<Boolean> exclusions = new ArrayDeque<>();
+        pending.push(root);
+        exclusions.push(excluded || context.predefinedMagicDrawSysMLPackageNames.contains(root.name));
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            boolean skip = exclusions.pop();
+            if (!node.clients.isEmpty() && !node.suppliers.isEmpty()) {
+                for (String client : node.clients)
+                    getRelationships(sourceOf, client).add(node);
+                for (String supplier : node.suppliers)
+                    getRelationships(targetOf, supplier).add(node);
+            }
+            if (!skip) {
+                if (node == model || "Package".equals(node.type)) {
+                    packages.add(node);
+                } else if ("Class".equals(node.type)) {
+                    if (node.is("Block") || node.is("System"))
+                        blocks.add(node);
+                    if (node.is("Requirement"))
+                        requirements.add(node);
+                } else if (node.is("ValueType")) {
+                    valueTypes.add(node);
+                }
+            }
+            for (int i = node.children.size() - 1; i >= 0; i--) {
+                Node child = node.children.get(i);
+                pending.push(child);
+                exclusions.push(skip || "Package".equals(child.type)
+                        && context.predefinedMagicDrawSysMLPackageNames.contains(child.name));
+            }
+        }
+    }
+    /**
+     * Gets the relationships of an element.
+     * @param relationships the relationships by element id.
+     * @param id the element id.
+     * @return the relationships of the element.
+     */
+    private static List<Node> getRelationships(Map<String, List<Node>> relationships, String id) {
+        List<Node> list = relationships.get(id);
+        if (list == null) {
+            list = new ArrayList<>(2);
+            relationships.put(id, list);
+        }
+        return list;
+    }
+    /**
+     * Gets the encoded qualified name of an element.
+     * @param node the element.
+     * @return the encoded qualified name.
+     */
+    private static String getQualifiedName(Node node) {
+        Deque<String> names = new ArrayDeque<>();
+        for (Node namespace = node; namespace != null; namespace = namespace.owner)
+            if (namespace == node || namespace.name != null && !namespace.name.isEmpty())
+                names.push(namespace.name == null ? "" : namespace.name);
+        return QualifiedNameEncoder.encode(String.join("::", names));
+    }
+    /**
+     * Gets the encoded qualified name or, if unnamed, the id of an element.
+     * @param node the element.
+     * @return the encoded qualified name or id.
+     */
+    private static String getQualifiedNameOrID(Node node) {
+        return node.name == null || node.name.isEmpty() ? node.id : getQualifiedName(node);
+    }
+    /**
+     * Gets the resource URI of an element.
+     * @param type the resource type (URI path part).
+     * @param path the resource path within the project.
+     * @return the resource URI.
+     */
+    private URI getURI(String type, String path) {
+        return URI.create(context.descriptor.resource(type, context.projectId + path));
+    }
+    /**
+     * Gets the links to the stereotyped elements of a collection.
+     * @param elements the elements.
+     * @param stereotype the first stereotype of the linked elements.
+     * @param type the resource type of the linked elements.
+     * @return the links; {@code null} if none.
+     */
+    private Link[] getLinks(List<Node> elements, String stereotype, String type) {
+        LinkBuffer links = LinkBuffer.get();
+        for (Node element : elements) {
+            if (stereotype.equals(element.getStereotypeName())) {
+                if ("Requirement".equals(stereotype) && "Class".equals(element.type))
+                    links.add(getURI(type, element.getTag("Id")));
+                else
+                    links.add(getURI(type, getQualifiedNameOrID(element)));
+            }
+        }
+        return links.toArray();
+    }
+    /**
+     * Gets the URI of the element at the other end of a directed relationship.
+     * @param linked the linked element.
+     * @return the URI of the linked element.
+     */
+    private URI getLinkedURI(Node linked) {
+        if (linked.is("Block"))
+            return getURI("blocks", getQualifiedName(linked));
+        else if (linked.is("Requirement"))
+            return getURI("requirements", linked.getTag("Id"));
+        else if ("UseCase".equals(linked.type))
+            return getURI("usecases", getQualifiedName(linked));
+        return getURI("unknown", getQualifiedName(linked));
+    }
+    /**
+     * Gets the links to the elements related to an element by a stereotyped
+     * dependency.
+     * @param element the element.
+     * @param isSource whether the element is the dependency source.
+     * @param stereotype the dependency stereotype.
+     * @return the links; {@code null} if none.
+     */
+    private Link[] getDirectedLinks(Node element, boolean isSource, String stereotype) {
+        Node linked;
+        LinkBuffer links = LinkBuffer.get();
+        List<Node> relationships = (isSource ? sourceOf : targetOf).get(element.id);
+        if (relationships != null) {
+            for (Node relationship : relationships) {
+                if (!stereotype.equals(relationship.getStereotypeName()))
+                    continue;
+                for (String id : isSource ? relationship.suppliers : relationship.clients) {
+                    linked = nodes.get(id);
+                    if (linked != null)
+                        links.add(getLinkedURI(linked));
+                }
+            }
+        }
+        return links.toArray();
+    }
+    /**
+     * Gets the children of an element owned by a feature.
+     * @param node the element.
+     * @param role the owning feature.
+     * @return the children owned by the {@code role} feature.
+     */
+    private static List<Node> getChildren(Node node, String role) {
+        List<Node> children = new ArrayList<>();
+        for (Node child : node.children)
+            if (role.equals(child.role))
+                children.add(child);
+        return children;
+    }
+    /**
+     * Maps the indexed elements into OSLC resources.
+     */
+    private void map() {
+        String qName;
+        Link[] links;
+        SysMLModel sysMLModel = new SysMLModel();
+        sysMLModel.setName(model.name == null ? "Data" : model.name);
+        sysMLModel.setAbout(getURI("model", String.valueOf(model.name)));
+        LinkBuffer packageLinks = LinkBuffer.get();
+        for (Node child : getChildren(model, "packagedElement"))
+            if ("Package".equals(child.type) && !context.predefinedMagicDrawSysMLPackageNames.contains(child.name))
+                packageLinks.add(getURI("packages", getQualifiedName(child)));
+        sysMLModel.setPackages(packageLinks.toArray());
+        context.oslcSysmlModelMap.put(getQualifiedName(model), sysMLModel);
+        for (Node mdPackage : packages) {
+            SysMLPackage sysMLPackage = new SysMLPackage();
+            qName = getQualifiedName(mdPackage);
+            context.qNameOslcSysmlPackageMap.put(context.magicDrawFileName + "/packages/" + qName, sysMLPackage);
+            if (mdPackage.name != null) {
+                sysMLPackage.setName(mdPackage.name);
+                sysMLPackage.setAbout(getURI("packages", qName));
+            }
+            List<Node> types = getChildren(mdPackage, "packagedElement");
+            sysMLPackage.setBlocks(getLinks(types, "Block", "blocks"));
+            sysMLPackage.setRequirements(getLinks(types, "Requirement", "requirements"));
+        }
+        for (Node block : blocks)
+            mapBlock(block);
+        for (Node requirement : requirements)
+            mapRequirement(requirement);
+        for (Node valueType : valueTypes) {
+            SysMLValueType sysMLValueType = new SysMLValueType();
+            context.qNameOslcSysmlValueTypeMap.put(context.magicDrawFileName + "/valuetypes/"
+                    + getQualifiedName(valueType), sysMLValueType);
+            if (valueType.name != null) {
+                sysMLValueType.setName(valueType.name);
+                sysMLValueType.setAbout(getURI("valuetypes", getQualifiedNameOrID(valueType)));
+            }
+        }
+    }
+    /**
+     * Maps a block and its properties.
+     * @param block the block.
+     */
+    private void mapBlock(Node block) {
+        Node type, association;
+        String stereotype;
+        LinkBuffer links;
+        SysMLBlock sysMLBlock = new SysMLBlock();
+        List<Node> attributes = getChildren(block, "ownedAttribute");
+        context.qNameOslcSysmlBlockMap.put(context.magicDrawFileName + "/blocks/" + getQualifiedName(block), sysMLBlock);
+        if (block.name != null) {
+            sysMLBlock.setName(block.name);
+            sysMLBlock.setAbout(getURI("blocks", getQualifiedName(block)));
+        }
+        sysMLBlock.setPartProperties(getLinks(attributes, "PartProperty", "partproperties"));
+        sysMLBlock.setReferenceProperties(getLinks(attributes, "ReferenceProperty", "referenceproperties"));
+        sysMLBlock.setValueProperties(getLinks(attributes, "ValueProperty", "valueproperties"));
+        for (Node property : attributes) {
+            stereotype = String.valueOf(property.getStereotypeName());
+            type = nodes.get(property.references.get("type"));
+            if (stereotype.contains("PartProperty")) {
+                SysMLPartProperty part = new SysMLPartProperty();
+                context.qNameOslcSysmlPartPropertyMap.put(context.magicDrawFileName + "/partproperties/"
+                        + getQualifiedNameOrID(property), part);
+                part.setName(property.name);
+                part.setAbout(getURI("partproperties", getQualifiedNameOrID(property)));
+                if (type != null)
+                    part.setType(getURI("blocks", getQualifiedName(type)));
+                part.setOwner(getURI("blocks", getQualifiedName(block)));
+                part.setLower(property.lower);
+                part.setUpper(property.upper);
+            } else if (stereotype.contains("ReferenceProperty")) {
+                SysMLReferenceProperty reference = new SysMLReferenceProperty();
+                context.qNameOslcSysmlReferencePropertyMap.put(context.magicDrawFileName + "/referenceproperties/"
+                        + getQualifiedName(property), reference);
+                reference.setName(property.name);
+                reference.setAbout(getURI("referenceproperties", getQualifiedName(property)));
+                if (type != null)
+                    reference.setType(getURI("blocks", getQualifiedName(type)));
+                reference.setLower(property.lower);
+                reference.setUpper(property.upper);
+                association = nodes.get(property.references.get("association"));
+                if (association != null)
+                    reference.setAssociation(getURI(association.is("Block") ? "associationblocks" : "associations",
+                            getQualifiedName(association)));
+            } else if (stereotype.contains("ValueProperty")) {
+                SysMLValueProperty value = new SysMLValueProperty();
+                context.qNameOslcSysmlValuePropertyMap.put(context.magicDrawFileName + "/valueproperties/"
+                        + getQualifiedNameOrID(property), value);
+                value.setName(property.name);
+                value.setAbout(getURI("valueproperties", getQualifiedNameOrID(property)));
+                if (type != null && type.is("Block"))
+                    value.setType(getURI("blocks", getQualifiedNameOrID(type)));
+                else if (type != null && type.is("ValueType"))
+                    value.setType(getURI("valuetypes", getQualifiedNameOrID(type)));
+                value.setLower(property.lower);
+                value.setUpper(property.upper);
+                value.setDefaultValue(property.defaultValue);
+            }
+        }
+        links = LinkBuffer.get();
+        for (Node generalization : getChildren(block, "generalization")) {
+            type = nodes.get(generalization.references.get("general"));
+            if (type != null)
+                links.add(getURI("blocks", getQualifiedName(type)));
+        }
+        sysMLBlock.setInheritedBlocks(links.toArray());
+        links = LinkBuffer.get();
+        for (Node nested : getChildren(block, "nestedClassifier"))
+            links.add(getURI("blocks", String.valueOf(nested.name)));
+        sysMLBlock.setNestedBlocks(links.toArray());
+        sysMLBlock.setSatisfies(getDirectedLinks(block, true, "Satisfy"));
+    }
+    /**
+     * Maps a requirement and its relationships.
+     * @param requirement the requirement.
+     */
+    private void mapRequirement(Node requirement) {
+        Link[] master;
+        LinkBuffer links;
+        String id = requirement.getTag("Id");
+        if (id == null)
+            return;
+        SysMLRequirement sysMLRequirement = new SysMLRequirement();
+        sysMLRequirement.setIdentifier(id);
+        context.idOslcSysmlRequirementMap.put(context.magicDrawFileName + "/requirements/" + id, sysMLRequirement);
+        sysMLRequirement.setAbout(getURI("requirements", id));
+        if (requirement.name != null)
+            sysMLRequirement.setTitle(requirement.name);
+        if (requirement.getTag("Text") != null)
+            sysMLRequirement.setDescription(requirement.getTag("Text"));
+        if (requirement.getTag("hyperlinkText") != null)
+            sysMLRequirement.setHyperlink(requirement.getTag("hyperlinkText"));
+        links = LinkBuffer.get();
+        for (Node nested : getChildren(requirement, "nestedClassifier"))
+            if ("Class".equals(nested.type) && nested.is("Requirement") && nested.getTag("Id") != null)
+                links.add(getURI("requirements", nested.getTag("Id")));
+        sysMLRequirement.setSubRequirements(links.toArray());
+        master = getDirectedLinks(requirement, true, "Copy");
+        if (master != null)
+            sysMLRequirement.setMaster(master[master.length - 1].getValue());
+        sysMLRequirement.setDerivedFromElements(getDirectedLinks(requirement, true, "DeriveReqt"));
+        sysMLRequirement.setDerivedElements(getDirectedLinks(requirement, false, "DeriveReqt"));
+        sysMLRequirement.setSatisfiedBy(getDirectedLinks(requirement, false, "Satisfy"));
+        sysMLRequirement.setElaboratedBy(getDirectedLinks(requirement, false, "Refine"));
+    }
+}
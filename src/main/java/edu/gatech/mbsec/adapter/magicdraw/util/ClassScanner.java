@@ -1,5 +1,6 @@
 package edu.gatech.mbsec.adapter.magicdraw.util;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
@@ -14,6 +15,20 @@ import java.util.jar.JarFile;
  * @author rherrera
  */
 public class ClassScanner {
+    /**
+     * Gets the jar file containing a given package.
+     * @param pkg the fully-qualified name of the package.
+     * @return the jar file containing the package.
+     * @throws FileNotFoundException if package is not on classpath.
+     */
+    public static File getJar(String pkg) throws FileNotFoundException {
+        String jar, vocabularyPackage = pkg.replaceAll("\\.", "/");
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        URL path = loader.getResource(vocabularyPackage);
+        if (path == null) throw new FileNotFoundException(vocabularyPackage);
+        jar = path.getFile();
+        return new File(jar.substring(jar.indexOf(":") + 1, jar.indexOf("!")));
+    }
     /**
      * Extracts the classes names from a given package name.
      * @param pkg the fully-qualified name of the package to scan.
@@ -25,13 +40,8 @@ public class ClassScanner {
             throws FileNotFoundException, IOException {
         Enumeration<JarEntry> entries;
         Set<String> classes = new HashSet<>();
-        String jar, name, vocabularyPackage = pkg.replaceAll("\\.", "/");
-        ClassLoader loader = Thread.currentThread().getContextClassLoader();
-        URL path = loader.getResource(vocabularyPackage);
-        if (path == null) throw new FileNotFoundException(vocabularyPackage);
-        jar = path.getFile();
-        jar = jar.substring(jar.indexOf(":") + 1, jar.indexOf("!"));
-        entries = new JarFile(jar).entries();
+        String name, vocabularyPackage = pkg.replaceAll("\\.", "/");
+        entries = new JarFile(getJar(pkg)).entries();
         while(entries.hasMoreElements()) {
             name = entries.nextElement().getName();
             if (name.startsWith(vocabularyPackage)) {
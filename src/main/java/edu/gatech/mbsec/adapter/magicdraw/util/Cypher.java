@@ -1,5 +1,7 @@
 package edu.gatech.mbsec.adapter.magicdraw.util;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.math.BigInteger;
 import java.security.MessageDigest;
@@ -24,4 +26,21 @@ public class Cypher {
         byte[] bytes = source.getBytes("UTF-8");
         return new BigInteger(1, md.digest(bytes)).toString(16);
     }
+    /**
+     * Gets the MD5 hash of a stream content.
+     * @param source the input stream, read until its end.
+     * @return the MD5 hash of the stream content.
+     * @throws NoSuchAlgorithmException if no Provider supports a
+     * {@link MessageDigestSpi} implementation for MD5.
+     * @throws IOException if the stream cannot be read.
+     */
+    public static String md5(InputStream source) throws NoSuchAlgorithmException,
+            IOException {
+        int read;
+        byte[] buffer = new byte[65536];
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        while ((read = source.read(buffer)) != -1)
+            md.update(buffer, 0, read);
+        return new BigInteger(1, md.digest()).toString(16);
+    }
 }
\ No newline at end of file
@@ -4,9 +4,24 @@ import edu.gatech.mbsec.adapter.magicdraw.editor.AnnotationEditor;
 import edu.gatech.mbsec.adapter.magicdraw.editor.AnnotationMemberEditor;
 import edu.gatech.mbsec.adapter.magicdraw.editor.ArrayMemberEditor;
 import edu.gatech.mbsec.adapter.magicdraw.editor.StringMemberEditor;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javassist.CannotCompileException;
@@ -19,7 +34,10 @@ import javassist.bytecode.AttributeInfo;
 import javassist.bytecode.ClassFile;
 
 /**
- * Customize all OSLC vocabulary URIs in a given resource package.
+ * Customize all OSLC vocabulary URIs in a given resource package. The
+ * customized classes can be cached on disk, keyed by the vocabulary and the
+ * checksum of the resources jar, so later executions define the cached
+ * classes instead of scanning and rewriting the resources again.
  * @author rherrera
  */
 public class OSLCVocabularyCustomizer {
@@ -27,6 +45,15 @@ public class OSLCVocabularyCustomizer {
      * Logger of this class.
      */
     private static final Logger LOG = Logger.getLogger(OSLCVocabularyCustomizer.class.getName());
+    /**
+     * The version of the cached classes; entries of other versions are never
+     * used.
+     */
+    private static final String VERSION = "1";
+    /**
+     * The vocabulary URI.
+     */
+    private final String vocabulary;
     /**
      * {@code @OslcNamespace} value editor.
      */
@@ -62,6 +89,7 @@ public class OSLCVocabularyCustomizer {
     private final Set<String> superClasses;
 
     public OSLCVocabularyCustomizer(String vocabulary, String removeMethodsNamePattern) {
+        this.vocabulary = vocabulary;
         // @OslcNamespaceDefinition editors
         StringMemberEditor namespaceValueEditor = new StringMemberEditor(vocabulary, ".*localhost.*" , "http(s)?://localhost(:\\d+)?(/.*)*#");
         AnnotationMemberEditor namespaceEditor = new AnnotationMemberEditor("org.eclipse.lyo.oslc4j.core.annotation.OslcNamespaceDefinition", namespaceValueEditor, "namespaceURI");
@@ -128,14 +156,137 @@ public class OSLCVocabularyCustomizer {
      */
     public void customize(String pkg) throws IOException, NotFoundException,
             CannotCompileException {
+        customize(pkg, false);
+    }
+    /**
+     * Customizes all resource classes on a given package, as
+     * {@link #customize(String)}, getting them from a cache directory if
+     * cached, or caching them otherwise.
+     * @param pkg the package name to search OSLC resource classes.
+     * @param directory the cache directory; created if missing.
+     * @throws IOException if some I/O exception occurs.
+     * @throws NotFoundException if a named class is not found.
+     * @throws CannotCompileException if a modified class cannot be compiled.
+     */
+    public void customize(String pkg, File directory) throws IOException,
+            NotFoundException, CannotCompileException {
+        Map<String, byte[]> classes;
+        long start = System.currentTimeMillis();
+        File entry = new File(directory, getCacheKey(pkg) + ".jar");
+        if (entry.isFile()) {
+            classes = read(entry);
+            if (classes != null) {
+                define(classes);
+                LOG.log(Level.INFO, "{0} resource classes defined from cache in {1} ms",
+                        new Object[]{classes.size(), System.currentTimeMillis() - start});
+                return;
+            }
+        }
+        classes = customize(pkg, true);
+        write(entry, classes);
+        LOG.log(Level.INFO, "{0} resource classes customized and cached in {1} ms",
+                new Object[]{classes.size(), System.currentTimeMillis() - start});
+    }
+    /**
+     * Customizes all resource classes on a given package.
+     * @param pkg the package name to search OSLC resource classes.
+     * @param keep whether the bytecode of the customized classes is kept.
+     * @return the bytecode of the customized classes, in definition order, if
+     * kept; otherwise, their names only.
+     * @throws IOException if some I/O exception occurs.
+     * @throws NotFoundException if a named class is not found.
+     * @throws CannotCompileException if a modified class cannot be compiled.
+     */
+    private Map<String, byte[]> customize(String pkg, boolean keep)
+            throws IOException, NotFoundException, CannotCompileException {
         CtClass resourceClass;
         ClassPool pool = ClassPool.getDefault();
+        Map<String, byte[]> customized = new LinkedHashMap<>();
         Set<String> resourcesNames = ClassScanner.getClassesNames(pkg);
         for (String resourceName : resourcesNames) {
             resourceClass = pool.get(resourceName);
             if (cuztomize(resourceClass)) {
                 resourceClass.toClass();
+                customized.put(resourceName, keep ? resourceClass.toBytecode() : null);
+            }
+        }
+        return customized;
+    }
+    /**
+     * Gets the cache key of the customized classes of a package: the digest
+     * of the customization settings and of the resources jar.
+     * @param pkg the package name of the OSLC resource classes.
+     * @return the cache key.
+     * @throws IOException if the resources jar cannot be read.
+     */
+    private String getCacheKey(String pkg) throws IOException {
+        try (InputStream jar = new FileInputStream(ClassScanner.getJar(pkg))) {
+            return Cypher.md5(VERSION + '\n' + vocabulary + '\n' + removeMethodsNamePattern
+                    + '\n' + pkg + '\n' + Cypher.md5(jar));
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    /**
+     * Reads the customized classes of a cache entry.
+     * @param entry the cache entry.
+     * @return the bytecode of the cached classes, in definition order;
+     * {@code null} if the entry cannot be read, which is then deleted.
+     */
+    private static Map<String, byte[]> read(File entry) {
+        int read;
+        ZipEntry clazz;
+        byte[] buffer = new byte[8192];
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        try (ZipInputStream input = new ZipInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+            while ((clazz = input.getNextEntry()) != null) {
+                ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+                while ((read = input.read(buffer)) != -1)
+                    bytecode.write(buffer, 0, read);
+                classes.put(clazz.getName(), bytecode.toByteArray());
+            }
+            return classes;
+        } catch(IOException ex) {
+            LOG.log(Level.WARNING, "Invalid cached classes {0} discarded: {1}", new Object[]{entry, ex});
+            entry.delete();
+            return null;
+        }
+    }
+    /**
+     * Defines cached classes, in order.
+     * @param classes the bytecode of the classes.
+     * @throws IOException if the bytecode cannot be read.
+     * @throws CannotCompileException if a class cannot be defined.
+     */
+    private static void define(Map<String, byte[]> classes) throws IOException,
+            CannotCompileException {
+        ClassPool pool = ClassPool.getDefault();
+        for (byte[] bytecode : classes.values())
+            pool.makeClass(new ByteArrayInputStream(bytecode)).toClass();
+    }
+    /**
+     * Writes the customized classes into a cache entry, atomically.
+     * @param entry the cache entry.
+     * @param classes the bytecode of the classes, in definition order.
+     * @throws IOException if the entry cannot be written.
+     */
+    private static void write(File entry, Map<String, byte[]> classes) throws IOException {
+        File directory = entry.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("cannot create cache directory " + directory);
+        File temporal = File.createTempFile(entry.getName(), ".tmp", directory);
+        try {
+            try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(temporal))) {
+                for (Map.Entry<String, byte[]> clazz : classes.entrySet()) {
+                    output.putNextEntry(new ZipEntry(clazz.getKey()));
+                    output.write(clazz.getValue());
+                    output.closeEntry();
+                }
             }
+            Files.move(temporal.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal.toPath());
         }
     }
 
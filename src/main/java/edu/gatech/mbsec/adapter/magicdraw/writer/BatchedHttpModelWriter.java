@@ -0,0 +1,589 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.rdf.model.Literal;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.openjena.riot.Lang;
+
+/**
+ * A remote HTTP {@link Model model} {@link ModelWriter writer} uploading a
+ * model as several batches of statements, all of them tagged with the same
+ * graph name, over concurrent connections. Batches are bounded in statements
+ * and in (N-Triples) bytes, and built in subject order, so the same model
+ * always gives the same batches; failed batches are retried with exponential
+ * backoff, and acknowledged batches are recorded in a journal, so an
+ * interrupted upload resumes skipping them. Statements linked by blank nodes
+ * go in the same batch, as blank nodes cannot be shared between requests, and
+ * blank nodes are relabelled deterministically, so their batches resume too.
+ * @author rherrera
+ */
+public class BatchedHttpModelWriter implements ModelWriter {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(BatchedHttpModelWriter.class.getName());
+    /**
+     * The attempts of every batch.
+     */
+    private static final int ATTEMPTS = 5;
+    /**
+     * The default delay before the first retry, in milliseconds; doubled on
+     * every retry.
+     */
+    private static final long BACKOFF = 1000;
+    /**
+     * The maximum number of rounds refining the blank node labels.
+     */
+    private static final int ROUNDS = 32;
+    /**
+     * Gets the size of a statement written as an N-Triples line, escapes
+     * aside.
+     * @param statement the statement.
+     * @return the statement size, in bytes.
+     */
+    static long size(Statement statement) {
+        return size(statement.getSubject()) + size(statement.getPredicate()) + size(statement.getObject()) + 4;
+    }
+    /**
+     * Gets the size of a node written as an N-Triples term, escapes aside.
+     * @param node the node.
+     * @return the node size, in bytes.
+     */
+    private static long size(RDFNode node) {
+        if (node.isAnon())
+            return 2 + length(node.asResource().getId().getLabelString());
+        if (node.isResource())
+            return 2 + length(node.asResource().getURI());
+        Literal literal = node.asLiteral();
+        long size = 2 + length(literal.getLexicalForm());
+        if (literal.getLanguage() != null && !literal.getLanguage().isEmpty())
+            size += 1 + length(literal.getLanguage());
+        else if (literal.getDatatypeURI() != null)
+            size += 4 + length(literal.getDatatypeURI());
+        return size;
+    }
+    /**
+     * Gets the UTF-8 length of a string.
+     * @param string the string.
+     * @return the length of the {@code string}, in bytes.
+     */
+    private static int length(String string) {
+        return string.getBytes(StandardCharsets.UTF_8).length;
+    }
+    /**
+     * Gets the default journal of an upload, in the temporary directory.
+     * @param url the target URL.
+     * @param slug the graph name.
+     * @return the default journal file.
+     */
+    public static File getDefaultJournal(URL url, String slug) {
+        String name = "magicdrawsysml2rdf-" + digest((url + " " + slug).getBytes(StandardCharsets.UTF_8)) + ".journal";
+        return new File(System.getProperty("java.io.tmpdir"), name);
+    }
+    /**
+     * Gets the hexadecimal SHA-256 digest of some bytes.
+     * @param bytes the bytes.
+     * @return the digest of the {@code bytes}.
+     */
+    private static String digest(byte[] bytes) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return String.format("%064x", new BigInteger(1, md.digest(bytes)));
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+    /**
+     * The target URL.
+     */
+    private final URL target;
+    /**
+     * The graph name.
+     */
+    private final String slug;
+    /**
+     * The maximum number of statements of a batch.
+     */
+    private final int batchSize;
+    /**
+     * The maximum N-Triples size of a batch, in bytes.
+     */
+    private final long batchBytes;
+    /**
+     * The number of concurrent uploads.
+     */
+    private final int connections;
+    /**
+     * The journal of acknowledged batches.
+     */
+    private final File journal;
+    /**
+     * The delay before the first retry, in milliseconds.
+     */
+    private final long backoff;
+    /**
+     * Constructs an instance specifying its properties.
+     * @param url the target URL.
+     * @param slug the graph name of every batch.
+     * @param batchSize the maximum number of statements of a batch.
+     * @param connections the number of concurrent uploads.
+     * @param journal the journal of acknowledged batches; it does not need to
+     * exist, and it is deleted once the whole model is uploaded.
+     */
+    public BatchedHttpModelWriter(URL url, String slug, int batchSize, int connections, File journal) {
+        this(url, slug, batchSize, Long.MAX_VALUE, connections, journal);
+    }
+    /**
+     * Constructs an instance specifying its properties, bounding the batches
+     * in bytes too.
+     * @param url the target URL.
+     * @param slug the graph name of every batch.
+     * @param batchSize the maximum number of statements of a batch.
+     * @param batchBytes the maximum size of a batch written as N-Triples, in
+     * bytes.
+     * @param connections the number of concurrent uploads.
+     * @param journal the journal of acknowledged batches; it does not need to
+     * exist, and it is deleted once the whole model is uploaded.
+     */
+    public BatchedHttpModelWriter(URL url, String slug, int batchSize, long batchBytes, int connections,
+            File journal) {
+        this(url, slug, batchSize, batchBytes, connections, journal, BACKOFF);
+    }
+    /**
+     * Constructs an instance specifying its properties and its retry delay.
+     * @param url the target URL.
+     * @param slug the graph name of every batch.
+     * @param batchSize the maximum number of statements of a batch.
+     * @param batchBytes the maximum size of a batch written as N-Triples, in
+     * bytes.
+     * @param connections the number of concurrent uploads.
+     * @param journal the journal of acknowledged batches.
+     * @param backoff the delay before the first retry, in milliseconds.
+     */
+    BatchedHttpModelWriter(URL url, String slug, int batchSize, long batchBytes, int connections, File journal,
+            long backoff) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("batch size must be positive: " + batchSize);
+        if (batchBytes < 1)
+            throw new IllegalArgumentException("batch bytes must be positive: " + batchBytes);
+        if (connections < 1)
+            throw new IllegalArgumentException("connections must be positive: " + connections);
+        this.target = Objects.requireNonNull(url, "url cannot be null");
+        this.slug = Objects.requireNonNull(slug, "slug cannot be null");
+        this.batchSize = batchSize;
+        this.batchBytes = batchBytes;
+        this.connections = connections;
+        this.journal = Objects.requireNonNull(journal, "journal cannot be null");
+        this.backoff = backoff;
+    }
+    /**
+     * Gets the journal of acknowledged batches.
+     * @return the journal file.
+     */
+    public File getJournal() {
+        return journal;
+    }
+    /**
+     * The batches of a model, filled in order.
+     */
+    private class Batches {
+        private final List<List<Statement>> batches = new ArrayList<>();
+        private List<Statement> batch = new ArrayList<>();
+        private long bytes;
+        /**
+         * Adds statements that must go in the same batch, starting a new
+         * batch first if they do not fit in the current one.
+         * @param statements the statements.
+         */
+        void add(List<Statement> statements) {
+            long size = 0;
+            for (Statement statement : statements)
+                size += size(statement);
+            if (statements.size() > 1 && (statements.size() > batchSize || size > batchBytes))
+                LOG.log(Level.WARNING, "{0} statements linked by blank nodes ({1} bytes) exceed the batch size, "
+                        + "sent in the same batch", new Object[]{statements.size(), size});
+            if (!batch.isEmpty() && (batch.size() + statements.size() > batchSize || bytes + size > batchBytes)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                bytes = 0;
+            }
+            batch.addAll(statements);
+            bytes += size;
+        }
+        /**
+         * Gets the filled batches.
+         * @return the statements of every batch.
+         */
+        List<List<Statement>> get() {
+            if (!batch.isEmpty())
+                batches.add(batch);
+            return batches;
+        }
+    }
+    /**
+     * Finds the representative of a blank node, within the blank nodes
+     * linked by statements.
+     * @param parents the blank node parents.
+     * @param node the blank node.
+     * @return the representative of the {@code node}.
+     */
+    private static Node find(Map<Node, Node> parents, Node node) {
+        Node parent = parents.get(node);
+        if (parent == null)
+            return node;
+        Node root = find(parents, parent);
+        parents.put(node, root);
+        return root;
+    }
+    /**
+     * Splits the statements of a model into batches, in subject order.
+     * Statements linked by blank nodes form a component that is kept in a
+     * single batch, packed along with the others within the batch bounds.
+     * @param model the model.
+     * @return the statements of every batch.
+     */
+    List<List<Statement>> split(Model model) {
+        Statement statement;
+        Batches batches = new Batches();
+        List<Statement> blanks = new ArrayList<>();
+        Map<Node, Node> parents = new HashMap<>();
+        List<Resource> subjects = model.listSubjects().toList();
+        Collections.sort(subjects, Comparator.comparing(Resource::toString));
+        for (Resource subject : subjects) {
+            List<Statement> statements = new ArrayList<>();
+            List<Statement> linked = new ArrayList<>();
+            StmtIterator iterator = subject.listProperties();
+            try {
+                while (iterator.hasNext()) {
+                    statement = iterator.next();
+                    if (subject.isAnon() || statement.getObject().isAnon())
+                        linked.add(statement);
+                    else
+                        statements.add(statement);
+                }
+            } finally {
+                iterator.close();
+            }
+            Collections.sort(statements, Comparator.comparing(Statement::toString));
+            for (Statement s : statements)
+                batches.add(Collections.singletonList(s));
+            Collections.sort(linked, Comparator.comparing(Statement::toString));
+            for (Statement s : linked) {
+                if (s.getSubject().isAnon() && s.getObject().isAnon()) {
+                    Node from = find(parents, s.getSubject().asNode());
+                    Node to = find(parents, s.getObject().asNode());
+                    if (!from.equals(to))
+                        parents.put(to, from);
+                }
+                blanks.add(s);
+            }
+        }
+        Map<Node, List<Statement>> components = new LinkedHashMap<>();
+        for (Statement s : blanks) {
+            Node node = (s.getSubject().isAnon() ? s.getSubject() : s.getObject().asResource()).asNode();
+            components.computeIfAbsent(find(parents, node), root -> new ArrayList<>()).add(s);
+        }
+        for (List<Statement> component : components.values())
+            batches.add(component);
+        return batches.get();
+    }
+    /**
+     * Gets the term of a node within the key of a blank node.
+     * @param node the node.
+     * @param keys the current keys of the blank nodes.
+     * @return the term of the {@code node}.
+     */
+    private static String term(Node node, Map<Node, String> keys) {
+        return node.isBlank() ? "_:" + keys.get(node) : node.toString();
+    }
+    /**
+     * Refines the keys of the blank nodes of a component with the keys of
+     * their linked blank nodes, until they tell no more blank nodes apart.
+     * @param statements the statements of the component.
+     * @param keys the current keys of the blank nodes.
+     * @return the refined keys.
+     */
+    private static Map<Node, String> refine(List<Statement> statements, Map<Node, String> keys) {
+        Node subject;
+        Node object;
+        String predicate;
+        int distinct = new HashSet<>(keys.values()).size();
+        for (int round = 0; round < ROUNDS; round++) {
+            Map<Node, List<String>> edges = new HashMap<>();
+            for (Statement statement : statements) {
+                subject = statement.getSubject().asNode();
+                object = statement.getObject().asNode();
+                predicate = statement.getPredicate().getURI();
+                if (subject.isBlank())
+                    edges.computeIfAbsent(subject, node -> new ArrayList<>())
+                            .add("> " + predicate + " " + term(object, keys));
+                if (object.isBlank())
+                    edges.computeIfAbsent(object, node -> new ArrayList<>())
+                            .add("< " + predicate + " " + term(subject, keys));
+            }
+            Map<Node, String> refined = new HashMap<>();
+            for (Map.Entry<Node, List<String>> edge : edges.entrySet()) {
+                Collections.sort(edge.getValue());
+                refined.put(edge.getKey(), digest((keys.get(edge.getKey()) + "\n"
+                        + String.join("\n", edge.getValue())).getBytes(StandardCharsets.UTF_8)).substring(0, 32));
+            }
+            keys = refined;
+            int count = new HashSet<>(keys.values()).size();
+            if (count == distinct)
+                break;
+            distinct = count;
+        }
+        return keys;
+    }
+    /**
+     * Gets distinct keys for the blank nodes of a component. Blank nodes that
+     * refining cannot tell apart are symmetric, so any of them is told apart
+     * from the others and the keys refined again, until all are distinct.
+     * @param statements the statements of the component.
+     * @return the key of every blank node of the component.
+     */
+    private static Map<Node, String> distinguish(List<Statement> statements) {
+        String tied;
+        Map<Node, String> keys = new HashMap<>();
+        for (Statement statement : statements) {
+            if (statement.getSubject().isAnon())
+                keys.put(statement.getSubject().asNode(), "");
+            if (statement.getObject().isAnon())
+                keys.put(statement.getObject().asNode(), "");
+        }
+        keys = refine(statements, keys);
+        while (true) {
+            tied = null;
+            Set<String> seen = new HashSet<>();
+            for (String key : keys.values())
+                if (!seen.add(key) && (tied == null || key.compareTo(tied) < 0))
+                    tied = key;
+            if (tied == null)
+                return keys;
+            for (Map.Entry<Node, String> key : keys.entrySet())
+                if (key.getValue().equals(tied)) {
+                    key.setValue(tied + "*");
+                    break;
+                }
+            keys = refine(statements, keys);
+        }
+    }
+    /**
+     * Labels the blank nodes of a model deterministically, so the same model
+     * always gives the same batches and serializations, and so the same
+     * journal digests, whatever the labels it was built with. Blank nodes are
+     * labelled by component, i.e. along with the blank nodes they are linked
+     * to: the key of a blank node is a digest of its statements, refined with
+     * the keys of its linked blank nodes until all of them are told apart,
+     * and its label a digest of its key and of the keys of its component.
+     * Alike components are numbered; as they are isomorphic, the labelled
+     * model is the same whatever their order.
+     * @param model the model.
+     * @return a copy of the {@code model} with the blank nodes relabelled, or
+     * the {@code model} itself if it has no blank nodes.
+     */
+    static Model label(Model model) {
+        Node subject;
+        Node object;
+        Map<Node, Node> parents = new HashMap<>();
+        List<Statement> statements = model.listStatements().toList();
+        for (Statement statement : statements) {
+            subject = statement.getSubject().asNode();
+            object = statement.getObject().asNode();
+            if (subject.isBlank() && object.isBlank()) {
+                Node from = find(parents, subject);
+                Node to = find(parents, object);
+                if (!from.equals(to))
+                    parents.put(to, from);
+            }
+        }
+        Map<Node, List<Statement>> components = new HashMap<>();
+        for (Statement statement : statements) {
+            subject = statement.getSubject().asNode();
+            object = statement.getObject().asNode();
+            if (subject.isBlank() || object.isBlank())
+                components.computeIfAbsent(find(parents, subject.isBlank() ? subject : object),
+                        root -> new ArrayList<>()).add(statement);
+        }
+        if (components.isEmpty())
+            return model;
+        Map<String, Integer> repeated = new HashMap<>();
+        Map<Node, Resource> blanks = new HashMap<>();
+        Model labelled = ModelFactory.createDefaultModel();
+        labelled.setNsPrefixes(model);
+        for (List<Statement> component : components.values()) {
+            Map<Node, String> keys = distinguish(component);
+            List<String> signature = new ArrayList<>(keys.values());
+            Collections.sort(signature);
+            String digest = digest(String.join("\n", signature).getBytes(StandardCharsets.UTF_8));
+            int repetition = repeated.merge(digest, 1, Integer::sum);
+            for (Map.Entry<Node, String> key : keys.entrySet())
+                blanks.put(key.getKey(), labelled.createResource(new AnonId("b"
+                        + digest((digest + "\n" + key.getValue()).getBytes(StandardCharsets.UTF_8)).substring(0, 32)
+                        + (repetition > 1 ? "_" + repetition : ""))));
+        }
+        for (Statement statement : statements)
+            labelled.add(statement.getSubject().isAnon() ? blanks.get(statement.getSubject().asNode())
+                    : statement.getSubject(), statement.getPredicate(), statement.getObject().isAnon()
+                    ? blanks.get(statement.getObject().asNode()) : statement.getObject());
+        return labelled;
+    }
+    /**
+     * Reads the digests of the acknowledged batches.
+     * @return the acknowledged batch digests.
+     * @throws IOException if the journal cannot be read.
+     */
+    private Set<String> readJournal() throws IOException {
+        Set<String> acknowledged = new HashSet<>();
+        if (journal.isFile())
+            acknowledged.addAll(Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8));
+        return acknowledged;
+    }
+    /**
+     * Records an acknowledged batch.
+     * @param digest the batch digest.
+     * @throws IOException if the journal cannot be written.
+     */
+    private synchronized void acknowledge(String digest) throws IOException {
+        Files.write(journal.toPath(), (digest + "\n").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+    }
+    /**
+     * Uploads a batch, retrying with backoff on connection failures and on
+     * server errors.
+     * @param number the batch number.
+     * @param body the serialized batch.
+     * @param language the serialization language.
+     * @throws IOException if the batch is rejected or all attempts fail.
+     * @throws InterruptedException if interrupted while backing off.
+     */
+    private void upload(int number, byte[] body, Lang language) throws IOException, InterruptedException {
+        int code;
+        String reason;
+        long delay = backoff;
+        for (int attempt = 1; ; attempt++) {
+            HttpPost post = new HttpPost(target.toString());
+            ByteArrayEntity entity = new ByteArrayEntity(body);
+            entity.setContentType(language.getContentType());
+            post.setEntity(entity);
+            post.setHeader("Slug", slug);
+            post.setHeader("X-Batch", String.valueOf(number));
+            try (CloseableHttpResponse response = HttpModelWriter.getClient(connections).execute(post)) {
+                code = response.getStatusLine().getStatusCode();
+                reason = response.getStatusLine() + (response.getEntity() == null ? ""
+                        : " " + EntityUtils.toString(response.getEntity()));
+            } catch(IOException ex) {
+                post.abort();
+                code = 0;
+                reason = ex.toString();
+            }
+            if (code / 100 == 2)
+                return;
+            if (code / 100 == 4 && code != 408 && code != 429)
+                throw new IOException("batch " + number + " rejected: " + reason);
+            if (attempt == ATTEMPTS)
+                throw new IOException("batch " + number + " failed after " + attempt + " attempts: " + reason);
+            LOG.log(Level.WARNING, "Batch {0} failed ({1}), retrying in {2} ms",
+                    new Object[]{number, reason, delay});
+            Thread.sleep(delay);
+            delay *= 2;
+        }
+    }
+    /**
+     * Serializes and uploads a batch, unless already acknowledged.
+     * @param number the batch number.
+     * @param statements the batch statements.
+     * @param prefixes the model the namespace prefixes are taken from.
+     * @param language the serialization language.
+     * @param acknowledged the digests of the acknowledged batches.
+     * @return {@code true} if uploaded, {@code false} if already acknowledged.
+     * @throws IOException if the batch cannot be uploaded.
+     * @throws InterruptedException if interrupted while backing off.
+     */
+    private boolean send(int number, List<Statement> statements, Model prefixes, Lang language,
+            Set<String> acknowledged) throws IOException, InterruptedException {
+        Model batch = ModelFactory.createDefaultModel();
+        ByteArrayOutputStream serialization = new ByteArrayOutputStream();
+        batch.setNsPrefixes(prefixes);
+        batch.add(statements);
+        batch.getWriter(language.getName()).write(batch, serialization, (String)null);
+        byte[] body = serialization.toByteArray();
+        String digest = digest(body);
+        if (acknowledged.contains(digest))
+            return false;
+        upload(number, body, language);
+        acknowledge(digest);
+        return true;
+    }
+
+    @Override
+    public void write(final Model model, final Lang language) throws IOException {
+        int uploaded = 0;
+        long start = System.currentTimeMillis();
+        final Set<String> acknowledged = readJournal();
+        final Model labelled = label(model);
+        List<List<Statement>> batches = split(labelled);
+        List<Future<Boolean>> uploads = new ArrayList<>(batches.size());
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        try {
+            for (int i = 0; i < batches.size(); i++) {
+                final int number = i;
+                final List<Statement> statements = batches.get(i);
+                uploads.add(pool.submit(() -> send(number, statements, labelled, language, acknowledged)));
+            }
+            for (Future<Boolean> upload : uploads)
+                if (upload.get())
+                    uploaded++;
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while uploading", ex);
+        } catch(ExecutionException ex) {
+            if (ex.getCause() instanceof IOException)
+                throw (IOException) ex.getCause();
+            throw new IOException("upload failed", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        Files.deleteIfExists(journal.toPath());
+        LOG.log(Level.INFO, "{0} batches uploaded to {1} in {2} ms ({3} already acknowledged)",
+                new Object[]{uploaded, target, System.currentTimeMillis() - start,
+                    batches.size() - uploaded});
+    }
+
+}
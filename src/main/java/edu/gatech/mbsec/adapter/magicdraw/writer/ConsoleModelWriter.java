@@ -0,0 +1,80 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.openjena.riot.Lang;
+
+/**
+ * A standard output {@link Model model} {@link ModelWriter writer}. The
+ * serialization is written through a large buffer straight into the standard
+ * output file descriptor, so it is neither held in memory nor mixed with the
+ * log messages, written into the standard error or the log file.
+ * @author rherrera
+ */
+public class ConsoleModelWriter extends StreamModelWriter {
+    /**
+     * The size of the output buffer, in bytes.
+     */
+    public static final int BUFFER = 1 << 20;
+    /**
+     * The buffered standard output; {@code null} until first used.
+     */
+    private static OutputStream stdout;
+    /**
+     * Gets the buffered output into the standard output, created on first
+     * use and shared by every console conversion. Closing it flushes it, but
+     * leaves the standard output open.
+     * @return the buffered standard output.
+     */
+    public static synchronized OutputStream openOutput() {
+        if (stdout == null)
+            stdout = openOutput(new FileOutputStream(FileDescriptor.out));
+        return stdout;
+    }
+    /**
+     * Opens a buffered output into a console, e.g. the response of a daemon
+     * job. Closing it flushes it, but leaves the console open.
+     * @param console the console.
+     * @return the buffered console.
+     */
+    public static OutputStream openOutput(OutputStream console) {
+        return new BufferedOutputStream(console, BUFFER) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+    /**
+     * Constructs an instance writing into the standard output.
+     */
+    public ConsoleModelWriter() {
+        super(openOutput());
+    }
+    /**
+     * Constructs an instance writing into a buffered console.
+     * @param output the buffered console, as opened by
+     * {@link #openOutput(OutputStream)}.
+     */
+    public ConsoleModelWriter(OutputStream output) {
+        super(output);
+    }
+
+    @Override
+    public void write(Model model, Lang language) throws IOException {
+        super.write(model, language);
+        getOutput().flush();
+    }
+
+    @Override
+    public void write(InputStream serialization, Lang language) throws IOException {
+        super.write(serialization, language);
+        getOutput().flush();
+    }
+
+}
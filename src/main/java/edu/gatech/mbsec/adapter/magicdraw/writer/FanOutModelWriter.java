@@ -0,0 +1,138 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openjena.riot.Lang;
+
+/**
+ * A {@link ModelWriter writer} writing the same model into several targets
+ * concurrently, each one in its own language. The model is shared by all the
+ * targets, so it must not change while written. A failed target does not stop
+ * the others; once all of them finish, a report with the time and result of
+ * every target is logged, and the write fails if any target failed.
+ * @author rherrera
+ */
+public class FanOutModelWriter implements ModelWriter {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(FanOutModelWriter.class.getName());
+    /**
+     * A target of the fan-out.
+     */
+    private static class Sink {
+        private final String name;
+        private final ModelWriter writer;
+        private final Lang language;
+        /**
+         * Constructs an instance specifying its properties.
+         * @param name the target name.
+         * @param writer the target writer.
+         * @param language the target language.
+         */
+        Sink(String name, ModelWriter writer, Lang language) {
+            this.name = name;
+            this.writer = writer;
+            this.language = language;
+        }
+        /**
+         * Writes a model into this target.
+         * @param model the model.
+         * @return the time spent, in milliseconds.
+         * @throws IOException if some I/O exception occurs.
+         */
+        long write(Model model) throws IOException {
+            long start = System.currentTimeMillis();
+            writer.write(model, language);
+            return System.currentTimeMillis() - start;
+        }
+    }
+    /**
+     * The targets.
+     */
+    private final List<Sink> sinks = new ArrayList<>();
+    /**
+     * Adds a target.
+     * @param name the target name, for the report.
+     * @param writer the target writer.
+     * @param language the target language.
+     */
+    public void add(String name, ModelWriter writer, Lang language) {
+        sinks.add(new Sink(name, Objects.requireNonNull(writer, "writer cannot be null"),
+                Objects.requireNonNull(language, "language cannot be null")));
+    }
+    /**
+     * Writes a model into every target, in its own language.
+     * @param model the model to write.
+     * @param language ignored; every target has its own language.
+     * @throws IOException if any target failed, once all of them finish.
+     */
+    @Override
+    public void write(final Model model, Lang language) throws IOException {
+        int failures = 0;
+        IOException failure = null;
+        long start = System.currentTimeMillis();
+        StringBuilder report = new StringBuilder("Targets report:");
+        List<Future<Long>> writes = new ArrayList<>(sinks.size());
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, sinks.size()));
+        try {
+            for (final Sink sink : sinks)
+                writes.add(pool.submit(() -> sink.write(model)));
+            for (int i = 0; i < sinks.size(); i++) {
+                Sink sink = sinks.get(i);
+                try {
+                    report.append(String.format("%nOK     %8d ms  %s (%s)",
+                            writes.get(i).get(), sink.name, sink.language.getName()));
+                } catch(ExecutionException ex) {
+                    failures++;
+                    report.append(String.format("%nFAILED             %s (%s): %s",
+                            sink.name, sink.language.getName(), ex.getCause()));
+                    if (failure == null)
+                        failure = new IOException("cannot write into " + sink.name, ex.getCause());
+                    else
+                        failure.addSuppressed(ex.getCause());
+                }
+            }
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while writing", ex);
+        } finally {
+            pool.shutdownNow();
+        }
+        LOG.log(failures == 0 ? Level.INFO : Level.SEVERE, "{0}\n{1} written, {2} failed in {3} ms",
+                new Object[]{report, sinks.size() - failures, failures, System.currentTimeMillis() - start});
+        if (failure != null)
+            throw failure;
+    }
+    /**
+     * Closes every target, e.g. when the conversion fails before the model is
+     * written, even if some of them cannot be closed.
+     * @throws IOException if any target cannot be closed, once all of them
+     * are.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Sink sink : sinks)
+            try {
+                sink.writer.close();
+            } catch(IOException ex) {
+                if (failure == null)
+                    failure = new IOException("cannot close " + sink.name, ex);
+                else
+                    failure.addSuppressed(ex);
+            }
+        if (failure != null)
+            throw failure;
+    }
+
+}
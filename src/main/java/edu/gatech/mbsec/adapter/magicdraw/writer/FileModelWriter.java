@@ -4,6 +4,7 @@ import com.hp.hpl.jena.rdf.model.Model;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import org.openjena.riot.Lang;
 
@@ -29,4 +30,12 @@ public class FileModelWriter extends StreamModelWriter {
         }
     }
 
+    @Override
+    public void write(InputStream serialization, Lang language) throws IOException {
+        try (OutputStream output = getOutput()) {
+            super.write(serialization, language);
+            output.flush();
+        }
+    }
+
 }
\ No newline at end of file
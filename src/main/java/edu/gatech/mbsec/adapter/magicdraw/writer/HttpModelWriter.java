@@ -2,14 +2,24 @@ package edu.gatech.mbsec.adapter.magicdraw.writer;
 
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.RDFWriter;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.net.URL;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
@@ -17,11 +27,16 @@ import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.EnglishReasonPhraseCatalog;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.openjena.riot.Lang;
 
 /**
- * A remote HTTP {@link Model model} {@link ModelWriter writer}.
+ * A remote HTTP {@link Model model} {@link ModelWriter writer}. The model is
+ * serialized on a writer thread into a pipe the request body is read from,
+ * optionally gzip compressed. A failed serialization fails the request
+ * instead of completing it with a truncated body. Requests share a pooled,
+ * keep-alive client, so batches reuse their connections.
  * @author rherrera
  */
 public class HttpModelWriter implements ModelWriter {
@@ -30,34 +45,150 @@ public class HttpModelWriter implements ModelWriter {
      */
     private static final Logger LOG = Logger.getLogger(HttpModelWriter.class.getName());
     /**
-     * Internal writer class.
+     * The default size of the pipe buffer, in bytes.
      */
-    private static class Writer implements Runnable {
-        private final OutputStream output;
-        private final Model model;
-        private final Lang language;
+    public static final int DEFAULT_BUFFER = 1 << 20;
+    /**
+     * The number of writer threads created.
+     */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    /**
+     * The threads serializing the uploaded models.
+     */
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "http-model-writer-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * The client shared by all the requests; created on first use.
+     */
+    private static CloseableHttpClient client;
+    /**
+     * The connection pool of the shared client.
+     */
+    private static PoolingHttpClientConnectionManager pool;
+    /**
+     * Gets the client shared by all the requests.
+     * @return the shared client.
+     */
+    static CloseableHttpClient getClient() {
+        return getClient(8);
+    }
+    /**
+     * Gets the client shared by all the requests, growing its pool to keep
+     * at least a number of connections per route.
+     * @param connections the number of concurrent requests to a route.
+     * @return the shared client.
+     */
+    static synchronized CloseableHttpClient getClient(int connections) {
+        if (client == null) {
+            pool = new PoolingHttpClientConnectionManager();
+            pool.setDefaultMaxPerRoute(8);
+            client = HttpClients.custom().setConnectionManager(pool).build();
+        }
+        if (pool.getDefaultMaxPerRoute() < connections) {
+            pool.setDefaultMaxPerRoute(connections);
+            pool.setMaxTotal(Math.max(pool.getMaxTotal(), connections));
+        }
+        return client;
+    }
+    /**
+     * Closes the client shared by all the requests and its connections.
+     */
+    public static synchronized void release() {
+        if (client != null) {
+            try {
+                client.close();
+            } catch(IOException ex) {
+                LOG.log(Level.FINE, "Could not close HTTP client: {0}", ex);
+            }
+            client = null;
+            pool = null;
+        }
+    }
+    /**
+     * A serialization written into an output.
+     */
+    private interface Serialization {
+        /**
+         * Writes this serialization.
+         * @param output the target output.
+         * @throws IOException if some I/O exception occurs.
+         */
+        void writeTo(OutputStream output) throws IOException;
+    }
+    /**
+     * An output counting the bytes written, before any compression.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
         /**
-         * Constructs an instance specifying the output stream, the input model
-         * and the desired serialization language.
-         * @param output the output stream.
-         * @param model the input model.
-         * @param language the serialization language.
+         * Constructs an instance specifying the target output.
+         * @param output the target output.
          */
-        public Writer(OutputStream output, Model model, Lang language) {
-            this.language = language;
-            this.output = output;
-            this.model = model;
+        CountingOutputStream(OutputStream output) {
+            super(output);
         }
 
         @Override
-        public void run() {
-            RDFWriter writer = model.getWriter(language.getName());
-            try(OutputStream clone = output) {
-                writer.write(model, output, (String)null);
-                clone.flush();
-            } catch(IOException ex) {
-                ex.printStackTrace(System.err);
-            }
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+    /**
+     * The request body: the pipe end read by the client, counting the bytes
+     * read and failing once drained if the serialization failed.
+     */
+    private static class Body extends FilterInputStream {
+        private final Future<?> writer;
+        private long count;
+        /**
+         * Constructs an instance specifying the pipe and its writer.
+         * @param pipe the pipe end to read from.
+         * @param writer the serialization writing into the pipe.
+         */
+        Body(InputStream pipe, Future<?> writer) {
+            super(pipe);
+            this.writer = writer;
+        }
+        /**
+         * Checks whether the serialization failed once the pipe is drained.
+         * @param read the bytes read, or {@code -1} if drained.
+         * @return the bytes read.
+         * @throws IOException if the serialization failed.
+         */
+        private int check(int read) throws IOException {
+            if (read == -1) {
+                try {
+                    writer.get();
+                } catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while serializing", ex);
+                } catch(ExecutionException ex) {
+                    throw new IOException("serialization failed", ex.getCause());
+                }
+            } else
+                count += read;
+            return read;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            return check(read) == -1 ? -1 : read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return check(super.read(b, off, len));
         }
     }
     /**
@@ -68,6 +199,19 @@ public class HttpModelWriter implements ModelWriter {
      * The hint for the final graph name.
      */
     private final String slug;
+    /**
+     * Whether requests are gzip compressed.
+     */
+    private boolean compressed;
+    /**
+     * The size of the pipe buffer.
+     */
+    private int buffer = DEFAULT_BUFFER;
+    /**
+     * The writer serializing the models; {@code null} for the Jena writer of
+     * their language.
+     */
+    private RDFWriter serializer;
     /**
      * Constructs an instance specifying the target URL.
      * @param url the target host URL.
@@ -92,6 +236,38 @@ public class HttpModelWriter implements ModelWriter {
     public String getSlug() {
         return slug;
     }
+    /**
+     * Determines whether requests are gzip compressed.
+     * @return {@code true} if requests are gzip compressed.
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+    /**
+     * Sets whether requests are gzip compressed.
+     * @param compressed whether requests are gzip compressed.
+     */
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+    /**
+     * Sets the writer serializing the models instead of the Jena writer of
+     * their language, e.g. a {@link TurtleStreamWriter}.
+     * @param serializer the model serializer; {@code null} for the Jena
+     * writer of their language.
+     */
+    public void setSerializer(RDFWriter serializer) {
+        this.serializer = serializer;
+    }
+    /**
+     * Sets the size of the buffer between the serialization and the request.
+     * @param buffer the buffer size, in bytes.
+     */
+    public void setBufferSize(int buffer) {
+        if (buffer < 1)
+            throw new IllegalArgumentException("buffer size must be positive: " + buffer);
+        this.buffer = buffer;
+    }
     /**
      * Handles the http response.
      * @param response the http response.
@@ -105,34 +281,76 @@ public class HttpModelWriter implements ModelWriter {
         switch(code) {
             case HttpStatus.SC_CREATED:
                 data = response.getFirstHeader("Location").getValue();
+                EntityUtils.consume(response.getEntity());
                 break;
             case HttpStatus.SC_NOT_FOUND:
                 data = target.toString();
+                EntityUtils.consume(response.getEntity());
                 break;
             default:
-                data = EntityUtils.toString(response.getEntity());
+                data = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity());
         }
         LOG.log(Level.INFO, "{0}: {1}", new Object[]{text, data});
     }
-
-    @Override
-    public void write(Model model, Lang language) throws IOException {
-        PipedOutputStream buffer = new PipedOutputStream();
-        PipedInputStream serialization = new PipedInputStream(buffer);
-        Thread writer = new Thread(new Writer(buffer, model, language));
+    /**
+     * Posts a serialization to the target.
+     * @param serialization the serialization.
+     * @param language the language of the serialization.
+     * @throws IOException if the serialization or the request fails.
+     */
+    private void post(final Serialization serialization, Lang language) throws IOException {
+        long start = System.currentTimeMillis();
+        final PipedOutputStream pipe = new PipedOutputStream();
+        final AtomicLong serialized = new AtomicLong();
+        PipedInputStream input = new PipedInputStream(pipe, buffer);
+        Future<?> writer = WRITERS.submit(() -> {
+            try (CountingOutputStream output = new CountingOutputStream(
+                    compressed ? new GZIPOutputStream(pipe, 65536) : pipe)) {
+                serialization.writeTo(output);
+                serialized.set(output.count);
+            }
+            return null;
+        });
+        Body body = new Body(input, writer);
         HttpPost post = new HttpPost(target.toString());
-        InputStreamEntity entity = new InputStreamEntity(serialization);
+        InputStreamEntity entity = new InputStreamEntity(body);
         entity.setContentType(language.getContentType());
-        entity.setContentEncoding("UTF-8");
         entity.setChunked(true);
+        if (compressed)
+            entity.setContentEncoding("gzip");
         post.setEntity(entity);
         post.setHeader("Slug", slug);
-        try(CloseableHttpClient client = HttpClients.createDefault()) {
-            writer.start();
-            try (CloseableHttpResponse response = client.execute(post)) {
-                handleResponse(response);
-            }
+        try (CloseableHttpResponse response = getClient().execute(post)) {
+            handleResponse(response);
+        } catch(IOException | RuntimeException ex) {
+            post.abort();
+            throw ex;
+        } finally {
+            input.close();
+            writer.cancel(true);
         }
+        long millis = Math.max(1, System.currentTimeMillis() - start);
+        LOG.log(Level.INFO, "Uploaded {0} bytes in {1} ms ({2} KB/s){3}", new Object[]{
+            body.count, millis, body.count * 1000 / 1024 / millis,
+            compressed ? " gzip compressed from " + serialized.get() + " bytes" : ""});
+    }
+
+    @Override
+    public void write(final Model model, final Lang language) throws IOException {
+        post(output -> {
+            RDFWriter writer = serializer == null ? model.getWriter(language.getName()) : serializer;
+            writer.write(model, output, (String)null);
+        }, language);
+    }
+
+    @Override
+    public void write(final InputStream serialization, Lang language) throws IOException {
+        post(output -> {
+            int read;
+            byte[] bytes = new byte[8192];
+            while ((read = serialization.read(bytes)) != -1)
+                output.write(bytes, 0, read);
+        }, language);
     }
 
-}
\ No newline at end of file
+}
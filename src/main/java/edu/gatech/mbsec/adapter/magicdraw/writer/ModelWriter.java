@@ -1,14 +1,17 @@
 package edu.gatech.mbsec.adapter.magicdraw.writer;
 
 import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import org.openjena.riot.Lang;
 
 /**
  * An RDF {@link Model model} writer.
  * @author rherrera
  */
-public interface ModelWriter {
+public interface ModelWriter extends Closeable {
     /**
      * Writes a model into a target media.
      * @param model the model to write.
@@ -16,4 +19,26 @@ public interface ModelWriter {
      * @throws IOException if some I/O exception occurs.
      */
     void write(Model model, Lang language) throws IOException;
+    /**
+     * Writes an already serialized model into a target media. By default the
+     * model is read and {@link #write(Model, Lang) written}; writers of
+     * serializations as they are should copy them instead.
+     * @param serialization the serialized model.
+     * @param language the language of the serialization.
+     * @throws IOException if some I/O exception occurs.
+     */
+    default void write(InputStream serialization, Lang language) throws IOException {
+        Model model = ModelFactory.createDefaultModel();
+        model.read(serialization, null, language.getName());
+        write(model, language);
+    }
+    /**
+     * Releases the target media of this writer, e.g. when the conversion
+     * fails before anything is written. By default there is nothing to
+     * release.
+     * @throws IOException if some I/O exception occurs.
+     */
+    @Override
+    default void close() throws IOException {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.sparql.core.Quad;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openjena.riot.Lang;
+import org.openjena.riot.out.SinkQuadOutput;
+import org.openjena.riot.out.SinkTripleOutput;
+
+/**
+ * A parallel N-Triples/N-Quads {@link ModelWriter writer}. Statements are
+ * split into partitions by the hash of their subject, every partition is
+ * encoded into its own buffer on a worker pool, and the buffers are written
+ * in partition order into the target output, or each into its own shard file
+ * of a target directory.
+ * @author rherrera
+ */
+public class PartitionedTripleWriter implements ModelWriter {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(PartitionedTripleWriter.class.getName());
+    /**
+     * The target output; {@code null} if writing shard files.
+     */
+    private final OutputStream output;
+    /**
+     * The target directory of the shard files; {@code null} if writing into
+     * an output.
+     */
+    private final File directory;
+    /**
+     * The graph the statements are written into when writing N-Quads.
+     */
+    private final Node graph;
+    /**
+     * The number of partitions, and of encoding threads.
+     */
+    private final int partitions;
+    /**
+     * Constructs an instance writing into an output, closed once written.
+     * @param output the target output.
+     * @param graph the URI of the graph for N-Quads statements.
+     * @param partitions the number of partitions.
+     */
+    public PartitionedTripleWriter(OutputStream output, String graph, int partitions) {
+        this(Objects.requireNonNull(output, "output cannot be null"), null, graph, partitions);
+    }
+    /**
+     * Constructs an instance writing every partition into a shard file of a
+     * directory.
+     * @param directory the target directory.
+     * @param graph the URI of the graph for N-Quads statements.
+     * @param partitions the number of partitions.
+     */
+    public PartitionedTripleWriter(File directory, String graph, int partitions) {
+        this(null, Objects.requireNonNull(directory, "directory cannot be null"), graph, partitions);
+    }
+    /**
+     * Constructs an instance specifying its properties.
+     * @param output the target output.
+     * @param directory the target directory.
+     * @param graph the URI of the graph for N-Quads statements.
+     * @param partitions the number of partitions.
+     */
+    private PartitionedTripleWriter(OutputStream output, File directory, String graph, int partitions) {
+        if (partitions < 1)
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        this.output = output;
+        this.directory = directory;
+        this.graph = Node.createURI(graph);
+        this.partitions = partitions;
+    }
+    /**
+     * Gets the shard file of a partition.
+     * @param partition the partition.
+     * @param language the output language.
+     * @return the shard file of the {@code partition}.
+     */
+    File getShard(int partition, Lang language) {
+        String extension = language == Lang.NQUADS ? "nq" : "nt";
+        return new File(directory, String.format("part-%05d.%s", partition, extension));
+    }
+    /**
+     * Deletes the shard files of a previous write, which might have had more
+     * partitions.
+     * @throws IOException if a shard file cannot be deleted.
+     */
+    private void deleteShards() throws IOException {
+        File[] shards = directory.listFiles((dir, name) -> name.matches("part-\\d{5}\\.n[tq]"));
+        if (shards != null)
+            for (File shard : shards)
+                Files.delete(shard.toPath());
+    }
+    /**
+     * Splits the statements of a model by the hash of their subject.
+     * @param model the model.
+     * @return the statements of every partition.
+     */
+    private List<List<Triple>> split(Model model) {
+        Triple triple;
+        List<List<Triple>> split = new ArrayList<>(partitions);
+        int size = (int) Math.min(Integer.MAX_VALUE, model.size() / partitions + 1);
+        for (int i = 0; i < partitions; i++)
+            split.add(new ArrayList<Triple>(size));
+        ExtendedIterator<Triple> iterator = model.getGraph().find(Node.ANY, Node.ANY, Node.ANY);
+        try {
+            while (iterator.hasNext()) {
+                triple = iterator.next();
+                split.get((triple.getSubject().hashCode() & Integer.MAX_VALUE) % partitions).add(triple);
+            }
+        } finally {
+            iterator.close();
+        }
+        return split;
+    }
+    /**
+     * Encodes the statements of a partition.
+     * @param triples the statements.
+     * @param language the output language.
+     * @return the encoded statements.
+     */
+    private byte[] encode(List<Triple> triples, Lang language) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Math.min(1 << 26, triples.size() * 128L));
+        if (language == Lang.NTRIPLES) {
+            SinkTripleOutput sink = new SinkTripleOutput(buffer);
+            for (Triple triple : triples)
+                sink.send(triple);
+            sink.flush();
+        } else {
+            SinkQuadOutput sink = new SinkQuadOutput(buffer);
+            for (Triple triple : triples)
+                sink.send(new Quad(graph, triple));
+            sink.flush();
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public void write(Model model, final Lang language) throws IOException {
+        long bytes = 0;
+        List<Future<byte[]>> encoded = new ArrayList<>(partitions);
+        if (!ResourceStreamWriter.isSupported(language))
+            throw new IllegalArgumentException("partitioning supports N-Triples and N-Quads only: " + language.getName());
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("cannot create directory " + directory);
+        if (directory != null)
+            deleteShards();
+        ExecutorService pool = Executors.newFixedThreadPool(partitions);
+        try {
+            for (final List<Triple> triples : split(model))
+                encoded.add(pool.submit(() -> encode(triples, language)));
+            for (int i = 0; i < partitions; i++) {
+                byte[] partition = encoded.get(i).get();
+                encoded.set(i, null);
+                bytes += partition.length;
+                if (output != null) {
+                    output.write(partition);
+                } else {
+                    try (OutputStream shard = new FileOutputStream(getShard(i, language))) {
+                        shard.write(partition);
+                    }
+                }
+            }
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while encoding statements", ex);
+        } catch(ExecutionException ex) {
+            throw new IOException("cannot encode statements", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+            if (output != null)
+                output.close();
+        }
+        LOG.log(Level.INFO, "{0} statements written in {1} partitions ({2} bytes)",
+                new Object[]{model.size(), partitions, bytes});
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (output != null)
+            output.close();
+    }
+
+    @Override
+    public void write(InputStream serialization, Lang language) throws IOException {
+        int read;
+        byte[] buffer;
+        if (output == null) {
+            ModelWriter.super.write(serialization, language);
+            return;
+        }
+        buffer = new byte[8192];
+        try (OutputStream target = output) {
+            while ((read = serialization.read(buffer)) != -1)
+                target.write(buffer, 0, read);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+import org.openjena.riot.Lang;
+
+/**
+ * A {@link ModelWriter writer} of the changes of a {@link Model model} since
+ * a previous conversion, as a SPARQL Update request on the model's graph. The
+ * previous conversion is read from a baseline file, which is replaced by the
+ * written model once the request is sent. Statements with blank nodes cannot
+ * be deleted by data, so if any changes the whole graph is replaced instead.
+ * The baseline is read with fresh blank nodes, so the statements with blank
+ * nodes are compared up to isomorphism: if they are alike, only the other
+ * statements are patched.
+ * @author rherrera
+ */
+public class PatchModelWriter implements ModelWriter {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(PatchModelWriter.class.getName());
+    /**
+     * The SPARQL Update content type.
+     */
+    public static final String CONTENT_TYPE = "application/sparql-update";
+    /**
+     * The baseline file, holding the previous conversion.
+     */
+    private final File baseline;
+    /**
+     * The URI of the patched graph.
+     */
+    private final String graph;
+    /**
+     * The output of the update request; {@code null} if it is written into a
+     * target file or sent to an endpoint.
+     */
+    private final OutputStream output;
+    /**
+     * The target file of the update request, opened once written;
+     * {@code null} if it is written into an output or sent to an endpoint.
+     */
+    private final File target;
+    /**
+     * The SPARQL Update endpoint; {@code null} if the request is written to
+     * an output.
+     */
+    private final URL endpoint;
+    /**
+     * Constructs an instance writing the update request into an output,
+     * closed once written.
+     * @param baseline the baseline file; it does not need to exist.
+     * @param graph the URI of the patched graph.
+     * @param output the output of the update request.
+     */
+    public PatchModelWriter(File baseline, String graph, OutputStream output) {
+        this(baseline, graph, Objects.requireNonNull(output, "output cannot be null"), null, null);
+    }
+    /**
+     * Constructs an instance writing the update request into a target file,
+     * which is not opened until the request is written.
+     * @param baseline the baseline file; it does not need to exist.
+     * @param graph the URI of the patched graph.
+     * @param target the target file of the update request.
+     */
+    public PatchModelWriter(File baseline, String graph, File target) {
+        this(baseline, graph, null, Objects.requireNonNull(target, "target cannot be null"), null);
+    }
+    /**
+     * Constructs an instance sending the update request to an endpoint.
+     * @param baseline the baseline file; it does not need to exist.
+     * @param graph the URI of the patched graph.
+     * @param endpoint the SPARQL Update endpoint.
+     */
+    public PatchModelWriter(File baseline, String graph, URL endpoint) {
+        this(baseline, graph, null, null, Objects.requireNonNull(endpoint, "endpoint cannot be null"));
+    }
+    /**
+     * Constructs an instance specifying its properties.
+     * @param baseline the baseline file.
+     * @param graph the URI of the patched graph.
+     * @param output the output of the update request.
+     * @param target the target file of the update request.
+     * @param endpoint the SPARQL Update endpoint.
+     */
+    private PatchModelWriter(File baseline, String graph, OutputStream output, File target, URL endpoint) {
+        this.baseline = Objects.requireNonNull(baseline, "baseline cannot be null");
+        this.graph = Objects.requireNonNull(graph, "graph cannot be null");
+        this.output = output;
+        this.target = target;
+        this.endpoint = endpoint;
+    }
+    /**
+     * Gets the baseline file.
+     * @return the baseline file.
+     */
+    public File getBaseline() {
+        return baseline;
+    }
+    /**
+     * Gets the URI of the patched graph.
+     * @return the URI of the patched graph.
+     */
+    public String getGraph() {
+        return graph;
+    }
+    /**
+     * Reads the previous conversion.
+     * @param language the language of the baseline.
+     * @return the previous model; empty if there is no baseline.
+     * @throws IOException if the baseline cannot be read.
+     */
+    private Model readBaseline(Lang language) throws IOException {
+        Model previous = ModelFactory.createDefaultModel();
+        if (baseline.isFile()) {
+            try (InputStream input = new FileInputStream(baseline)) {
+                previous.read(input, null, language.getName());
+            }
+        }
+        return previous;
+    }
+    /**
+     * Replaces the baseline by a model.
+     * @param model the new baseline model.
+     * @param language the language of the baseline.
+     * @throws IOException if the baseline cannot be written.
+     */
+    private void writeBaseline(Model model, Lang language) throws IOException {
+        File temporal = new File(baseline.getPath() + ".tmp");
+        try (OutputStream stream = new FileOutputStream(temporal)) {
+            model.getWriter(language.getName()).write(model, stream, (String)null);
+        }
+        Files.move(temporal.toPath(), baseline.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    /**
+     * Determines whether a model has blank nodes.
+     * @param model the model.
+     * @return {@code true} if some statement has a blank subject or object.
+     */
+    private static boolean hasBlankNodes(Model model) {
+        Statement statement;
+        StmtIterator statements = model.listStatements();
+        try {
+            while (statements.hasNext()) {
+                statement = statements.next();
+                if (statement.getSubject().isAnon() || statement.getObject().isAnon())
+                    return true;
+            }
+            return false;
+        } finally {
+            statements.close();
+        }
+    }
+    /**
+     * Selects the statements of a model with or without blank nodes.
+     * @param model the model.
+     * @param blank whether to select the statements with a blank subject or
+     * object, or the other ones.
+     * @return the statements selected.
+     */
+    private static Model select(Model model, boolean blank) {
+        Statement statement;
+        Model selected = ModelFactory.createDefaultModel();
+        StmtIterator statements = model.listStatements();
+        try {
+            while (statements.hasNext()) {
+                statement = statements.next();
+                if ((statement.getSubject().isAnon() || statement.getObject().isAnon()) == blank)
+                    selected.add(statement);
+            }
+        } finally {
+            statements.close();
+        }
+        return selected;
+    }
+    /**
+     * Gets the update request turning a previous model into the current one.
+     * @param previous the previous model.
+     * @param current the current model.
+     * @return the SPARQL Update request; {@code null} if nothing changed.
+     */
+    String getUpdate(Model previous, Model current) {
+        StringWriter update = new StringWriter();
+        Model removed = previous.difference(current);
+        Model added = current.difference(previous);
+        if (removed.isEmpty() && added.isEmpty())
+            return null;
+        if (hasBlankNodes(removed) && select(previous, true).isIsomorphicWith(select(current, true))) {
+            removed = select(removed, false);
+            added = select(added, false);
+            if (removed.isEmpty() && added.isEmpty())
+                return null;
+        }
+        if (hasBlankNodes(removed)) {
+            LOG.log(Level.INFO, "Blank nodes changed: replacing graph {0}", graph);
+            removed = null;
+            added = current;
+            update.write("DROP SILENT GRAPH <" + graph + "> ;\n");
+        }
+        LOG.log(Level.INFO, "Patch of graph {0}: {1} statements removed, {2} added",
+                new Object[]{graph, removed == null ? "all" : removed.size(), added.size()});
+        if (removed != null && !removed.isEmpty()) {
+            update.write("DELETE DATA { GRAPH <" + graph + "> {\n");
+            removed.write(update, "N-TRIPLE");
+            update.write("} }");
+            if (!added.isEmpty())
+                update.write(" ;\n");
+        }
+        if (!added.isEmpty()) {
+            update.write("INSERT DATA { GRAPH <" + graph + "> {\n");
+            added.write(update, "N-TRIPLE");
+            update.write("} }");
+        }
+        update.write("\n");
+        return update.toString();
+    }
+    /**
+     * Sends an update request to the endpoint, through the client shared
+     * with the {@link HttpModelWriter HTTP writers}.
+     * @param update the SPARQL Update request.
+     * @throws IOException if the request cannot be sent or fails.
+     */
+    private void send(String update) throws IOException {
+        int code;
+        HttpPost post = new HttpPost(endpoint.toString());
+        post.setEntity(new StringEntity(update, ContentType.create(CONTENT_TYPE, StandardCharsets.UTF_8)));
+        try (CloseableHttpResponse response = HttpModelWriter.getClient().execute(post)) {
+            code = response.getStatusLine().getStatusCode();
+            if (code / 100 != 2)
+                throw new IOException("update of graph " + graph + " failed: "
+                        + response.getStatusLine() + " " + EntityUtils.toString(response.getEntity()));
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+
+    @Override
+    public void write(Model model, Lang language) throws IOException {
+        String update = getUpdate(readBaseline(language), model);
+        if (endpoint == null) {
+            try (Writer writer = new OutputStreamWriter(output == null ? new FileOutputStream(target) : output,
+                    StandardCharsets.UTF_8)) {
+                if (update != null)
+                    writer.write(update);
+                writer.flush();
+            }
+        } else if (update != null)
+            send(update);
+        if (update == null)
+            LOG.log(Level.INFO, "Graph {0} unchanged", graph);
+        writeBaseline(model, language);
+    }
+
+}
@@ -0,0 +1,100 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.graph.Triple;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.sparql.core.Quad;
+import com.hp.hpl.jena.util.iterator.ExtendedIterator;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.openjena.riot.Lang;
+import org.openjena.riot.out.SinkQuadOutput;
+import org.openjena.riot.out.SinkTripleOutput;
+
+/**
+ * An incremental N-Triples/N-Quads {@link ModelWriter writer}: every written
+ * {@link Model model} is appended to the same target output as soon as it is
+ * written, so a large model can be written as a sequence of small ones.
+ * @author rherrera
+ */
+public class ResourceStreamWriter implements ModelWriter, Closeable {
+    /**
+     * Determines whether a language can be written incrementally.
+     * @param language the language.
+     * @return {@code true} if the {@code language} is N-Triples or N-Quads;
+     * {@code false} otherwise.
+     */
+    public static boolean isSupported(Lang language) {
+        return language == Lang.NTRIPLES || language == Lang.NQUADS;
+    }
+    /**
+     * The target output.
+     */
+    private final OutputStream output;
+    /**
+     * The graph the statements are written into when writing N-Quads.
+     */
+    private final Node graph;
+    /**
+     * The N-Triples sink, created on first use.
+     */
+    private SinkTripleOutput triples;
+    /**
+     * The N-Quads sink, created on first use.
+     */
+    private SinkQuadOutput quads;
+    /**
+     * The number of statements written so far.
+     */
+    private long statements;
+    /**
+     * Constructs an instance specifying the target output and graph.
+     * @param output the target output.
+     * @param graph the URI of the graph for N-Quads statements.
+     */
+    public ResourceStreamWriter(OutputStream output, String graph) {
+        this.output = output;
+        this.graph = Node.createURI(graph);
+    }
+    /**
+     * Gets the number of statements written so far.
+     * @return the number of statements written so far.
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    @Override
+    public void write(Model model, Lang language) throws IOException {
+        Triple triple;
+        ExtendedIterator<Triple> iterator;
+        if (!isSupported(language))
+            throw new IllegalArgumentException("streaming supports N-Triples and N-Quads only: " + language.getName());
+        if (language == Lang.NTRIPLES && triples == null)
+            triples = new SinkTripleOutput(output);
+        if (language == Lang.NQUADS && quads == null)
+            quads = new SinkQuadOutput(output);
+        iterator = model.getGraph().find(Node.ANY, Node.ANY, Node.ANY);
+        try {
+            while (iterator.hasNext()) {
+                triple = iterator.next();
+                if (language == Lang.NTRIPLES)
+                    triples.send(triple);
+                else
+                    quads.send(new Quad(graph, triple));
+                statements++;
+            }
+        } finally {
+            iterator.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (triples != null) triples.flush();
+        if (quads != null) quads.flush();
+        output.close();
+    }
+
+}
@@ -3,6 +3,7 @@ package edu.gatech.mbsec.adapter.magicdraw.writer;
 import com.hp.hpl.jena.rdf.model.Model;
 import com.hp.hpl.jena.rdf.model.RDFWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import org.openjena.riot.Lang;
 
@@ -15,6 +16,11 @@ public class StreamModelWriter implements ModelWriter {
      * The target output.
      */
     private final OutputStream output;
+    /**
+     * The writer serializing the models; {@code null} for the Jena writer of
+     * their language.
+     */
+    private RDFWriter serializer;
     /**
      * Constructs an instance specifying the target output.
      * @param output the target output.
@@ -29,11 +35,33 @@ public class StreamModelWriter implements ModelWriter {
     public OutputStream getOutput() {
         return output;
     }
+    /**
+     * Sets the writer serializing the models instead of the Jena writer of
+     * their language, e.g. a {@link TurtleStreamWriter}.
+     * @param serializer the model serializer; {@code null} for the Jena
+     * writer of their language.
+     */
+    public void setSerializer(RDFWriter serializer) {
+        this.serializer = serializer;
+    }
 
     @Override
     public void write(Model model, Lang language) throws IOException {
-        RDFWriter writer = model.getWriter(language.getName());
+        RDFWriter writer = serializer == null ? model.getWriter(language.getName()) : serializer;
         writer.write(model, output, (String)null);
     }
 
+    @Override
+    public void write(InputStream serialization, Lang language) throws IOException {
+        int read;
+        byte[] buffer = new byte[8192];
+        while ((read = serialization.read(buffer)) != -1)
+            output.write(buffer, 0, read);
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.graph.Node;
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.query.ReadWrite;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.tdb.TDBFactory;
+import com.hp.hpl.jena.tdb.base.file.Location;
+import com.hp.hpl.jena.tdb.store.DatasetGraphTDB;
+import com.hp.hpl.jena.tdb.store.bulkloader.BulkLoader;
+import com.hp.hpl.jena.tdb.sys.TDBMaker;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.openjena.riot.Lang;
+
+/**
+ * A local Jena TDB dataset {@link Model model} {@link ModelWriter writer}.
+ * The model is written into a named graph of the dataset: a fresh dataset is
+ * filled by the TDB bulk loader, reading N-Triples straight from a writer
+ * thread; an existing dataset is updated within a write transaction, removing
+ * the statements no longer in the model and adding the new ones.
+ * @author rherrera
+ */
+public class TdbModelWriter implements ModelWriter {
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOG = Logger.getLogger(TdbModelWriter.class.getName());
+    /**
+     * The prefix of the TDB targets.
+     */
+    public static final String SCHEME = "tdb:";
+    /**
+     * Determines whether a target is a TDB dataset.
+     * @param target the output target.
+     * @return {@code true} if the {@code target} is a TDB dataset.
+     */
+    public static boolean isTarget(String target) {
+        return target != null && target.startsWith(SCHEME);
+    }
+    /**
+     * The dataset directory.
+     */
+    private final File directory;
+    /**
+     * The name of the graph written.
+     */
+    private final String graph;
+    /**
+     * Constructs an instance specifying the dataset and the graph.
+     * @param target the TDB target, i.e. the dataset directory prefixed by
+     * {@code tdb:}.
+     * @param graph the URI of the graph written.
+     */
+    public TdbModelWriter(String target, String graph) {
+        if (!isTarget(target))
+            throw new IllegalArgumentException("not a TDB target: " + target);
+        this.directory = new File(target.substring(SCHEME.length()));
+        this.graph = Objects.requireNonNull(graph, "graph cannot be null");
+    }
+    /**
+     * Determines whether the dataset has to be created.
+     * @return {@code true} if the dataset directory is missing or empty.
+     */
+    private boolean isFresh() {
+        String[] files = directory.list();
+        return files == null || files.length == 0;
+    }
+    /**
+     * Loads a model into a fresh dataset with the bulk loader.
+     * @param model the model.
+     * @throws IOException if the model cannot be loaded.
+     */
+    private void load(final Model model) throws IOException {
+        Location location = new Location(directory.getPath());
+        final PipedOutputStream pipe = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(pipe, HttpModelWriter.DEFAULT_BUFFER);
+        ExecutorService serializer = Executors.newSingleThreadExecutor();
+        DatasetGraphTDB dataset = TDBMaker._createDatasetGraph(location);
+        try {
+            Future<?> writer = serializer.submit(() -> {
+                try (OutputStream output = pipe) {
+                    model.getWriter("N-TRIPLE").write(model, output, (String)null);
+                }
+                return null;
+            });
+            BulkLoader.loadNamedGraph(dataset, Node.createURI(graph), input, false);
+            writer.get();
+            dataset.sync();
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while loading " + directory, ex);
+        } catch(ExecutionException ex) {
+            throw new IOException("cannot serialize the model", ex.getCause());
+        } finally {
+            input.close();
+            serializer.shutdownNow();
+            dataset.close();
+            TDBMaker.releaseLocation(location);
+        }
+    }
+    /**
+     * Updates the graph of an existing dataset within a write transaction.
+     * @param model the model.
+     */
+    private void update(Model model) {
+        Model removed;
+        Model added;
+        Dataset dataset = TDBFactory.createDataset(directory.getPath());
+        dataset.begin(ReadWrite.WRITE);
+        try {
+            Model named = dataset.getNamedModel(graph);
+            removed = named.difference(model);
+            added = model.difference(named);
+            named.remove(removed);
+            named.add(added);
+            dataset.commit();
+        } finally {
+            dataset.end();
+            dataset.close();
+        }
+        LOG.log(Level.INFO, "{0} statements added to and {1} removed from {2}",
+                new Object[]{added.size(), removed.size(), graph});
+    }
+
+    @Override
+    public void write(Model model, Lang language) throws IOException {
+        long start = System.currentTimeMillis();
+        if (isFresh()) {
+            if (!directory.isDirectory() && !directory.mkdirs())
+                throw new IOException("cannot create directory " + directory);
+            load(model);
+            LOG.log(Level.INFO, "{0} statements bulk loaded into {1}",
+                    new Object[]{model.size(), graph});
+        } else
+            update(model);
+        LOG.log(Level.INFO, "TDB dataset {0} written in {1} ms",
+                new Object[]{directory, System.currentTimeMillis() - start});
+    }
+
+}
@@ -0,0 +1,259 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.rdf.model.Literal;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.RDFErrorHandler;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.RDFWriter;
+import com.hp.hpl.jena.rdf.model.ResIterator;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+import com.hp.hpl.jena.shared.JenaException;
+import com.hp.hpl.jena.vocabulary.RDF;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * A streaming Turtle {@link RDFWriter writer}. Unlike the Jena pretty writer,
+ * the model is not analysed before writing: subjects are written one at a
+ * time, in a single pass, grouping their predicates with {@code ;} and their
+ * objects with {@code ,}, through a bounded buffer. Blank nodes are written
+ * as labels instead of being nested. It is given to the writers of the
+ * targets that request it, leaving the Jena Turtle writer to the others.
+ * @author rherrera
+ */
+public class TurtleStreamWriter implements RDFWriter {
+    /**
+     * The format name selecting this writer.
+     */
+    public static final String FORMAT = "Turtle-Streaming";
+    /**
+     * The size of the output buffer, in characters.
+     */
+    private static final int BUFFER = 65536;
+    /**
+     * The local names written as prefixed names.
+     */
+    private static final Pattern LOCAL_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_-]*");
+    /**
+     * The prefixes declared besides the model ones.
+     */
+    private final Map<String, String> declared;
+    private RDFErrorHandler errorHandler;
+    private Map<String, String> namespaces;
+    /**
+     * Constructs an instance declaring the model prefixes only.
+     */
+    public TurtleStreamWriter() {
+        this(Collections.<String, String>emptyMap());
+    }
+    /**
+     * Constructs an instance declaring some prefixes besides the model ones.
+     * @param prefixes the prefixes declared besides the model ones (e.g. the
+     * vocabularies of the conversion).
+     */
+    public TurtleStreamWriter(Map<String, String> prefixes) {
+        this.declared = new TreeMap<>(prefixes);
+    }
+
+    @Override
+    public void write(Model model, OutputStream out, String base) {
+        write(model, new OutputStreamWriter(out, StandardCharsets.UTF_8), base);
+    }
+
+    @Override
+    public void write(Model model, Writer out, String base) {
+        ResIterator subjects = model.listSubjects();
+        BufferedWriter writer = new BufferedWriter(out, BUFFER);
+        try {
+            writePrefixes(model, writer);
+            while (subjects.hasNext())
+                writeSubject(model, subjects.next(), writer);
+            writer.flush();
+        } catch(IOException ex) {
+            if (errorHandler == null)
+                throw new JenaException(ex);
+            errorHandler.error(ex);
+        } finally {
+            subjects.close();
+        }
+    }
+    /**
+     * Writes the prefix declarations.
+     * @param model the written model.
+     * @param writer the output.
+     * @throws IOException if the output cannot be written.
+     */
+    private void writePrefixes(Model model, Writer writer) throws IOException {
+        Map<String, String> prefixes = new TreeMap<>(declared);
+        prefixes.putAll(model.getNsPrefixMap());
+        namespaces = new HashMap<>();
+        for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+            if (!prefix.getKey().isEmpty() && !LOCAL_NAME.matcher(prefix.getKey()).matches())
+                continue;
+            namespaces.put(prefix.getValue(), prefix.getKey());
+            writer.write("@prefix ");
+            writer.write(prefix.getKey());
+            writer.write(": <");
+            writer.write(escapeIRI(prefix.getValue()));
+            writer.write("> .\n");
+        }
+        if (!prefixes.isEmpty())
+            writer.write('\n');
+    }
+    /**
+     * Writes the statements of a subject as a single block.
+     * @param model the written model.
+     * @param subject the subject.
+     * @param writer the output.
+     * @throws IOException if the output cannot be written.
+     */
+    private void writeSubject(Model model, Resource subject, Writer writer) throws IOException {
+        Property predicate = null;
+        List<Statement> statements = new ArrayList<>();
+        StmtIterator iterator = model.listStatements(subject, null, (RDFNode)null);
+        try {
+            while (iterator.hasNext())
+                statements.add(iterator.next());
+        } finally {
+            iterator.close();
+        }
+        Collections.sort(statements, new Comparator<Statement>() {
+            @Override
+            public int compare(Statement s1, Statement s2) {
+                boolean type1 = s1.getPredicate().equals(RDF.type);
+                boolean type2 = s2.getPredicate().equals(RDF.type);
+                if (type1 != type2)
+                    return type1 ? -1 : 1;
+                return s1.getPredicate().getURI().compareTo(s2.getPredicate().getURI());
+            }
+        });
+        writeNode(subject, writer);
+        for (Statement statement : statements) {
+            if (statement.getPredicate().equals(predicate)) {
+                writer.write(" , ");
+            } else {
+                if (predicate != null)
+                    writer.write(" ;");
+                writer.write("\n    ");
+                predicate = statement.getPredicate();
+                if (predicate.equals(RDF.type))
+                    writer.write('a');
+                else
+                    writeNode(predicate, writer);
+                writer.write(' ');
+            }
+            writeNode(statement.getObject(), writer);
+        }
+        writer.write(" .\n\n");
+    }
+    /**
+     * Writes an RDF term.
+     * @param node the term.
+     * @param writer the output.
+     * @throws IOException if the output cannot be written.
+     */
+    private void writeNode(RDFNode node, Writer writer) throws IOException {
+        if (node.isAnon()) {
+            writer.write("_:b");
+            writer.write(node.asResource().getId().getLabelString().replaceAll("[^A-Za-z0-9]", "_"));
+        } else if (node.isURIResource()) {
+            writeURI(node.asResource().getURI(), writer);
+        } else {
+            Literal literal = node.asLiteral();
+            writer.write('"');
+            writer.write(escapeString(literal.getLexicalForm()));
+            writer.write('"');
+            if (literal.getLanguage() != null && !literal.getLanguage().isEmpty()) {
+                writer.write('@');
+                writer.write(literal.getLanguage());
+            } else if (literal.getDatatypeURI() != null) {
+                writer.write("^^");
+                writeURI(literal.getDatatypeURI(), writer);
+            }
+        }
+    }
+    /**
+     * Writes a URI, as a prefixed name if possible.
+     * @param uri the URI.
+     * @param writer the output.
+     * @throws IOException if the output cannot be written.
+     */
+    private void writeURI(String uri, Writer writer) throws IOException {
+        int split = Math.max(uri.lastIndexOf('#'), uri.lastIndexOf('/')) + 1;
+        String prefix = split > 0 ? namespaces.get(uri.substring(0, split)) : null;
+        if (prefix != null && LOCAL_NAME.matcher(uri.substring(split)).matches()) {
+            writer.write(prefix);
+            writer.write(':');
+            writer.write(uri.substring(split));
+        } else {
+            writer.write('<');
+            writer.write(escapeIRI(uri));
+            writer.write('>');
+        }
+    }
+    /**
+     * Escapes the characters not allowed within Turtle IRIs.
+     * @param iri the IRI.
+     * @return the escaped IRI.
+     */
+    private static String escapeIRI(String iri) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < iri.length(); i++) {
+            char c = iri.charAt(i);
+            if (c <= ' ' || "<>\"{}|^`\\".indexOf(c) >= 0) {
+                if (escaped == null)
+                    escaped = new StringBuilder(iri.substring(0, i));
+                escaped.append(String.format("\\u%04X", (int) c));
+            } else if (escaped != null)
+                escaped.append(c);
+        }
+        return escaped == null ? iri : escaped.toString();
+    }
+    /**
+     * Escapes the characters not allowed within Turtle strings.
+     * @param string the string.
+     * @return the escaped string.
+     */
+    private static String escapeString(String string) {
+        StringBuilder escaped = new StringBuilder(string.length() + 8);
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '\\': escaped.append("\\\\"); break;
+                case '"': escaped.append("\\\""); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    @Override
+    public Object setProperty(String propName, Object propValue) {
+        return null;
+    }
+
+    @Override
+    public RDFErrorHandler setErrorHandler(RDFErrorHandler errHandler) {
+        RDFErrorHandler previous = errorHandler;
+        errorHandler = errHandler;
+        return previous;
+    }
+}
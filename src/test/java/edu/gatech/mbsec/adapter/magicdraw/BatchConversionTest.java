@@ -0,0 +1,58 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjena.riot.Lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that a failed input does not abort a batch conversion, while invalid
+ * arguments fail before any input is converted.
+ * @author rherrera
+ */
+public class BatchConversionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File inputs;
+    private File outputs;
+
+    @Before
+    public void setUp() throws Exception {
+        inputs = folder.newFolder("inputs");
+        outputs = new File(folder.getRoot(), "outputs");
+        Files.write(new File(inputs, "A_Broken.mdzip").toPath(), "not a project".getBytes(StandardCharsets.UTF_8));
+        Files.copy(Conversions.getProject("TestProject2.mdzip").toPath(), new File(inputs, "TestProject2.mdzip").toPath());
+    }
+
+    @Test
+    public void failedInputDoesNotAbortTheBatch() throws Exception {
+        Conversions.convert("-batch", inputs.getPath(), "-reader", "xmi", "-format", Lang.NTRIPLES.getName(),
+                "-stream", "-target", outputs.getPath());
+        File converted = new File(outputs, "TestProject2" + Batch.getExtension(Lang.NTRIPLES));
+        assertTrue("valid input not converted", converted.length() > 0);
+        assertFalse(new File(outputs, "A_Broken" + Batch.getExtension(Lang.NTRIPLES)).exists());
+    }
+
+    @Test
+    public void invalidArgumentsFailBeforeConverting() throws Exception {
+        try {
+            Conversions.convert("-batch", inputs.getPath(), "-reader", "xmi", "-format", Lang.TURTLE.getName(),
+                    "-stream", "-target", outputs.getPath());
+            fail("streaming Turtle accepted");
+        } catch(IllegalArgumentException ex) {
+            assertEquals("streaming supports N-Triples and N-Quads only", ex.getMessage());
+        }
+        assertFalse("inputs converted despite invalid arguments", outputs.exists());
+    }
+}
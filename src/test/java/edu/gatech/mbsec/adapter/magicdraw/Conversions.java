@@ -0,0 +1,59 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import org.apache.commons.cli.DefaultParser;
+import org.openjena.riot.Lang;
+import org.openjena.riot.RiotLoader;
+
+/**
+ * Runs conversions as the command line does and reads their outputs back.
+ * @author rherrera
+ */
+final class Conversions {
+    /**
+     * The sample projects within the test resources.
+     */
+    static final String[] PROJECTS = {"ImportFromSimulink2.mdzip", "SUV_Example.mdzip",
+        "SysMLIBDCreatedByOSCLWebClient.mdzip", "TestProject2.mdzip", "TestProject3.mdzip",
+        "Water_Supply_Example.mdzip", "Wired_Camera_Example.mdzip"};
+
+    private Conversions() {
+    }
+    /**
+     * Gets a sample project of the test resources.
+     * @param name the project file name.
+     * @return the project file.
+     * @throws URISyntaxException if the resource location is not valid.
+     */
+    static File getProject(String name) throws URISyntaxException {
+        return new File(Conversions.class.getResource("/" + name).toURI());
+    }
+    /**
+     * Runs a conversion.
+     * @param args the command line arguments.
+     * @throws Exception if the conversion fails.
+     */
+    static void convert(String... args) throws Exception {
+        Executor.execute(new DefaultParser().parse(App.getOptions(), args));
+    }
+    /**
+     * Reads a conversion output.
+     * @param file the output file.
+     * @param language the output language.
+     * @return the output model.
+     * @throws IOException if the output cannot be read.
+     */
+    static Model read(File file, Lang language) throws IOException {
+        Model model = ModelFactory.createDefaultModel();
+        try (InputStream input = new FileInputStream(file)) {
+            RiotLoader.read(input, model.getGraph(), language, null);
+        }
+        return model;
+    }
+}
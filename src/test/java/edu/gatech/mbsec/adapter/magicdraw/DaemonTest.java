@@ -0,0 +1,167 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.apache.commons.cli.DefaultParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjena.riot.Lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the endpoints of a conversion {@link Daemon} bound to a free port.
+ * Jobs read their projects with the {@code xmi} reader, so MagicDraw is not
+ * needed.
+ * @author rherrera
+ */
+public class DaemonTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Daemon daemon;
+    private String mdzip;
+
+    @Before
+    public void setUp() throws Exception {
+        mdzip = Conversions.getProject("SUV_Example.mdzip").getPath();
+        daemon = new Daemon(0);
+        daemon.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        assertEquals(HttpURLConnection.HTTP_OK, send("POST", "/shutdown", null).getResponseCode());
+        daemon.awaitShutdown();
+    }
+    /**
+     * Sends a request to the daemon.
+     * @param method the request method.
+     * @param path the endpoint path.
+     * @param job the job arguments, one per line; {@code null} for none.
+     * @return the connection, with the request sent.
+     * @throws IOException if the request cannot be sent.
+     */
+    private HttpURLConnection send(String method, String path, String job) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http",
+                InetAddress.getLoopbackAddress().getHostAddress(), daemon.getPort(), path).openConnection();
+        connection.setRequestMethod(method);
+        if (job != null) {
+            connection.setDoOutput(true);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(job.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+    /**
+     * Reads the whole response body of a request, or its error body.
+     * @param connection the request.
+     * @return the response body.
+     * @throws IOException if the response cannot be read.
+     */
+    private static String read(HttpURLConnection connection) throws IOException {
+        int read;
+        byte[] buffer = new byte[8192];
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (InputStream input = connection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST
+                ? connection.getInputStream() : connection.getErrorStream()) {
+            while (input != null && (read = input.read(buffer)) != -1)
+                content.write(buffer, 0, read);
+        }
+        return content.toString("UTF-8");
+    }
+    /**
+     * Gets the arguments of a job converting the sample project.
+     * @param args the extra arguments.
+     * @return the job arguments, one per line.
+     */
+    private String getJob(String... args) {
+        StringBuilder job = new StringBuilder();
+        for (String arg : new String[]{"-mdzip", mdzip, "-reader", "xmi", "-format", Lang.TURTLE.getName(),
+            "-meta", "dcterms:title=sample", "graph=sample"})
+            job.append(arg).append('\n');
+        for (String arg : args)
+            job.append(arg).append('\n');
+        return job.toString();
+    }
+
+    @Test
+    public void healthReportsTheJobCounts() throws Exception {
+        HttpURLConnection health = send("GET", "/health", null);
+        assertEquals(HttpURLConnection.HTTP_OK, health.getResponseCode());
+        String status = read(health);
+        assertTrue(status, status.startsWith("status=up"));
+        assertTrue(status, status.contains("queued=0"));
+        assertTrue(status, status.contains("completed=0"));
+        assertTrue(status, status.contains("failed=0"));
+        read(send("POST", "/convert", getJob("-stream")));
+        status = read(send("GET", "/health", null));
+        assertTrue(status, status.contains("completed=0"));
+        assertTrue(status, status.contains("failed=1"));
+    }
+
+    @Test
+    public void queueReportsTheQueuedJobs() throws Exception {
+        HttpURLConnection queue = send("GET", "/queue", null);
+        assertEquals(HttpURLConnection.HTTP_OK, queue.getResponseCode());
+        assertEquals("0\n", read(queue));
+    }
+
+    @Test
+    public void jobWithoutTargetIsStreamedBack() throws Exception {
+        File expected = new File(folder.getRoot(), "expected.ttl");
+        File streamed = new File(folder.getRoot(), "streamed.ttl");
+        Conversions.convert((getJob() + "-target\n" + expected.getPath()).split("\n"));
+        HttpURLConnection convert = send("POST", "/convert", getJob());
+        assertEquals(HttpURLConnection.HTTP_OK, convert.getResponseCode());
+        assertEquals("chunked", convert.getHeaderField("Transfer-Encoding"));
+        Files.write(streamed.toPath(), read(convert).getBytes(StandardCharsets.UTF_8));
+        Model model = Conversions.read(streamed, Lang.TURTLE);
+        assertFalse(model.isEmpty());
+        assertTrue("streamed output differs from the file one",
+                model.isIsomorphicWith(Conversions.read(expected, Lang.TURTLE)));
+        assertTrue(read(send("GET", "/health", null)).contains("completed=1"));
+    }
+
+    @Test
+    public void jobWithTargetIsWrittenByTheDaemon() throws Exception {
+        File target = new File(folder.getRoot(), "target.ttl");
+        Daemon.submit(daemon.getPort(), new DefaultParser().parse(App.getOptions(),
+                (getJob() + "-target\n" + target.getPath()).split("\n")));
+        assertFalse(Conversions.read(target, Lang.TURTLE).isEmpty());
+    }
+
+    @Test
+    public void invalidJobsAreBadRequests() throws Exception {
+        HttpURLConnection convert = send("POST", "/convert", getJob("-serve", "7070"));
+        assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, convert.getResponseCode());
+        assertEquals("-serve is not allowed within jobs\n", read(convert));
+        convert = send("POST", "/convert", getJob("-stream"));
+        assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, convert.getResponseCode());
+        assertTrue(read(convert).contains("streaming supports N-Triples and N-Quads only"));
+        try {
+            Daemon.submit(daemon.getPort(), new DefaultParser().parse(App.getOptions(), getJob("-stream").split("\n")));
+            fail("invalid job accepted");
+        } catch(IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("streaming supports N-Triples and N-Quads only"));
+        }
+        assertEquals(HttpURLConnection.HTTP_BAD_METHOD, send("GET", "/convert", null).getResponseCode());
+    }
+}
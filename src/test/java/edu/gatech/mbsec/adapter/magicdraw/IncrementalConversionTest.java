@@ -0,0 +1,72 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjena.riot.Lang;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@code -incremental} conversions write the same output as full
+ * conversions, both when the fingerprints are created and when they are
+ * reused, also after the input changes. The projects are read with the
+ * {@code xmi} reader, so MagicDraw is not needed.
+ * @author rherrera
+ */
+public class IncrementalConversionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    /**
+     * Converts a project.
+     * @param mdzip the project file.
+     * @param target the output file.
+     * @param incremental whether to convert incrementally.
+     * @return the conversion output.
+     * @throws Exception if the conversion fails.
+     */
+    private static Model convert(File mdzip, File target, boolean incremental) throws Exception {
+        String[] args = {"-mdzip", mdzip.getPath(), "-reader", "xmi", "-format", Lang.TURTLE.getName(),
+            "-meta", "dcterms:title=sample", "graph=sample", "-target", target.getPath()};
+        if (incremental) {
+            String[] incrementalArgs = new String[args.length + 1];
+            System.arraycopy(args, 0, incrementalArgs, 0, args.length);
+            incrementalArgs[args.length] = "-incremental";
+            args = incrementalArgs;
+        }
+        Conversions.convert(args);
+        return Conversions.read(target, Lang.TURTLE);
+    }
+
+    @Test
+    public void incrementalOutputIsTheFullOne() throws Exception {
+        File mdzip = Conversions.getProject("SUV_Example.mdzip");
+        File target = new File(folder.getRoot(), "incremental.ttl");
+        Model expected = convert(mdzip, new File(folder.getRoot(), "full.ttl"), false);
+        assertFalse(expected.isEmpty());
+        assertTrue("first incremental output differs from the full one",
+                convert(mdzip, target, true).isIsomorphicWith(expected));
+        assertTrue("fingerprints not saved", new File(target.getPath() + ".fingerprints").isFile());
+        assertTrue("incremental output reusing the fingerprints differs from the full one",
+                convert(mdzip, target, true).isIsomorphicWith(expected));
+    }
+
+    @Test
+    public void incrementalOutputFollowsChangedInput() throws Exception {
+        File mdzip = new File(folder.getRoot(), "Project.mdzip");
+        File target = new File(folder.getRoot(), "incremental.ttl");
+        Files.copy(Conversions.getProject("TestProject2.mdzip").toPath(), mdzip.toPath());
+        convert(mdzip, target, true);
+        Files.copy(Conversions.getProject("TestProject3.mdzip").toPath(), mdzip.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        Model expected = convert(mdzip, new File(folder.getRoot(), "full.ttl"), false);
+        assertTrue("incremental output of the changed input differs from the full one",
+                convert(mdzip, target, true).isIsomorphicWith(expected));
+    }
+}
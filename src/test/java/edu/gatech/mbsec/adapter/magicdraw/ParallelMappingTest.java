@@ -0,0 +1,89 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import edu.gatech.mbsec.adapter.magicdraw.builder.OSLC4JMagicDrawApplication;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.openjena.riot.Lang;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that mapping with several threads gives the same output as mapping
+ * with a single thread. Only the {@code magicdraw} reader maps in parallel,
+ * so the test is skipped unless the MagicDraw libraries are available.
+ * @author rherrera
+ */
+@RunWith(Parameterized.class)
+public class ParallelMappingTest {
+    /**
+     * The number of threads of the parallel conversions.
+     */
+    private static final int THREADS = 4;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<String> getProjects() {
+        return Arrays.asList(Conversions.PROJECTS);
+    }
+
+    @BeforeClass
+    public static void assumeMagicDraw() {
+        boolean available;
+        try {
+            Class.forName("com.nomagic.runtime.ApplicationExitedException");
+            available = true;
+        } catch(ClassNotFoundException ex) {
+            available = false;
+        }
+        assumeTrue("MagicDraw libraries not available", available);
+    }
+
+    @AfterClass
+    public static void finish() {
+        Executor.finish();
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String project;
+
+    public ParallelMappingTest(String project) {
+        this.project = project;
+    }
+    /**
+     * Converts the project with the magicdraw reader.
+     * @param threads the number of mapping threads.
+     * @return the conversion output.
+     * @throws Exception if the conversion fails.
+     */
+    private Model convert(int threads) throws Exception {
+        File output = new File(folder.getRoot(), threads + ".ttl");
+        try {
+            Conversions.convert("-mdzip", Conversions.getProject(project).getPath(), "-threads", String.valueOf(threads),
+                    "-format", Lang.TURTLE.getName(), "-meta", "graph=sample", "-target", output.getPath());
+        } finally {
+            OSLC4JMagicDrawApplication.close();
+        }
+        return Conversions.read(output, Lang.TURTLE);
+    }
+
+    @Test
+    public void threadsDoNotChangeTheOutput() throws Exception {
+        Model expected = convert(1);
+        Model actual = convert(THREADS);
+        assertFalse(expected.isEmpty());
+        assertTrue("output with " + THREADS + " threads differs from the single thread one",
+                actual.isIsomorphicWith(expected));
+    }
+}
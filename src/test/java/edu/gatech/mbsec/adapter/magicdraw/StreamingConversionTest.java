@@ -0,0 +1,59 @@
+package edu.gatech.mbsec.adapter.magicdraw;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.vocabulary.RDF;
+import com.hp.hpl.jena.vocabulary.RDFS;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.openjena.riot.Lang;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the {@code -stream} mode writes the same statements as the
+ * whole model conversion, including the container and meta statements. The
+ * projects are read with the {@code xmi} reader, so MagicDraw is not needed.
+ * @author rherrera
+ */
+@RunWith(Parameterized.class)
+public class StreamingConversionTest {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<String> getProjects() {
+        return Arrays.asList(Conversions.PROJECTS);
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String project;
+
+    public StreamingConversionTest(String project) {
+        this.project = project;
+    }
+
+    @Test
+    public void streamedStatementsAreTheConvertedOnes() throws Exception {
+        File converted = new File(folder.getRoot(), "converted.ttl");
+        File streamed = new File(folder.getRoot(), "streamed.nt");
+        String mdzip = Conversions.getProject(project).getPath();
+        Conversions.convert("-mdzip", mdzip, "-reader", "xmi", "-format", Lang.TURTLE.getName(),
+                "-meta", "dcterms:title=" + project, "graph=sample", "-target", converted.getPath());
+        Conversions.convert("-mdzip", mdzip, "-reader", "xmi", "-format", Lang.NTRIPLES.getName(),
+                "-meta", "dcterms:title=" + project, "graph=sample", "-stream", "-target", streamed.getPath());
+        Model expected = Conversions.read(converted, Lang.TURTLE);
+        Model actual = Conversions.read(streamed, Lang.NTRIPLES);
+        assertFalse(expected.isEmpty());
+        assertTrue(expected.contains(null, RDF.type, RDFS.Container));
+        assertTrue(expected.contains(null, RDFS.member, (RDFNode)null));
+        assertTrue("streamed statements differ from the converted ones", actual.isIsomorphicWith(expected));
+    }
+}
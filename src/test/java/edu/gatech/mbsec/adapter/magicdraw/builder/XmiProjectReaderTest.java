@@ -0,0 +1,136 @@
+package edu.gatech.mbsec.adapter.magicdraw.builder;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeSet;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the resources mapped by the {@link XmiProjectReader} from the sample
+ * projects: the number of blocks, requirements, packages and value types, and
+ * their URIs, built from the project id and the element qualified name (or
+ * requirement id) as the MagicDraw reader does.
+ * @author rherrera
+ */
+@RunWith(Parameterized.class)
+public class XmiProjectReaderTest {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> getProjects() {
+        return Arrays.asList(new Object[][]{
+            {"ImportFromSimulink2", 23, 0, 2, 0},
+            {"SUV_Example", 9, 12, 3, 0},
+            {"SysMLIBDCreatedByOSCLWebClient", 8, 0, 1, 0},
+            {"TestProject2", 23, 0, 2, 0},
+            {"TestProject3", 8, 0, 1, 0},
+            {"Water_Supply_Example", 6, 0, 2, 0},
+            {"Wired_Camera_Example", 22, 0, 3, 5}});
+    }
+
+    private final String project;
+    private final int blocks;
+    private final int requirements;
+    private final int packages;
+    private final int valueTypes;
+    private ConversionContext context;
+
+    public XmiProjectReaderTest(String project, int blocks, int requirements, int packages, int valueTypes) {
+        this.project = project;
+        this.blocks = blocks;
+        this.requirements = requirements;
+        this.packages = packages;
+        this.valueTypes = valueTypes;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        context = new ConversionContext(new ModelDescriptor());
+        new XmiProjectReader(context).read(new File(getClass().getResource("/" + project + ".mdzip").toURI()).getPath());
+    }
+    /**
+     * Gets the URIs of the mapped resources of a type, checking each one is
+     * the one of its context map key.
+     * @param resources the resources by context map key.
+     * @param type the resource type (URI path part).
+     * @return the resource URIs, sorted.
+     */
+    private Collection<String> getURIs(Map<String, ? extends AbstractResource> resources, String type) {
+        String prefix = project + "/" + type + "/";
+        Collection<String> uris = new TreeSet<>();
+        for (Map.Entry<String, ? extends AbstractResource> resource : resources.entrySet()) {
+            URI about = resource.getValue().getAbout();
+            assertTrue(resource.getKey(), resource.getKey().startsWith(prefix));
+            assertEquals(context.descriptor.resource(type, project + resource.getKey().substring(prefix.length())),
+                    String.valueOf(about));
+            uris.add(about.toString());
+        }
+        return uris;
+    }
+    /**
+     * Gets the URIs of some resources.
+     * @param type the resource type (URI path part).
+     * @param paths the resource paths within the project.
+     * @return the resource URIs, sorted.
+     */
+    private Collection<String> getURIs(String type, String... paths) {
+        Collection<String> uris = new TreeSet<>();
+        for (String path : paths)
+            uris.add("http://localhost:8080/rest/" + type + "/" + project + path);
+        return uris;
+    }
+
+    @Test
+    public void blocksAreMapped() {
+        Collection<String> uris = getURIs(context.qNameOslcSysmlBlockMap, "blocks");
+        assertEquals(blocks, uris.size());
+        if ("SUV_Example".equals(project))
+            assertEquals(getURIs("blocks", "SUV_Example::Blocks::BodySubsystem",
+                    "SUV_Example::Blocks::BrakeSubsystem", "SUV_Example::Blocks::BrakeSystem",
+                    "SUV_Example::Blocks::ChassisSubsystem", "SUV_Example::Blocks::HybridSUV",
+                    "SUV_Example::Blocks::InteriorSubsystem", "SUV_Example::Blocks::LightingSubsystem",
+                    "SUV_Example::Blocks::MasterCylinder", "SUV_Example::Blocks::PowerSubsystem"), uris);
+        else if ("Wired_Camera_Example".equals(project))
+            assertTrue(uris.containsAll(getURIs("blocks", "Wired_Camera_Example::Blocks::Wired_Camera",
+                    "Wired_Camera_Example::Blocks::Camera_Module", "Wired_Camera_Example::Blocks::Power_Supply")));
+    }
+
+    @Test
+    public void requirementsAreMapped() {
+        Collection<String> uris = getURIs(context.idOslcSysmlRequirementMap, "requirements");
+        assertEquals(requirements, uris.size());
+        if ("SUV_Example".equals(project))
+            assertEquals(getURIs("requirements", "1", "1.1", "1.2", "4", "4.2", "4.3", "5", "8", "9",
+                    "S5.4.1", "S5.4.1a", "S5.4.1b"), uris);
+    }
+
+    @Test
+    public void packagesAreMapped() {
+        Collection<String> uris = getURIs(context.qNameOslcSysmlPackageMap, "packages");
+        assertEquals(packages, uris.size());
+        if ("SUV_Example".equals(project))
+            assertEquals(getURIs("packages", "SUV_Example", "SUV_Example::Blocks", "SUV_Example::Requirements"), uris);
+        else if ("Wired_Camera_Example".equals(project))
+            assertEquals(getURIs("packages", "Wired_Camera_Example", "Wired_Camera_Example::Blocks",
+                    "Wired_Camera_Example::Value_Types"), uris);
+    }
+
+    @Test
+    public void valueTypesAreMapped() {
+        Collection<String> uris = getURIs(context.qNameOslcSysmlValueTypeMap, "valuetypes");
+        assertEquals(valueTypes, uris.size());
+        if ("Wired_Camera_Example".equals(project))
+            assertEquals(getURIs("valuetypes", "Wired_Camera_Example::Value_Types::MB",
+                    "Wired_Camera_Example::Value_Types::MHz", "Wired_Camera_Example::Value_Types::Size",
+                    "Wired_Camera_Example::Value_Types::mm", "Wired_Camera_Example::Value_Types::\u02DA"), uris);
+    }
+}
@@ -0,0 +1,301 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.vocabulary.DCTerms;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjena.riot.Lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the batches of the {@link BatchedHttpModelWriter}: their bounds, the
+ * statements linked by blank nodes kept together, and their uploads to a
+ * stand-in endpoint, retried on server errors only, resumed from the journal
+ * and sent over all the connections requested.
+ * @author rherrera
+ */
+public class BatchedHttpModelWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private ExecutorService threads;
+    private File journal;
+    /**
+     * The numbers of the batches received, in order of arrival.
+     */
+    private BlockingQueue<Integer> received;
+    /**
+     * The response status of every batch received, by batch number.
+     */
+    private volatile IntUnaryOperator status;
+    /**
+     * The latch every request waits for before responding, if any.
+     */
+    private volatile CountDownLatch concurrent;
+    /**
+     * Whether a request gave up waiting for the latch.
+     */
+    private volatile boolean sequential;
+
+    @Before
+    public void setUp() throws IOException {
+        received = new LinkedBlockingQueue<>();
+        status = number -> 201;
+        journal = new File(folder.getRoot(), "upload.journal");
+        threads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(threads);
+        server.createContext("/graphs", exchange -> {
+            int number = Integer.parseInt(exchange.getRequestHeaders().getFirst("X-Batch"));
+            try (InputStream input = exchange.getRequestBody()) {
+                byte[] buffer = new byte[8192];
+                while (input.read(buffer) != -1);
+            }
+            received.add(number);
+            CountDownLatch latch = concurrent;
+            if (latch != null) {
+                latch.countDown();
+                try {
+                    if (!latch.await(5, TimeUnit.SECONDS))
+                        sequential = true;
+                } catch(InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(status.applyAsInt(number), -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        threads.shutdownNow();
+    }
+
+    @AfterClass
+    public static void release() {
+        HttpModelWriter.release();
+    }
+    /**
+     * Gets a writer uploading to the stand-in endpoint, retrying after a
+     * millisecond.
+     * @param batchSize the maximum number of statements of a batch.
+     * @param connections the number of concurrent uploads.
+     * @return the writer.
+     * @throws IOException if the endpoint URL is not valid.
+     */
+    private BatchedHttpModelWriter getWriter(int batchSize, int connections) throws IOException {
+        URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/graphs");
+        return new BatchedHttpModelWriter(url, "sample", batchSize, Long.MAX_VALUE, connections, journal, 1);
+    }
+    /**
+     * Gets a model of blocks with a title each.
+     * @param blocks the number of blocks.
+     * @return the model.
+     */
+    private static Model getModel(int blocks) {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < blocks; i++)
+            model.createResource("http://localhost:8080/rest/blocks/Block" + i).addProperty(DCTerms.title, "Block " + i);
+        return model;
+    }
+    /**
+     * Gets the numbers of the batches received so far.
+     * @return the batch numbers, in order of arrival.
+     */
+    private List<Integer> getReceived() {
+        List<Integer> numbers = new ArrayList<>();
+        received.drainTo(numbers);
+        return numbers;
+    }
+
+    @Test
+    public void batchesAreBoundedInStatements() throws IOException {
+        List<List<Statement>> batches = getWriter(3, 1).split(getModel(10));
+        assertEquals(4, batches.size());
+        for (List<Statement> batch : batches.subList(0, 3))
+            assertEquals(3, batch.size());
+        assertEquals(1, batches.get(3).size());
+    }
+
+    @Test
+    public void batchesAreBoundedInBytes() throws IOException {
+        Model model = getModel(10);
+        long size = 0;
+        for (Statement statement : model.listStatements().toList())
+            size = Math.max(size, BatchedHttpModelWriter.size(statement));
+        URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/graphs");
+        List<List<Statement>> batches = new BatchedHttpModelWriter(url, "sample", 100, 2 * size, 1, journal)
+                .split(model);
+        assertEquals(5, batches.size());
+        for (List<Statement> batch : batches) {
+            long bytes = 0;
+            for (Statement statement : batch)
+                bytes += BatchedHttpModelWriter.size(statement);
+            assertTrue(bytes <= 2 * size);
+        }
+    }
+
+    @Test
+    public void blankNodesAreBatchedTogether() throws IOException {
+        Model model = getModel(4);
+        for (int i = 0; i < 3; i++) {
+            Resource head = model.createResource();
+            Resource tail = model.createResource();
+            model.createResource("http://localhost:8080/rest/blocks/Block" + i).addProperty(DCTerms.hasPart, head);
+            head.addProperty(DCTerms.title, "Part " + i).addProperty(DCTerms.hasPart, tail);
+            tail.addProperty(DCTerms.title, "Subpart " + i);
+        }
+        List<List<Statement>> batches = getWriter(4, 1).split(model);
+        assertEquals(model.size(), batches.stream().mapToInt(List::size).sum());
+        Set<RDFNode> batched = new HashSet<>();
+        for (List<Statement> batch : batches) {
+            assertTrue("batch of " + batch.size() + " statements", batch.size() <= 4);
+            Set<RDFNode> blanks = new HashSet<>();
+            for (Statement statement : batch) {
+                if (statement.getSubject().isAnon())
+                    blanks.add(statement.getSubject());
+                if (statement.getObject().isAnon())
+                    blanks.add(statement.getObject());
+            }
+            for (RDFNode blank : blanks)
+                assertTrue("blank node split between batches", batched.add(blank));
+        }
+    }
+
+    @Test
+    public void serverErrorsAreRetried() throws IOException {
+        ConcurrentLinkedQueue<Integer> failures = new ConcurrentLinkedQueue<>();
+        failures.add(503);
+        failures.add(500);
+        status = number -> failures.isEmpty() ? 201 : failures.poll();
+        getWriter(10, 1).write(getModel(2), Lang.TURTLE);
+        assertEquals(3, getReceived().size());
+        assertFalse("journal kept", journal.exists());
+    }
+
+    @Test
+    public void clientErrorsAreNotRetried() throws IOException {
+        status = number -> 400;
+        try {
+            getWriter(10, 1).write(getModel(2), Lang.TURTLE);
+            fail("rejected batch uploaded");
+        } catch(IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("batch 0 rejected"));
+        }
+        assertEquals(1, getReceived().size());
+    }
+
+    @Test
+    public void resumedUploadSkipsAcknowledgedBatches() throws IOException {
+        Model model = getModel(4);
+        status = number -> number == 3 ? 400 : 201;
+        try {
+            getWriter(1, 1).write(model, Lang.TURTLE);
+            fail("rejected batch uploaded");
+        } catch(IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("batch 3 rejected"));
+        }
+        assertEquals(4, getReceived().size());
+        assertTrue("journal not kept", journal.isFile());
+        status = number -> 201;
+        getWriter(1, 1).write(model, Lang.TURTLE);
+        List<Integer> resumed = getReceived();
+        assertEquals(1, resumed.size());
+        assertEquals(3, resumed.get(0).intValue());
+        assertFalse("journal kept", journal.exists());
+    }
+
+    @Test
+    public void resumedUploadSkipsAcknowledgedBlankNodeBatches() throws IOException {
+        int batches;
+        status = number -> 201;
+        getWriter(2, 1).write(getBlankModel(), Lang.RDFXML);
+        batches = getReceived().size();
+        status = number -> number == batches - 1 ? 400 : 201;
+        try {
+            getWriter(2, 1).write(getBlankModel(), Lang.RDFXML);
+            fail("rejected batch uploaded");
+        } catch(IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("batch " + (batches - 1) + " rejected"));
+        }
+        assertEquals(batches, getReceived().size());
+        status = number -> 201;
+        getWriter(2, 1).write(getBlankModel(), Lang.RDFXML);
+        List<Integer> resumed = getReceived();
+        assertEquals(1, resumed.size());
+        assertEquals(batches - 1, resumed.get(0).intValue());
+    }
+
+    @Test
+    public void blankNodesAreLabelledDeterministically() {
+        Model model = getBlankModel();
+        Model labelled = BatchedHttpModelWriter.label(model);
+        assertTrue("labelled model differs", labelled.isIsomorphicWith(model));
+        Set<String> statements = new HashSet<>();
+        for (Statement statement : labelled.listStatements().toList())
+            statements.add(statement.toString());
+        for (int i = 0; i < 20; i++)
+            for (Statement statement : BatchedHttpModelWriter.label(getBlankModel()).listStatements().toList())
+                assertTrue("labels differ: " + statement, statements.contains(statement.toString()));
+    }
+    /**
+     * Gets a model of blocks with blank node parts, some of them shared by
+     * two blocks, some of them alike and some of them not referenced at all.
+     * Every call gives new blank node labels.
+     * @return the model.
+     */
+    private static Model getBlankModel() {
+        Model model = getModel(6);
+        for (int i = 0; i < 5; i++) {
+            Resource part = model.createResource().addProperty(DCTerms.title, "Part " + i);
+            model.createResource("http://localhost:8080/rest/blocks/Block" + i).addProperty(DCTerms.hasPart, part);
+            model.createResource("http://localhost:8080/rest/blocks/Block" + (i + 1)).addProperty(DCTerms.hasPart, part);
+        }
+        for (int i = 0; i < 4; i++)
+            model.createResource().addProperty(DCTerms.title, "Orphan " + (i / 2))
+                    .addProperty(DCTerms.hasPart, model.createResource().addProperty(DCTerms.title, "Orphan part"));
+        return model;
+    }
+
+    @Test
+    public void uploadsUseAllTheConnections() throws IOException {
+        concurrent = new CountDownLatch(12);
+        getWriter(1, 12).write(getModel(12), Lang.TURTLE);
+        assertFalse("uploads not concurrent", sequential);
+    }
+}
@@ -0,0 +1,227 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.vocabulary.DCTerms;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.openjena.riot.Lang;
+import org.openjena.riot.RiotLoader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the uploads of the {@link HttpModelWriter} to a stand-in endpoint:
+ * their headers and bodies, their compression, their abort when the
+ * serialization fails and the reuse of their connections.
+ * @author rherrera
+ */
+public class HttpModelWriterTest {
+    /**
+     * The logger of the writer.
+     */
+    private static final Logger LOG = Logger.getLogger(HttpModelWriter.class.getName());
+    /**
+     * An upload received by the stand-in endpoint.
+     */
+    private static class Upload {
+        private String method;
+        private String contentType;
+        private String contentEncoding;
+        private String transferEncoding;
+        private String slug;
+        private int port;
+        private byte[] body;
+        private IOException failure;
+    }
+
+    private HttpServer server;
+    private BlockingQueue<Upload> uploads;
+    private List<String> messages;
+    private Handler handler;
+
+    @Before
+    public void setUp() throws IOException {
+        uploads = new LinkedBlockingQueue<>();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/graphs", exchange -> {
+            Upload upload = new Upload();
+            upload.method = exchange.getRequestMethod();
+            upload.contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            upload.contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            upload.transferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+            upload.slug = exchange.getRequestHeaders().getFirst("Slug");
+            upload.port = exchange.getRemoteAddress().getPort();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream input = exchange.getRequestBody()) {
+                byte[] buffer = new byte[8192];
+                for (int read; (read = input.read(buffer)) != -1;)
+                    body.write(buffer, 0, read);
+                upload.body = body.toByteArray();
+            } catch(IOException ex) {
+                upload.failure = ex;
+                uploads.add(upload);
+                throw ex;
+            }
+            uploads.add(upload);
+            exchange.getResponseHeaders().set("Location", "http://localhost/graphs/" + upload.slug);
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        });
+        server.start();
+        messages = new ArrayList<>();
+        handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(getFormatter().formatMessage(record));
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        handler.setFormatter(new SimpleFormatter());
+        LOG.addHandler(handler);
+    }
+
+    @After
+    public void tearDown() {
+        LOG.removeHandler(handler);
+        server.stop(0);
+    }
+
+    @AfterClass
+    public static void release() {
+        HttpModelWriter.release();
+    }
+    /**
+     * Gets the URL of the stand-in endpoint.
+     * @return the endpoint URL.
+     * @throws IOException if the URL is not valid.
+     */
+    private URL getEndpoint() throws IOException {
+        return new URL("http://localhost:" + server.getAddress().getPort() + "/graphs");
+    }
+    /**
+     * Gets the next upload received.
+     * @return the upload.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private Upload getUpload() throws InterruptedException {
+        Upload upload = uploads.poll(10, TimeUnit.SECONDS);
+        assertTrue("no upload received", upload != null);
+        return upload;
+    }
+    /**
+     * Gets a serialization large enough to span several chunks.
+     * @return the serialization.
+     */
+    private static byte[] getSerialization() {
+        StringBuilder serialization = new StringBuilder();
+        for (int i = 0; i < 20000; i++)
+            serialization.append("<http://localhost:8080/rest/blocks/Block").append(i)
+                    .append("> <").append(DCTerms.title.getURI()).append("> \"Block ").append(i).append("\" .\n");
+        return serialization.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void modelIsUploaded() throws Exception {
+        Model model = ModelFactory.createDefaultModel();
+        model.createResource("http://localhost:8080/rest/blocks/Block").addProperty(DCTerms.title, "Block");
+        new HttpModelWriter(getEndpoint(), "sample").write(model, Lang.TURTLE);
+        Upload upload = getUpload();
+        assertEquals("POST", upload.method);
+        assertEquals(Lang.TURTLE.getContentType(), upload.contentType);
+        assertEquals("chunked", upload.transferEncoding);
+        assertEquals("sample", upload.slug);
+        Model uploaded = ModelFactory.createDefaultModel();
+        RiotLoader.read(new ByteArrayInputStream(upload.body), uploaded.getGraph(), Lang.TURTLE, null);
+        assertTrue("uploaded model differs", uploaded.isIsomorphicWith(model));
+    }
+
+    @Test
+    public void compressedUploadIsGzipEncoded() throws Exception {
+        byte[] serialization = getSerialization();
+        HttpModelWriter writer = new HttpModelWriter(getEndpoint(), "sample");
+        writer.setCompressed(true);
+        writer.write(new ByteArrayInputStream(serialization), Lang.NTRIPLES);
+        Upload upload = getUpload();
+        assertEquals("gzip", upload.contentEncoding);
+        assertTrue(upload.body.length < serialization.length);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(upload.body))) {
+            byte[] buffer = new byte[8192];
+            for (int read; (read = input.read(buffer)) != -1;)
+                body.write(buffer, 0, read);
+        }
+        assertArrayEquals(serialization, body.toByteArray());
+        NumberFormat format = NumberFormat.getInstance();
+        String compressed = "Uploaded " + format.format(upload.body.length) + " bytes";
+        String uncompressed = " gzip compressed from " + serialization.length + " bytes";
+        assertTrue("sizes not logged: " + messages, messages.stream()
+                .anyMatch(message -> message.startsWith(compressed) && message.endsWith(uncompressed)));
+    }
+
+    @Test
+    public void failedSerializationAbortsTheUpload() throws Exception {
+        final byte[] serialization = getSerialization();
+        InputStream failing = new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                if (read == serialization.length / 2)
+                    throw new IOException("serializer failed");
+                return serialization[read++];
+            }
+        };
+        try {
+            new HttpModelWriter(getEndpoint(), "sample").write(failing, Lang.NTRIPLES);
+            fail("failed serialization uploaded");
+        } catch(IOException ex) {
+            assertTrue(messages.stream().noneMatch(message -> message.startsWith("Created")));
+        }
+        Upload upload = getUpload();
+        assertTrue("truncated upload completed", upload.failure != null);
+    }
+
+    @Test
+    public void uploadsReuseTheirConnection() throws Exception {
+        byte[] serialization = getSerialization();
+        new HttpModelWriter(getEndpoint(), "first").write(new ByteArrayInputStream(serialization), Lang.NTRIPLES);
+        new HttpModelWriter(getEndpoint(), "second").write(new ByteArrayInputStream(serialization), Lang.NTRIPLES);
+        Upload first = getUpload();
+        Upload second = getUpload();
+        assertEquals("first", first.slug);
+        assertEquals("second", second.slug);
+        assertEquals("connection not reused", first.port, second.port);
+    }
+}
@@ -0,0 +1,236 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.vocabulary.DCTerms;
+import com.hp.hpl.jena.vocabulary.RDFS;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjena.riot.Lang;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the SPARQL Update requests of the {@link PatchModelWriter}, written
+ * into files or sent to a stand-in endpoint.
+ * @author rherrera
+ */
+public class PatchModelWriterTest {
+    /**
+     * The URI of the patched graph.
+     */
+    private static final String GRAPH = "http://localhost:8080/rest/container/sample";
+    /**
+     * The resources namespace.
+     */
+    private static final String NS = "http://localhost:8080/rest/blocks/";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private List<String> requests;
+    private int status;
+    private File baseline;
+
+    @Before
+    public void setUp() throws IOException {
+        status = 204;
+        requests = new ArrayList<>();
+        baseline = new File(folder.getRoot(), "baseline.ttl");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/update", exchange -> {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream input = exchange.getRequestBody()) {
+                byte[] buffer = new byte[8192];
+                for (int read; (read = input.read(buffer)) != -1;)
+                    body.write(buffer, 0, read);
+            }
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("Content-Type")
+                    + "\n" + new String(body.toByteArray(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @AfterClass
+    public static void release() {
+        HttpModelWriter.release();
+    }
+    /**
+     * Creates a model with some titled blocks.
+     * @param titles the titles of the blocks, named after their index.
+     * @return the model.
+     */
+    private static Model createModel(String... titles) {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < titles.length; i++)
+            model.createResource(NS + "Block" + i).addProperty(DCTerms.title, titles[i]);
+        return model;
+    }
+    /**
+     * Writes a model as the baseline.
+     * @param model the baseline model.
+     * @throws IOException if the baseline cannot be written.
+     */
+    private void writeBaseline(Model model) throws IOException {
+        new PatchModelWriter(baseline, GRAPH, new ByteArrayOutputStream()).write(model, Lang.TURTLE);
+    }
+    /**
+     * Gets the URL of the stand-in endpoint.
+     * @return the endpoint URL.
+     * @throws IOException if the URL is not valid.
+     */
+    private URL getEndpoint() throws IOException {
+        return new URL("http://localhost:" + server.getAddress().getPort() + "/update");
+    }
+
+    @Test
+    public void addedStatementsAreInserted() {
+        String update = new PatchModelWriter(baseline, GRAPH, new ByteArrayOutputStream())
+                .getUpdate(createModel("A"), createModel("A", "B"));
+        assertTrue(update.startsWith("INSERT DATA { GRAPH <" + GRAPH + "> {\n"));
+        assertTrue(update.contains("<" + NS + "Block1> <" + DCTerms.title.getURI() + "> \"B\""));
+        assertFalse(update.contains("Block0"));
+        assertFalse(update.contains("DELETE"));
+    }
+
+    @Test
+    public void removedStatementsAreDeleted() {
+        String update = new PatchModelWriter(baseline, GRAPH, new ByteArrayOutputStream())
+                .getUpdate(createModel("A", "B"), createModel("A"));
+        assertTrue(update.startsWith("DELETE DATA { GRAPH <" + GRAPH + "> {\n"));
+        assertTrue(update.contains("<" + NS + "Block1> <" + DCTerms.title.getURI() + "> \"B\""));
+        assertFalse(update.contains("Block0"));
+        assertFalse(update.contains("INSERT"));
+    }
+
+    @Test
+    public void changedStatementsAreDeletedThenInserted() {
+        String update = new PatchModelWriter(baseline, GRAPH, new ByteArrayOutputStream())
+                .getUpdate(createModel("A", "B"), createModel("A", "C"));
+        assertTrue(update.indexOf("DELETE DATA") < update.indexOf(" ;\nINSERT DATA"));
+        assertTrue(update.contains("\"B\""));
+        assertTrue(update.contains("\"C\""));
+    }
+
+    @Test
+    public void unchangedModelHasNoUpdate() {
+        assertNull(new PatchModelWriter(baseline, GRAPH, new ByteArrayOutputStream())
+                .getUpdate(createModel("A", "B"), createModel("A", "B")));
+    }
+
+    @Test
+    public void changedBlankNodesReplaceTheGraph() {
+        Model previous = createModel("A");
+        Model current = createModel("A");
+        Resource blank = previous.createResource();
+        previous.createResource(NS + "Block0").addProperty(RDFS.seeAlso, blank);
+        blank.addProperty(DCTerms.title, "old");
+        blank = current.createResource();
+        current.createResource(NS + "Block0").addProperty(RDFS.seeAlso, blank);
+        blank.addProperty(DCTerms.title, "new");
+        String update = new PatchModelWriter(baseline, GRAPH, new ByteArrayOutputStream())
+                .getUpdate(previous, current);
+        assertTrue(update.startsWith("DROP SILENT GRAPH <" + GRAPH + "> ;\nINSERT DATA"));
+        assertFalse(update.contains("DELETE"));
+        assertFalse(update.contains("\"old\""));
+        assertTrue(update.contains("\"new\""));
+        assertTrue("unchanged statements not inserted again", update.contains("\"A\""));
+    }
+
+    /**
+     * Creates a model with some titled blocks, the first one with a blank
+     * node part.
+     * @param titles the titles of the blocks, named after their index.
+     * @return the model.
+     */
+    private static Model createBlankModel(String... titles) {
+        Model model = createModel(titles);
+        Resource part = model.createResource().addProperty(DCTerms.title, "part");
+        model.getResource(NS + "Block0").addProperty(DCTerms.hasPart, part);
+        return model;
+    }
+
+    @Test
+    public void alikeBlankNodesArePatched() {
+        String update = new PatchModelWriter(baseline, GRAPH, new ByteArrayOutputStream())
+                .getUpdate(createBlankModel("A", "B"), createBlankModel("A", "C"));
+        assertTrue(update.startsWith("DELETE DATA { GRAPH <" + GRAPH + "> {\n"));
+        assertFalse(update.contains("DROP"));
+        assertFalse(update.contains("_:"));
+        assertTrue(update.contains("\"C\""));
+    }
+
+    @Test
+    public void unchangedBlankNodesAreNotPosted() throws IOException {
+        writeBaseline(createBlankModel("A"));
+        new PatchModelWriter(baseline, GRAPH, getEndpoint()).write(createBlankModel("A"), Lang.TURTLE);
+        assertTrue("unchanged model posted", requests.isEmpty());
+    }
+
+    @Test
+    public void targetFileIsOpenedOnWrite() throws IOException {
+        File target = new File(folder.getRoot(), "patch.ru");
+        PatchModelWriter writer = new PatchModelWriter(baseline, GRAPH, target);
+        assertFalse("target opened before writing", target.exists());
+        writer.write(createModel("A"), Lang.TURTLE);
+        assertTrue(new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8).startsWith("INSERT DATA"));
+        assertTrue(baseline.isFile());
+    }
+
+    @Test
+    public void updateIsPostedToTheEndpoint() throws IOException {
+        writeBaseline(createModel("A"));
+        Model current = createModel("A", "B");
+        PatchModelWriter writer = new PatchModelWriter(baseline, GRAPH, getEndpoint());
+        String update = writer.getUpdate(createModel("A"), current);
+        writer.write(current, Lang.TURTLE);
+        assertEquals(1, requests.size());
+        assertEquals("POST " + PatchModelWriter.CONTENT_TYPE + "; charset=UTF-8\n" + update, requests.get(0));
+        writer.write(current, Lang.TURTLE);
+        assertEquals("unchanged model posted", 1, requests.size());
+    }
+
+    @Test
+    public void failedUpdateKeepsTheBaseline() throws IOException {
+        writeBaseline(createModel("A"));
+        byte[] previous = Files.readAllBytes(baseline.toPath());
+        status = 500;
+        try {
+            new PatchModelWriter(baseline, GRAPH, getEndpoint()).write(createModel("A", "B"), Lang.TURTLE);
+            fail("failed update accepted");
+        } catch(IOException ex) {
+            assertTrue(ex.getMessage().contains("500"));
+        }
+        assertEquals(1, requests.size());
+        assertArrayEquals("baseline replaced after a failed update", previous, Files.readAllBytes(baseline.toPath()));
+    }
+}
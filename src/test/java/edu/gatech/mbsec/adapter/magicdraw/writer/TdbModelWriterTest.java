@@ -0,0 +1,87 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.query.Dataset;
+import com.hp.hpl.jena.query.ReadWrite;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.tdb.TDBFactory;
+import com.hp.hpl.jena.vocabulary.DCTerms;
+import java.io.File;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjena.riot.Lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the {@link TdbModelWriter} bulk loads a model into a fresh
+ * dataset, and updates the graph of an existing one.
+ * @author rherrera
+ */
+public class TdbModelWriterTest {
+    /**
+     * The URI of the graph written.
+     */
+    private static final String GRAPH = "http://localhost:8080/rest/container/sample";
+    /**
+     * The resources namespace.
+     */
+    private static final String NS = "http://localhost:8080/rest/blocks/";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("tdb");
+    }
+    /**
+     * Gets a model of blocks with a title each.
+     * @param first the number of the first block.
+     * @param blocks the number of blocks.
+     * @return the model.
+     */
+    private static Model getModel(int first, int blocks) {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = first; i < first + blocks; i++)
+            model.createResource(NS + "Block" + i).addProperty(DCTerms.title, "Block " + i);
+        return model;
+    }
+    /**
+     * Reads the graph written into the dataset.
+     * @return a copy of the graph.
+     */
+    private Model read() {
+        Model graph = ModelFactory.createDefaultModel();
+        Dataset dataset = TDBFactory.createDataset(directory.getPath());
+        dataset.begin(ReadWrite.READ);
+        try {
+            graph.add(dataset.getNamedModel(GRAPH));
+        } finally {
+            dataset.end();
+        }
+        return graph;
+    }
+
+    @Test
+    public void freshDatasetIsLoadedThenUpdated() throws IOException {
+        TdbModelWriter writer = new TdbModelWriter(TdbModelWriter.SCHEME + directory.getPath(), GRAPH);
+        Model model = getModel(0, 3);
+        Resource part = model.createResource().addProperty(DCTerms.title, "Part");
+        model.getResource(NS + "Block0").addProperty(DCTerms.hasPart, part);
+        writer.write(model, Lang.NTRIPLES);
+        assertTrue("model not loaded", read().isIsomorphicWith(model));
+        model = getModel(1, 3);
+        writer.write(model, Lang.NTRIPLES);
+        Model updated = read();
+        assertEquals(3, updated.size());
+        assertTrue("graph not updated", updated.isIsomorphicWith(model));
+    }
+}
@@ -0,0 +1,97 @@
+package edu.gatech.mbsec.adapter.magicdraw.writer;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.vocabulary.DCTerms;
+import com.hp.hpl.jena.vocabulary.RDF;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjena.riot.Lang;
+import org.openjena.riot.RiotLoader;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the output of the {@link TurtleStreamWriter}, and that it only
+ * serializes the models of the writers given it, leaving the Jena Turtle
+ * writer to the others.
+ * @author rherrera
+ */
+public class TurtleStreamWriterTest {
+    /**
+     * The namespace of the vocabulary prefix declared besides the model ones.
+     */
+    private static final String SYSML = "http://localhost:8080/rest/vocab#";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Model model;
+
+    @Before
+    public void setUp() {
+        model = ModelFactory.createDefaultModel();
+        model.setNsPrefix("dcterms", DCTerms.NS);
+        for (int i = 0; i < 3; i++) {
+            Resource part = model.createResource().addProperty(DCTerms.title, "Part " + i);
+            model.createResource("http://localhost:8080/rest/blocks/Block" + i)
+                    .addProperty(RDF.type, model.createResource(SYSML + "Block"))
+                    .addProperty(DCTerms.title, "Block \"" + i + "\"\n")
+                    .addProperty(DCTerms.hasPart, part);
+        }
+    }
+    /**
+     * Reads a Turtle serialization.
+     * @param input the serialization.
+     * @return the model read.
+     */
+    private static Model read(InputStream input) {
+        Model read = ModelFactory.createDefaultModel();
+        RiotLoader.read(input, read.getGraph(), Lang.TURTLE, null);
+        return read;
+    }
+
+    @Test
+    public void streamedTurtleIsTheSameModel() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new TurtleStreamWriter(Collections.singletonMap("sysml", SYSML)).write(model, output, null);
+        String turtle = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(turtle, turtle.contains("@prefix sysml: <" + SYSML + "> ."));
+        assertTrue(turtle, turtle.contains("a sysml:Block"));
+        assertTrue(turtle, turtle.contains("_:b"));
+        assertTrue("streamed model differs", read(new ByteArrayInputStream(output.toByteArray()))
+                .isIsomorphicWith(model));
+    }
+
+    @Test
+    public void serializerIsPerTarget() throws IOException {
+        File streamed = new File(folder.getRoot(), "streamed.ttl");
+        File pretty = new File(folder.getRoot(), "pretty.ttl");
+        FileModelWriter streaming = new FileModelWriter(streamed.getPath());
+        streaming.setSerializer(new TurtleStreamWriter());
+        FanOutModelWriter targets = new FanOutModelWriter();
+        targets.add(streamed.getName(), streaming, Lang.TURTLE);
+        targets.add(pretty.getName(), new FileModelWriter(pretty.getPath()), Lang.TURTLE);
+        targets.write(model, Lang.TURTLE);
+        assertTrue(new String(Files.readAllBytes(streamed.toPath()), StandardCharsets.UTF_8).contains("_:b"));
+        assertFalse(new String(Files.readAllBytes(pretty.toPath()), StandardCharsets.UTF_8).contains("_:b"));
+        for (File target : new File[]{streamed, pretty})
+            try (InputStream input = new FileInputStream(target)) {
+                assertTrue(target.getName() + " differs", read(input).isIsomorphicWith(model));
+            }
+        assertFalse(model.getWriter(Lang.TURTLE.getName()) instanceof TurtleStreamWriter);
+    }
+}